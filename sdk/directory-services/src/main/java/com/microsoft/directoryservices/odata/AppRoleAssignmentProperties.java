@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.AppRoleAssignment;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of AppRoleAssignment, to build typed $select and $expand options.
+ */
+public class AppRoleAssignmentProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The creation Timestamp property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> CREATION_TIMESTAMP = new ODataProperty<AppRoleAssignment>("creationTimestamp");
+
+	/**
+	 * The id property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> ID = new ODataProperty<AppRoleAssignment>("id");
+
+	/**
+	 * The principal Display Name property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> PRINCIPAL_DISPLAY_NAME = new ODataProperty<AppRoleAssignment>("principalDisplayName");
+
+	/**
+	 * The principal Id property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> PRINCIPAL_ID = new ODataProperty<AppRoleAssignment>("principalId");
+
+	/**
+	 * The principal Type property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> PRINCIPAL_TYPE = new ODataProperty<AppRoleAssignment>("principalType");
+
+	/**
+	 * The resource Display Name property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> RESOURCE_DISPLAY_NAME = new ODataProperty<AppRoleAssignment>("resourceDisplayName");
+
+	/**
+	 * The resource Id property.
+	 */
+	public static final ODataProperty<AppRoleAssignment> RESOURCE_ID = new ODataProperty<AppRoleAssignment>("resourceId");
+
+	/**
+	 * Instantiates a new AppRoleAssignmentProperties.
+	 */
+	protected AppRoleAssignmentProperties() {
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.Application;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Application, to build typed $select and $expand options.
+ */
+public class ApplicationProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The app Id property.
+	 */
+	public static final ODataProperty<Application> APP_ID = new ODataProperty<Application>("appId");
+
+	/**
+	 * The app Roles property.
+	 */
+	public static final ODataProperty<Application> APP_ROLES = new ODataProperty<Application>("appRoles");
+
+	/**
+	 * The available To Other Tenants property.
+	 */
+	public static final ODataProperty<Application> AVAILABLE_TO_OTHER_TENANTS = new ODataProperty<Application>("availableToOtherTenants");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<Application> DISPLAY_NAME = new ODataProperty<Application>("displayName");
+
+	/**
+	 * The error Url property.
+	 */
+	public static final ODataProperty<Application> ERROR_URL = new ODataProperty<Application>("errorUrl");
+
+	/**
+	 * The group Membership Claims property.
+	 */
+	public static final ODataProperty<Application> GROUP_MEMBERSHIP_CLAIMS = new ODataProperty<Application>("groupMembershipClaims");
+
+	/**
+	 * The homepage property.
+	 */
+	public static final ODataProperty<Application> HOMEPAGE = new ODataProperty<Application>("homepage");
+
+	/**
+	 * The identifier Uris property.
+	 */
+	public static final ODataProperty<Application> IDENTIFIER_URIS = new ODataProperty<Application>("identifierUris");
+
+	/**
+	 * The key Credentials property.
+	 */
+	public static final ODataProperty<Application> KEY_CREDENTIALS = new ODataProperty<Application>("keyCredentials");
+
+	/**
+	 * The known Client Applications property.
+	 */
+	public static final ODataProperty<Application> KNOWN_CLIENT_APPLICATIONS = new ODataProperty<Application>("knownClientApplications");
+
+	/**
+	 * The logout Url property.
+	 */
+	public static final ODataProperty<Application> LOGOUT_URL = new ODataProperty<Application>("logoutUrl");
+
+	/**
+	 * The oauth2 Allow Implicit Flow property.
+	 */
+	public static final ODataProperty<Application> OAUTH2_ALLOW_IMPLICIT_FLOW = new ODataProperty<Application>("oauth2AllowImplicitFlow");
+
+	/**
+	 * The oauth2 Allow Url Path Matching property.
+	 */
+	public static final ODataProperty<Application> OAUTH2_ALLOW_URL_PATH_MATCHING = new ODataProperty<Application>("oauth2AllowUrlPathMatching");
+
+	/**
+	 * The oauth2 Permissions property.
+	 */
+	public static final ODataProperty<Application> OAUTH2_PERMISSIONS = new ODataProperty<Application>("oauth2Permissions");
+
+	/**
+	 * The oauth2 Require Post Response property.
+	 */
+	public static final ODataProperty<Application> OAUTH2_REQUIRE_POST_RESPONSE = new ODataProperty<Application>("oauth2RequirePostResponse");
+
+	/**
+	 * The password Credentials property.
+	 */
+	public static final ODataProperty<Application> PASSWORD_CREDENTIALS = new ODataProperty<Application>("passwordCredentials");
+
+	/**
+	 * The public Client property.
+	 */
+	public static final ODataProperty<Application> PUBLIC_CLIENT = new ODataProperty<Application>("publicClient");
+
+	/**
+	 * The reply Urls property.
+	 */
+	public static final ODataProperty<Application> REPLY_URLS = new ODataProperty<Application>("replyUrls");
+
+	/**
+	 * The required Resource Access property.
+	 */
+	public static final ODataProperty<Application> REQUIRED_RESOURCE_ACCESS = new ODataProperty<Application>("requiredResourceAccess");
+
+	/**
+	 * The saml Metadata Url property.
+	 */
+	public static final ODataProperty<Application> SAML_METADATA_URL = new ODataProperty<Application>("samlMetadataUrl");
+
+	/**
+	 * Instantiates a new ApplicationProperties.
+	 */
+	protected ApplicationProperties() {
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.Contact;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Contact, to build typed $select and $expand options.
+ */
+public class ContactProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The city property.
+	 */
+	public static final ODataProperty<Contact> CITY = new ODataProperty<Contact>("city");
+
+	/**
+	 * The country property.
+	 */
+	public static final ODataProperty<Contact> COUNTRY = new ODataProperty<Contact>("country");
+
+	/**
+	 * The department property.
+	 */
+	public static final ODataProperty<Contact> DEPARTMENT = new ODataProperty<Contact>("department");
+
+	/**
+	 * The dir Sync Enabled property.
+	 */
+	public static final ODataProperty<Contact> DIR_SYNC_ENABLED = new ODataProperty<Contact>("dirSyncEnabled");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<Contact> DISPLAY_NAME = new ODataProperty<Contact>("displayName");
+
+	/**
+	 * The facsimile Telephone Number property.
+	 */
+	public static final ODataProperty<Contact> FACSIMILE_TELEPHONE_NUMBER = new ODataProperty<Contact>("facsimileTelephoneNumber");
+
+	/**
+	 * The given Name property.
+	 */
+	public static final ODataProperty<Contact> GIVEN_NAME = new ODataProperty<Contact>("givenName");
+
+	/**
+	 * The job Title property.
+	 */
+	public static final ODataProperty<Contact> JOB_TITLE = new ODataProperty<Contact>("jobTitle");
+
+	/**
+	 * The last Dir Sync Time property.
+	 */
+	public static final ODataProperty<Contact> LAST_DIR_SYNC_TIME = new ODataProperty<Contact>("lastDirSyncTime");
+
+	/**
+	 * The mail property.
+	 */
+	public static final ODataProperty<Contact> MAIL = new ODataProperty<Contact>("mail");
+
+	/**
+	 * The mail Nickname property.
+	 */
+	public static final ODataProperty<Contact> MAIL_NICKNAME = new ODataProperty<Contact>("mailNickname");
+
+	/**
+	 * The mobile property.
+	 */
+	public static final ODataProperty<Contact> MOBILE = new ODataProperty<Contact>("mobile");
+
+	/**
+	 * The physical Delivery Office Name property.
+	 */
+	public static final ODataProperty<Contact> PHYSICAL_DELIVERY_OFFICE_NAME = new ODataProperty<Contact>("physicalDeliveryOfficeName");
+
+	/**
+	 * The postal Code property.
+	 */
+	public static final ODataProperty<Contact> POSTAL_CODE = new ODataProperty<Contact>("postalCode");
+
+	/**
+	 * The provisioning Errors property.
+	 */
+	public static final ODataProperty<Contact> PROVISIONING_ERRORS = new ODataProperty<Contact>("provisioningErrors");
+
+	/**
+	 * The proxy Addresses property.
+	 */
+	public static final ODataProperty<Contact> PROXY_ADDRESSES = new ODataProperty<Contact>("proxyAddresses");
+
+	/**
+	 * The sip Proxy Address property.
+	 */
+	public static final ODataProperty<Contact> SIP_PROXY_ADDRESS = new ODataProperty<Contact>("sipProxyAddress");
+
+	/**
+	 * The state property.
+	 */
+	public static final ODataProperty<Contact> STATE = new ODataProperty<Contact>("state");
+
+	/**
+	 * The street Address property.
+	 */
+	public static final ODataProperty<Contact> STREET_ADDRESS = new ODataProperty<Contact>("streetAddress");
+
+	/**
+	 * The surname property.
+	 */
+	public static final ODataProperty<Contact> SURNAME = new ODataProperty<Contact>("surname");
+
+	/**
+	 * The telephone Number property.
+	 */
+	public static final ODataProperty<Contact> TELEPHONE_NUMBER = new ODataProperty<Contact>("telephoneNumber");
+
+	/**
+	 * Instantiates a new ContactProperties.
+	 */
+	protected ContactProperties() {
+	}
+}
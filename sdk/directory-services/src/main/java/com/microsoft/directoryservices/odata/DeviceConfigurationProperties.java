@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.DeviceConfiguration;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of DeviceConfiguration, to build typed $select and $expand options.
+ */
+public class DeviceConfigurationProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The registration Quota property.
+	 */
+	public static final ODataProperty<DeviceConfiguration> REGISTRATION_QUOTA = new ODataProperty<DeviceConfiguration>("registrationQuota");
+
+	/**
+	 * The maximum Registration Inactivity Period property.
+	 */
+	public static final ODataProperty<DeviceConfiguration> MAXIMUM_REGISTRATION_INACTIVITY_PERIOD = new ODataProperty<DeviceConfiguration>("maximumRegistrationInactivityPeriod");
+
+	/**
+	 * Instantiates a new DeviceConfigurationProperties.
+	 */
+	protected DeviceConfigurationProperties() {
+	}
+}
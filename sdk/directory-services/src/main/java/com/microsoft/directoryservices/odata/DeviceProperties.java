@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.Device;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Device, to build typed $select and $expand options.
+ */
+public class DeviceProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The account Enabled property.
+	 */
+	public static final ODataProperty<Device> ACCOUNT_ENABLED = new ODataProperty<Device>("accountEnabled");
+
+	/**
+	 * The alternative Security Ids property.
+	 */
+	public static final ODataProperty<Device> ALTERNATIVE_SECURITY_IDS = new ODataProperty<Device>("alternativeSecurityIds");
+
+	/**
+	 * The approximate Last Logon Timestamp property.
+	 */
+	public static final ODataProperty<Device> APPROXIMATE_LAST_LOGON_TIMESTAMP = new ODataProperty<Device>("approximateLastLogonTimestamp");
+
+	/**
+	 * The device Id property.
+	 */
+	public static final ODataProperty<Device> DEVICE_ID = new ODataProperty<Device>("deviceId");
+
+	/**
+	 * The device Metadata property.
+	 */
+	public static final ODataProperty<Device> DEVICE_METADATA = new ODataProperty<Device>("deviceMetadata");
+
+	/**
+	 * The device Object Version property.
+	 */
+	public static final ODataProperty<Device> DEVICE_OBJECT_VERSION = new ODataProperty<Device>("deviceObjectVersion");
+
+	/**
+	 * The device OSType property.
+	 */
+	public static final ODataProperty<Device> DEVICE_OS_TYPE = new ODataProperty<Device>("deviceOSType");
+
+	/**
+	 * The device OSVersion property.
+	 */
+	public static final ODataProperty<Device> DEVICE_OS_VERSION = new ODataProperty<Device>("deviceOSVersion");
+
+	/**
+	 * The device Physical Ids property.
+	 */
+	public static final ODataProperty<Device> DEVICE_PHYSICAL_IDS = new ODataProperty<Device>("devicePhysicalIds");
+
+	/**
+	 * The device Trust Type property.
+	 */
+	public static final ODataProperty<Device> DEVICE_TRUST_TYPE = new ODataProperty<Device>("deviceTrustType");
+
+	/**
+	 * The dir Sync Enabled property.
+	 */
+	public static final ODataProperty<Device> DIR_SYNC_ENABLED = new ODataProperty<Device>("dirSyncEnabled");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<Device> DISPLAY_NAME = new ODataProperty<Device>("displayName");
+
+	/**
+	 * The last Dir Sync Time property.
+	 */
+	public static final ODataProperty<Device> LAST_DIR_SYNC_TIME = new ODataProperty<Device>("lastDirSyncTime");
+
+	/**
+	 * Instantiates a new DeviceProperties.
+	 */
+	protected DeviceProperties() {
+	}
+}
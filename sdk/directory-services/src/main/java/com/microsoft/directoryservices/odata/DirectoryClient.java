@@ -6,14 +6,23 @@
 package com.microsoft.directoryservices.odata;
 
 import com.microsoft.services.odata.*;
+import com.microsoft.services.odata.impl.NdjsonExportSink;
 import com.microsoft.services.odata.interfaces.DependencyResolver;
+import com.microsoft.services.odata.interfaces.SyncStateStore;
 import com.microsoft.directoryservices.*;
 
+import java.io.File;
+
 /**
  * The type DirectoryClient.
  */
 public class DirectoryClient extends BaseODataContainer {
 
+    /**
+     * The largest page size the directory serves.
+     */
+    private static final int EXPORT_PAGE_SIZE = 999;
+
      /**
      * Instantiates a new DirectoryClient.
      *
@@ -144,4 +153,30 @@ public class DirectoryClient extends BaseODataContainer {
     public ODataCollectionFetcher<Device, DeviceFetcher, DeviceCollectionOperations> getdevices() {
         return new ODataCollectionFetcher<Device, DeviceFetcher,DeviceCollectionOperations>("devices", this, Device.class,DeviceCollectionOperations.class);
     }
+
+    /**
+     * Creates a graph resolving transitive group memberships and members. Keep it to share
+     * its cache between resolutions.
+     *
+     * @return the directory graph
+     */
+    public DirectoryGraph createDirectoryGraph() {
+        return new DirectoryGraph(this);
+    }
+
+    /**
+     * Creates an export of every user, group and device to users.ndjson, groups.ndjson and
+     * devices.ndjson in a directory. Creating it again with the same store resumes an
+     * interrupted export where it stopped.
+     *
+     * @param directory the directory the files are written to
+     * @param checkpoints the store keeping the progress of the export
+     * @return the exporter, to start
+     */
+    public ODataExporter createExport(File directory, SyncStateStore checkpoints) {
+        return new ODataExporter(checkpoints, "directory-export")
+                .add("users", getusers().top(EXPORT_PAGE_SIZE), new NdjsonExportSink(new File(directory, "users.ndjson")))
+                .add("groups", getgroups().top(EXPORT_PAGE_SIZE), new NdjsonExportSink(new File(directory, "groups.ndjson")))
+                .add("devices", getdevices().top(EXPORT_PAGE_SIZE), new NdjsonExportSink(new File(directory, "devices.ndjson")));
+    }
 }
\ No newline at end of file
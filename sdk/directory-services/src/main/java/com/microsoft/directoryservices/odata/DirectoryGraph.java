@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.directoryservices.DirectoryObject;
+import com.microsoft.services.odata.ODataCollectionFetcher;
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+import com.microsoft.services.odata.impl.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves transitive group memberships and group members in the directory.
+ * <p>
+ * The graph is explored breadth first, with the direct links of many objects requested in
+ * parallel up to a bounded number of requests. Direct links are memoized and shared by all
+ * resolutions for a while, so the groups many users have in common are only read once, and
+ * a request already in flight is joined rather than sent again. Only groups are expanded,
+ * and each object is visited once, so membership cycles are harmless.
+ */
+public class DirectoryGraph {
+
+    /**
+     * The default number of requests in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /**
+     * The default time direct links stay cached, five minutes.
+     */
+    public static final long DEFAULT_CACHE_MILLIS = 5L * 60 * 1000;
+
+    /**
+     * The default number of links requested per page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The default number of objects whose links are kept in each cache.
+     */
+    public static final int DEFAULT_MAX_CACHED_OBJECTS = 10000;
+
+    private static final String GROUP_TYPE = "Group";
+
+    /**
+     * The direct links of an object, read or being read.
+     */
+    private static final class Links {
+        final String id;
+        final boolean members;
+        final SettableFuture<List<DirectoryObject>> objects = SettableFuture.create();
+        final List<DirectoryObject> items = new ArrayList<DirectoryObject>();
+        long loadedAt;
+
+        Links(String id, boolean members) {
+            this.id = id;
+            this.members = members;
+        }
+    }
+
+    private final DirectoryClient client;
+    private final Object lock = new Object();
+    private final LruCache<String, Links> memberOf = new LruCache<String, Links>(DEFAULT_MAX_CACHED_OBJECTS);
+    private final LruCache<String, Links> members = new LruCache<String, Links>(DEFAULT_MAX_CACHED_OBJECTS);
+    private final BoundedTaskQueue<Links> queue = new BoundedTaskQueue<Links>(lock, DEFAULT_MAX_CONCURRENT_REQUESTS) {
+        @Override
+        protected void start(Links links) {
+            read(links);
+        }
+    };
+
+    private long cacheMillis = DEFAULT_CACHE_MILLIS;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    DirectoryGraph(DirectoryClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Sets the number of requests in flight.
+     *
+     * @param maxConcurrentRequests the max concurrent requests
+     * @return the directory graph
+     */
+    public DirectoryGraph setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        queue.setMaxConcurrency(maxConcurrentRequests);
+        queue.pump();
+        return this;
+    }
+
+    /**
+     * Sets the time direct links stay cached, 0 to read them again for every resolution.
+     *
+     * @param cacheMillis the cache millis
+     * @return the directory graph
+     */
+    public DirectoryGraph setCacheMillis(long cacheMillis) {
+        if (cacheMillis < 0) {
+            throw new IllegalArgumentException("cacheMillis must not be negative");
+        }
+        synchronized (lock) {
+            this.cacheMillis = cacheMillis;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of objects whose links are kept in each cache. The least recently used
+     * ones are dropped first.
+     *
+     * @param maxCachedObjects the max cached objects
+     * @return the directory graph
+     */
+    public DirectoryGraph setMaxCachedObjects(int maxCachedObjects) {
+        if (maxCachedObjects < 1) {
+            throw new IllegalArgumentException("maxCachedObjects must be at least 1");
+        }
+        synchronized (lock) {
+            memberOf.setMaxSize(maxCachedObjects);
+            members.setMaxSize(maxCachedObjects);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of links requested per page.
+     *
+     * @param pageSize the page size
+     * @return the directory graph
+     */
+    public DirectoryGraph setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        synchronized (lock) {
+            this.pageSize = pageSize;
+        }
+        return this;
+    }
+
+    /**
+     * Gets the groups and directory roles each object belongs to, directly or through
+     * nested groups.
+     *
+     * @param objectIds the ids of users, groups or other directory objects
+     * @return the listenable future, with the memberships of each object in the given order
+     */
+    public ListenableFuture<Map<String, List<DirectoryObject>>> getTransitiveMemberOf(Collection<String> objectIds) {
+        return new Resolution(objectIds, false).start();
+    }
+
+    /**
+     * Gets the members of each group, directly or through nested groups. Nested groups are
+     * returned along with their members.
+     *
+     * @param groupIds the group ids
+     * @return the listenable future, with the members of each group in the given order
+     */
+    public ListenableFuture<Map<String, List<DirectoryObject>>> getTransitiveMembers(Collection<String> groupIds) {
+        return new Resolution(groupIds, true).start();
+    }
+
+    /**
+     * Drops the cached links of an object, e.g. after its memberships changed.
+     *
+     * @param objectId the object id
+     */
+    public void invalidate(String objectId) {
+        synchronized (lock) {
+            memberOf.remove(objectId);
+            members.remove(objectId);
+        }
+    }
+
+    /**
+     * Drops every cached link.
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            memberOf.clear();
+            members.clear();
+        }
+    }
+
+    /**
+     * Whether a directory object is a group, the only kind of object that is expanded.
+     *
+     * @param object the object
+     * @return true for a group
+     */
+    private static boolean isGroup(DirectoryObject object) {
+        return GROUP_TYPE.equalsIgnoreCase(object.getobjectType());
+    }
+
+    /**
+     * Gets the direct links of an object, from the cache or from a new or pending request.
+     */
+    private ListenableFuture<List<DirectoryObject>> getLinks(String id, boolean members) {
+        Links links;
+        synchronized (lock) {
+            Map<String, Links> cache = members ? this.members : this.memberOf;
+            links = cache.get(id);
+            if (links != null && links.objects.isDone()
+                    && System.currentTimeMillis() - links.loadedAt >= cacheMillis) {
+                links = null;
+            }
+
+            if (links != null) {
+                return links.objects;
+            }
+            links = new Links(id, members);
+            cache.put(id, links);
+            queue.add(links);
+        }
+        queue.pump();
+        return links.objects;
+    }
+
+    /**
+     * Starts reading the direct links of an object.
+     */
+    private void read(Links links) {
+        int top;
+        synchronized (lock) {
+            top = pageSize;
+        }
+        DirectoryObjectFetcher object = client.getdirectoryObjects().getById(links.id);
+        ODataCollectionFetcher<DirectoryObject, DirectoryObjectFetcher, DirectoryObjectCollectionOperations> fetcher =
+                links.members ? object.getmembers() : object.getmemberOf();
+        read(links, fetcher.top(top), null);
+    }
+
+    private void read(final Links links,
+                      final ODataCollectionFetcher<DirectoryObject, DirectoryObjectFetcher, DirectoryObjectCollectionOperations> fetcher,
+                      String nextLink) {
+        Futures.addCallback(fetcher.readPage(nextLink), new FutureCallback<ODataCollectionPage<DirectoryObject>>() {
+            @Override
+            public void onSuccess(ODataCollectionPage<DirectoryObject> page) {
+                links.items.addAll(page.getItems());
+                if (page.hasNextPage()) {
+                    read(links, fetcher, page.getNextLink());
+                    return;
+                }
+
+                synchronized (lock) {
+                    links.loadedAt = System.currentTimeMillis();
+                }
+                queue.completed();
+                links.objects.set(Collections.unmodifiableList(links.items));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                synchronized (lock) {
+                    // not cached, the next resolution tries again
+                    Map<String, Links> cache = links.members ? members : memberOf;
+                    if (cache.get(links.id) == links) {
+                        cache.remove(links.id);
+                    }
+                }
+                queue.completed();
+                links.objects.setException(t);
+            }
+        });
+    }
+
+    /**
+     * A single resolution: reads the links of every object reachable from the roots, then
+     * walks them in memory for each root.
+     */
+    private final class Resolution {
+        private final Set<String> roots;
+        private final boolean members;
+        private final SettableFuture<Map<String, List<DirectoryObject>>> result = SettableFuture.create();
+        private final Map<String, List<DirectoryObject>> links = new HashMap<String, List<DirectoryObject>>();
+        private final Set<String> requested = new HashSet<String>();
+        private int outstanding;
+
+        Resolution(Collection<String> roots, boolean members) {
+            if (roots == null) {
+                throw new IllegalArgumentException("ids must not be null");
+            }
+            this.roots = new LinkedHashSet<String>(roots);
+            this.members = members;
+        }
+
+        ListenableFuture<Map<String, List<DirectoryObject>>> start() {
+            synchronized (this) {
+                // cached links complete their callbacks right away, so hold off finishing
+                // until every root has been requested
+                outstanding++;
+                for (String root : roots) {
+                    request(root);
+                }
+                if (--outstanding == 0) {
+                    finish();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Must be called while holding the resolution's lock.
+         */
+        private void request(final String id) {
+            if (!requested.add(id)) {
+                return;
+            }
+
+            outstanding++;
+            Futures.addCallback(getLinks(id, members), new FutureCallback<List<DirectoryObject>>() {
+                @Override
+                public void onSuccess(List<DirectoryObject> objects) {
+                    synchronized (Resolution.this) {
+                        links.put(id, objects);
+                        for (DirectoryObject object : objects) {
+                            if (isGroup(object) && object.getobjectId() != null) {
+                                request(object.getobjectId());
+                            }
+                        }
+                        if (--outstanding == 0) {
+                            finish();
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    result.setException(t);
+                }
+            });
+        }
+
+        /**
+         * Must be called while holding the resolution's lock.
+         */
+        private void finish() {
+            Map<String, List<DirectoryObject>> resolved = new LinkedHashMap<String, List<DirectoryObject>>();
+            for (String root : roots) {
+                resolved.put(root, walk(root));
+            }
+            result.set(resolved);
+        }
+
+        /**
+         * Collects the objects reachable from a root, breadth first, each one once.
+         */
+        private List<DirectoryObject> walk(String root) {
+            List<DirectoryObject> reached = new ArrayList<DirectoryObject>();
+            Set<String> visited = new HashSet<String>();
+            LinkedList<String> queue = new LinkedList<String>();
+            visited.add(root);
+            queue.add(root);
+
+            while (!queue.isEmpty()) {
+                List<DirectoryObject> objects = links.get(queue.poll());
+                if (objects == null) {
+                    continue;
+                }
+
+                for (DirectoryObject object : objects) {
+                    String id = object.getobjectId();
+                    if (id == null || !visited.add(id)) {
+                        continue;
+                    }
+                    reached.add(object);
+                    if (isGroup(object)) {
+                        queue.add(id);
+                    }
+                }
+            }
+            return reached;
+        }
+    }
+}
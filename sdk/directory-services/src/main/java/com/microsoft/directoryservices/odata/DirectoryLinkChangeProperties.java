@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.DirectoryLinkChange;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of DirectoryLinkChange, to build typed $select and $expand options.
+ */
+public class DirectoryLinkChangeProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The association Type property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> ASSOCIATION_TYPE = new ODataProperty<DirectoryLinkChange>("associationType");
+
+	/**
+	 * The source Object Id property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> SOURCE_OBJECT_ID = new ODataProperty<DirectoryLinkChange>("sourceObjectId");
+
+	/**
+	 * The source Object Type property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> SOURCE_OBJECT_TYPE = new ODataProperty<DirectoryLinkChange>("sourceObjectType");
+
+	/**
+	 * The source Object Uri property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> SOURCE_OBJECT_URI = new ODataProperty<DirectoryLinkChange>("sourceObjectUri");
+
+	/**
+	 * The target Object Id property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> TARGET_OBJECT_ID = new ODataProperty<DirectoryLinkChange>("targetObjectId");
+
+	/**
+	 * The target Object Type property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> TARGET_OBJECT_TYPE = new ODataProperty<DirectoryLinkChange>("targetObjectType");
+
+	/**
+	 * The target Object Uri property.
+	 */
+	public static final ODataProperty<DirectoryLinkChange> TARGET_OBJECT_URI = new ODataProperty<DirectoryLinkChange>("targetObjectUri");
+
+	/**
+	 * Instantiates a new DirectoryLinkChangeProperties.
+	 */
+	protected DirectoryLinkChangeProperties() {
+	}
+}
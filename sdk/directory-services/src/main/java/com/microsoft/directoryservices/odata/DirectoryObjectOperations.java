@@ -57,9 +57,9 @@ public class DirectoryObjectOperations extends ODataOperations {
      * @param groupIds the groupIds 
      * @return the listenable future
      */         
-    public ListenableFuture<String> checkMemberGroups(java.util.List<String> groupIds) { 
+    public ListenableFuture<java.util.List<String>> checkMemberGroups(java.util.List<String> groupIds) { 
 
-    final SettableFuture<String> result = SettableFuture.create();
+    final SettableFuture<java.util.List<String>> result = SettableFuture.create();
         java.util.Map<String, Object> map = new java.util.HashMap<String, Object>();
         map.put("groupIds", groupIds);
 		
@@ -69,7 +69,7 @@ public class DirectoryObjectOperations extends ODataOperations {
         String parameters = getFunctionParameters(map);
         request.getUrl().appendPathComponent("checkMemberGroups(" + parameters + ")");   
         ListenableFuture<ODataResponse> future = oDataExecute(request);   
-                return transformToEntityListenableFuture(transformToStringListenableFuture(future), String.class, getResolver());
+                return transformToStringListListenableFuture(transformToStringListenableFuture(future), getResolver());
         
    }
     
@@ -80,9 +80,9 @@ public class DirectoryObjectOperations extends ODataOperations {
      * @param securityEnabledOnly the securityEnabledOnly 
      * @return the listenable future
      */         
-    public ListenableFuture<String> getMemberGroups(Boolean securityEnabledOnly) { 
+    public ListenableFuture<java.util.List<String>> getMemberGroups(Boolean securityEnabledOnly) { 
 
-    final SettableFuture<String> result = SettableFuture.create();
+    final SettableFuture<java.util.List<String>> result = SettableFuture.create();
         java.util.Map<String, Object> map = new java.util.HashMap<String, Object>();
         map.put("securityEnabledOnly", securityEnabledOnly);
 		
@@ -92,7 +92,7 @@ public class DirectoryObjectOperations extends ODataOperations {
         String parameters = getFunctionParameters(map);
         request.getUrl().appendPathComponent("getMemberGroups(" + parameters + ")");   
         ListenableFuture<ODataResponse> future = oDataExecute(request);   
-                return transformToEntityListenableFuture(transformToStringListenableFuture(future), String.class, getResolver());
+                return transformToStringListListenableFuture(transformToStringListenableFuture(future), getResolver());
         
    }
     
@@ -103,9 +103,9 @@ public class DirectoryObjectOperations extends ODataOperations {
      * @param securityEnabledOnly the securityEnabledOnly 
      * @return the listenable future
      */         
-    public ListenableFuture<String> getMemberObjects(Boolean securityEnabledOnly) { 
+    public ListenableFuture<java.util.List<String>> getMemberObjects(Boolean securityEnabledOnly) { 
 
-    final SettableFuture<String> result = SettableFuture.create();
+    final SettableFuture<java.util.List<String>> result = SettableFuture.create();
         java.util.Map<String, Object> map = new java.util.HashMap<String, Object>();
         map.put("securityEnabledOnly", securityEnabledOnly);
 		
@@ -115,7 +115,7 @@ public class DirectoryObjectOperations extends ODataOperations {
         String parameters = getFunctionParameters(map);
         request.getUrl().appendPathComponent("getMemberObjects(" + parameters + ")");   
         ListenableFuture<ODataResponse> future = oDataExecute(request);   
-                return transformToEntityListenableFuture(transformToStringListenableFuture(future), String.class, getResolver());
+                return transformToStringListListenableFuture(transformToStringListenableFuture(future), getResolver());
         
    }
     
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.DirectoryObject;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of DirectoryObject, to build typed $select and $expand options.
+ */
+public class DirectoryObjectProperties {
+
+	/**
+	 * The object Type property.
+	 */
+	public static final ODataProperty<DirectoryObject> OBJECT_TYPE = new ODataProperty<DirectoryObject>("objectType");
+
+	/**
+	 * The object Id property.
+	 */
+	public static final ODataProperty<DirectoryObject> OBJECT_ID = new ODataProperty<DirectoryObject>("objectId");
+
+	/**
+	 * The deletion Timestamp property.
+	 */
+	public static final ODataProperty<DirectoryObject> DELETION_TIMESTAMP = new ODataProperty<DirectoryObject>("deletionTimestamp");
+
+	/**
+	 * Instantiates a new DirectoryObjectProperties.
+	 */
+	protected DirectoryObjectProperties() {
+	}
+}
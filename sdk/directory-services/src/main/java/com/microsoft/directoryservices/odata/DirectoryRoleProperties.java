@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.DirectoryRole;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of DirectoryRole, to build typed $select and $expand options.
+ */
+public class DirectoryRoleProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The description property.
+	 */
+	public static final ODataProperty<DirectoryRole> DESCRIPTION = new ODataProperty<DirectoryRole>("description");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<DirectoryRole> DISPLAY_NAME = new ODataProperty<DirectoryRole>("displayName");
+
+	/**
+	 * The is System property.
+	 */
+	public static final ODataProperty<DirectoryRole> IS_SYSTEM = new ODataProperty<DirectoryRole>("isSystem");
+
+	/**
+	 * The role Disabled property.
+	 */
+	public static final ODataProperty<DirectoryRole> ROLE_DISABLED = new ODataProperty<DirectoryRole>("roleDisabled");
+
+	/**
+	 * The role Template Id property.
+	 */
+	public static final ODataProperty<DirectoryRole> ROLE_TEMPLATE_ID = new ODataProperty<DirectoryRole>("roleTemplateId");
+
+	/**
+	 * Instantiates a new DirectoryRoleProperties.
+	 */
+	protected DirectoryRoleProperties() {
+	}
+}
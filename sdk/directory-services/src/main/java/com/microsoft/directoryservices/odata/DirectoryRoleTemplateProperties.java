@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.DirectoryRoleTemplate;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of DirectoryRoleTemplate, to build typed $select and $expand options.
+ */
+public class DirectoryRoleTemplateProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The description property.
+	 */
+	public static final ODataProperty<DirectoryRoleTemplate> DESCRIPTION = new ODataProperty<DirectoryRoleTemplate>("description");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<DirectoryRoleTemplate> DISPLAY_NAME = new ODataProperty<DirectoryRoleTemplate>("displayName");
+
+	/**
+	 * Instantiates a new DirectoryRoleTemplateProperties.
+	 */
+	protected DirectoryRoleTemplateProperties() {
+	}
+}
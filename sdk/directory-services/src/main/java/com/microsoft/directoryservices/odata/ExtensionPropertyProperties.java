@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.ExtensionProperty;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of ExtensionProperty, to build typed $select and $expand options.
+ */
+public class ExtensionPropertyProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The app Display Name property.
+	 */
+	public static final ODataProperty<ExtensionProperty> APP_DISPLAY_NAME = new ODataProperty<ExtensionProperty>("appDisplayName");
+
+	/**
+	 * The name property.
+	 */
+	public static final ODataProperty<ExtensionProperty> NAME = new ODataProperty<ExtensionProperty>("name");
+
+	/**
+	 * The data Type property.
+	 */
+	public static final ODataProperty<ExtensionProperty> DATA_TYPE = new ODataProperty<ExtensionProperty>("dataType");
+
+	/**
+	 * The is Synced From On Premises property.
+	 */
+	public static final ODataProperty<ExtensionProperty> IS_SYNCED_FROM_ON_PREMISES = new ODataProperty<ExtensionProperty>("isSyncedFromOnPremises");
+
+	/**
+	 * The target Objects property.
+	 */
+	public static final ODataProperty<ExtensionProperty> TARGET_OBJECTS = new ODataProperty<ExtensionProperty>("targetObjects");
+
+	/**
+	 * Instantiates a new ExtensionPropertyProperties.
+	 */
+	protected ExtensionPropertyProperties() {
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.Group;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Group, to build typed $select and $expand options.
+ */
+public class GroupProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The description property.
+	 */
+	public static final ODataProperty<Group> DESCRIPTION = new ODataProperty<Group>("description");
+
+	/**
+	 * The dir Sync Enabled property.
+	 */
+	public static final ODataProperty<Group> DIR_SYNC_ENABLED = new ODataProperty<Group>("dirSyncEnabled");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<Group> DISPLAY_NAME = new ODataProperty<Group>("displayName");
+
+	/**
+	 * The last Dir Sync Time property.
+	 */
+	public static final ODataProperty<Group> LAST_DIR_SYNC_TIME = new ODataProperty<Group>("lastDirSyncTime");
+
+	/**
+	 * The mail property.
+	 */
+	public static final ODataProperty<Group> MAIL = new ODataProperty<Group>("mail");
+
+	/**
+	 * The mail Nickname property.
+	 */
+	public static final ODataProperty<Group> MAIL_NICKNAME = new ODataProperty<Group>("mailNickname");
+
+	/**
+	 * The mail Enabled property.
+	 */
+	public static final ODataProperty<Group> MAIL_ENABLED = new ODataProperty<Group>("mailEnabled");
+
+	/**
+	 * The on Premises Security Identifier property.
+	 */
+	public static final ODataProperty<Group> ON_PREMISES_SECURITY_IDENTIFIER = new ODataProperty<Group>("onPremisesSecurityIdentifier");
+
+	/**
+	 * The provisioning Errors property.
+	 */
+	public static final ODataProperty<Group> PROVISIONING_ERRORS = new ODataProperty<Group>("provisioningErrors");
+
+	/**
+	 * The proxy Addresses property.
+	 */
+	public static final ODataProperty<Group> PROXY_ADDRESSES = new ODataProperty<Group>("proxyAddresses");
+
+	/**
+	 * The security Enabled property.
+	 */
+	public static final ODataProperty<Group> SECURITY_ENABLED = new ODataProperty<Group>("securityEnabled");
+
+	/**
+	 * Instantiates a new GroupProperties.
+	 */
+	protected GroupProperties() {
+	}
+}
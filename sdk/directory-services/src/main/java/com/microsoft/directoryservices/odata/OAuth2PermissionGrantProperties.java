@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.OAuth2PermissionGrant;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of OAuth2PermissionGrant, to build typed $select and $expand options.
+ */
+public class OAuth2PermissionGrantProperties {
+
+	/**
+	 * The client Id property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> CLIENT_ID = new ODataProperty<OAuth2PermissionGrant>("clientId");
+
+	/**
+	 * The consent Type property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> CONSENT_TYPE = new ODataProperty<OAuth2PermissionGrant>("consentType");
+
+	/**
+	 * The expiry Time property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> EXPIRY_TIME = new ODataProperty<OAuth2PermissionGrant>("expiryTime");
+
+	/**
+	 * The object Id property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> OBJECT_ID = new ODataProperty<OAuth2PermissionGrant>("objectId");
+
+	/**
+	 * The principal Id property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> PRINCIPAL_ID = new ODataProperty<OAuth2PermissionGrant>("principalId");
+
+	/**
+	 * The resource Id property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> RESOURCE_ID = new ODataProperty<OAuth2PermissionGrant>("resourceId");
+
+	/**
+	 * The scope property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> SCOPE = new ODataProperty<OAuth2PermissionGrant>("scope");
+
+	/**
+	 * The start Time property.
+	 */
+	public static final ODataProperty<OAuth2PermissionGrant> START_TIME = new ODataProperty<OAuth2PermissionGrant>("startTime");
+
+	/**
+	 * Instantiates a new OAuth2PermissionGrantProperties.
+	 */
+	protected OAuth2PermissionGrantProperties() {
+	}
+}
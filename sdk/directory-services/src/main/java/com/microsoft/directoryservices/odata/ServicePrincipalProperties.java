@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.ServicePrincipal;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of ServicePrincipal, to build typed $select and $expand options.
+ */
+public class ServicePrincipalProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The account Enabled property.
+	 */
+	public static final ODataProperty<ServicePrincipal> ACCOUNT_ENABLED = new ODataProperty<ServicePrincipal>("accountEnabled");
+
+	/**
+	 * The app Display Name property.
+	 */
+	public static final ODataProperty<ServicePrincipal> APP_DISPLAY_NAME = new ODataProperty<ServicePrincipal>("appDisplayName");
+
+	/**
+	 * The app Id property.
+	 */
+	public static final ODataProperty<ServicePrincipal> APP_ID = new ODataProperty<ServicePrincipal>("appId");
+
+	/**
+	 * The app Owner Tenant Id property.
+	 */
+	public static final ODataProperty<ServicePrincipal> APP_OWNER_TENANT_ID = new ODataProperty<ServicePrincipal>("appOwnerTenantId");
+
+	/**
+	 * The app Role Assignment Required property.
+	 */
+	public static final ODataProperty<ServicePrincipal> APP_ROLE_ASSIGNMENT_REQUIRED = new ODataProperty<ServicePrincipal>("appRoleAssignmentRequired");
+
+	/**
+	 * The app Roles property.
+	 */
+	public static final ODataProperty<ServicePrincipal> APP_ROLES = new ODataProperty<ServicePrincipal>("appRoles");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<ServicePrincipal> DISPLAY_NAME = new ODataProperty<ServicePrincipal>("displayName");
+
+	/**
+	 * The error Url property.
+	 */
+	public static final ODataProperty<ServicePrincipal> ERROR_URL = new ODataProperty<ServicePrincipal>("errorUrl");
+
+	/**
+	 * The homepage property.
+	 */
+	public static final ODataProperty<ServicePrincipal> HOMEPAGE = new ODataProperty<ServicePrincipal>("homepage");
+
+	/**
+	 * The key Credentials property.
+	 */
+	public static final ODataProperty<ServicePrincipal> KEY_CREDENTIALS = new ODataProperty<ServicePrincipal>("keyCredentials");
+
+	/**
+	 * The logout Url property.
+	 */
+	public static final ODataProperty<ServicePrincipal> LOGOUT_URL = new ODataProperty<ServicePrincipal>("logoutUrl");
+
+	/**
+	 * The oauth2 Permissions property.
+	 */
+	public static final ODataProperty<ServicePrincipal> OAUTH2_PERMISSIONS = new ODataProperty<ServicePrincipal>("oauth2Permissions");
+
+	/**
+	 * The password Credentials property.
+	 */
+	public static final ODataProperty<ServicePrincipal> PASSWORD_CREDENTIALS = new ODataProperty<ServicePrincipal>("passwordCredentials");
+
+	/**
+	 * The preferred Token Signing Key Thumbprint property.
+	 */
+	public static final ODataProperty<ServicePrincipal> PREFERRED_TOKEN_SIGNING_KEY_THUMBPRINT = new ODataProperty<ServicePrincipal>("preferredTokenSigningKeyThumbprint");
+
+	/**
+	 * The publisher Name property.
+	 */
+	public static final ODataProperty<ServicePrincipal> PUBLISHER_NAME = new ODataProperty<ServicePrincipal>("publisherName");
+
+	/**
+	 * The reply Urls property.
+	 */
+	public static final ODataProperty<ServicePrincipal> REPLY_URLS = new ODataProperty<ServicePrincipal>("replyUrls");
+
+	/**
+	 * The saml Metadata Url property.
+	 */
+	public static final ODataProperty<ServicePrincipal> SAML_METADATA_URL = new ODataProperty<ServicePrincipal>("samlMetadataUrl");
+
+	/**
+	 * The service Principal Names property.
+	 */
+	public static final ODataProperty<ServicePrincipal> SERVICE_PRINCIPAL_NAMES = new ODataProperty<ServicePrincipal>("servicePrincipalNames");
+
+	/**
+	 * The tags property.
+	 */
+	public static final ODataProperty<ServicePrincipal> TAGS = new ODataProperty<ServicePrincipal>("tags");
+
+	/**
+	 * Instantiates a new ServicePrincipalProperties.
+	 */
+	protected ServicePrincipalProperties() {
+	}
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.SubscribedSku;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of SubscribedSku, to build typed $select and $expand options.
+ */
+public class SubscribedSkuProperties {
+
+	/**
+	 * The capability Status property.
+	 */
+	public static final ODataProperty<SubscribedSku> CAPABILITY_STATUS = new ODataProperty<SubscribedSku>("capabilityStatus");
+
+	/**
+	 * The consumed Units property.
+	 */
+	public static final ODataProperty<SubscribedSku> CONSUMED_UNITS = new ODataProperty<SubscribedSku>("consumedUnits");
+
+	/**
+	 * The object Id property.
+	 */
+	public static final ODataProperty<SubscribedSku> OBJECT_ID = new ODataProperty<SubscribedSku>("objectId");
+
+	/**
+	 * The prepaid Units property.
+	 */
+	public static final ODataProperty<SubscribedSku> PREPAID_UNITS = new ODataProperty<SubscribedSku>("prepaidUnits");
+
+	/**
+	 * The service Plans property.
+	 */
+	public static final ODataProperty<SubscribedSku> SERVICE_PLANS = new ODataProperty<SubscribedSku>("servicePlans");
+
+	/**
+	 * The sku Id property.
+	 */
+	public static final ODataProperty<SubscribedSku> SKU_ID = new ODataProperty<SubscribedSku>("skuId");
+
+	/**
+	 * The sku Part Number property.
+	 */
+	public static final ODataProperty<SubscribedSku> SKU_PART_NUMBER = new ODataProperty<SubscribedSku>("skuPartNumber");
+
+	/**
+	 * Instantiates a new SubscribedSkuProperties.
+	 */
+	protected SubscribedSkuProperties() {
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.TenantDetail;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of TenantDetail, to build typed $select and $expand options.
+ */
+public class TenantDetailProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The assigned Plans property.
+	 */
+	public static final ODataProperty<TenantDetail> ASSIGNED_PLANS = new ODataProperty<TenantDetail>("assignedPlans");
+
+	/**
+	 * The city property.
+	 */
+	public static final ODataProperty<TenantDetail> CITY = new ODataProperty<TenantDetail>("city");
+
+	/**
+	 * The company Last Dir Sync Time property.
+	 */
+	public static final ODataProperty<TenantDetail> COMPANY_LAST_DIR_SYNC_TIME = new ODataProperty<TenantDetail>("companyLastDirSyncTime");
+
+	/**
+	 * The country property.
+	 */
+	public static final ODataProperty<TenantDetail> COUNTRY = new ODataProperty<TenantDetail>("country");
+
+	/**
+	 * The country Letter Code property.
+	 */
+	public static final ODataProperty<TenantDetail> COUNTRY_LETTER_CODE = new ODataProperty<TenantDetail>("countryLetterCode");
+
+	/**
+	 * The dir Sync Enabled property.
+	 */
+	public static final ODataProperty<TenantDetail> DIR_SYNC_ENABLED = new ODataProperty<TenantDetail>("dirSyncEnabled");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<TenantDetail> DISPLAY_NAME = new ODataProperty<TenantDetail>("displayName");
+
+	/**
+	 * The marketing Notification Emails property.
+	 */
+	public static final ODataProperty<TenantDetail> MARKETING_NOTIFICATION_EMAILS = new ODataProperty<TenantDetail>("marketingNotificationEmails");
+
+	/**
+	 * The postal Code property.
+	 */
+	public static final ODataProperty<TenantDetail> POSTAL_CODE = new ODataProperty<TenantDetail>("postalCode");
+
+	/**
+	 * The preferred Language property.
+	 */
+	public static final ODataProperty<TenantDetail> PREFERRED_LANGUAGE = new ODataProperty<TenantDetail>("preferredLanguage");
+
+	/**
+	 * The provisioned Plans property.
+	 */
+	public static final ODataProperty<TenantDetail> PROVISIONED_PLANS = new ODataProperty<TenantDetail>("provisionedPlans");
+
+	/**
+	 * The provisioning Errors property.
+	 */
+	public static final ODataProperty<TenantDetail> PROVISIONING_ERRORS = new ODataProperty<TenantDetail>("provisioningErrors");
+
+	/**
+	 * The state property.
+	 */
+	public static final ODataProperty<TenantDetail> STATE = new ODataProperty<TenantDetail>("state");
+
+	/**
+	 * The street property.
+	 */
+	public static final ODataProperty<TenantDetail> STREET = new ODataProperty<TenantDetail>("street");
+
+	/**
+	 * The technical Notification Mails property.
+	 */
+	public static final ODataProperty<TenantDetail> TECHNICAL_NOTIFICATION_MAILS = new ODataProperty<TenantDetail>("technicalNotificationMails");
+
+	/**
+	 * The telephone Number property.
+	 */
+	public static final ODataProperty<TenantDetail> TELEPHONE_NUMBER = new ODataProperty<TenantDetail>("telephoneNumber");
+
+	/**
+	 * The verified Domains property.
+	 */
+	public static final ODataProperty<TenantDetail> VERIFIED_DOMAINS = new ODataProperty<TenantDetail>("verifiedDomains");
+
+	/**
+	 * Instantiates a new TenantDetailProperties.
+	 */
+	protected TenantDetailProperties() {
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.directoryservices.odata;
+
+import com.microsoft.directoryservices.User;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of User, to build typed $select and $expand options.
+ */
+public class UserProperties extends DirectoryObjectProperties {
+
+	/**
+	 * The account Enabled property.
+	 */
+	public static final ODataProperty<User> ACCOUNT_ENABLED = new ODataProperty<User>("accountEnabled");
+
+	/**
+	 * The assigned Licenses property.
+	 */
+	public static final ODataProperty<User> ASSIGNED_LICENSES = new ODataProperty<User>("assignedLicenses");
+
+	/**
+	 * The assigned Plans property.
+	 */
+	public static final ODataProperty<User> ASSIGNED_PLANS = new ODataProperty<User>("assignedPlans");
+
+	/**
+	 * The city property.
+	 */
+	public static final ODataProperty<User> CITY = new ODataProperty<User>("city");
+
+	/**
+	 * The country property.
+	 */
+	public static final ODataProperty<User> COUNTRY = new ODataProperty<User>("country");
+
+	/**
+	 * The department property.
+	 */
+	public static final ODataProperty<User> DEPARTMENT = new ODataProperty<User>("department");
+
+	/**
+	 * The dir Sync Enabled property.
+	 */
+	public static final ODataProperty<User> DIR_SYNC_ENABLED = new ODataProperty<User>("dirSyncEnabled");
+
+	/**
+	 * The display Name property.
+	 */
+	public static final ODataProperty<User> DISPLAY_NAME = new ODataProperty<User>("displayName");
+
+	/**
+	 * The facsimile Telephone Number property.
+	 */
+	public static final ODataProperty<User> FACSIMILE_TELEPHONE_NUMBER = new ODataProperty<User>("facsimileTelephoneNumber");
+
+	/**
+	 * The given Name property.
+	 */
+	public static final ODataProperty<User> GIVEN_NAME = new ODataProperty<User>("givenName");
+
+	/**
+	 * The immutable Id property.
+	 */
+	public static final ODataProperty<User> IMMUTABLE_ID = new ODataProperty<User>("immutableId");
+
+	/**
+	 * The job Title property.
+	 */
+	public static final ODataProperty<User> JOB_TITLE = new ODataProperty<User>("jobTitle");
+
+	/**
+	 * The last Dir Sync Time property.
+	 */
+	public static final ODataProperty<User> LAST_DIR_SYNC_TIME = new ODataProperty<User>("lastDirSyncTime");
+
+	/**
+	 * The mail property.
+	 */
+	public static final ODataProperty<User> MAIL = new ODataProperty<User>("mail");
+
+	/**
+	 * The mail Nickname property.
+	 */
+	public static final ODataProperty<User> MAIL_NICKNAME = new ODataProperty<User>("mailNickname");
+
+	/**
+	 * The mobile property.
+	 */
+	public static final ODataProperty<User> MOBILE = new ODataProperty<User>("mobile");
+
+	/**
+	 * The on Premises Security Identifier property.
+	 */
+	public static final ODataProperty<User> ON_PREMISES_SECURITY_IDENTIFIER = new ODataProperty<User>("onPremisesSecurityIdentifier");
+
+	/**
+	 * The other Mails property.
+	 */
+	public static final ODataProperty<User> OTHER_MAILS = new ODataProperty<User>("otherMails");
+
+	/**
+	 * The password Policies property.
+	 */
+	public static final ODataProperty<User> PASSWORD_POLICIES = new ODataProperty<User>("passwordPolicies");
+
+	/**
+	 * The password Profile property.
+	 */
+	public static final ODataProperty<User> PASSWORD_PROFILE = new ODataProperty<User>("passwordProfile");
+
+	/**
+	 * The physical Delivery Office Name property.
+	 */
+	public static final ODataProperty<User> PHYSICAL_DELIVERY_OFFICE_NAME = new ODataProperty<User>("physicalDeliveryOfficeName");
+
+	/**
+	 * The postal Code property.
+	 */
+	public static final ODataProperty<User> POSTAL_CODE = new ODataProperty<User>("postalCode");
+
+	/**
+	 * The preferred Language property.
+	 */
+	public static final ODataProperty<User> PREFERRED_LANGUAGE = new ODataProperty<User>("preferredLanguage");
+
+	/**
+	 * The provisioned Plans property.
+	 */
+	public static final ODataProperty<User> PROVISIONED_PLANS = new ODataProperty<User>("provisionedPlans");
+
+	/**
+	 * The provisioning Errors property.
+	 */
+	public static final ODataProperty<User> PROVISIONING_ERRORS = new ODataProperty<User>("provisioningErrors");
+
+	/**
+	 * The proxy Addresses property.
+	 */
+	public static final ODataProperty<User> PROXY_ADDRESSES = new ODataProperty<User>("proxyAddresses");
+
+	/**
+	 * The sip Proxy Address property.
+	 */
+	public static final ODataProperty<User> SIP_PROXY_ADDRESS = new ODataProperty<User>("sipProxyAddress");
+
+	/**
+	 * The state property.
+	 */
+	public static final ODataProperty<User> STATE = new ODataProperty<User>("state");
+
+	/**
+	 * The street Address property.
+	 */
+	public static final ODataProperty<User> STREET_ADDRESS = new ODataProperty<User>("streetAddress");
+
+	/**
+	 * The surname property.
+	 */
+	public static final ODataProperty<User> SURNAME = new ODataProperty<User>("surname");
+
+	/**
+	 * The telephone Number property.
+	 */
+	public static final ODataProperty<User> TELEPHONE_NUMBER = new ODataProperty<User>("telephoneNumber");
+
+	/**
+	 * The usage Location property.
+	 */
+	public static final ODataProperty<User> USAGE_LOCATION = new ODataProperty<User>("usageLocation");
+
+	/**
+	 * The user Principal Name property.
+	 */
+	public static final ODataProperty<User> USER_PRINCIPAL_NAME = new ODataProperty<User>("userPrincipalName");
+
+	/**
+	 * The user Type property.
+	 */
+	public static final ODataProperty<User> USER_TYPE = new ODataProperty<User>("userType");
+
+	/**
+	 * Instantiates a new UserProperties.
+	 */
+	protected UserProperties() {
+	}
+}
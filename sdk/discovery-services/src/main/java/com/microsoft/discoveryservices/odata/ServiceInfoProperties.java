@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.discoveryservices.odata;
+
+import com.microsoft.discoveryservices.ServiceInfo;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of ServiceInfo, to build typed $select and $expand options.
+ */
+public class ServiceInfoProperties {
+
+    /**
+     * The capability property.
+     */
+    public static final ODataProperty<ServiceInfo> CAPABILITY = new ODataProperty<ServiceInfo>("capability");
+
+    /**
+     * The entity Key property.
+     */
+    public static final ODataProperty<ServiceInfo> ENTITY_KEY = new ODataProperty<ServiceInfo>("entityKey");
+
+    /**
+     * The provider Id property.
+     */
+    public static final ODataProperty<ServiceInfo> PROVIDER_ID = new ODataProperty<ServiceInfo>("providerId");
+
+    /**
+     * The provider Name property.
+     */
+    public static final ODataProperty<ServiceInfo> PROVIDER_NAME = new ODataProperty<ServiceInfo>("providerName");
+
+    /**
+     * The service Account Type property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_ACCOUNT_TYPE = new ODataProperty<ServiceInfo>("serviceAccountType");
+
+    /**
+     * The service Api Version property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_API_VERSION = new ODataProperty<ServiceInfo>("serviceApiVersion");
+
+    /**
+     * The service Endpoint Uri property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_ENDPOINT_URI = new ODataProperty<ServiceInfo>("serviceEndpointUri");
+
+    /**
+     * The service Id property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_ID = new ODataProperty<ServiceInfo>("serviceId");
+
+    /**
+     * The service Name property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_NAME = new ODataProperty<ServiceInfo>("serviceName");
+
+    /**
+     * The service Resource Id property.
+     */
+    public static final ODataProperty<ServiceInfo> SERVICE_RESOURCE_ID = new ODataProperty<ServiceInfo>("serviceResourceId");
+
+    /**
+     * Instantiates a new ServiceInfoProperties.
+     */
+    protected ServiceInfoProperties() {
+    }
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.fileservices.odata;
+
+import com.microsoft.fileservices.Drive;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Drive, to build typed $select and $expand options.
+ */
+public class DriveProperties {
+
+    /**
+     * The id property.
+     */
+    public static final ODataProperty<Drive> ID = new ODataProperty<Drive>("id");
+
+    /**
+     * The owner property.
+     */
+    public static final ODataProperty<Drive> OWNER = new ODataProperty<Drive>("owner");
+
+    /**
+     * The quota property.
+     */
+    public static final ODataProperty<Drive> QUOTA = new ODataProperty<Drive>("quota");
+
+    /**
+     * Instantiates a new DriveProperties.
+     */
+    protected DriveProperties() {
+    }
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.fileservices.odata;
+
+import com.microsoft.fileservices.File;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of File, to build typed $select and $expand options.
+ */
+public class FileProperties extends ItemProperties {
+
+    /**
+     * The content Url property.
+     */
+    public static final ODataProperty<File> CONTENT_URL = new ODataProperty<File>("contentUrl");
+
+    /**
+     * Instantiates a new FileProperties.
+     */
+    protected FileProperties() {
+    }
+}
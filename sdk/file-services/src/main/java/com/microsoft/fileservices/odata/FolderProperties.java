@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.fileservices.odata;
+
+import com.microsoft.fileservices.Folder;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Folder, to build typed $select and $expand options.
+ */
+public class FolderProperties extends ItemProperties {
+
+    /**
+     * The child Count property.
+     */
+    public static final ODataProperty<Folder> CHILD_COUNT = new ODataProperty<Folder>("childCount");
+
+    /**
+     * The children property.
+     */
+    public static final ODataProperty<Folder> CHILDREN = new ODataProperty<Folder>("children");
+
+    /**
+     * Instantiates a new FolderProperties.
+     */
+    protected FolderProperties() {
+    }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.fileservices.odata;
+
+import com.microsoft.fileservices.Item;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Item, to build typed $select and $expand options.
+ */
+public class ItemProperties {
+
+    /**
+     * The created By property.
+     */
+    public static final ODataProperty<Item> CREATED_BY = new ODataProperty<Item>("createdBy");
+
+    /**
+     * The e Tag property.
+     */
+    public static final ODataProperty<Item> E_TAG = new ODataProperty<Item>("eTag");
+
+    /**
+     * The id property.
+     */
+    public static final ODataProperty<Item> ID = new ODataProperty<Item>("id");
+
+    /**
+     * The last Modified By property.
+     */
+    public static final ODataProperty<Item> LAST_MODIFIED_BY = new ODataProperty<Item>("lastModifiedBy");
+
+    /**
+     * The name property.
+     */
+    public static final ODataProperty<Item> NAME = new ODataProperty<Item>("name");
+
+    /**
+     * The parent Reference property.
+     */
+    public static final ODataProperty<Item> PARENT_REFERENCE = new ODataProperty<Item>("parentReference");
+
+    /**
+     * The size property.
+     */
+    public static final ODataProperty<Item> SIZE = new ODataProperty<Item>("size");
+
+    /**
+     * The date Time Created property.
+     */
+    public static final ODataProperty<Item> DATE_TIME_CREATED = new ODataProperty<Item>("dateTimeCreated");
+
+    /**
+     * The date Time Last Modified property.
+     */
+    public static final ODataProperty<Item> DATE_TIME_LAST_MODIFIED = new ODataProperty<Item>("dateTimeLastModified");
+
+    /**
+     * The type property.
+     */
+    public static final ODataProperty<Item> TYPE = new ODataProperty<Item>("type");
+
+    /**
+     * The web Url property.
+     */
+    public static final ODataProperty<Item> WEB_URL = new ODataProperty<Item>("webUrl");
+
+    /**
+     * Instantiates a new ItemProperties.
+     */
+    protected ItemProperties() {
+    }
+}
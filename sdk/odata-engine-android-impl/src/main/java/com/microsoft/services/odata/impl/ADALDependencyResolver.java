@@ -1,18 +1,36 @@
 package com.microsoft.services.odata.impl;
 
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.aad.adal.AuthenticationCallback;
 import com.microsoft.aad.adal.AuthenticationContext;
 import com.microsoft.aad.adal.AuthenticationResult;
+import com.microsoft.aad.adal.CacheKey;
+import com.microsoft.aad.adal.ITokenCacheStore;
+import com.microsoft.aad.adal.TokenCacheItem;
 import com.microsoft.services.odata.interfaces.Credentials;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The type ADAL dependency resolver.
  */
 public class ADALDependencyResolver extends DefaultDependencyResolver {
 
+    private static final int MAX_CONCURRENT_ACQUISITIONS = 2;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // shared by every resolver, ADAL's silent acquisition may hit the network to redeem a refresh token
+    private static final ThreadPoolExecutor tokenExecutor = createTokenExecutor();
+
     private AuthenticationContext context;
     private String resourceId;
     private String clientId;
+    private final OAuthCredentialsCache credentialsCache;
 
     /**
      * Instantiates a new dependency resolver.
@@ -25,6 +43,17 @@ public class ADALDependencyResolver extends DefaultDependencyResolver {
         this.context = context;
         this.resourceId = resourceId;
         this.clientId = clientId;
+        this.credentialsCache = new OAuthCredentialsCache() {
+            @Override
+            protected ListenableFuture<AccessToken> acquireToken(String resource) {
+                return acquireTokenInBackground(resource);
+            }
+
+            @Override
+            protected ListenableFuture<AccessToken> acquireTokenReplacing(String resource, String rejectedToken) {
+                return redeemRefreshTokenInBackground(resource, rejectedToken);
+            }
+        };
     }
 
     /**
@@ -45,9 +74,103 @@ public class ADALDependencyResolver extends DefaultDependencyResolver {
         return this.resourceId;
     }
 
+    /**
+     * Gets the cache of the tokens acquired through ADAL, one per resource.
+     *
+     * @return the credentials cache
+     */
+    public OAuthCredentialsCache getCredentialsCache() {
+        return this.credentialsCache;
+    }
+
     @Override
     public Credentials getCredentials() {
-        AuthenticationResult result = this.context.acquireTokenSilentSync(resourceId, clientId, null);
-        return new OAuthCredentials(result.getAccessToken());
+        return credentialsCache.getAsyncCredentials(resourceId);
+    }
+
+    private ListenableFuture<OAuthCredentialsCache.AccessToken> acquireTokenInBackground(final String resource) {
+        final SettableFuture<OAuthCredentialsCache.AccessToken> future = SettableFuture.create();
+
+        tokenExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.set(toAccessToken(context.acquireTokenSilentSync(resource, clientId, null)));
+                } catch (Throwable t) {
+                    future.setException(t);
+                }
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Gets a new token in place of a rejected one. ADAL's silent acquisition would return the
+     * rejected token from its cache until it expires, so the refresh token of the cached item
+     * is redeemed instead. Without one, the item is evicted so that the silent acquisition
+     * falls back to the multi resource refresh token.
+     */
+    private ListenableFuture<OAuthCredentialsCache.AccessToken> redeemRefreshTokenInBackground(
+            final String resource, final String rejectedToken) {
+        final SettableFuture<OAuthCredentialsCache.AccessToken> future = SettableFuture.create();
+
+        tokenExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ITokenCacheStore cache = context.getCache();
+                    String key = CacheKey.createCacheKey(context.getAuthority(), resource, clientId, false, null);
+                    TokenCacheItem item = cache != null ? cache.getItem(key) : null;
+
+                    if (item == null || item.getRefreshToken() == null) {
+                        if (item != null && rejectedToken.equals(item.getAccessToken())) {
+                            cache.removeItem(key);
+                        }
+                        future.set(toAccessToken(context.acquireTokenSilentSync(resource, clientId, null)));
+                        return;
+                    }
+
+                    context.acquireTokenByRefreshToken(item.getRefreshToken(), clientId, resource,
+                            new AuthenticationCallback<AuthenticationResult>() {
+                                @Override
+                                public void onSuccess(AuthenticationResult result) {
+                                    future.set(toAccessToken(result));
+                                }
+
+                                @Override
+                                public void onError(Exception e) {
+                                    future.setException(e);
+                                }
+                            });
+                } catch (Throwable t) {
+                    future.setException(t);
+                }
+            }
+        });
+
+        return future;
+    }
+
+    private static OAuthCredentialsCache.AccessToken toAccessToken(AuthenticationResult result) {
+        long expiresOn = result.getExpiresOn() != null ? result.getExpiresOn().getTime() : 0;
+        return new OAuthCredentialsCache.AccessToken(result.getAccessToken(), expiresOn);
+    }
+
+    private static ThreadPoolExecutor createTokenExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONCURRENT_ACQUISITIONS,
+                MAX_CONCURRENT_ACQUISITIONS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "ADAL token acquisition");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        // idle threads go away, acquisitions are rare once the tokens are cached
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
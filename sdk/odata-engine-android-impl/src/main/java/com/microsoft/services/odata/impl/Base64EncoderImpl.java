@@ -1,7 +1,5 @@
 package com.microsoft.services.odata.impl;
 
-import android.util.Base64;
-
 import com.microsoft.services.odata.interfaces.Base64Encoder;
 
 public class Base64EncoderImpl implements Base64Encoder {
@@ -15,11 +13,11 @@ public class Base64EncoderImpl implements Base64Encoder {
 
     @Override
     public String encode(byte[] data) {
-        return Base64.encodeToString(data, Base64.DEFAULT);
+        return Base64Codec.getInstance().encode(data);
     }
 
     @Override
     public byte[] decode(String base64String) {
-        return Base64.decode(base64String, Base64.DEFAULT);
+        return Base64Codec.getInstance().decode(base64String);
     }
 }
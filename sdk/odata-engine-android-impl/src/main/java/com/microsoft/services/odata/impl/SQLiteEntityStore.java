@@ -0,0 +1,252 @@
+package com.microsoft.services.odata.impl;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.microsoft.services.odata.EntityStoreQuery;
+import com.microsoft.services.odata.StoredEntity;
+import com.microsoft.services.odata.interfaces.EntityStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entity store backed by a SQLite database. Index values are kept in a separate table with
+ * database indexes on (collection, name, value), so store queries are answered by SQLite
+ * without loading the collection. String values use the NOCASE collation, so comparisons
+ * and ordering ignore case like {@link EntityStoreQuery#compareValues(Object, Object)} does,
+ * for ASCII letters.
+ */
+public class SQLiteEntityStore extends SQLiteOpenHelper implements EntityStore {
+
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String ENTITIES_TABLE = "entities";
+    private static final String INDEX_TABLE = "entity_index";
+    private static final String COLLECTIONS_TABLE = "collections";
+
+    /**
+     * Instantiates a new SQLite entity store.
+     *
+     * @param context the context
+     * @param name the database name
+     */
+    public SQLiteEntityStore(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + ENTITIES_TABLE + " (collection TEXT NOT NULL, id TEXT NOT NULL, "
+                + "payload TEXT, PRIMARY KEY (collection, id))");
+        db.execSQL("CREATE TABLE " + INDEX_TABLE + " (collection TEXT NOT NULL, id TEXT NOT NULL, "
+                + "name TEXT NOT NULL, num_value INTEGER, str_value TEXT COLLATE NOCASE, PRIMARY KEY (collection, id, name))");
+        db.execSQL("CREATE INDEX " + INDEX_TABLE + "_num ON " + INDEX_TABLE + " (collection, name, num_value)");
+        db.execSQL("CREATE INDEX " + INDEX_TABLE + "_str ON " + INDEX_TABLE + " (collection, name, str_value)");
+        db.execSQL("CREATE TABLE " + COLLECTIONS_TABLE + " (collection TEXT PRIMARY KEY, last_refreshed INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + ENTITIES_TABLE);
+        db.execSQL("DROP TABLE IF EXISTS " + INDEX_TABLE);
+        db.execSQL("DROP TABLE IF EXISTS " + COLLECTIONS_TABLE);
+        onCreate(db);
+    }
+
+    @Override
+    public void upsert(String collection, List<StoredEntity> entities) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (StoredEntity entity : entities) {
+                String[] key = new String[]{collection, entity.getId()};
+                db.delete(INDEX_TABLE, "collection = ? AND id = ?", key);
+
+                ContentValues values = new ContentValues();
+                values.put("collection", collection);
+                values.put("id", entity.getId());
+                values.put("payload", entity.getPayload());
+                db.insertWithOnConflict(ENTITIES_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+
+                for (Map.Entry<String, Object> indexValue : entity.getIndexValues().entrySet()) {
+                    Object value = indexValue.getValue();
+                    if (value == null) {
+                        continue;
+                    }
+
+                    ContentValues index = new ContentValues();
+                    index.put("collection", collection);
+                    index.put("id", entity.getId());
+                    index.put("name", indexValue.getKey());
+                    if (value instanceof Long) {
+                        index.put("num_value", (Long) value);
+                    } else {
+                        index.put("str_value", value.toString());
+                    }
+                    db.insert(INDEX_TABLE, null, index);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void remove(String collection, List<String> ids) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                String[] key = new String[]{collection, id};
+                db.delete(ENTITIES_TABLE, "collection = ? AND id = ?", key);
+                db.delete(INDEX_TABLE, "collection = ? AND id = ?", key);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void clear(String collection) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            String[] key = new String[]{collection};
+            db.delete(ENTITIES_TABLE, "collection = ?", key);
+            db.delete(INDEX_TABLE, "collection = ?", key);
+            db.delete(COLLECTIONS_TABLE, "collection = ?", key);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public String get(String collection, String id) {
+        Cursor cursor = getReadableDatabase().query(ENTITIES_TABLE, new String[]{"payload"},
+                "collection = ? AND id = ?", new String[]{collection, id}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public List<String> query(String collection, EntityStoreQuery query) {
+        StringBuilder sql = new StringBuilder("SELECT e.payload FROM " + ENTITIES_TABLE + " e");
+        StringBuilder where = new StringBuilder(" WHERE e.collection = ?");
+        List<String> joinArgs = new ArrayList<String>();
+        List<String> whereArgs = new ArrayList<String>();
+        whereArgs.add(collection);
+
+        int alias = 0;
+        for (EntityStoreQuery.Condition condition : query.getConditions()) {
+            String table = "i" + alias++;
+            appendIndexJoin(sql, table, condition.getProperty(), joinArgs);
+
+            Object value = condition.getValue();
+            String column = table + (value instanceof Long ? ".num_value" : ".str_value");
+
+            if (value == null) {
+                where.append(" AND ").append(table).append(".id IS ")
+                        .append(condition.getOperator() == EntityStoreQuery.Operator.EQ ? "NULL" : "NOT NULL");
+                if (condition.getOperator() != EntityStoreQuery.Operator.EQ
+                        && condition.getOperator() != EntityStoreQuery.Operator.NE) {
+                    where.append(" AND 0");
+                }
+                continue;
+            }
+
+            switch (condition.getOperator()) {
+                case EQ:
+                    where.append(" AND ").append(column).append(" = ?");
+                    break;
+                case NE:
+                    where.append(" AND (").append(column).append(" IS NULL OR ").append(column).append(" <> ?)");
+                    break;
+                case GT:
+                    where.append(" AND ").append(column).append(" > ?");
+                    break;
+                case GE:
+                    where.append(" AND ").append(column).append(" >= ?");
+                    break;
+                case LT:
+                    where.append(" AND ").append(column).append(" < ?");
+                    break;
+                default:
+                    where.append(" AND ").append(column).append(" <= ?");
+                    break;
+            }
+            whereArgs.add(value.toString());
+        }
+
+        sql.append(where);
+
+        if (query.getOrderBy() != null) {
+            String table = "i" + alias;
+            int position = sql.indexOf(" WHERE ");
+            StringBuilder join = new StringBuilder();
+            appendIndexJoin(join, table, query.getOrderBy(), joinArgs);
+            sql.insert(position, join);
+
+            String direction = query.isDescending() ? " DESC" : " ASC";
+            // Nulls first, then numbers, then strings, as EntityStoreQuery.compareValues orders them
+            sql.append(" ORDER BY CASE WHEN ").append(table).append(".num_value IS NOT NULL THEN 1 WHEN ")
+                    .append(table).append(".str_value IS NOT NULL THEN 2 ELSE 0 END").append(direction)
+                    .append(", ").append(table).append(".num_value").append(direction)
+                    .append(", ").append(table).append(".str_value").append(direction);
+        }
+
+        if (query.getTop() > -1) {
+            sql.append(" LIMIT ").append(query.getTop());
+        }
+
+        List<String> args = new ArrayList<String>(joinArgs);
+        args.addAll(whereArgs);
+
+        List<String> result = new ArrayList<String>();
+        Cursor cursor = getReadableDatabase().rawQuery(sql.toString(), args.toArray(new String[args.size()]));
+        try {
+            while (cursor.moveToNext()) {
+                result.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return result;
+    }
+
+    @Override
+    public void setLastRefreshed(String collection, long time) {
+        ContentValues values = new ContentValues();
+        values.put("collection", collection);
+        values.put("last_refreshed", time);
+        getWritableDatabase().insertWithOnConflict(COLLECTIONS_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public long getLastRefreshed(String collection) {
+        Cursor cursor = getReadableDatabase().query(COLLECTIONS_TABLE, new String[]{"last_refreshed"},
+                "collection = ?", new String[]{collection}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void appendIndexJoin(StringBuilder sql, String table, String property, List<String> args) {
+        sql.append(" LEFT JOIN ").append(INDEX_TABLE).append(' ').append(table)
+                .append(" ON ").append(table).append(".collection = e.collection AND ")
+                .append(table).append(".id = e.id AND ").append(table).append(".name = ?");
+        args.add(property);
+    }
+}
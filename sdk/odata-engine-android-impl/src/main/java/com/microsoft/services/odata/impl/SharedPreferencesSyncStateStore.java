@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+/**
+ * Sync state store backed by Android shared preferences.
+ */
+public class SharedPreferencesSyncStateStore implements SyncStateStore {
+
+    private SharedPreferences preferences;
+
+    /**
+     * Instantiates a new Shared preferences sync state store.
+     *
+     * @param context the context
+     * @param name the name of the preferences file
+     */
+    public SharedPreferencesSyncStateStore(Context context, String name) {
+        this.preferences = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public String get(String key) {
+        return preferences.getString(key, null);
+    }
+
+    @Override
+    public void put(String key, String value) {
+        preferences.edit().putString(key, value).commit();
+    }
+
+    @Override
+    public void remove(String key) {
+        preferences.edit().remove(key).commit();
+    }
+}
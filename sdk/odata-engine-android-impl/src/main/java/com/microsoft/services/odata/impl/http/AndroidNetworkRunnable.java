@@ -13,7 +13,6 @@ import com.microsoft.services.odata.interfaces.Request;
 import com.microsoft.services.odata.interfaces.Response;
 
 import org.apache.http.Header;
-import org.apache.http.HeaderElement;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
@@ -82,11 +81,12 @@ public class AndroidNetworkRunnable extends NetworkRunnable {
 
             Map<String, List<String>> responseHeaders = new HashMap<String, List<String>>();
             for (Header header : realResponse.getAllHeaders()) {
-                List<String> headerValues = new ArrayList<String>();
-                for (HeaderElement element : header.getElements()) {
-                    headerValues.add(element.getValue());
+                List<String> headerValues = responseHeaders.get(header.getName());
+                if (headerValues == null) {
+                    headerValues = new ArrayList<String>();
+                    responseHeaders.put(header.getName(), headerValues);
                 }
-                responseHeaders.put(header.getName(), headerValues);
+                headerValues.add(header.getValue());
             }
 
             HttpEntity entity = realResponse.getEntity();
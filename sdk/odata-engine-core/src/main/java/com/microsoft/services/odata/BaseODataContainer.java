@@ -8,10 +8,14 @@ package com.microsoft.services.odata;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.RequestCoalescer;
+import com.microsoft.services.odata.interfaces.AsyncCredentials;
 import com.microsoft.services.odata.interfaces.Credentials;
 import com.microsoft.services.odata.interfaces.DependencyResolver;
 import com.microsoft.services.odata.interfaces.HttpTransport;
+import com.microsoft.services.odata.interfaces.HttpVerb;
 import com.microsoft.services.odata.interfaces.LogLevel;
 import com.microsoft.services.odata.interfaces.Logger;
 import com.microsoft.services.odata.interfaces.ODataResponse;
@@ -22,20 +26,74 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The type BaseODataContainer.
  */
 public abstract class BaseODataContainer extends ODataExecutable {
 
+    private static final int UNAUTHORIZED_STATUS = 401;
+
     private String url;
     private DependencyResolver resolver;
+    private volatile RequestCoalescer<ODataResponse> coalescer = null;
+    private final Map<Class<?>, ODataProjection<?>> defaultProjections = new ConcurrentHashMap<Class<?>, ODataProjection<?>>();
 
     public BaseODataContainer(String url, DependencyResolver resolver) {
         this.url = url;
         this.resolver = resolver;
     }
 
+    /**
+     * Enables or disables request coalescing. When enabled, concurrent GET requests for the
+     * same URL with the same headers (including the credentials) share a single network call
+     * and its response. Requests with streamed responses are never coalesced.
+     *
+     * @param enabled true to enable request coalescing
+     */
+    public void setRequestCoalescingEnabled(boolean enabled) {
+        this.coalescer = enabled ? new RequestCoalescer<ODataResponse>() : null;
+    }
+
+    /**
+     * Is request coalescing enabled.
+     *
+     * @return the boolean
+     */
+    public boolean isRequestCoalescingEnabled() {
+        return this.coalescer != null;
+    }
+
+    /**
+     * Sets the projection collection reads of an entity type use when they don't select
+     * anything themselves, e.g. the few properties a list view shows. It also applies to
+     * the types derived from the given one that have no default projection of their own.
+     *
+     * @param clazz the entity class
+     * @param projection the projection, or null to read whole entities again
+     */
+    public <TEntity> void setDefaultProjection(Class<TEntity> clazz, ODataProjection<TEntity> projection) {
+        if (projection == null) {
+            defaultProjections.remove(clazz);
+        } else {
+            defaultProjections.put(clazz, projection);
+        }
+    }
+
+    @Override
+    protected ODataProjection<?> getDefaultProjection(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            ODataProjection<?> projection = defaultProjections.get(current);
+            if (projection != null) {
+                return projection;
+            }
+        }
+        return null;
+    }
+
     @Override
     protected ListenableFuture<ODataResponse> oDataExecute(final Request request) {
         final SettableFuture<ODataResponse> result = SettableFuture.create();
@@ -54,7 +112,7 @@ public abstract class BaseODataContainer extends ODataExecutable {
                 logger.log("With stream of bytes for payload", LogLevel.INFO);
             }
 
-            HttpTransport httpTransport = resolver.getHttpTransport();
+            final HttpTransport httpTransport = resolver.getHttpTransport();
 
             String userAgent = resolver.getPlatformUserAgent(this.getClass().getCanonicalName());
             request.addHeader(Constants.USER_AGENT_HEADER, userAgent);
@@ -73,6 +131,11 @@ public abstract class BaseODataContainer extends ODataExecutable {
             boolean credentialsSet = false;
 
             Credentials cred = resolver.getCredentials();
+            if (cred instanceof AsyncCredentials) {
+                executeWithAsyncCredentials(httpTransport, fullUrl, request, logger, (AsyncCredentials) cred, false, result);
+                return result;
+            }
+
             if (cred != null) {
                 cred.prepareRequest(request);
                 credentialsSet = true;
@@ -82,73 +145,199 @@ public abstract class BaseODataContainer extends ODataExecutable {
                 logger.log("Executing request without setting credentials", LogLevel.WARNING);
             }
 
+            return dispatchRequest(httpTransport, fullUrl, request, logger);
+        } catch (Throwable t) {
+            result.setException(t);
+        }
+        return result;
+
+    }
+
+    private void executeWithAsyncCredentials(final HttpTransport httpTransport, final String fullUrl,
+                                             final Request request, final Logger logger,
+                                             final AsyncCredentials credentials, final boolean replay,
+                                             final SettableFuture<ODataResponse> result) {
+        Futures.addCallback(credentials.prepareRequestAsync(request), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void ignored) {
+                Futures.addCallback(dispatchRequest(httpTransport, fullUrl, request, logger), new FutureCallback<ODataResponse>() {
+                    @Override
+                    public void onSuccess(ODataResponse response) {
+                        result.set(response);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        if (replay || !isUnauthorized(t) || request.getStreamedContent() != null) {
+                            result.setException(t);
+                            return;
+                        }
+
+                        refreshAndReplay(httpTransport, fullUrl, request, logger, credentials, t, result);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                logger.log("Unable to prepare the request credentials: " + t.toString(), LogLevel.ERROR);
+                result.setException(t);
+            }
+        });
+    }
+
+    private void refreshAndReplay(final HttpTransport httpTransport, final String fullUrl,
+                                  final Request request, final Logger logger,
+                                  final AsyncCredentials credentials, final Throwable unauthorized,
+                                  final SettableFuture<ODataResponse> result) {
+        logger.log("Credentials rejected, refreshing them before replaying the request", LogLevel.INFO);
 
-            logger.log("Request Headers: ", LogLevel.VERBOSE);
-            for (String key : request.getHeaders().keySet()) {
-                logger.log(key + " : " + request.getHeaders().get(key), LogLevel.VERBOSE);
+        ListenableFuture<Boolean> refresh;
+        try {
+            refresh = credentials.refreshAsync(request);
+        } catch (Throwable t) {
+            result.setException(unauthorized);
+            return;
+        }
+
+        Futures.addCallback(refresh, new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean refreshed) {
+                if (refreshed != null && refreshed) {
+                    executeWithAsyncCredentials(httpTransport, fullUrl, request, logger, credentials, true, result);
+                } else {
+                    result.setException(unauthorized);
+                }
             }
 
-            final ListenableFuture<Response> future = httpTransport.execute(request);
-            logger.log("OData request executed", LogLevel.INFO);
+            @Override
+            public void onFailure(Throwable t) {
+                logger.log("Unable to refresh the credentials: " + t.toString(), LogLevel.ERROR);
+                result.setException(unauthorized);
+            }
+        });
+    }
 
-            Futures.addCallback(future, new FutureCallback<Response>() {
+    private static boolean isUnauthorized(Throwable t) {
+        if (!(t instanceof ODataException)) {
+            return false;
+        }
 
+        ODataResponse response = ((ODataException) t).getODataResponse();
+        return response != null && response.getResponse() != null
+                && response.getResponse().getStatus() == UNAUTHORIZED_STATUS;
+    }
+
+    private ListenableFuture<ODataResponse> dispatchRequest(final HttpTransport httpTransport, String fullUrl,
+                                                            final Request request, final Logger logger) {
+        logger.log("Request Headers: ", LogLevel.VERBOSE);
+        for (String key : request.getHeaders().keySet()) {
+            logger.log(key + " : " + request.getHeaders().get(key), LogLevel.VERBOSE);
+        }
+
+        RequestCoalescer<ODataResponse> currentCoalescer = this.coalescer;
+
+        if (currentCoalescer != null && isCoalescable(request)) {
+            return currentCoalescer.execute(getCoalescingKey(fullUrl, request), new Callable<ListenableFuture<ODataResponse>>() {
                 @Override
-                public void onSuccess(Response response) {
-                    boolean readBytes = true;
-                    if (request.getOptions().get(Request.MUST_STREAM_RESPONSE_CONTENT) != null) {
-                        readBytes = false;
-                    }
+                public ListenableFuture<ODataResponse> call() throws Exception {
+                    return executeRequest(httpTransport, request, logger);
+                }
+            });
+        }
 
-                    ODataResponse odataResponse = new ODataResponseImpl(response);
+        return executeRequest(httpTransport, request, logger);
+    }
 
-                    try {
-                        logger.log("OData response received", LogLevel.INFO);
+    private ListenableFuture<ODataResponse> executeRequest(HttpTransport httpTransport, final Request request, final Logger logger) {
+        final SettableFuture<ODataResponse> result = SettableFuture.create();
 
-                        int status = response.getStatus();
-                        logger.log("Response Status Code: " + status, LogLevel.INFO);
+        final ListenableFuture<Response> future = httpTransport.execute(request);
+        logger.log("OData request executed", LogLevel.INFO);
 
-                        if (readBytes) {
-                            logger.log("Reading response data...", LogLevel.VERBOSE);
-                            byte[] data = odataResponse.getPayload();
-                            logger.log(data.length + " bytes read from response", LogLevel.VERBOSE);
+        Futures.addCallback(future, new FutureCallback<Response>() {
 
-                            try {
-                                logger.log("Closing response", LogLevel.VERBOSE);
-                                response.close();
-                            } catch (Throwable t) {
-                                logger.log("Error closing response: " + t.toString(), LogLevel.ERROR);
-                                result.setException(t);
-                                return;
-                            }
+            @Override
+            public void onSuccess(Response response) {
+                boolean readBytes = true;
+                if (request.getOptions().get(Request.MUST_STREAM_RESPONSE_CONTENT) != null) {
+                    readBytes = false;
+                }
 
-                        }
+                ODataResponse odataResponse = new ODataResponseImpl(response);
 
-                        if (status < 200 || status > 299) {
-                            logger.log("Invalid status code. Processing response content as String", LogLevel.VERBOSE);
-                            String responseData = new String(odataResponse.getPayload(), Constants.UTF8_NAME);
-                            String message = "Response status: " + response.getStatus() + "\n" + "Response content: " + responseData;
-                            logger.log(message, LogLevel.ERROR);
-                            result.setException(new ODataException(odataResponse, message));
+                try {
+                    logger.log("OData response received", LogLevel.INFO);
+
+                    int status = response.getStatus();
+                    logger.log("Response Status Code: " + status, LogLevel.INFO);
+
+                    if (readBytes) {
+                        logger.log("Reading response data...", LogLevel.VERBOSE);
+                        byte[] data = odataResponse.getPayload();
+                        logger.log(data.length + " bytes read from response", LogLevel.VERBOSE);
+
+                        try {
+                            logger.log("Closing response", LogLevel.VERBOSE);
+                            response.close();
+                        } catch (Throwable t) {
+                            logger.log("Error closing response: " + t.toString(), LogLevel.ERROR);
+                            result.setException(t);
                             return;
                         }
-                        result.set(odataResponse);
-                    } catch (Throwable t) {
-                        logger.log("Unexpected error: " + t.toString(), LogLevel.ERROR);
-                        result.setException(new ODataException(odataResponse, t));
+
+                    }
+
+                    if (status < 200 || status > 299) {
+                        logger.log("Invalid status code. Processing response content as String", LogLevel.VERBOSE);
+                        String responseData = new String(odataResponse.getPayload(), Constants.UTF8_NAME);
+                        String message = "Response status: " + response.getStatus() + "\n" + "Response content: " + responseData;
+                        logger.log(message, LogLevel.ERROR);
+                        result.setException(new ODataException(odataResponse, message));
+                        return;
                     }
+                    result.set(odataResponse);
+                } catch (Throwable t) {
+                    logger.log("Unexpected error: " + t.toString(), LogLevel.ERROR);
+                    result.setException(new ODataException(odataResponse, t));
                 }
+            }
 
-                @Override
-                public void onFailure(Throwable throwable) {
-                    result.setException(throwable);
+            @Override
+            public void onFailure(Throwable throwable) {
+                result.setException(throwable);
+            }
+        });
+
+        // cancelling the result aborts the request
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (result.isCancelled()) {
+                    future.cancel(false);
                 }
-            });
-        } catch (Throwable t) {
-            result.setException(t);
-        }
+            }
+        }, MoreExecutors.directExecutor());
         return result;
+    }
+
+    private static boolean isCoalescable(Request request) {
+        return request.getVerb() == HttpVerb.GET
+                && request.getContent() == null
+                && request.getStreamedContent() == null
+                && request.getOptions().get(Request.MUST_STREAM_RESPONSE_CONTENT) == null;
+    }
+
+    private static String getCoalescingKey(String fullUrl, Request request) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(request.getVerb()).append(' ').append(fullUrl);
+
+        Map<String, String> headers = new TreeMap<String, String>(request.getHeaders());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            sb.append('\n').append(header.getKey()).append(':').append(header.getValue());
+        }
 
+        return sb.toString();
     }
 
     /**
@@ -95,4 +95,14 @@ public class Constants {
      * The constant ODATA_ENTITY_BASE_CLASS_NAME
      */
     public static final String ODATA_ENTITY_BASE_CLASS_NAME = "ODataBaseEntity";
+
+    /**
+     * The constant PREFER_HEADER.
+     */
+    public static final String PREFER_HEADER = "Prefer";
+
+    /**
+     * The constant ODATA_TRACK_CHANGES_PREFERENCE.
+     */
+    public static final String ODATA_TRACK_CHANGES_PREFERENCE = "odata.track-changes";
 }
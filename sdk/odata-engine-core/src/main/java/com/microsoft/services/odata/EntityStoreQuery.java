@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A query an entity store can answer from its indexes: a conjunction of comparisons between
+ * indexed properties and literals, an optional ordering on one indexed property and an
+ * optional row limit.
+ */
+public class EntityStoreQuery {
+
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("-?\\d+");
+    private static final Pattern DATE_TIME_PATTERN = Pattern.compile(
+            "(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}(?::\\d{2})?)(\\.\\d+)?(Z|[+-]\\d{2}:\\d{2})?");
+
+    /**
+     * The comparison operators.
+     */
+    public enum Operator {
+        /**
+         * Equals.
+         */
+        EQ,
+        /**
+         * Not equals.
+         */
+        NE,
+        /**
+         * Greater than.
+         */
+        GT,
+        /**
+         * Greater than or equal.
+         */
+        GE,
+        /**
+         * Less than.
+         */
+        LT,
+        /**
+         * Less than or equal.
+         */
+        LE
+    }
+
+    /**
+     * A comparison between an indexed property and a literal value.
+     */
+    public static class Condition {
+        private String property;
+        private Operator operator;
+        private Object value;
+
+        /**
+         * Instantiates a new Condition.
+         *
+         * @param property the property
+         * @param operator the operator
+         * @param value the value, either a Long, a String or null
+         */
+        public Condition(String property, Operator operator, Object value) {
+            this.property = property;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        /**
+         * Gets property.
+         *
+         * @return the property
+         */
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Gets operator.
+         *
+         * @return the operator
+         */
+        public Operator getOperator() {
+            return operator;
+        }
+
+        /**
+         * Gets value.
+         *
+         * @return the value
+         */
+        public Object getValue() {
+            return value;
+        }
+
+        /**
+         * Evaluates the condition against an index value.
+         *
+         * @param indexValue the index value
+         * @return the boolean
+         */
+        public boolean matches(Object indexValue) {
+            switch (operator) {
+                case EQ:
+                    return indexValue == null ? value == null : valueEquals(indexValue, value);
+                case NE:
+                    return indexValue == null ? value != null : !valueEquals(indexValue, value);
+                default:
+                    if (indexValue == null || value == null || indexValue.getClass() != value.getClass()) {
+                        return false;
+                    }
+
+                    int comparison = compareValues(indexValue, value);
+                    switch (operator) {
+                        case GT:
+                            return comparison > 0;
+                        case GE:
+                            return comparison >= 0;
+                        case LT:
+                            return comparison < 0;
+                        default:
+                            return comparison <= 0;
+                    }
+            }
+        }
+    }
+
+    private List<Condition> conditions;
+    private String orderBy;
+    private boolean descending;
+    private int top;
+
+    /**
+     * Instantiates a new Entity store query.
+     *
+     * @param conditions the conditions
+     * @param orderBy the indexed property to order by, or null
+     * @param descending the descending
+     * @param top the maximum number of results, or -1 for all
+     */
+    public EntityStoreQuery(List<Condition> conditions, String orderBy, boolean descending, int top) {
+        this.conditions = conditions != null
+                ? Collections.unmodifiableList(new ArrayList<Condition>(conditions))
+                : Collections.<Condition>emptyList();
+        this.orderBy = orderBy;
+        this.descending = descending;
+        this.top = top;
+    }
+
+    /**
+     * Gets conditions.
+     *
+     * @return the conditions
+     */
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Gets order by.
+     *
+     * @return the order by
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Is descending.
+     *
+     * @return the boolean
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Gets top.
+     *
+     * @return the top
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * Evaluates every condition against the index values of an entity.
+     *
+     * @param indexValues the index values
+     * @return the boolean
+     */
+    public boolean matches(Map<String, Object> indexValues) {
+        for (Condition condition : conditions) {
+            if (!condition.matches(indexValues.get(condition.getProperty()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets a comparator that sorts index value maps in query order.
+     *
+     * @return the comparator
+     */
+    public Comparator<Map<String, Object>> getComparator() {
+        return new Comparator<Map<String, Object>>() {
+            @Override
+            public int compare(Map<String, Object> left, Map<String, Object> right) {
+                int comparison = compareValues(left.get(orderBy), right.get(orderBy));
+                return descending ? -comparison : comparison;
+            }
+        };
+    }
+
+    /**
+     * Compares two index values. Nulls sort first, then numbers, then strings. Strings are
+     * compared ignoring case, as the services compare them.
+     *
+     * @param left the left
+     * @param right the right
+     * @return the comparison result
+     */
+    public static int compareValues(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+
+        if (left instanceof Long && right instanceof Long) {
+            return ((Long) left).compareTo((Long) right);
+        }
+
+        if (left instanceof Long) {
+            return -1;
+        }
+
+        if (right instanceof Long) {
+            return 1;
+        }
+
+        return String.CASE_INSENSITIVE_ORDER.compare(left.toString(), right.toString());
+    }
+
+    private static boolean valueEquals(Object left, Object right) {
+        return right != null && left.getClass() == right.getClass() && compareValues(left, right) == 0;
+    }
+
+    /**
+     * Builds a query from OData query options, if the store can answer it. Only conjunctions
+     * of comparisons between indexed properties and literals, and ordering on a single
+     * indexed property, are supported.
+     *
+     * @param filter the $filter value, or null
+     * @param orderBy the $orderby value, or null
+     * @param top the $top value, or -1
+     * @param indexedProperties the indexed properties
+     * @return the query, or null if it can't be answered from the indexes
+     */
+    public static EntityStoreQuery parse(String filter, String orderBy, int top, Collection<String> indexedProperties) {
+        List<Condition> conditions = new ArrayList<Condition>();
+
+        if (filter != null && filter.trim().length() > 0) {
+            List<String> tokens = tokenize(filter);
+            if (tokens == null) {
+                return null;
+            }
+
+            int i = 0;
+            while (i < tokens.size()) {
+                if (i > 0) {
+                    if (!"and".equals(tokens.get(i))) {
+                        return null;
+                    }
+                    i++;
+                }
+
+                if (i + 3 > tokens.size()) {
+                    return null;
+                }
+
+                String property = tokens.get(i);
+                Operator operator = parseOperator(tokens.get(i + 1));
+                String literal = tokens.get(i + 2);
+
+                if (!indexedProperties.contains(property) || operator == null) {
+                    return null;
+                }
+
+                if (literal.equals("null")) {
+                    conditions.add(new Condition(property, operator, null));
+                } else {
+                    Object value = parseLiteral(literal);
+                    if (value == null) {
+                        return null;
+                    }
+                    conditions.add(new Condition(property, operator, value));
+                }
+
+                i += 3;
+            }
+        }
+
+        String orderProperty = null;
+        boolean descending = false;
+
+        if (orderBy != null && orderBy.trim().length() > 0) {
+            String[] parts = orderBy.trim().split("\\s+");
+            if (parts.length > 2 || parts[0].indexOf(',') != -1 || !indexedProperties.contains(parts[0])) {
+                return null;
+            }
+
+            orderProperty = parts[0];
+            if (parts.length == 2) {
+                if (parts[1].equalsIgnoreCase("desc")) {
+                    descending = true;
+                } else if (!parts[1].equalsIgnoreCase("asc")) {
+                    return null;
+                }
+            }
+        }
+
+        return new EntityStoreQuery(conditions, orderProperty, descending, top);
+    }
+
+    /**
+     * Converts an ISO-8601 date time into epoch milliseconds.
+     *
+     * @param value the value
+     * @return the epoch milliseconds, or null if the value is not a date time
+     */
+    public static Long parseDateTime(String value) {
+        Matcher matcher = DATE_TIME_PATTERN.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String dateTime = matcher.group(1);
+        String fraction = matcher.group(2);
+        String zone = matcher.group(3);
+
+        SimpleDateFormat format = new SimpleDateFormat(
+                dateTime.length() == 16 ? "yyyy-MM-dd'T'HH:mm" : "yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        long millis;
+        try {
+            millis = format.parse(dateTime).getTime();
+        } catch (ParseException e) {
+            return null;
+        }
+
+        if (fraction != null) {
+            String digits = (fraction.substring(1) + "000").substring(0, 3);
+            millis += Long.parseLong(digits);
+        }
+
+        if (zone != null && !zone.equals("Z")) {
+            int offsetMinutes = Integer.parseInt(zone.substring(1, 3)) * 60 + Integer.parseInt(zone.substring(4, 6));
+            millis -= (zone.charAt(0) == '-' ? -1 : 1) * offsetMinutes * 60000L;
+        }
+
+        return millis;
+    }
+
+    private static Object parseLiteral(String literal) {
+        int quote = literal.indexOf('\'');
+        if (quote != -1) {
+            // plain strings, and typed literals such as Namespace.Type'Member' or datetime'...'
+            if (!literal.endsWith("'") || literal.length() - quote < 2) {
+                return null;
+            }
+
+            // date strings are indexed as epoch milliseconds, so compare them the same way
+            String text = literal.substring(quote + 1, literal.length() - 1).replace("''", "'");
+            Long dateTime = parseDateTime(text);
+            return dateTime != null ? dateTime : text;
+        }
+
+        if (literal.equals("true") || literal.equals("false")) {
+            return literal;
+        }
+
+        if (INTEGER_PATTERN.matcher(literal).matches()) {
+            return Long.valueOf(literal);
+        }
+
+        return parseDateTime(literal);
+    }
+
+    private static Operator parseOperator(String token) {
+        for (Operator operator : Operator.values()) {
+            if (operator.name().equalsIgnoreCase(token)) {
+                return operator;
+            }
+        }
+
+        return null;
+    }
+
+    private static List<String> tokenize(String filter) {
+        List<String> tokens = new ArrayList<String>();
+        StringBuilder current = new StringBuilder();
+        boolean inString = false;
+
+        for (int i = 0; i < filter.length(); i++) {
+            char c = filter.charAt(i);
+
+            if (inString) {
+                current.append(c);
+                if (c == '\'') {
+                    if (i + 1 < filter.length() && filter.charAt(i + 1) == '\'') {
+                        current.append('\'');
+                        i++;
+                    } else {
+                        inString = false;
+                    }
+                }
+            } else if (c == '\'') {
+                current.append(c);
+                inString = true;
+            } else if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (inString) {
+            return null;
+        }
+
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+
+        return tokens;
+    }
+}
@@ -1,10 +1,13 @@
 package com.microsoft.services.odata;
 
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.interfaces.CollectionJsonSerializer;
 import com.microsoft.services.odata.interfaces.DependencyResolver;
+import com.microsoft.services.odata.interfaces.JsonSerializer;
 import com.microsoft.services.odata.interfaces.LogLevel;
 import com.microsoft.services.odata.interfaces.ODataResponse;
 import com.microsoft.services.odata.interfaces.ODataURL;
@@ -264,6 +267,23 @@ public class Helpers {
             ListenableFuture<String> future,
             final Class<TEntity> clazz,
             final DependencyResolver resolver) {
+        return transformToEntityListListenableFuture(future, clazz, resolver, null);
+    }
+
+    /**
+     * Transform to entity list listenable future, only binding the selected properties.
+     *
+     * @param future the future
+     * @param clazz the clazz
+     * @param resolver the resolver
+     * @param selectedProperties the selected properties, or null to bind every property
+     * @return the listenable future
+     */
+    public static <TEntity> ListenableFuture<List<TEntity>> transformToEntityListListenableFuture(
+            ListenableFuture<String> future,
+            final Class<TEntity> clazz,
+            final DependencyResolver resolver,
+            final Set<String> selectedProperties) {
 
         return Futures.transform(future, new AsyncFunction<String, List<TEntity>>() {
             @Override
@@ -272,7 +292,7 @@ public class Helpers {
                 List<TEntity> list;
                 try {
                     resolver.getLogger().log("Entity collection Deserialization Started", LogLevel.VERBOSE);
-                    list = resolver.getJsonSerializer().deserializeList(payload, clazz);
+                    list = deserializeList(resolver.getJsonSerializer(), payload, clazz, selectedProperties);
                     resolver.getLogger().log("Entity collection Deserialization Finished", LogLevel.VERBOSE);
 
                     result.set(list);
@@ -285,6 +305,116 @@ public class Helpers {
         });
     }
 
+    /**
+     * Transform to entity page listenable future.
+     *
+     * @param future the future
+     * @param clazz the clazz
+     * @param resolver the resolver
+     * @return the listenable future
+     */
+    public static <TEntity> ListenableFuture<ODataCollectionPage<TEntity>> transformToEntityPageListenableFuture(
+            ListenableFuture<String> future,
+            final Class<TEntity> clazz,
+            final DependencyResolver resolver) {
+
+        return Futures.transform(future, new AsyncFunction<String, ODataCollectionPage<TEntity>>() {
+            @Override
+            public ListenableFuture<ODataCollectionPage<TEntity>> apply(String payload) throws Exception {
+                SettableFuture<ODataCollectionPage<TEntity>> result = SettableFuture.create();
+                try {
+                    resolver.getLogger().log("Entity page Deserialization Started", LogLevel.VERBOSE);
+                    ODataCollectionPage<TEntity> page = getCollectionSerializer(resolver.getJsonSerializer()).deserializePage(payload, clazz);
+                    resolver.getLogger().log("Entity page Deserialization Finished", LogLevel.VERBOSE);
+
+                    result.set(page);
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Transform to raw page listenable future, keeping each entity as its JSON text.
+     *
+     * @param future the future
+     * @param resolver the resolver
+     * @return the listenable future
+     */
+    public static ListenableFuture<ODataCollectionPage<String>> transformToRawPageListenableFuture(
+            ListenableFuture<String> future,
+            final DependencyResolver resolver) {
+
+        return Futures.transform(future, new AsyncFunction<String, ODataCollectionPage<String>>() {
+            @Override
+            public ListenableFuture<ODataCollectionPage<String>> apply(String payload) throws Exception {
+                SettableFuture<ODataCollectionPage<String>> result = SettableFuture.create();
+                try {
+                    result.set(getCollectionSerializer(resolver.getJsonSerializer()).deserializeRawPage(payload));
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Transform to primitive collection listenable future.
+     *
+     * @param future the future
+     * @param resolver the resolver
+     * @return the listenable future
+     */
+    public static ListenableFuture<ODataPrimitiveCollection> transformToPrimitiveCollectionListenableFuture(
+            ListenableFuture<String> future,
+            final DependencyResolver resolver) {
+
+        return Futures.transform(future, new AsyncFunction<String, ODataPrimitiveCollection>() {
+            @Override
+            public ListenableFuture<ODataPrimitiveCollection> apply(String payload) throws Exception {
+                SettableFuture<ODataPrimitiveCollection> result = SettableFuture.create();
+                try {
+                    resolver.getLogger().log("Primitive collection Deserialization Started", LogLevel.VERBOSE);
+                    ODataPrimitiveCollection collection = getCollectionSerializer(resolver.getJsonSerializer())
+                            .deserializePrimitiveCollection(payload);
+                    resolver.getLogger().log("Primitive collection Deserialization Finished", LogLevel.VERBOSE);
+
+                    result.set(collection);
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Transform to string list listenable future, for functions returning a collection of
+     * strings.
+     *
+     * @param future the future
+     * @param resolver the resolver
+     * @return the listenable future
+     */
+    public static ListenableFuture<List<String>> transformToStringListListenableFuture(
+            ListenableFuture<String> future,
+            DependencyResolver resolver) {
+
+        return Futures.transform(transformToPrimitiveCollectionListenableFuture(future, resolver),
+                new Function<ODataPrimitiveCollection, List<String>>() {
+                    @Override
+                    public List<String> apply(ODataPrimitiveCollection collection) {
+                        return collection.asStringList();
+                    }
+                });
+    }
+
     /**
      * Add null result callback.
      *
@@ -322,4 +452,36 @@ public class Helpers {
         });
     }
 
+
+    /**
+     * Deserializes a list, binding only the selected properties when the serializer can.
+     *
+     * @param serializer the serializer
+     * @param payload the payload
+     * @param clazz the clazz
+     * @param selectedProperties the selected properties, or null to bind every property
+     * @return the list
+     * @throws Throwable the throwable
+     */
+    static <E> List<E> deserializeList(JsonSerializer serializer, String payload, Class<E> clazz,
+                                       Set<String> selectedProperties) throws Throwable {
+        if (selectedProperties != null && serializer instanceof CollectionJsonSerializer) {
+            return ((CollectionJsonSerializer) serializer).deserializeList(payload, clazz, selectedProperties);
+        }
+        return serializer.deserializeList(payload, clazz);
+    }
+
+    /**
+     * Gets the serializer as a collection serializer.
+     *
+     * @param serializer the serializer
+     * @return the collection serializer
+     */
+    static CollectionJsonSerializer getCollectionSerializer(JsonSerializer serializer) {
+        if (!(serializer instanceof CollectionJsonSerializer)) {
+            throw new UnsupportedOperationException("The JSON serializer " + serializer.getClass().getName()
+                    + " does not implement CollectionJsonSerializer");
+        }
+        return (CollectionJsonSerializer) serializer;
+    }
 }
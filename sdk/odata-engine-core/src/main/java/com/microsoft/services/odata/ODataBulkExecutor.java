@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+import com.microsoft.services.odata.interfaces.ODataResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same operation on many entities, keeping a bounded number of requests in flight.
+ * <p>
+ * The number of requests in flight adapts to the server: it is halved on a throttling
+ * response (429 or 503), the throttled entity is queued again and nothing is sent until the
+ * Retry-After delay, or an exponential backoff, has passed. It then grows back by one
+ * request for every round of successful ones, up to the configured maximum.
+ *
+ * @param <TResult> the type parameter
+ */
+public class ODataBulkExecutor<TResult> {
+
+    /**
+     * The operation to run for each entity.
+     *
+     * @param <TResult> the type parameter
+     */
+    public interface Operation<TResult> {
+        /**
+         * Starts the operation for one entity. It is called again when the entity is retried,
+         * so it must build a new request every time.
+         *
+         * @param id the entity id
+         * @return the listenable future
+         */
+        ListenableFuture<TResult> execute(String id);
+    }
+
+    private static final int TOO_MANY_REQUESTS_STATUS = 429;
+    private static final int SERVICE_UNAVAILABLE_STATUS = 503;
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static ScheduledExecutorService scheduler;
+
+    private final List<String> ids;
+    private final Operation<TResult> operation;
+    private final ODataBulkOptions options;
+
+    private final Object lock = new Object();
+    private final BoundedTaskQueue<Integer> queue;
+    private final List<ODataBulkItemResult<TResult>> results;
+    private final int[] attempts;
+    private final SettableFuture<ODataBulkResult<TResult>> result = SettableFuture.create();
+    private final long startTime = System.currentTimeMillis();
+
+    private int successesSinceIncrease;
+    private int successCount;
+    private int throttledCount;
+    private long pausedUntil;
+    private boolean resumeScheduled;
+
+    /**
+     * Runs the operation for every id.
+     *
+     * @param ids       the ids
+     * @param operation the operation
+     * @param options   the options, or null for the defaults
+     * @return the listenable future, with one outcome per id
+     */
+    public static <TResult> ListenableFuture<ODataBulkResult<TResult>> execute(List<String> ids,
+                                                                                Operation<TResult> operation,
+                                                                                ODataBulkOptions options) {
+        if (ids == null) {
+            throw new IllegalArgumentException("ids must not be null");
+        }
+        if (operation == null) {
+            throw new IllegalArgumentException("operation must not be null");
+        }
+
+        ODataBulkExecutor<TResult> executor = new ODataBulkExecutor<TResult>(ids, operation,
+                options != null ? options : new ODataBulkOptions());
+        executor.queue.pump();
+        return executor.result;
+    }
+
+    private ODataBulkExecutor(List<String> ids, Operation<TResult> operation, ODataBulkOptions options) {
+        this.ids = new ArrayList<String>(ids);
+        this.operation = operation;
+        this.options = options;
+        this.results = new ArrayList<ODataBulkItemResult<TResult>>(
+                Collections.<ODataBulkItemResult<TResult>>nCopies(this.ids.size(), null));
+        this.attempts = new int[this.ids.size()];
+        this.queue = new BoundedTaskQueue<Integer>(lock, options.getMaxConcurrency()) {
+            @Override
+            protected void start(Integer index) {
+                run(index);
+            }
+
+            @Override
+            protected boolean canStart() {
+                if (result.isDone()) {
+                    return false;
+                }
+
+                long delay = pausedUntil - System.currentTimeMillis();
+                if (delay > 0) {
+                    scheduleResume(delay);
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            protected boolean accept(Integer index) {
+                attempts[index]++;
+                return true;
+            }
+
+            @Override
+            protected void onIdle() {
+                if (!result.isDone()) {
+                    complete();
+                }
+            }
+        };
+
+        for (int i = 0; i < this.ids.size(); i++) {
+            queue.add(i);
+        }
+    }
+
+    private void run(final int index) {
+        final String id = ids.get(index);
+
+        ListenableFuture<TResult> future;
+        try {
+            future = operation.execute(id);
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+
+        Futures.addCallback(future, new FutureCallback<TResult>() {
+            @Override
+            public void onSuccess(TResult value) {
+                synchronized (lock) {
+                    successCount++;
+                    results.set(index, new ODataBulkItemResult<TResult>(id, value, null, 0, attempts[index]));
+
+                    int concurrency = queue.getMaxConcurrency();
+                    if (concurrency < options.getMaxConcurrency() && ++successesSinceIncrease >= concurrency) {
+                        queue.setMaxConcurrency(concurrency + 1);
+                        successesSinceIncrease = 0;
+                    }
+                }
+                queue.completed();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                int status = getStatus(t);
+
+                synchronized (lock) {
+                    if (isThrottled(status)) {
+                        throttledCount++;
+                        if (attempts[index] <= options.getMaxRetries()) {
+                            throttle(index, getRetryAfterMillis(t));
+                        } else {
+                            results.set(index, new ODataBulkItemResult<TResult>(id, null, t, status, attempts[index]));
+                        }
+                    } else {
+                        results.set(index, new ODataBulkItemResult<TResult>(id, null, t, status, attempts[index]));
+                    }
+                }
+                queue.completed();
+            }
+        });
+    }
+
+    /**
+     * Queues a throttled entity again and pauses sending. Must be called while holding lock.
+     */
+    private void throttle(int index, long retryAfterMillis) {
+        queue.addFirst(index);
+
+        long now = System.currentTimeMillis();
+        if (now >= pausedUntil) {
+            // requests already in flight when the pause started don't lower it any further
+            queue.setMaxConcurrency(Math.max(1, queue.getMaxConcurrency() / 2));
+            successesSinceIncrease = 0;
+        }
+
+        long delay = retryAfterMillis;
+        if (delay < 0) {
+            delay = options.getRetryDelayMillis() << Math.min(attempts[index] - 1, 20);
+        }
+        delay = Math.min(delay, options.getMaxRetryDelayMillis());
+        pausedUntil = Math.max(pausedUntil, now + delay);
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void scheduleResume(long delay) {
+        if (resumeScheduled) {
+            return;
+        }
+
+        resumeScheduled = true;
+        getScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (lock) {
+                    resumeScheduled = false;
+                }
+                queue.pump();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void complete() {
+        result.set(new ODataBulkResult<TResult>(results, successCount, throttledCount,
+                System.currentTimeMillis() - startTime));
+    }
+
+    static boolean isThrottled(int status) {
+        return status == TOO_MANY_REQUESTS_STATUS || status == SERVICE_UNAVAILABLE_STATUS;
+    }
+
+    static int getStatus(Throwable t) {
+        ODataResponse response = getResponse(t);
+        return response != null ? response.getResponse().getStatus() : 0;
+    }
+
+    static long getRetryAfterMillis(Throwable t) {
+        ODataResponse response = getResponse(t);
+        List<String> values = response != null ? response.getResponse().getHeaders(RETRY_AFTER_HEADER) : null;
+
+        if (values != null && !values.isEmpty()) {
+            try {
+                return Long.parseLong(values.get(0).trim()) * 1000;
+            } catch (NumberFormatException ignored) {
+                // an HTTP date, fall back to the backoff
+            }
+        }
+        return -1;
+    }
+
+    private static ODataResponse getResponse(Throwable t) {
+        for (Throwable current = t; current != null; current = current.getCause()) {
+            if (current instanceof ODataException) {
+                ODataResponse response = ((ODataException) current).getODataResponse();
+                if (response != null && response.getResponse() != null) {
+                    return response;
+                }
+            }
+        }
+        return null;
+    }
+
+    static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ODataBulkExecutor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return scheduler;
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * The outcome of a bulk operation for one entity.
+ *
+ * @param <TResult> the type parameter
+ */
+public class ODataBulkItemResult<TResult> {
+
+    private String id;
+    private TResult result;
+    private Throwable error;
+    private int status;
+    private int attempts;
+
+    /**
+     * Instantiates a new ODataBulkItemResult.
+     *
+     * @param id       the id
+     * @param result   the result
+     * @param error    the error, or null on success
+     * @param status   the status code of the failed response, or 0
+     * @param attempts the attempts
+     */
+    public ODataBulkItemResult(String id, TResult result, Throwable error, int status, int attempts) {
+        this.id = id;
+        this.result = result;
+        this.error = error;
+        this.status = status;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the operation result, e.g. the moved message.
+     *
+     * @return the result, or null on failure
+     */
+    public TResult getResult() {
+        return result;
+    }
+
+    /**
+     * Gets error.
+     *
+     * @return the error, or null on success
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Is success.
+     *
+     * @return the boolean
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Gets the status code of the failed response.
+     *
+     * @return the status, or 0 on success or when no response was received
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of requests sent for the entity, including retries after throttling.
+     *
+     * @return the attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
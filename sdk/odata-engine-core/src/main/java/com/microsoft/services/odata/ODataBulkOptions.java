@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * Options for running the same operation on many entities.
+ */
+public class ODataBulkOptions {
+
+    /**
+     * The constant DEFAULT_MAX_CONCURRENCY.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    /**
+     * The constant DEFAULT_MAX_RETRIES.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    /**
+     * The constant DEFAULT_RETRY_DELAY_MILLIS.
+     */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+
+    /**
+     * The constant DEFAULT_MAX_RETRY_DELAY_MILLIS.
+     */
+    public static final long DEFAULT_MAX_RETRY_DELAY_MILLIS = 60 * 1000;
+
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private long maxRetryDelayMillis = DEFAULT_MAX_RETRY_DELAY_MILLIS;
+
+    /**
+     * Gets max concurrency.
+     *
+     * @return the max concurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the number of requests kept in flight. Throttling responses lower the actual
+     * number, which then grows back towards this one as requests succeed.
+     *
+     * @param maxConcurrency the max concurrency
+     * @return the options
+     */
+    public ODataBulkOptions setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Gets max retries.
+     *
+     * @return the max retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Sets how many times an entity is retried after a throttling response before it is
+     * reported as failed. Other failures are never retried.
+     *
+     * @param maxRetries the max retries
+     * @return the options
+     */
+    public ODataBulkOptions setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * Gets retry delay millis.
+     *
+     * @return the retry delay millis
+     */
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    /**
+     * Sets the pause after a first throttling response without a Retry-After header. The
+     * pause doubles with every further retry of the same entity.
+     *
+     * @param retryDelayMillis the retry delay millis
+     * @return the options
+     */
+    public ODataBulkOptions setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Gets max retry delay millis.
+     *
+     * @return the max retry delay millis
+     */
+    public long getMaxRetryDelayMillis() {
+        return maxRetryDelayMillis;
+    }
+
+    /**
+     * Sets the longest pause after a throttling response, including the ones asked for by
+     * a Retry-After header.
+     *
+     * @param maxRetryDelayMillis the max retry delay millis
+     * @return the options
+     */
+    public ODataBulkOptions setMaxRetryDelayMillis(long maxRetryDelayMillis) {
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        return this;
+    }
+}
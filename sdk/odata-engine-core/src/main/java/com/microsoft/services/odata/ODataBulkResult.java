@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.List;
+
+/**
+ * The result of a bulk operation.
+ *
+ * @param <TResult> the type parameter
+ */
+public class ODataBulkResult<TResult> {
+
+    private List<ODataBulkItemResult<TResult>> items;
+    private int successCount;
+    private int throttledCount;
+    private long elapsedMillis;
+
+    /**
+     * Instantiates a new ODataBulkResult.
+     *
+     * @param items          the items
+     * @param successCount   the success count
+     * @param throttledCount the throttled count
+     * @param elapsedMillis  the elapsed millis
+     */
+    public ODataBulkResult(List<ODataBulkItemResult<TResult>> items, int successCount, int throttledCount,
+                           long elapsedMillis) {
+        this.items = items;
+        this.successCount = successCount;
+        this.throttledCount = throttledCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the outcome of every entity, in the order the ids were given.
+     *
+     * @return the items
+     */
+    public List<ODataBulkItemResult<TResult>> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets success count.
+     *
+     * @return the success count
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * Gets failure count.
+     *
+     * @return the failure count
+     */
+    public int getFailureCount() {
+        return items.size() - successCount;
+    }
+
+    /**
+     * Gets the number of throttling responses received, retried or not.
+     *
+     * @return the throttled count
+     */
+    public int getThrottledCount() {
+        return throttledCount;
+    }
+
+    /**
+     * Gets elapsed millis.
+     *
+     * @return the elapsed millis
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the throughput, in entities per second.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return elapsedMillis > 0 ? items.size() * 1000.0 / elapsedMillis : items.size();
+    }
+}
@@ -1,303 +1,655 @@
-/*******************************************************************************
- * Copyright (c) Microsoft Open Technologies, Inc.
- * All Rights Reserved
- * See License.txt in the project root for license information.
- ******************************************************************************/
-package com.microsoft.services.odata;
-
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.SettableFuture;
-import com.microsoft.services.odata.interfaces.HttpVerb;
-import com.microsoft.services.odata.interfaces.LogLevel;
-import com.microsoft.services.odata.interfaces.ODataResponse;
-import com.microsoft.services.odata.interfaces.ODataURL;
-import com.microsoft.services.odata.interfaces.Request;
-
-import java.util.List;
-
-import static com.microsoft.services.odata.Helpers.addCustomParametersToODataRequest;
-import static com.microsoft.services.odata.Helpers.transformToEntityListenableFuture;
-import static com.microsoft.services.odata.Helpers.transformToStringListenableFuture;
-
-/**
- * The type ODataCollectionFetcher.
- *
- * @param <TEntity>      the type parameter
- * @param <TFetcher>     the type parameter
- * @param <TOperations>  the type parameter
- */
-public class ODataCollectionFetcher<TEntity, TFetcher extends ODataEntityFetcher, TOperations extends ODataOperations>
-        extends ODataFetcher<TEntity>
-        implements Readable<List<TEntity>> {
-
-    private int top = -1;
-    private int skip = -1;
-    private String selectedId = null;
-    private TOperations operations;
-    private String select = null;
-    private String expand = null;
-    private String filter = null;
-    private String orderBy = null;
-
-    /**
-     * Instantiates a new ODataCollectionFetcher.
-     *
-     * @param urlComponent the url component
-     * @param parent the parent
-     * @param clazz the clazz
-     * @param operationClazz the operation clazz
-     */
-    public ODataCollectionFetcher(String urlComponent, ODataExecutable parent,
-                                  Class<TEntity> clazz, Class<TOperations> operationClazz) {
-        super(urlComponent, parent, clazz);
-
-        this.reset();
-
-        try {
-            this.operations = operationClazz.getConstructor(String.class,
-                    ODataExecutable.class).newInstance("", this);
-        } catch (Throwable ignored) {
-        }
-    }
-
-    /**
-     * Reset void.
-     */
-    public void reset() {
-        this.top = -1;
-        this.skip = -1;
-        this.selectedId = null;
-        this.select = null;
-        this.expand = null;
-        this.filter = null;
-        this.orderBy = null;
-    }
-
-    /**
-     * Top ODataCollectionFetcher.
-     *
-     * @param top the top
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> top(int top) {
-        this.top = top;
-        return this;
-    }
-
-    /**
-     * Skip ODataCollectionFetcher.
-     *
-     * @param skip the skip
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> skip(int skip) {
-        this.skip = skip;
-        return this;
-    }
-
-    /**
-     * Select ODataCollectionFetcher.
-     *
-     * @param select the select
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> select(String select) {
-        this.select = select;
-        return this;
-    }
-
-    /**
-     * Expand ODataCollectionFetcher.
-     *
-     * @param expand the expand
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> expand(String expand) {
-        this.expand = expand;
-        return this;
-    }
-
-    /**
-     * Filter ODataCollectionFetcher.
-     *
-     * @param filter the filter
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> filter(String filter) {
-        this.filter = filter;
-        return this;
-    }
-
-    /**
-     * Order ODataCollectionFetcher.
-     *
-     * @param orderBy the orderBy
-     * @return the o data collection fetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> orderBy(String orderBy) {
-        this.orderBy = orderBy;
-        return this;
-    }
-
-    /**
-     * Gets by id.
-     *
-     * @param id the id
-     * @return the by id
-     */
-    public TFetcher getById(String id) {
-        this.selectedId = id;
-        String packageName = operations.getClass().getPackage().getName();
-        String[] classNameParts = (clazz.getCanonicalName() + "Fetcher").split("\\.");
-        String className = packageName + "." + classNameParts[classNameParts.length - 1];
-
-        try {
-            Class entityQueryClass = Class.forName(className);
-            ODataEntityFetcher odataEntityQuery = (ODataEntityFetcher) entityQueryClass
-                    .getConstructor(String.class, ODataExecutable.class)
-                    .newInstance("", this);
-
-            return (TFetcher) odataEntityQuery;
-        } catch (Throwable e) {
-            // if this happens, we couldn't find the xxxQuery class at runtime.
-            // this must NEVER happen
-            throw new RuntimeException(e);
-        }
-    }
-
-    @Override
-    protected ListenableFuture<ODataResponse> oDataExecute(Request request) {
-        if (selectedId == null) {
-            setPathForCollections(request.getUrl(), urlComponent, top, skip, select, expand, filter, orderBy);
-        } else {
-            setSelectorUrl(request.getUrl(), urlComponent, selectedId);
-        }
-        addCustomParametersToODataRequest(request, getParameters(), getHeaders());
-        return parent.oDataExecute(request);
-    }
-
-    /**
-     * Reads
-     *
-     * @return the listenable future
-     */
-    @Override
-    public ListenableFuture<List<TEntity>> read() {
-        return Helpers.transformToEntityListListenableFuture(readRaw(), this.clazz, getResolver());
-    }
-
-    /**
-     * Reads raw
-     *
-     * @return the listenable future
-     */
-    @Override
-    public ListenableFuture<String> readRaw() {
-        return super.readRaw();
-    }
-
-    /**
-     * Add listenable future.
-     *
-     * @param entity the entity
-     * @return the listenable future
-     */
-    public ListenableFuture<TEntity> add(TEntity entity) {
-        ListenableFuture<String> future = addRaw(getResolver().getJsonSerializer().serialize(entity));
-        return transformToEntityListenableFuture(future, this.clazz, getResolver());
-    }
-
-    /**
-     * Add raw.
-     *
-     * @param payload the payload
-     * @return the listenable future
-     */
-    public ListenableFuture<String> addRaw(String payload) {
-        byte[] payloadBytes = payload.getBytes(Constants.UTF8);
-
-        Request request = getResolver().createRequest();
-        request.setContent(payloadBytes);
-        request.setVerb(HttpVerb.POST);
-
-        ListenableFuture<ODataResponse> future = oDataExecute(request);
-        return transformToStringListenableFuture(future);
-
-    }
-
-    /**
-     * Gets operations.
-     *
-     * @return the operations
-     */
-    public TOperations getOperations() {
-        return this.operations;
-    }
-
-    /**
-     * Add parameter.
-     *
-     * @param name the name
-     * @param value the value
-     * @return the ODataCollectionFetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> addParameter(String name, Object value) {
-        addCustomParameter(name, value);
-        return this;
-    }
-
-    /**
-     * Add header.
-     *
-     * @param name the name
-     * @param value the value
-     * @return the ODataCollectionFetcher
-     */
-    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> addHeader(String name, String value) {
-        addCustomHeader(name, value);
-        return this;
-    }
-
-
-    /**
-     * Sets path for collections.
-     *
-     * @param url the url
-     * @param urlComponent the url component
-     * @param top the top
-     * @param skip the skip
-     * @param select the select
-     * @param expand the expand
-     * @param filter the filter
-     * @param orderBy the order by
-     */
-    protected void setPathForCollections(ODataURL url, String urlComponent, int top, int skip, String select, String expand, String filter, String orderBy) {
-        if (top > -1) {
-            url.addQueryStringParameter("$top", Integer.valueOf(top).toString());
-        }
-
-        if (skip > -1) {
-            url.addQueryStringParameter("$skip", Integer.valueOf(skip).toString());
-        }
-
-        if (select != null) {
-            url.addQueryStringParameter("$select", select);
-        }
-
-        if (expand != null) {
-            url.addQueryStringParameter("$expand", expand);
-        }
-
-        if (filter != null) {
-            url.addQueryStringParameter("$filter", filter);
-        }
-
-        if (orderBy != null) {
-            url.addQueryStringParameter("$orderby", orderBy);
-        }
-
-        url.prependPathComponent(urlComponent);
-    }
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.FutureFallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.ODataLinkURL;
+import com.microsoft.services.odata.interfaces.EntityStore;
+import com.microsoft.services.odata.interfaces.HttpVerb;
+import com.microsoft.services.odata.interfaces.LogLevel;
+import com.microsoft.services.odata.interfaces.ODataResponse;
+import com.microsoft.services.odata.interfaces.ODataURL;
+import com.microsoft.services.odata.interfaces.Request;
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.microsoft.services.odata.Helpers.addCustomParametersToODataRequest;
+import static com.microsoft.services.odata.Helpers.transformToEntityPageListenableFuture;
+import static com.microsoft.services.odata.Helpers.transformToEntityListenableFuture;
+import static com.microsoft.services.odata.Helpers.transformToRawPageListenableFuture;
+import static com.microsoft.services.odata.Helpers.transformToStringListenableFuture;
+
+/**
+ * The type ODataCollectionFetcher.
+ *
+ * @param <TEntity>      the type parameter
+ * @param <TFetcher>     the type parameter
+ * @param <TOperations>  the type parameter
+ */
+public class ODataCollectionFetcher<TEntity, TFetcher extends ODataEntityFetcher, TOperations extends ODataOperations>
+        extends ODataFetcher<TEntity>
+        implements Readable<List<TEntity>> {
+
+    private int top = -1;
+    private int skip = -1;
+    private String selectedId = null;
+    private TOperations operations;
+    private String select = null;
+    private String expand = null;
+    private String filter = null;
+    private String orderBy = null;
+    private boolean selectAll = false;
+    private ODataCollectionStore<TEntity> entityStore = null;
+
+    /**
+     * Instantiates a new ODataCollectionFetcher.
+     *
+     * @param urlComponent the url component
+     * @param parent the parent
+     * @param clazz the clazz
+     * @param operationClazz the operation clazz
+     */
+    public ODataCollectionFetcher(String urlComponent, ODataExecutable parent,
+                                  Class<TEntity> clazz, Class<TOperations> operationClazz) {
+        super(urlComponent, parent, clazz);
+
+        this.reset();
+
+        try {
+            this.operations = operationClazz.getConstructor(String.class,
+                    ODataExecutable.class).newInstance("", this);
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /**
+     * Reset void.
+     */
+    public void reset() {
+        this.top = -1;
+        this.skip = -1;
+        this.selectedId = null;
+        this.select = null;
+        this.expand = null;
+        this.filter = null;
+        this.orderBy = null;
+        this.selectAll = false;
+    }
+
+    /**
+     * Top ODataCollectionFetcher.
+     *
+     * @param top the top
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> top(int top) {
+        this.top = top;
+        return this;
+    }
+
+    /**
+     * Skip ODataCollectionFetcher.
+     *
+     * @param skip the skip
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> skip(int skip) {
+        this.skip = skip;
+        return this;
+    }
+
+    /**
+     * Select ODataCollectionFetcher.
+     *
+     * @param select the select
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> select(String select) {
+        this.select = select;
+        return this;
+    }
+
+    /**
+     * Select ODataCollectionFetcher.
+     *
+     * @param properties the properties
+     * @return the o data collection fetcher
+     */
+    @SuppressWarnings("unchecked") // the properties array is only read, so it cannot pollute the heap
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> select(ODataProperty<? super TEntity>... properties) {
+        this.select = ODataProjection.<TEntity>parse(null, null).andSelect(properties).getSelect();
+        return this;
+    }
+
+    /**
+     * Selects every property, ignoring the default projection of the entity type.
+     *
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> selectAll() {
+        this.select = null;
+        this.selectAll = true;
+        return this;
+    }
+
+    /**
+     * Sets the $select and $expand options from a projection.
+     *
+     * @param projection the projection
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> project(ODataProjection<? super TEntity> projection) {
+        this.select = projection.getSelect();
+        this.expand = projection.getExpand();
+        return this;
+    }
+
+    /**
+     * Expand ODataCollectionFetcher.
+     *
+     * @param expand the expand
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> expand(String expand) {
+        this.expand = expand;
+        return this;
+    }
+
+    /**
+     * Expand ODataCollectionFetcher.
+     *
+     * @param properties the navigation properties
+     * @return the o data collection fetcher
+     */
+    @SuppressWarnings("unchecked") // the properties array is only read, so it cannot pollute the heap
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> expand(ODataProperty<? super TEntity>... properties) {
+        this.expand = ODataProjection.<TEntity>parse(null, null).andExpand(properties).getExpand();
+        return this;
+    }
+
+    /**
+     * Filter ODataCollectionFetcher.
+     *
+     * @param filter the filter
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> filter(String filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Filter ODataCollectionFetcher.
+     *
+     * @param filter the filter, with every parameter bound
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> filter(ODataFilter<? super TEntity> filter) {
+        this.filter = filter.render();
+        return this;
+    }
+
+    /**
+     * Order ODataCollectionFetcher.
+     *
+     * @param orderBy the orderBy
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> orderBy(String orderBy) {
+        this.orderBy = orderBy;
+        return this;
+    }
+
+    /**
+     * Caches the collection in a local entity store. Reads whose filter and ordering only
+     * involve the indexed properties are answered from the store while it's fresher than
+     * maxAgeMillis; other reads go to the server and write their results through. The store
+     * is refreshed by {@link #sync(SyncStateStore, String)}.
+     *
+     * @param store the store
+     * @param collection the collection name in the store
+     * @param maxAgeMillis how long after a sync the store answers reads
+     * @param indexedProperties the indexed properties, as paths such as "From/EmailAddress/Address"
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> cacheIn(EntityStore store, String collection,
+                                                                          long maxAgeMillis, String... indexedProperties) {
+        this.entityStore = new ODataCollectionStore<TEntity>(store, collection, maxAgeMillis, indexedProperties, this.clazz);
+        return this;
+    }
+
+    /**
+     * Caches the collection in a local entity store, see
+     * {@link #cacheIn(EntityStore, String, long, String...)}.
+     *
+     * @param store the store
+     * @param collection the collection name in the store
+     * @param maxAgeMillis how long after a sync the store answers reads
+     * @param indexedProperties the indexed properties, as paths such as "From/EmailAddress/Address"
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> cacheIn(EntityStore store, String collection,
+                                                                          long maxAgeMillis, List<String> indexedProperties) {
+        return cacheIn(store, collection, maxAgeMillis,
+                indexedProperties != null ? indexedProperties.toArray(new String[indexedProperties.size()]) : null);
+    }
+
+    /**
+     * Order ODataCollectionFetcher.
+     *
+     * @param orderBy the orderBy
+     * @return the o data collection fetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> orderBy(ODataOrderBy<? super TEntity> orderBy) {
+        this.orderBy = orderBy.render();
+        return this;
+    }
+
+    /**
+     * Gets by id.
+     *
+     * @param id the id
+     * @return the by id
+     */
+    public TFetcher getById(String id) {
+        this.selectedId = id;
+        String packageName = operations.getClass().getPackage().getName();
+        String[] classNameParts = (clazz.getCanonicalName() + "Fetcher").split("\\.");
+        String className = packageName + "." + classNameParts[classNameParts.length - 1];
+
+        try {
+            Class entityQueryClass = Class.forName(className);
+            ODataEntityFetcher odataEntityQuery = (ODataEntityFetcher) entityQueryClass
+                    .getConstructor(String.class, ODataExecutable.class)
+                    .newInstance("", this);
+
+            return (TFetcher) odataEntityQuery;
+        } catch (Throwable e) {
+            // if this happens, we couldn't find the xxxQuery class at runtime.
+            // this must NEVER happen
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected ListenableFuture<ODataResponse> oDataExecute(Request request) {
+        if (selectedId == null) {
+            return executeCollectionRequest(request, null);
+        }
+
+        setSelectorUrl(request.getUrl(), urlComponent, selectedId);
+        addCustomParametersToODataRequest(request, getParameters(), getHeaders());
+        return parent.oDataExecute(request);
+    }
+
+    /**
+     * OData execute against a single entity of the collection, without the collection's own
+     * query options.
+     *
+     * @param id the entity id
+     * @param request the request
+     * @return the listenable future
+     */
+    protected ListenableFuture<ODataResponse> oDataExecuteForEntity(String id, Request request) {
+        setSelectorUrl(request.getUrl(), urlComponent, id);
+        addCustomParametersToODataRequest(request, getParameters(), getHeaders());
+        return parent.oDataExecute(request);
+    }
+
+    /**
+     * Executes a request against the collection, combining the given filter with the
+     * fetcher's own filter.
+     *
+     * @param request the request
+     * @param additionalFilter the additional filter, or null
+     * @return the listenable future
+     */
+    ListenableFuture<ODataResponse> executeCollectionRequest(Request request, String additionalFilter) {
+        return executeCollectionRequest(request, additionalFilter, false);
+    }
+
+    /**
+     * Executes a request against the collection. The default projection of the entity type
+     * is only applied when asked for, i.e. by reads returning the entities to the caller;
+     * pages kept elsewhere, such as synchronized or exported ones, select every property.
+     *
+     * @param request the request
+     * @param additionalFilter the additional filter, or null
+     * @param useDefaultProjection whether the default projection applies
+     * @return the listenable future
+     */
+    private ListenableFuture<ODataResponse> executeCollectionRequest(Request request, String additionalFilter,
+                                                                     boolean useDefaultProjection) {
+        String effectiveFilter = filter;
+        if (additionalFilter != null) {
+            effectiveFilter = filter == null ? additionalFilter : "(" + filter + ") and (" + additionalFilter + ")";
+        }
+
+        String effectiveSelect = select;
+        String effectiveExpand = expand;
+        if (useDefaultProjection && select == null && expand == null) {
+            ODataProjection<?> projection = getProjection();
+            effectiveSelect = projection != null ? projection.getSelect() : null;
+            effectiveExpand = projection != null ? projection.getExpand() : null;
+        }
+
+        setPathForCollections(request.getUrl(), urlComponent, top, skip, effectiveSelect, effectiveExpand, effectiveFilter, orderBy);
+        addCustomParametersToODataRequest(request, getParameters(), getHeaders());
+        return parent.oDataExecute(request);
+    }
+
+    /**
+     * Gets the projection of read(), the explicit one or else the default one.
+     */
+    private ODataProjection<?> getProjection() {
+        if (select != null || expand != null) {
+            return ODataProjection.parse(select, expand);
+        }
+
+        return selectAll ? null : getDefaultProjection(this.clazz);
+    }
+
+    /**
+     * Reads
+     *
+     * @return the listenable future
+     */
+    @Override
+    public ListenableFuture<List<TEntity>> read() {
+        ODataProjection<?> projection = getProjection();
+        final Set<String> selectedProperties = projection != null ? projection.getSelectedProperties() : null;
+
+        final ODataCollectionStore<TEntity> cache = entityStore;
+        if (cache == null) {
+            return Helpers.transformToEntityListListenableFuture(readRaw(), this.clazz, getResolver(), selectedProperties);
+        }
+
+        EntityStoreQuery query = getStoreQuery(cache, projection);
+        if (query == null) {
+            return readThrough(cache, selectedProperties);
+        }
+
+        ListenableFuture<List<TEntity>> stored = Futures.withFallback(
+                cache.queryIfFresh(query, getResolver().getJsonSerializer(), selectedProperties),
+                new FutureFallback<List<TEntity>>() {
+                    @Override
+                    public ListenableFuture<List<TEntity>> create(Throwable t) {
+                        log("Unable to read " + cache.getCollection() + " from the entity store: " + t.getMessage(), LogLevel.ERROR);
+                        return Futures.immediateFuture(null);
+                    }
+                });
+
+        return Futures.transform(stored, new AsyncFunction<List<TEntity>, List<TEntity>>() {
+            @Override
+            public ListenableFuture<List<TEntity>> apply(List<TEntity> entities) {
+                return entities != null ? Futures.immediateFuture(entities) : readThrough(cache, selectedProperties);
+            }
+        });
+    }
+
+    /**
+     * Reads from the server and writes the entities through to the store.
+     */
+    private ListenableFuture<List<TEntity>> readThrough(final ODataCollectionStore<TEntity> cache, Set<String> selectedProperties) {
+        ListenableFuture<List<TEntity>> future =
+                Helpers.transformToEntityListListenableFuture(readRaw(), this.clazz, getResolver(), selectedProperties);
+
+        if (selectedProperties != null) {
+            // partial entities would replace the whole ones kept in the store
+            return future;
+        }
+
+        Futures.addCallback(future, new FutureCallback<List<TEntity>>() {
+            @Override
+            public void onSuccess(List<TEntity> entities) {
+                try {
+                    cache.upsert(entities, getResolver().getJsonSerializer());
+                } catch (Throwable t) {
+                    log("Unable to write " + cache.getCollection() + " to the entity store: " + t.getMessage(), LogLevel.ERROR);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+            }
+        });
+
+        return future;
+    }
+
+    private EntityStoreQuery getStoreQuery(ODataCollectionStore<TEntity> cache, ODataProjection<?> projection) {
+        if (selectedId != null || skip > -1 || !getParameters().isEmpty()) {
+            return null;
+        }
+
+        if (projection != null && projection.getExpand() != null) {
+            // the store keeps entities without their navigation properties
+            return null;
+        }
+
+        return EntityStoreQuery.parse(filter, orderBy, top, cache.getIndexedProperties());
+    }
+
+    /**
+     * Reads raw
+     *
+     * @return the listenable future
+     */
+    @Override
+    public ListenableFuture<String> readRaw() {
+        if (selectedId != null) {
+            return super.readRaw();
+        }
+
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+        return transformToStringListenableFuture(executeCollectionRequest(request, null, true));
+    }
+
+    /**
+     * Reads the first page of the collection, keeping the link to the next page.
+     *
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataCollectionPage<TEntity>> readPage() {
+        return readPage(null);
+    }
+
+    /**
+     * Reads the page the given next link points to, or the first page if it's null.
+     *
+     * @param nextLink the next link returned with the previous page
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataCollectionPage<TEntity>> readPage(String nextLink) {
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+
+        if (nextLink != null) {
+            request.setUrl(new ODataLinkURL(nextLink));
+        }
+
+        ListenableFuture<ODataResponse> future = executeCollectionRequest(request, null);
+        return transformToEntityPageListenableFuture(transformToStringListenableFuture(future), this.clazz, getResolver());
+    }
+
+    /**
+     * Reads a page like {@link #readPage(String)}, keeping each entity as its JSON text
+     * instead of binding it, e.g. to copy entities to a file as they are.
+     *
+     * @param nextLink the next link returned with the previous page, or null for the first page
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataCollectionPage<String>> readRawPage(String nextLink) {
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+
+        if (nextLink != null) {
+            request.setUrl(new ODataLinkURL(nextLink));
+        }
+
+        ListenableFuture<ODataResponse> future = executeCollectionRequest(request, null);
+        return transformToRawPageListenableFuture(transformToStringListenableFuture(future), getResolver());
+    }
+
+    /**
+     * Synchronizes the collection incrementally, returning the changes since the previous
+     * run with the same store and key.
+     *
+     * @param store the store that keeps the sync state between runs
+     * @param syncKey the key identifying this synchronization in the store
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataSyncResult<TEntity>> sync(SyncStateStore store, String syncKey) {
+        return sync(store, syncKey, new ODataSyncOptions());
+    }
+
+    /**
+     * Synchronizes the collection incrementally, returning the changes since the previous
+     * run with the same store and key. The server's change tracking is used when available,
+     * otherwise entities are filtered by their last modified time against a stored watermark.
+     *
+     * @param store the store that keeps the sync state between runs
+     * @param syncKey the key identifying this synchronization in the store
+     * @param options the options
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataSyncResult<TEntity>> sync(SyncStateStore store, String syncKey, ODataSyncOptions options) {
+        ListenableFuture<ODataSyncResult<TEntity>> future =
+                new ODataCollectionSync<TEntity>(this, store, syncKey, options).execute();
+
+        final ODataCollectionStore<TEntity> cache = entityStore;
+        if (cache == null) {
+            return future;
+        }
+
+        if (select != null || expand != null) {
+            // partial entities would replace the whole ones kept in the store
+            log("Not applying the projected synchronization of " + cache.getCollection() + " to the entity store",
+                    LogLevel.WARNING);
+            return future;
+        }
+
+        return Futures.transform(future, new Function<ODataSyncResult<TEntity>, ODataSyncResult<TEntity>>() {
+            @Override
+            public ODataSyncResult<TEntity> apply(ODataSyncResult<TEntity> result) {
+                cache.apply(result, getResolver().getJsonSerializer());
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Add listenable future.
+     *
+     * @param entity the entity
+     * @return the listenable future
+     */
+    public ListenableFuture<TEntity> add(TEntity entity) {
+        ListenableFuture<String> future = addRaw(getResolver().getJsonSerializer().serialize(entity));
+        return transformToEntityListenableFuture(future, this.clazz, getResolver());
+    }
+
+    /**
+     * Add raw.
+     *
+     * @param payload the payload
+     * @return the listenable future
+     */
+    public ListenableFuture<String> addRaw(String payload) {
+        byte[] payloadBytes = payload.getBytes(Constants.UTF8);
+
+        Request request = getResolver().createRequest();
+        request.setContent(payloadBytes);
+        request.setVerb(HttpVerb.POST);
+
+        ListenableFuture<ODataResponse> future = oDataExecute(request);
+        return transformToStringListenableFuture(future);
+
+    }
+
+    /**
+     * Gets operations.
+     *
+     * @return the operations
+     */
+    public TOperations getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Add parameter.
+     *
+     * @param name the name
+     * @param value the value
+     * @return the ODataCollectionFetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> addParameter(String name, Object value) {
+        addCustomParameter(name, value);
+        return this;
+    }
+
+    /**
+     * Add header.
+     *
+     * @param name the name
+     * @param value the value
+     * @return the ODataCollectionFetcher
+     */
+    public ODataCollectionFetcher<TEntity, TFetcher, TOperations> addHeader(String name, String value) {
+        addCustomHeader(name, value);
+        return this;
+    }
+
+
+    /**
+     * Sets path for collections.
+     *
+     * @param url the url
+     * @param urlComponent the url component
+     * @param top the top
+     * @param skip the skip
+     * @param select the select
+     * @param expand the expand
+     * @param filter the filter
+     * @param orderBy the order by
+     */
+    protected void setPathForCollections(ODataURL url, String urlComponent, int top, int skip, String select, String expand, String filter, String orderBy) {
+        if (top > -1) {
+            url.addQueryStringParameter("$top", Integer.valueOf(top).toString());
+        }
+
+        if (skip > -1) {
+            url.addQueryStringParameter("$skip", Integer.valueOf(skip).toString());
+        }
+
+        if (select != null) {
+            url.addQueryStringParameter("$select", select);
+        }
+
+        if (expand != null) {
+            url.addQueryStringParameter("$expand", expand);
+        }
+
+        if (filter != null) {
+            url.addQueryStringParameter("$filter", filter);
+        }
+
+        if (orderBy != null) {
+            url.addQueryStringParameter("$orderby", orderBy);
+        }
+
+        url.prependPathComponent(urlComponent);
+    }
 }
\ No newline at end of file
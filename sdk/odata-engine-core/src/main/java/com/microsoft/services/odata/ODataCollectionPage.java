@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single page of an OData collection response, along with the server-driven paging and
+ * change tracking links that came with it.
+ *
+ * @param <TEntity> the type parameter
+ */
+public class ODataCollectionPage<TEntity> {
+
+    private List<TEntity> items;
+    private List<String> removedIds;
+    private String nextLink;
+    private String deltaLink;
+
+    /**
+     * Instantiates a new ODataCollectionPage.
+     *
+     * @param items      the items
+     * @param removedIds the ids of the entries reported as removed
+     * @param nextLink   the next link
+     * @param deltaLink  the delta link
+     */
+    public ODataCollectionPage(List<TEntity> items, List<String> removedIds, String nextLink, String deltaLink) {
+        this.items = items != null ? items : new ArrayList<TEntity>();
+        this.removedIds = removedIds != null ? removedIds : new ArrayList<String>();
+        this.nextLink = nextLink;
+        this.deltaLink = deltaLink;
+    }
+
+    /**
+     * Gets items.
+     *
+     * @return the items
+     */
+    public List<TEntity> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the ids of the entries the server reported as removed. Only delta responses
+     * contain removed entries.
+     *
+     * @return the removed ids
+     */
+    public List<String> getRemovedIds() {
+        return removedIds;
+    }
+
+    /**
+     * Gets the link to the next page, or null if this is the last page.
+     *
+     * @return the next link
+     */
+    public String getNextLink() {
+        return nextLink;
+    }
+
+    /**
+     * Gets the delta link, returned on the last page when change tracking was requested
+     * and is supported by the server.
+     *
+     * @return the delta link
+     */
+    public String getDeltaLink() {
+        return deltaLink;
+    }
+
+    /**
+     * Has next page.
+     *
+     * @return the boolean
+     */
+    public boolean hasNextPage() {
+        return nextLink != null;
+    }
+}
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.microsoft.services.odata.interfaces.EntityStore;
+import com.microsoft.services.odata.interfaces.JsonSerializer;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Binds a collection fetcher to an entity store: turns entities into stored entities,
+ * extracting the values of the indexed properties, and reads them back from the store.
+ *
+ * @param <TEntity> the type parameter
+ */
+class ODataCollectionStore<TEntity> {
+
+    private static final Map<String, Method> GETTER_CACHE = new ConcurrentHashMap<String, Method>();
+    private static final String[] ID_GETTERS = new String[]{"getId", "getobjectId"};
+
+    private static ListeningExecutorService executor;
+
+    private final EntityStore store;
+    private final String collection;
+    private final long maxAgeMillis;
+    private final List<String> indexedProperties;
+    private final Class<TEntity> clazz;
+
+    /**
+     * Instantiates a new ODataCollectionStore.
+     *
+     * @param store the store
+     * @param collection the collection name in the store
+     * @param maxAgeMillis how long after a refresh the store answers reads
+     * @param indexedProperties the indexed property paths
+     * @param clazz the entity class
+     */
+    ODataCollectionStore(EntityStore store, String collection, long maxAgeMillis,
+                         String[] indexedProperties, Class<TEntity> clazz) {
+        if (store == null) {
+            throw new IllegalArgumentException("store must not be null");
+        }
+
+        if (collection == null) {
+            throw new IllegalArgumentException("collection must not be null");
+        }
+
+        this.store = store;
+        this.collection = collection;
+        this.maxAgeMillis = maxAgeMillis;
+        this.indexedProperties = indexedProperties != null
+                ? Collections.unmodifiableList(Arrays.asList(indexedProperties.clone()))
+                : Collections.<String>emptyList();
+        this.clazz = clazz;
+    }
+
+    /**
+     * Gets store.
+     *
+     * @return the store
+     */
+    EntityStore getStore() {
+        return store;
+    }
+
+    /**
+     * Gets collection.
+     *
+     * @return the collection
+     */
+    String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Gets indexed properties.
+     *
+     * @return the indexed properties
+     */
+    List<String> getIndexedProperties() {
+        return indexedProperties;
+    }
+
+    /**
+     * Whether the store was refreshed recently enough to answer reads.
+     *
+     * @return the boolean
+     */
+    boolean isFresh() {
+        long lastRefreshed = store.getLastRefreshed(collection);
+        return lastRefreshed > 0 && System.currentTimeMillis() - lastRefreshed <= maxAgeMillis;
+    }
+
+    /**
+     * Reads the entities matching a query from the store on the store thread pool, so that
+     * read() never blocks its caller on disk or database access.
+     *
+     * @param query the query
+     * @param serializer the serializer
+     * @param selectedProperties the selected properties, or null to bind every property
+     * @return the entities, or null if the store is not fresh enough to answer reads
+     */
+    ListenableFuture<List<TEntity>> queryIfFresh(final EntityStoreQuery query, final JsonSerializer serializer,
+                                                 final Set<String> selectedProperties) {
+        return getExecutor().submit(new Callable<List<TEntity>>() {
+            @Override
+            public List<TEntity> call() throws Exception {
+                if (!isFresh()) {
+                    return null;
+                }
+
+                try {
+                    return query(query, serializer, selectedProperties);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new ExecutionException(t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the entities matching a query from the store.
+     *
+     * @param query the query
+     * @param serializer the serializer
+     * @return the entities
+     * @throws Throwable the throwable
+     */
+    List<TEntity> query(EntityStoreQuery query, JsonSerializer serializer) throws Throwable {
+        return query(query, serializer, null);
+    }
+
+    /**
+     * Reads the entities matching a query from the store, binding only the given properties
+     * so that they look like the ones read from the server with the same projection.
+     *
+     * @param query the query
+     * @param serializer the serializer
+     * @param selectedProperties the selected properties, or null to bind every property
+     * @return the entities
+     * @throws Throwable the throwable
+     */
+    List<TEntity> query(EntityStoreQuery query, JsonSerializer serializer, Set<String> selectedProperties) throws Throwable {
+        List<String> payloads = store.query(collection, query);
+
+        if (selectedProperties != null) {
+            StringBuilder sb = new StringBuilder("{\"value\":[");
+            for (int i = 0; i < payloads.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(payloads.get(i));
+            }
+            sb.append("]}");
+            return Helpers.deserializeList(serializer, sb.toString(), clazz, selectedProperties);
+        }
+
+        List<TEntity> entities = new ArrayList<TEntity>(payloads.size());
+        for (String payload : payloads) {
+            entities.add(serializer.deserialize(payload, clazz));
+        }
+        return entities;
+    }
+
+    /**
+     * Inserts or replaces entities in the store. Entities without an id are skipped.
+     *
+     * @param entities the entities
+     * @param serializer the serializer
+     */
+    void upsert(List<TEntity> entities, JsonSerializer serializer) {
+        List<StoredEntity> stored = new ArrayList<StoredEntity>(entities.size());
+        for (TEntity entity : entities) {
+            String id = toId(entity);
+            if (id == null) {
+                continue;
+            }
+
+            Map<String, Object> indexValues = new HashMap<String, Object>();
+            for (String property : indexedProperties) {
+                indexValues.put(property, toIndexValue(getPropertyValue(entity, property)));
+            }
+
+            stored.add(new StoredEntity(id, serializer.serialize(entity), indexValues));
+        }
+
+        if (!stored.isEmpty()) {
+            store.upsert(collection, stored);
+        }
+    }
+
+    /**
+     * Applies the result of a synchronization to the store and marks it as refreshed.
+     *
+     * @param result the result
+     * @param serializer the serializer
+     */
+    void apply(ODataSyncResult<TEntity> result, JsonSerializer serializer) {
+        if (result.isFullSync()) {
+            store.clear(collection);
+        }
+
+        upsert(result.getChanged(), serializer);
+
+        if (!result.getRemovedIds().isEmpty()) {
+            store.remove(collection, result.getRemovedIds());
+        }
+
+        store.setLastRefreshed(collection, System.currentTimeMillis());
+    }
+
+    /**
+     * Converts a property value to an index value: dates and integral numbers become Long,
+     * ISO date strings become epoch milliseconds, everything else becomes a String.
+     *
+     * @param value the value
+     * @return the index value
+     */
+    static Object toIndexValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof Calendar) {
+            return ((Calendar) value).getTimeInMillis();
+        }
+
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+
+        String text = value.toString();
+        Long dateTime = EntityStoreQuery.parseDateTime(text);
+        return dateTime != null ? dateTime : text;
+    }
+
+    private static String toId(Object entity) {
+        for (String getter : ID_GETTERS) {
+            Method method = findGetter(entity.getClass(), getter);
+            if (method != null) {
+                Object id = invoke(method, entity);
+                return id != null ? id.toString() : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value of a property path such as "From/EmailAddress/Address".
+     *
+     * @param entity the entity
+     * @param path the path
+     * @return the value, or null if any step is null or missing
+     */
+    static Object getPropertyValue(Object entity, String path) {
+        Object current = entity;
+        for (String segment : path.split("/")) {
+            if (current == null) {
+                return null;
+            }
+
+            Method method = findGetter(current.getClass(), "get" + segment);
+            if (method == null) {
+                return null;
+            }
+            current = invoke(method, current);
+        }
+        return current;
+    }
+
+    private static Method findGetter(Class<?> type, String name) {
+        String key = type.getName() + "#" + name;
+        Method cached = GETTER_CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        for (Method method : type.getMethods()) {
+            if (method.getParameterTypes().length == 0 && method.getName().equalsIgnoreCase(name)) {
+                GETTER_CACHE.put(key, method);
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Object invoke(Method method, Object target) {
+        try {
+            return method.invoke(target);
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to read " + method.getName() + " of " + target.getClass().getName(), e);
+        }
+    }
+
+    private static synchronized ListeningExecutorService getExecutor() {
+        if (executor == null) {
+            executor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ODataCollectionStore");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }));
+        }
+        return executor;
+    }
+}
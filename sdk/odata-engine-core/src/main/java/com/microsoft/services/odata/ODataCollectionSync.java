@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.ODataLinkURL;
+import com.microsoft.services.odata.interfaces.HttpVerb;
+import com.microsoft.services.odata.interfaces.LogLevel;
+import com.microsoft.services.odata.interfaces.ODataResponse;
+import com.microsoft.services.odata.interfaces.Request;
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static com.microsoft.services.odata.Helpers.transformToEntityPageListenableFuture;
+import static com.microsoft.services.odata.Helpers.transformToStringListenableFuture;
+
+/**
+ * Runs one incremental synchronization of a collection. Follows the stored delta link when
+ * there is one, otherwise scans the entities modified after the stored watermark, or reads the
+ * whole collection on the first run. Next links are followed until the last page.
+ *
+ * @param <TEntity> the type parameter
+ */
+class ODataCollectionSync<TEntity> {
+
+    /**
+     * The constant DELTA_LINK_SUFFIX.
+     */
+    static final String DELTA_LINK_SUFFIX = ".deltaLink";
+
+    /**
+     * The constant WATERMARK_SUFFIX.
+     */
+    static final String WATERMARK_SUFFIX = ".watermark";
+
+    private static final int GONE_STATUS = 410;
+
+    private final ODataCollectionFetcher<TEntity, ?, ?> fetcher;
+    private final SyncStateStore store;
+    private final String syncKey;
+    private final ODataSyncOptions options;
+
+    private final List<TEntity> changed = new ArrayList<TEntity>();
+    private final List<String> removedIds = new ArrayList<String>();
+    private final SettableFuture<ODataSyncResult<TEntity>> result = SettableFuture.create();
+
+    private boolean fullSync;
+    private boolean deltaRequested;
+    private long startedAt;
+
+    /**
+     * Instantiates a new ODataCollectionSync.
+     *
+     * @param fetcher the fetcher
+     * @param store the store
+     * @param syncKey the sync key
+     * @param options the options
+     */
+    ODataCollectionSync(ODataCollectionFetcher<TEntity, ?, ?> fetcher, SyncStateStore store, String syncKey, ODataSyncOptions options) {
+        if (store == null) {
+            throw new IllegalArgumentException("store must not be null");
+        }
+
+        if (syncKey == null) {
+            throw new IllegalArgumentException("syncKey must not be null");
+        }
+
+        this.fetcher = fetcher;
+        this.store = store;
+        this.syncKey = syncKey;
+        this.options = options != null ? options : new ODataSyncOptions();
+    }
+
+    /**
+     * Executes the synchronization.
+     *
+     * @return the listenable future
+     */
+    ListenableFuture<ODataSyncResult<TEntity>> execute() {
+        startedAt = System.currentTimeMillis();
+
+        String deltaLink = store.get(syncKey + DELTA_LINK_SUFFIX);
+        String watermark = store.get(syncKey + WATERMARK_SUFFIX);
+
+        if (deltaLink != null && options.isServerDeltaEnabled()) {
+            log("Synchronizing " + syncKey + " from the stored delta link");
+            fullSync = false;
+            deltaRequested = true;
+            fetchPage(createLinkRequest(deltaLink), null);
+        } else if (watermark != null) {
+            log("Synchronizing " + syncKey + " from watermark " + watermark);
+            fullSync = false;
+            deltaRequested = false;
+            fetchPage(createRequest(), options.getWatermarkProperty() + " ge "
+                    + String.format(options.getWatermarkLiteralFormat(), watermark));
+        } else {
+            startFullSync();
+        }
+
+        return result;
+    }
+
+    private void startFullSync() {
+        log("Starting full synchronization of " + syncKey);
+        fullSync = true;
+        deltaRequested = options.isServerDeltaEnabled();
+        changed.clear();
+        removedIds.clear();
+
+        Request request = createRequest();
+        if (deltaRequested && options.getDeltaQueryParameter() != null) {
+            request.getUrl().addQueryStringParameter(options.getDeltaQueryParameter(), "");
+        }
+
+        fetchPage(request, null);
+    }
+
+    private void fetchPage(Request request, String additionalFilter) {
+        ListenableFuture<ODataResponse> future;
+        try {
+            future = fetcher.executeCollectionRequest(request, additionalFilter);
+        } catch (Throwable t) {
+            result.setException(t);
+            return;
+        }
+
+        ListenableFuture<ODataCollectionPage<TEntity>> page = transformToEntityPageListenableFuture(
+                transformToStringListenableFuture(future), fetcher.clazz, fetcher.getResolver());
+
+        Futures.addCallback(page, new FutureCallback<ODataCollectionPage<TEntity>>() {
+            @Override
+            public void onSuccess(ODataCollectionPage<TEntity> page) {
+                changed.addAll(page.getItems());
+                removedIds.addAll(page.getRemovedIds());
+
+                if (page.hasNextPage()) {
+                    fetchPage(createLinkRequest(page.getNextLink()), null);
+                } else {
+                    complete(page.getDeltaLink());
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (!fullSync && deltaRequested && isGone(t)) {
+                    log("Stored delta link for " + syncKey + " was rejected, restarting full synchronization");
+                    store.remove(syncKey + DELTA_LINK_SUFFIX);
+                    startFullSync();
+                    return;
+                }
+
+                result.setException(t);
+            }
+        });
+    }
+
+    private void complete(String deltaLink) {
+        boolean serverDelta = deltaRequested && deltaLink != null;
+
+        try {
+            if (serverDelta) {
+                store.put(syncKey + DELTA_LINK_SUFFIX, deltaLink);
+                store.remove(syncKey + WATERMARK_SUFFIX);
+            } else {
+                store.remove(syncKey + DELTA_LINK_SUFFIX);
+                store.put(syncKey + WATERMARK_SUFFIX, formatWatermark(startedAt - options.getWatermarkOverlapMillis()));
+            }
+        } catch (Throwable t) {
+            result.setException(t);
+            return;
+        }
+
+        log("Synchronization of " + syncKey + " finished with " + changed.size()
+                + " changed and " + removedIds.size() + " removed entities");
+        result.set(new ODataSyncResult<TEntity>(changed, removedIds, fullSync, serverDelta));
+    }
+
+    private Request createRequest() {
+        Request request = fetcher.getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+
+        if (deltaRequested) {
+            request.addHeader(Constants.PREFER_HEADER, Constants.ODATA_TRACK_CHANGES_PREFERENCE);
+        }
+
+        return request;
+    }
+
+    private Request createLinkRequest(String link) {
+        Request request = createRequest();
+        request.setUrl(new ODataLinkURL(link));
+        return request;
+    }
+
+    private void log(String message) {
+        fetcher.log(message, LogLevel.VERBOSE);
+    }
+
+    private static boolean isGone(Throwable t) {
+        if (t instanceof ODataException) {
+            ODataResponse response = ((ODataException) t).getODataResponse();
+            return response != null && response.getResponse() != null
+                    && response.getResponse().getStatus() == GONE_STATUS;
+        }
+
+        return false;
+    }
+
+    private static String formatWatermark(long time) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat.format(new Date(time));
+    }
+}
@@ -36,6 +36,17 @@ public abstract class ODataExecutable {
      */
     protected abstract DependencyResolver getResolver();
 
+    /**
+     * Gets the projection collection reads of the given entity type use when they don't
+     * select anything themselves.
+     *
+     * @param clazz the entity class
+     * @return the default projection, or null to read whole entities
+     */
+    protected ODataProjection<?> getDefaultProjection(Class<?> clazz) {
+        return null;
+    }
+
     /**
      * The Custom parameters.
      */
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.Map;
+
+/**
+ * The progress of an export, as of when it was taken. Counts only cover the current run,
+ * not the pages committed by an interrupted run it resumed.
+ */
+public class ODataExportProgress {
+
+    private int collectionCount;
+    private int completedCount;
+    private Map<String, Long> rowCounts;
+    private long pageCount;
+    private long elapsedMillis;
+
+    /**
+     * Instantiates a new ODataExportProgress.
+     *
+     * @param collectionCount the collection count
+     * @param completedCount  the completed count
+     * @param rowCounts       the row count of each collection
+     * @param pageCount       the page count
+     * @param elapsedMillis   the elapsed millis
+     */
+    public ODataExportProgress(int collectionCount, int completedCount, Map<String, Long> rowCounts, long pageCount,
+                               long elapsedMillis) {
+        this.collectionCount = collectionCount;
+        this.completedCount = completedCount;
+        this.rowCounts = rowCounts;
+        this.pageCount = pageCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets collection count.
+     *
+     * @return the collection count
+     */
+    public int getCollectionCount() {
+        return collectionCount;
+    }
+
+    /**
+     * Gets the number of collections exported completely.
+     *
+     * @return the completed count
+     */
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Gets the number of rows written for each collection.
+     *
+     * @return the row counts
+     */
+    public Map<String, Long> getRowCounts() {
+        return rowCounts;
+    }
+
+    /**
+     * Gets the number of rows written.
+     *
+     * @return the row count
+     */
+    public long getRowCount() {
+        long total = 0;
+        for (Long count : rowCounts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of pages committed.
+     *
+     * @return the page count
+     */
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Gets elapsed millis.
+     *
+     * @return the elapsed millis
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the number of rows written per second.
+     *
+     * @return the rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? getRowCount() * 1000.0 / elapsedMillis : 0;
+    }
+}
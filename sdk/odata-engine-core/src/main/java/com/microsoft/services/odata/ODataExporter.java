@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+import com.microsoft.services.odata.interfaces.ExportSink;
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports whole collections to sinks, e.g. every user, group and device of a directory to
+ * NDJSON files.
+ * <p>
+ * Collections are exported in parallel, each one page after the other, with the next page
+ * requested while the current one is written. Entities are copied as JSON text, a page at
+ * a time, so memory use doesn't grow with the collections. After each page the sink is
+ * committed and the next link is saved to a checkpoint store; starting again with the same
+ * store and key resumes every collection from its last committed page, and skips the ones
+ * already completed. Throttled pages are retried after the Retry-After delay or an
+ * exponential backoff.
+ */
+public class ODataExporter {
+
+    /**
+     * The default number of collections exported at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_COLLECTIONS = 4;
+
+    private static final char CHECKPOINT_SEPARATOR = '\n';
+
+    /**
+     * A collection to export.
+     */
+    private final class Export {
+        final String name;
+        final ODataCollectionFetcher<?, ?, ?> collection;
+        final ExportSink sink;
+        ListenableFuture<?> page;
+        long rowCount;
+
+        Export(String name, ODataCollectionFetcher<?, ?, ?> collection, ExportSink sink) {
+            this.name = name;
+            this.collection = collection;
+            this.sink = sink;
+        }
+
+        String getCheckpointKey() {
+            return exportKey + "." + name;
+        }
+    }
+
+    private final SyncStateStore checkpoints;
+    private final String exportKey;
+    private final List<Export> exports = new ArrayList<Export>();
+    private int maxRetries = ODataBulkOptions.DEFAULT_MAX_RETRIES;
+
+    private final Object lock = new Object();
+    private final SettableFuture<ODataExportProgress> result = SettableFuture.create();
+    private final BoundedTaskQueue<Export> queue = new BoundedTaskQueue<Export>(lock, DEFAULT_MAX_CONCURRENT_COLLECTIONS) {
+        @Override
+        protected void start(Export export) {
+            begin(export);
+        }
+
+        @Override
+        protected boolean canStart() {
+            return !result.isDone();
+        }
+
+        @Override
+        protected void onIdle() {
+            if (!result.isDone()) {
+                result.set(getProgress());
+            }
+        }
+    };
+    private boolean started;
+    private long startTime;
+    private int completedCount;
+    private long pageCount;
+
+    /**
+     * Instantiates a new ODataExporter.
+     *
+     * @param checkpoints the store keeping the last committed page of each collection
+     * @param exportKey   the key identifying this export in the store
+     */
+    public ODataExporter(SyncStateStore checkpoints, String exportKey) {
+        if (checkpoints == null || exportKey == null) {
+            throw new IllegalArgumentException("checkpoints and exportKey must not be null");
+        }
+        this.checkpoints = checkpoints;
+        this.exportKey = exportKey;
+    }
+
+    /**
+     * Adds a collection to export. Its query options, e.g. $top or $select, apply to every
+     * page.
+     *
+     * @param name       the name, unique within the export
+     * @param collection the collection
+     * @param sink       the sink
+     * @return the exporter
+     */
+    public ODataExporter add(String name, ODataCollectionFetcher<?, ?, ?> collection, ExportSink sink) {
+        if (name == null || collection == null || sink == null) {
+            throw new IllegalArgumentException("name, collection and sink must not be null");
+        }
+
+        synchronized (lock) {
+            checkNotStarted();
+            for (Export export : exports) {
+                if (export.name.equals(name)) {
+                    throw new IllegalArgumentException("A collection named " + name + " was already added");
+                }
+            }
+            exports.add(new Export(name, collection, sink));
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of collections exported at the same time.
+     *
+     * @param maxConcurrentCollections the max concurrent collections
+     * @return the exporter
+     */
+    public ODataExporter setMaxConcurrentCollections(int maxConcurrentCollections) {
+        if (maxConcurrentCollections < 1) {
+            throw new IllegalArgumentException("maxConcurrentCollections must be at least 1");
+        }
+        synchronized (lock) {
+            checkNotStarted();
+            queue.setMaxConcurrency(maxConcurrentCollections);
+        }
+        return this;
+    }
+
+    /**
+     * Sets how many times a page is retried after a throttling response before the export
+     * fails. Other failures are never retried.
+     *
+     * @param maxRetries the max retries
+     * @return the exporter
+     */
+    public ODataExporter setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        synchronized (lock) {
+            checkNotStarted();
+            this.maxRetries = maxRetries;
+        }
+        return this;
+    }
+
+    /**
+     * Forgets the checkpoints of every collection added, so that the next export starts
+     * over.
+     */
+    public void reset() {
+        synchronized (lock) {
+            for (Export export : exports) {
+                checkpoints.remove(export.getCheckpointKey());
+            }
+        }
+    }
+
+    /**
+     * Starts the export, resuming from the checkpoints of a previous one. It can only be
+     * called once.
+     *
+     * @return the listenable future, completed once every collection has been exported
+     */
+    public ListenableFuture<ODataExportProgress> start() {
+        synchronized (lock) {
+            checkNotStarted();
+            started = true;
+            startTime = System.currentTimeMillis();
+            queue.addAll(exports);
+        }
+
+        // a failed or cancelled export doesn't wait for the pages requested ahead
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                cancelPages();
+            }
+        }, MoreExecutors.directExecutor());
+        queue.pump();
+        return result;
+    }
+
+    /**
+     * Gets the progress so far.
+     *
+     * @return the progress
+     */
+    public ODataExportProgress getProgress() {
+        synchronized (lock) {
+            Map<String, Long> rowCounts = new LinkedHashMap<String, Long>();
+            for (Export export : exports) {
+                rowCounts.put(export.name, export.rowCount);
+            }
+            return new ODataExportProgress(exports.size(), completedCount, Collections.unmodifiableMap(rowCounts),
+                    pageCount, started ? System.currentTimeMillis() - startTime : 0);
+        }
+    }
+
+    /**
+     * Stops the export after the pages being written, and cancels the pages requested ahead
+     * of them. It can be resumed later from the checkpoints.
+     */
+    public void cancel() {
+        result.cancel(false);
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void checkNotStarted() {
+        if (started) {
+            throw new IllegalStateException("The export has already started");
+        }
+    }
+
+    /**
+     * Opens the sink of a collection and requests its first page, unless it was completed
+     * by a previous export.
+     */
+    private void begin(Export export) {
+        String checkpoint = checkpoints.get(export.getCheckpointKey());
+        String position = null;
+        String nextLink = null;
+
+        if (checkpoint != null) {
+            int separator = checkpoint.indexOf(CHECKPOINT_SEPARATOR);
+            position = checkpoint.substring(0, separator);
+            nextLink = checkpoint.substring(separator + 1);
+            if (nextLink.length() == 0) {
+                // completed by a previous export
+                synchronized (lock) {
+                    completedCount++;
+                }
+                queue.completed();
+                return;
+            }
+        }
+
+        try {
+            export.sink.open(position);
+        } catch (IOException e) {
+            result.setException(e);
+            return;
+        }
+        request(export, nextLink, 1, Futures.immediateFuture(null));
+    }
+
+    /**
+     * Requests a page, and has it written once the previous one has been committed.
+     */
+    private void request(final Export export, final String link, final int attempt, ListenableFuture<?> previous) {
+        ListenableFuture<ODataCollectionPage<String>> future;
+        try {
+            future = export.collection.readRawPage(link);
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+
+        final ListenableFuture<ODataCollectionPage<String>> page = future;
+        synchronized (lock) {
+            export.page = page;
+        }
+        previous.addListener(new Runnable() {
+            @Override
+            public void run() {
+                Futures.addCallback(page, new FutureCallback<ODataCollectionPage<String>>() {
+                    @Override
+                    public void onSuccess(ODataCollectionPage<String> items) {
+                        write(export, items);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        retry(export, link, attempt, t);
+                    }
+                });
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void write(Export export, ODataCollectionPage<String> page) {
+        if (result.isDone()) {
+            finish(export, false);
+            return;
+        }
+
+        // the next page is already on its way while this one is written, it is only written
+        // once this one is committed
+        SettableFuture<Void> committed = SettableFuture.create();
+        if (page.hasNextPage()) {
+            request(export, page.getNextLink(), 1, committed);
+        }
+
+        try {
+            for (String item : page.getItems()) {
+                export.sink.write(item);
+            }
+            String position = export.sink.commit();
+            checkpoints.put(export.getCheckpointKey(),
+                    position + CHECKPOINT_SEPARATOR + (page.hasNextPage() ? page.getNextLink() : ""));
+        } catch (Throwable t) {
+            fail(export, t);
+            return;
+        }
+
+        synchronized (lock) {
+            export.rowCount += page.getItems().size();
+            pageCount++;
+        }
+        committed.set(null);
+
+        if (!page.hasNextPage()) {
+            finish(export, true);
+        }
+    }
+
+    private void retry(final Export export, final String link, final int attempt, Throwable t) {
+        int status = ODataBulkExecutor.getStatus(t);
+        if (!ODataBulkExecutor.isThrottled(status) || attempt > maxRetries || result.isDone()) {
+            fail(export, t);
+            return;
+        }
+
+        long delay = ODataBulkExecutor.getRetryAfterMillis(t);
+        if (delay < 0) {
+            delay = ODataBulkOptions.DEFAULT_RETRY_DELAY_MILLIS << Math.min(attempt - 1, 20);
+        }
+        delay = Math.min(delay, ODataBulkOptions.DEFAULT_MAX_RETRY_DELAY_MILLIS);
+
+        ODataBulkExecutor.getScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (result.isDone()) {
+                    finish(export, false);
+                } else {
+                    request(export, link, attempt + 1, Futures.immediateFuture(null));
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelPages() {
+        List<ListenableFuture<?>> pages = new ArrayList<ListenableFuture<?>>();
+        synchronized (lock) {
+            for (Export export : exports) {
+                if (export.page != null) {
+                    pages.add(export.page);
+                }
+            }
+        }
+
+        for (ListenableFuture<?> page : pages) {
+            page.cancel(false);
+        }
+    }
+
+    private void fail(Export export, Throwable t) {
+        result.setException(t);
+        finish(export, false);
+    }
+
+    private void finish(Export export, boolean completed) {
+        try {
+            export.sink.close();
+        } catch (IOException e) {
+            result.setException(e);
+        }
+
+        synchronized (lock) {
+            if (completed) {
+                completedCount++;
+            }
+        }
+        queue.completed();
+    }
+}
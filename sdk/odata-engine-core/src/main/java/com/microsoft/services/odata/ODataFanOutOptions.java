@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * Options for reading collections across many keys, e.g. the same folder in many mailboxes.
+ */
+public class ODataFanOutOptions {
+
+    /**
+     * The constant DEFAULT_MAX_CONCURRENCY.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    /**
+     * The constant DEFAULT_MAX_CONCURRENCY_PER_KEY.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_KEY = 2;
+
+    /**
+     * The constant DEFAULT_MAX_RETRIES.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    /**
+     * The constant DEFAULT_RETRY_DELAY_MILLIS.
+     */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+
+    /**
+     * The constant DEFAULT_MAX_RETRY_DELAY_MILLIS.
+     */
+    public static final long DEFAULT_MAX_RETRY_DELAY_MILLIS = 60 * 1000;
+
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int maxConcurrencyPerKey = DEFAULT_MAX_CONCURRENCY_PER_KEY;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private long maxRetryDelayMillis = DEFAULT_MAX_RETRY_DELAY_MILLIS;
+
+    /**
+     * Gets max concurrency.
+     *
+     * @return the max concurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the number of requests kept in flight across all keys.
+     *
+     * @param maxConcurrency the max concurrency
+     * @return the options
+     */
+    public ODataFanOutOptions setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Gets max concurrency per key.
+     *
+     * @return the max concurrency per key
+     */
+    public int getMaxConcurrencyPerKey() {
+        return maxConcurrencyPerKey;
+    }
+
+    /**
+     * Sets the number of requests kept in flight for a single key. The pages of a collection
+     * are read one after the other, so this only matters when a key has several collections.
+     *
+     * @param maxConcurrencyPerKey the max concurrency per key
+     * @return the options
+     */
+    public ODataFanOutOptions setMaxConcurrencyPerKey(int maxConcurrencyPerKey) {
+        if (maxConcurrencyPerKey < 1) {
+            throw new IllegalArgumentException("maxConcurrencyPerKey must be at least 1");
+        }
+        this.maxConcurrencyPerKey = maxConcurrencyPerKey;
+        return this;
+    }
+
+    /**
+     * Gets max retries.
+     *
+     * @return the max retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Sets how many times a page is retried after a throttling response before its key is
+     * reported as failed. Other failures are never retried.
+     *
+     * @param maxRetries the max retries
+     * @return the options
+     */
+    public ODataFanOutOptions setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * Gets retry delay millis.
+     *
+     * @return the retry delay millis
+     */
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    /**
+     * Sets the pause of a key after a first throttling response without a Retry-After
+     * header. The pause doubles with every further retry of the same page.
+     *
+     * @param retryDelayMillis the retry delay millis
+     * @return the options
+     */
+    public ODataFanOutOptions setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    /**
+     * Gets max retry delay millis.
+     *
+     * @return the max retry delay millis
+     */
+    public long getMaxRetryDelayMillis() {
+        return maxRetryDelayMillis;
+    }
+
+    /**
+     * Sets the longest pause after a throttling response, including the ones asked for by
+     * a Retry-After header.
+     *
+     * @param maxRetryDelayMillis the max retry delay millis
+     * @return the options
+     */
+    public ODataFanOutOptions setMaxRetryDelayMillis(long maxRetryDelayMillis) {
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        return this;
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.Map;
+
+/**
+ * The progress of a fan-out read, as of when it was taken.
+ */
+public class ODataFanOutProgress {
+
+    private int keyCount;
+    private int completedCount;
+    private Map<String, Throwable> failures;
+    private long itemCount;
+    private long pageCount;
+    private int throttledCount;
+    private long elapsedMillis;
+
+    /**
+     * Instantiates a new ODataFanOutProgress.
+     *
+     * @param keyCount       the key count
+     * @param completedCount the completed count
+     * @param failures       the failures
+     * @param itemCount      the item count
+     * @param pageCount      the page count
+     * @param throttledCount the throttled count
+     * @param elapsedMillis  the elapsed millis
+     */
+    public ODataFanOutProgress(int keyCount, int completedCount, Map<String, Throwable> failures, long itemCount,
+                               long pageCount, int throttledCount, long elapsedMillis) {
+        this.keyCount = keyCount;
+        this.completedCount = completedCount;
+        this.failures = failures;
+        this.itemCount = itemCount;
+        this.pageCount = pageCount;
+        this.throttledCount = throttledCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets key count.
+     *
+     * @return the key count
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Gets the number of keys read completely.
+     *
+     * @return the completed count
+     */
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Gets failure count.
+     *
+     * @return the failure count
+     */
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    /**
+     * Gets the number of keys neither completed nor failed yet.
+     *
+     * @return the pending count
+     */
+    public int getPendingCount() {
+        return keyCount - completedCount - failures.size();
+    }
+
+    /**
+     * Gets the error of every failed key.
+     *
+     * @return the failures
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets item count.
+     *
+     * @return the item count
+     */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets page count.
+     *
+     * @return the page count
+     */
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Gets the number of throttling responses, retried or not.
+     *
+     * @return the throttled count
+     */
+    public int getThrottledCount() {
+        return throttledCount;
+    }
+
+    /**
+     * Gets elapsed millis.
+     *
+     * @return the elapsed millis
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the number of items read per second.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return elapsedMillis > 0 ? itemCount * 1000.0 / elapsedMillis : 0;
+    }
+}
@@ -0,0 +1,442 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads collections across many keys, e.g. the same folder in thousands of mailboxes, keeping
+ * a bounded number of requests in flight and passing every page on as soon as it arrives.
+ * <p>
+ * Keys take turns: after one of its pages is requested, a key goes to the back of the line,
+ * so a key with many pages doesn't hold up the others. A key's collections are read in
+ * parallel up to a per key limit and the pages of each collection in sequence. A throttling
+ * response (429 or 503) pauses its key only, until the Retry-After delay or an exponential
+ * backoff has passed. Any other failure ends its key, and is reported, without affecting the
+ * other keys.
+ *
+ * @param <TEntity> the type parameter
+ */
+public class ODataFanOutReader<TEntity> {
+
+    /**
+     * Provides the collections to read for each key.
+     *
+     * @param <TEntity> the type parameter
+     */
+    public interface Source<TEntity> {
+        /**
+         * Gets the collections to read for a key. It is called once per key, when the key
+         * gets its first turn.
+         *
+         * @param key the key
+         * @return the collections
+         */
+        List<ODataCollectionFetcher<TEntity, ?, ?>> getCollections(String key);
+    }
+
+    /**
+     * Receives the items as they are read. Calls are never concurrent, but they come from
+     * network threads.
+     *
+     * @param <TEntity> the type parameter
+     */
+    public interface Callback<TEntity> {
+        /**
+         * Called for every page read.
+         *
+         * @param key   the key
+         * @param items the items of the page
+         */
+        void onItems(String key, List<TEntity> items);
+
+        /**
+         * Called when every collection of a key has been read, or when reading it failed.
+         * Nothing is reported for the key afterwards.
+         *
+         * @param key   the key
+         * @param error the error, or null if the key was read completely
+         */
+        void onCompleted(String key, Throwable error);
+    }
+
+    /**
+     * A collection of a key, and the link to its next page.
+     */
+    private static final class Stream<TEntity> {
+        final ODataCollectionFetcher<TEntity, ?, ?> fetcher;
+        String nextLink;
+        int attempts;
+
+        Stream(ODataCollectionFetcher<TEntity, ?, ?> fetcher) {
+            this.fetcher = fetcher;
+        }
+    }
+
+    /**
+     * The state of a key.
+     */
+    private static final class Key<TEntity> {
+        final String name;
+        final LinkedList<Stream<TEntity>> ready = new LinkedList<Stream<TEntity>>();
+        Stream<TEntity> next;
+        boolean initialized;
+        boolean queued;
+        boolean completed;
+        int inFlight;
+        int remaining;
+        long pausedUntil;
+        Throwable error;
+
+        Key(String name) {
+            this.name = name;
+        }
+    }
+
+    private final Source<TEntity> source;
+    private final Callback<TEntity> callback;
+    private final ODataFanOutOptions options;
+
+    private final Object lock = new Object();
+    private final Object callbackLock = new Object();
+    private final BoundedTaskQueue<Key<TEntity>> turns;
+    private final List<Key<TEntity>> completedKeys = new ArrayList<Key<TEntity>>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+    private final SettableFuture<ODataFanOutProgress> result = SettableFuture.create();
+    private final long startTime = System.currentTimeMillis();
+    private final int keyCount;
+
+    private int completedCount;
+    private long itemCount;
+    private long pageCount;
+    private int throttledCount;
+    private ODataFanOutProgress finished;
+
+    /**
+     * Starts reading the collections of every key.
+     *
+     * @param keys     the keys, duplicates are read once
+     * @param source   the source of the collections of each key
+     * @param callback the callback
+     * @param options  the options, or null for the defaults
+     * @return the reader
+     */
+    public static <TEntity> ODataFanOutReader<TEntity> start(Collection<String> keys, Source<TEntity> source,
+                                                             Callback<TEntity> callback, ODataFanOutOptions options) {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys must not be null");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("callback must not be null");
+        }
+
+        ODataFanOutReader<TEntity> reader = new ODataFanOutReader<TEntity>(new LinkedHashSet<String>(keys), source,
+                callback, options != null ? options : new ODataFanOutOptions());
+        reader.pump();
+        return reader;
+    }
+
+    private ODataFanOutReader(Collection<String> keys, Source<TEntity> source, Callback<TEntity> callback,
+                              ODataFanOutOptions options) {
+        this.source = source;
+        this.callback = callback;
+        this.options = options;
+        this.keyCount = keys.size();
+        this.turns = new BoundedTaskQueue<Key<TEntity>>(lock, options.getMaxConcurrency()) {
+            @Override
+            protected void start(Key<TEntity> key) {
+                read(key, key.next);
+            }
+
+            @Override
+            protected boolean canStart() {
+                return !result.isDone();
+            }
+
+            @Override
+            protected boolean accept(Key<TEntity> key) {
+                return take(key);
+            }
+
+            @Override
+            protected void onIdle() {
+                if (completedCount + failures.size() == keyCount && !result.isDone() && finished == null) {
+                    finished = getProgressLocked();
+                }
+            }
+        };
+
+        for (String name : keys) {
+            Key<TEntity> key = new Key<TEntity>(name);
+            key.queued = true;
+            turns.add(key);
+        }
+    }
+
+    /**
+     * Gets the result, completed once every key has been read or has failed.
+     *
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataFanOutProgress> getResult() {
+        return result;
+    }
+
+    /**
+     * Gets the progress so far.
+     *
+     * @return the progress
+     */
+    public ODataFanOutProgress getProgress() {
+        synchronized (lock) {
+            return getProgressLocked();
+        }
+    }
+
+    /**
+     * Stops sending requests. The keys not completed yet are not reported.
+     */
+    public void cancel() {
+        result.cancel(false);
+    }
+
+    /**
+     * Starts pages while there is room, giving each key a turn in order, then reports the
+     * keys that completed.
+     */
+    private void pump() {
+        turns.pump();
+        notifyCompleted();
+    }
+
+    /**
+     * Takes the turn of a key: completes it if it is done, or picks the page it requests next
+     * and puts it back in line. Returns whether a page is requested. Must be called while
+     * holding lock.
+     */
+    private boolean take(Key<TEntity> key) {
+        key.queued = false;
+
+        if (!key.initialized) {
+            initialize(key);
+        }
+        if (isDone(key)) {
+            complete(key);
+            completedKeys.add(key);
+        } else if (canStart(key)) {
+            key.next = key.ready.poll();
+            key.next.attempts++;
+            key.inFlight++;
+            enqueue(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void initialize(Key<TEntity> key) {
+        key.initialized = true;
+        try {
+            List<ODataCollectionFetcher<TEntity, ?, ?>> collections = source.getCollections(key.name);
+            for (ODataCollectionFetcher<TEntity, ?, ?> collection : collections) {
+                key.ready.add(new Stream<TEntity>(collection));
+            }
+            key.remaining = collections.size();
+        } catch (Throwable t) {
+            key.error = t;
+        }
+    }
+
+    private void read(final Key<TEntity> key, final Stream<TEntity> stream) {
+        ListenableFuture<ODataCollectionPage<TEntity>> future;
+        try {
+            future = stream.fetcher.readPage(stream.nextLink);
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+
+        Futures.addCallback(future, new FutureCallback<ODataCollectionPage<TEntity>>() {
+            @Override
+            public void onSuccess(ODataCollectionPage<TEntity> page) {
+                synchronized (callbackLock) {
+                    if (!result.isDone()) {
+                        try {
+                            callback.onItems(key.name, page.getItems());
+                        } catch (RuntimeException e) {
+                            onFailure(e);
+                            return;
+                        }
+                    }
+                }
+
+                synchronized (lock) {
+                    key.inFlight--;
+                    pageCount++;
+                    itemCount += page.getItems().size();
+
+                    if (page.hasNextPage()) {
+                        stream.nextLink = page.getNextLink();
+                        stream.attempts = 0;
+                        key.ready.add(stream);
+                    } else {
+                        key.remaining--;
+                    }
+                    enqueue(key);
+                }
+                turns.completed();
+                notifyCompleted();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                int status = ODataBulkExecutor.getStatus(t);
+
+                synchronized (lock) {
+                    key.inFlight--;
+
+                    if (ODataBulkExecutor.isThrottled(status)) {
+                        throttledCount++;
+                    }
+                    if (ODataBulkExecutor.isThrottled(status) && stream.attempts <= options.getMaxRetries()) {
+                        key.ready.addFirst(stream);
+                        pause(key, stream, ODataBulkExecutor.getRetryAfterMillis(t));
+                    } else if (key.error == null) {
+                        key.error = t;
+                    }
+                    enqueue(key);
+                }
+                turns.completed();
+                notifyCompleted();
+            }
+        });
+    }
+
+    /**
+     * Holds back a throttled key. Must be called while holding lock.
+     */
+    private void pause(final Key<TEntity> key, Stream<TEntity> stream, long retryAfterMillis) {
+        long delay = retryAfterMillis;
+        if (delay < 0) {
+            delay = options.getRetryDelayMillis() << Math.min(stream.attempts - 1, 20);
+        }
+        delay = Math.min(delay, options.getMaxRetryDelayMillis());
+
+        long now = System.currentTimeMillis();
+        if (now + delay <= key.pausedUntil) {
+            return;
+        }
+        key.pausedUntil = now + delay;
+
+        ODataBulkExecutor.getScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (lock) {
+                    enqueue(key);
+                }
+                pump();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gives a key another turn if it has something to do. Must be called while holding lock.
+     */
+    private void enqueue(Key<TEntity> key) {
+        if (!key.queued && (isDone(key) || canStart(key))) {
+            key.queued = true;
+            turns.add(key);
+        }
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private boolean canStart(Key<TEntity> key) {
+        return key.error == null && !key.ready.isEmpty() && key.inFlight < options.getMaxConcurrencyPerKey()
+                && key.pausedUntil <= System.currentTimeMillis();
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private boolean isDone(Key<TEntity> key) {
+        return key.initialized && !key.completed && key.inFlight == 0 && (key.error != null || key.remaining == 0);
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void complete(Key<TEntity> key) {
+        key.ready.clear();
+        key.completed = true;
+        if (key.error != null) {
+            failures.put(key.name, key.error);
+        } else {
+            completedCount++;
+        }
+    }
+
+    /**
+     * Reports the keys completed so far, then the result once every key is over. Keys are
+     * taken under the callback lock, so they are reported in order whichever thread does it.
+     */
+    private void notifyCompleted() {
+        ODataFanOutProgress progress;
+
+        synchronized (callbackLock) {
+            List<Key<TEntity>> keys;
+            synchronized (lock) {
+                keys = new ArrayList<Key<TEntity>>(completedKeys);
+                completedKeys.clear();
+                progress = finished;
+                finished = null;
+            }
+
+            for (Key<TEntity> key : keys) {
+                if (result.isCancelled()) {
+                    break;
+                }
+                try {
+                    callback.onCompleted(key.name, key.error);
+                } catch (RuntimeException ignored) {
+                    // the key is over, nothing left to fail
+                }
+            }
+        }
+
+        if (progress != null) {
+            result.set(progress);
+        }
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private ODataFanOutProgress getProgressLocked() {
+        return new ODataFanOutProgress(keyCount, completedCount,
+                Collections.unmodifiableMap(new LinkedHashMap<String, Throwable>(failures)), itemCount, pageCount,
+                throttledCount, System.currentTimeMillis() - startTime);
+    }
+}
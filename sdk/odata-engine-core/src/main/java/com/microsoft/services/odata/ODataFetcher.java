@@ -51,6 +51,11 @@ public abstract class ODataFetcher<TEntity> extends ODataExecutable {
         return parent.getResolver();
     }
 
+    @Override
+    protected ODataProjection<?> getDefaultProjection(Class<?> clazz) {
+        return parent.getDefaultProjection(clazz);
+    }
+
     /**
      * Read raw.
      *
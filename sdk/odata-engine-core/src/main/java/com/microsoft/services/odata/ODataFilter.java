@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A $filter expression built from typed properties. Expressions are immutable and kept in
+ * compiled form: the text around parameter slots is rendered once, when the expression is
+ * built, so an expression can be kept in a constant and bound with new values on every
+ * call without building or escaping its text again.
+ *
+ * <pre>
+ * static final ODataFilter&lt;Message&gt; UNREAD_IN_FOLDER =
+ *         ODataFilter.eq(MessageProperties.PARENT_FOLDER_ID, ODataFilter.param("folder"))
+ *                 .and(ODataFilter.eq(MessageProperties.IS_READ, false));
+ *
+ * client.getMe().getMessages().filter(UNREAD_IN_FOLDER.bind("folder", folderId)).read();
+ * </pre>
+ *
+ * @param <TEntity> the type parameter
+ */
+public final class ODataFilter<TEntity> {
+
+    /**
+     * A named parameter slot, replaced by a literal when the expression is bound.
+     */
+    public static final class Parameter {
+        private final String name;
+
+        private Parameter(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return "@" + name;
+        }
+    }
+
+    private static final int PRECEDENCE_OR = 1;
+    private static final int PRECEDENCE_AND = 2;
+    private static final int PRECEDENCE_UNARY = 3;
+
+    // Strings for the rendered text, Parameter for the unbound slots
+    private final List<Object> parts;
+    private final int precedence;
+
+    private ODataFilter(List<Object> parts, int precedence) {
+        this.parts = Collections.unmodifiableList(parts);
+        this.precedence = precedence;
+    }
+
+    /**
+     * Creates a parameter slot.
+     *
+     * @param name the name
+     * @return the parameter
+     */
+    public static Parameter param(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+
+        return new Parameter(name);
+    }
+
+    /**
+     * Property equals value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> eq(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "eq", value);
+    }
+
+    /**
+     * Property not equals value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> ne(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "ne", value);
+    }
+
+    /**
+     * Property greater than value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> gt(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "gt", value);
+    }
+
+    /**
+     * Property greater than or equal to value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> ge(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "ge", value);
+    }
+
+    /**
+     * Property less than value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> lt(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "lt", value);
+    }
+
+    /**
+     * Property less than or equal to value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> le(ODataProperty<? super TEntity> property, Object value) {
+        return comparison(property, "le", value);
+    }
+
+    /**
+     * Property starts with value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> startsWith(ODataProperty<? super TEntity> property, Object value) {
+        return function("startswith", property, value);
+    }
+
+    /**
+     * Property ends with value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> endsWith(ODataProperty<? super TEntity> property, Object value) {
+        return function("endswith", property, value);
+    }
+
+    /**
+     * Property contains value.
+     *
+     * @param property the property
+     * @param value the value or parameter slot
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> contains(ODataProperty<? super TEntity> property, Object value) {
+        return function("contains", property, value);
+    }
+
+    /**
+     * Negates an expression.
+     *
+     * @param filter the filter
+     * @return the o data filter
+     */
+    public static <TEntity> ODataFilter<TEntity> not(ODataFilter<TEntity> filter) {
+        List<Object> parts = new ArrayList<Object>();
+        append(parts, "not (");
+        appendAll(parts, filter.parts);
+        append(parts, ")");
+        return new ODataFilter<TEntity>(parts, PRECEDENCE_UNARY);
+    }
+
+    /**
+     * Both expressions must hold.
+     *
+     * @param other the other
+     * @return the o data filter
+     */
+    public ODataFilter<TEntity> and(ODataFilter<? super TEntity> other) {
+        return combine(other, " and ", PRECEDENCE_AND);
+    }
+
+    /**
+     * Either expression must hold.
+     *
+     * @param other the other
+     * @return the o data filter
+     */
+    public ODataFilter<TEntity> or(ODataFilter<? super TEntity> other) {
+        return combine(other, " or ", PRECEDENCE_OR);
+    }
+
+    /**
+     * Binds a parameter slot to a value.
+     *
+     * @param name the parameter name
+     * @param value the value
+     * @return the o data filter
+     */
+    public ODataFilter<TEntity> bind(String name, Object value) {
+        String literal = null;
+        boolean found = false;
+        List<Object> newParts = new ArrayList<Object>(parts.size());
+
+        for (Object part : parts) {
+            if (part instanceof Parameter && ((Parameter) part).getName().equals(name)) {
+                if (literal == null) {
+                    literal = toLiteral(value);
+                }
+                append(newParts, literal);
+                found = true;
+            } else {
+                append(newParts, part);
+            }
+        }
+
+        if (!found) {
+            throw new IllegalArgumentException("The filter has no parameter named " + name);
+        }
+
+        return new ODataFilter<TEntity>(newParts, precedence);
+    }
+
+    /**
+     * Whether every parameter slot is bound.
+     *
+     * @return the boolean
+     */
+    public boolean isBound() {
+        for (Object part : parts) {
+            if (part instanceof Parameter) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the $filter value.
+     *
+     * @return the $filter value
+     * @throws IllegalStateException if a parameter slot is not bound
+     */
+    public String render() {
+        if (parts.size() == 1 && parts.get(0) instanceof String) {
+            return (String) parts.get(0);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Parameter) {
+                throw new IllegalStateException("The filter parameter " + ((Parameter) part).getName() + " is not bound");
+            }
+            builder.append((String) part);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Object part : parts) {
+            builder.append(part);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Converts a value to an OData literal.
+     *
+     * @param value the value
+     * @return the literal
+     */
+    public static String toLiteral(Object value) {
+        if (value == null) {
+            return "null";
+        }
+
+        if (value instanceof String || value instanceof Character || value instanceof Enum) {
+            String text = value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+            return "'" + text.replace("'", "''") + "'";
+        }
+
+        if (value instanceof Calendar) {
+            return CalendarSerializer.serialize((Calendar) value);
+        }
+
+        if (value instanceof Date) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime((Date) value);
+            return CalendarSerializer.serialize(calendar);
+        }
+
+        if (value instanceof Parameter) {
+            throw new IllegalArgumentException("A parameter can't be bound to another parameter");
+        }
+
+        return value.toString();
+    }
+
+    private ODataFilter<TEntity> combine(ODataFilter<?> other, String operator, int operatorPrecedence) {
+        List<Object> newParts = new ArrayList<Object>();
+        appendOperand(newParts, this, operatorPrecedence);
+        append(newParts, operator);
+        appendOperand(newParts, other, operatorPrecedence);
+        return new ODataFilter<TEntity>(newParts, operatorPrecedence);
+    }
+
+    private static void appendOperand(List<Object> parts, ODataFilter<?> operand, int operatorPrecedence) {
+        if (operand.precedence < operatorPrecedence) {
+            append(parts, "(");
+            appendAll(parts, operand.parts);
+            append(parts, ")");
+        } else {
+            appendAll(parts, operand.parts);
+        }
+    }
+
+    private static <TEntity> ODataFilter<TEntity> comparison(ODataProperty<?> property, String operator, Object value) {
+        List<Object> parts = new ArrayList<Object>();
+        append(parts, property.getName() + " " + operator + " ");
+        appendValue(parts, value);
+        return new ODataFilter<TEntity>(parts, PRECEDENCE_UNARY);
+    }
+
+    private static <TEntity> ODataFilter<TEntity> function(String name, ODataProperty<?> property, Object value) {
+        List<Object> parts = new ArrayList<Object>();
+        append(parts, name + "(" + property.getName() + ",");
+        appendValue(parts, value);
+        append(parts, ")");
+        return new ODataFilter<TEntity>(parts, PRECEDENCE_UNARY);
+    }
+
+    private static void appendValue(List<Object> parts, Object value) {
+        if (value instanceof Parameter) {
+            parts.add(value);
+        } else {
+            append(parts, toLiteral(value));
+        }
+    }
+
+    private static void appendAll(List<Object> parts, List<Object> others) {
+        for (Object other : others) {
+            append(parts, other);
+        }
+    }
+
+    // Merges adjacent text so rendering only joins the text around the slots
+    private static void append(List<Object> parts, Object part) {
+        int last = parts.size() - 1;
+        if (part instanceof String && last >= 0 && parts.get(last) instanceof String) {
+            parts.set(last, parts.get(last) + (String) part);
+        } else {
+            parts.add(part);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * An $orderby value built from typed properties. Instances are immutable and render
+ * their text once, when built.
+ *
+ * @param <TEntity> the type parameter
+ */
+public final class ODataOrderBy<TEntity> {
+
+    private final String value;
+
+    private ODataOrderBy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Orders by a property, ascending.
+     *
+     * @param property the property
+     * @return the o data order by
+     */
+    public static <TEntity> ODataOrderBy<TEntity> asc(ODataProperty<? super TEntity> property) {
+        return new ODataOrderBy<TEntity>(property.getName());
+    }
+
+    /**
+     * Orders by a property, descending.
+     *
+     * @param property the property
+     * @return the o data order by
+     */
+    public static <TEntity> ODataOrderBy<TEntity> desc(ODataProperty<? super TEntity> property) {
+        return new ODataOrderBy<TEntity>(property.getName() + " desc");
+    }
+
+    /**
+     * Then orders by another property, ascending.
+     *
+     * @param property the property
+     * @return the o data order by
+     */
+    public ODataOrderBy<TEntity> thenAsc(ODataProperty<? super TEntity> property) {
+        return new ODataOrderBy<TEntity>(value + "," + property.getName());
+    }
+
+    /**
+     * Then orders by another property, descending.
+     *
+     * @param property the property
+     * @return the o data order by
+     */
+    public ODataOrderBy<TEntity> thenDesc(ODataProperty<? super TEntity> property) {
+        return new ODataOrderBy<TEntity>(value + "," + property.getName() + " desc");
+    }
+
+    /**
+     * Renders the $orderby value.
+     *
+     * @return the $orderby value
+     */
+    public String render() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
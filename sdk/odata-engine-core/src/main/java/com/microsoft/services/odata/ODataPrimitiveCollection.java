@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A collection of primitive values returned by a function or property, e.g. the object ids
+ * returned by getMemberObjects. Values are kept in a single array of their own type, so a
+ * large collection of numbers or booleans doesn't box each value.
+ */
+public class ODataPrimitiveCollection {
+
+    /**
+     * The type of the values.
+     */
+    public enum Kind {
+        /**
+         * An empty collection, whose values have no type.
+         */
+        EMPTY,
+        /**
+         * Boolean values.
+         */
+        BOOLEAN,
+        /**
+         * Integral numbers, kept as longs.
+         */
+        INT64,
+        /**
+         * Numbers with a fraction or exponent, kept as doubles.
+         */
+        DOUBLE,
+        /**
+         * Strings, e.g. ids or dates.
+         */
+        STRING
+    }
+
+    private static final ODataPrimitiveCollection EMPTY_COLLECTION = new ODataPrimitiveCollection(Kind.EMPTY, null, 0);
+
+    private final Kind kind;
+    private final Object values;
+    private final int size;
+
+    private ODataPrimitiveCollection(Kind kind, Object values, int size) {
+        this.kind = kind;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Gets an empty collection.
+     *
+     * @return the collection
+     */
+    public static ODataPrimitiveCollection empty() {
+        return EMPTY_COLLECTION;
+    }
+
+    /**
+     * Creates a collection of booleans, taking ownership of the array.
+     *
+     * @param values the values
+     * @param size   the number of values used in the array
+     * @return the collection
+     */
+    public static ODataPrimitiveCollection ofBooleans(boolean[] values, int size) {
+        checkSize(values.length, size);
+        return new ODataPrimitiveCollection(Kind.BOOLEAN, values, size);
+    }
+
+    /**
+     * Creates a collection of integral numbers, taking ownership of the array.
+     *
+     * @param values the values
+     * @param size   the number of values used in the array
+     * @return the collection
+     */
+    public static ODataPrimitiveCollection ofLongs(long[] values, int size) {
+        checkSize(values.length, size);
+        return new ODataPrimitiveCollection(Kind.INT64, values, size);
+    }
+
+    /**
+     * Creates a collection of numbers, taking ownership of the array.
+     *
+     * @param values the values
+     * @param size   the number of values used in the array
+     * @return the collection
+     */
+    public static ODataPrimitiveCollection ofDoubles(double[] values, int size) {
+        checkSize(values.length, size);
+        return new ODataPrimitiveCollection(Kind.DOUBLE, values, size);
+    }
+
+    /**
+     * Creates a collection of strings, taking ownership of the array.
+     *
+     * @param values the values
+     * @param size   the number of values used in the array
+     * @return the collection
+     */
+    public static ODataPrimitiveCollection ofStrings(String[] values, int size) {
+        checkSize(values.length, size);
+        return new ODataPrimitiveCollection(Kind.STRING, values, size);
+    }
+
+    /**
+     * Gets the type of the values.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the collection is empty.
+     *
+     * @return true if it is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets a boolean value.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public boolean getBoolean(int index) {
+        checkIndex(index);
+        return ((boolean[]) valuesOf(Kind.BOOLEAN))[index];
+    }
+
+    /**
+     * Gets an integral value.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        return ((long[]) valuesOf(Kind.INT64))[index];
+    }
+
+    /**
+     * Gets a numeric value, integral values included.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        if (kind == Kind.INT64) {
+            return ((long[]) values)[index];
+        }
+        return ((double[]) valuesOf(Kind.DOUBLE))[index];
+    }
+
+    /**
+     * Gets a string value.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        return ((String[]) valuesOf(Kind.STRING))[index];
+    }
+
+    /**
+     * Copies the values to a boolean array.
+     *
+     * @return the array
+     */
+    public boolean[] toBooleanArray() {
+        if (kind == Kind.EMPTY) {
+            return new boolean[0];
+        }
+        return Arrays.copyOf((boolean[]) valuesOf(Kind.BOOLEAN), size);
+    }
+
+    /**
+     * Copies the values to a long array.
+     *
+     * @return the array
+     */
+    public long[] toLongArray() {
+        if (kind == Kind.EMPTY) {
+            return new long[0];
+        }
+        return Arrays.copyOf((long[]) valuesOf(Kind.INT64), size);
+    }
+
+    /**
+     * Copies the values to a double array, integral values included.
+     *
+     * @return the array
+     */
+    public double[] toDoubleArray() {
+        double[] array = new double[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = getDouble(i);
+        }
+        return array;
+    }
+
+    /**
+     * Copies the values to a string array.
+     *
+     * @return the array
+     */
+    public String[] toStringArray() {
+        if (kind == Kind.EMPTY) {
+            return new String[0];
+        }
+        return Arrays.copyOf((String[]) valuesOf(Kind.STRING), size);
+    }
+
+    /**
+     * Gets a read-only list view of string values, without copying them.
+     *
+     * @return the list
+     */
+    public List<String> asStringList() {
+        final String[] strings = kind == Kind.EMPTY ? new String[0] : (String[]) valuesOf(Kind.STRING);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                checkIndex(index);
+                return strings[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Object valuesOf(Kind expected) {
+        if (kind != expected) {
+            throw new IllegalStateException("The collection holds " + kind + " values, not " + expected);
+        }
+        return values;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static void checkSize(int length, int size) {
+        if (size < 0 || size > length) {
+            throw new IllegalArgumentException("size must be between 0 and the array length");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The $select and $expand options of a request. Instances are immutable; every builder
+ * method returns a new projection.
+ *
+ * @param <TEntity> the type parameter
+ */
+public class ODataProjection<TEntity> {
+
+    private final List<String> select;
+    private final List<String> expand;
+
+    private ODataProjection(List<String> select, List<String> expand) {
+        this.select = Collections.unmodifiableList(select);
+        this.expand = Collections.unmodifiableList(expand);
+    }
+
+    /**
+     * Creates a projection selecting the given properties.
+     *
+     * @param clazz the entity class
+     * @param properties the properties
+     * @return the o data projection
+     */
+    @SuppressWarnings("unchecked") // the properties array is only read, so it cannot pollute the heap
+    public static <TEntity> ODataProjection<TEntity> select(Class<TEntity> clazz, ODataProperty<? super TEntity>... properties) {
+        return new ODataProjection<TEntity>(new ArrayList<String>(), new ArrayList<String>()).andSelect(properties);
+    }
+
+    /**
+     * Creates a projection from raw $select and $expand values.
+     *
+     * @param select the $select value, or null
+     * @param expand the $expand value, or null
+     * @return the o data projection
+     */
+    public static <TEntity> ODataProjection<TEntity> parse(String select, String expand) {
+        return new ODataProjection<TEntity>(split(select), split(expand));
+    }
+
+    /**
+     * Returns a projection that also selects the given properties.
+     *
+     * @param properties the properties
+     * @return the o data projection
+     */
+    @SuppressWarnings("unchecked") // the properties array is only read, so it cannot pollute the heap
+    public ODataProjection<TEntity> andSelect(ODataProperty<? super TEntity>... properties) {
+        List<String> newSelect = new ArrayList<String>(select);
+        for (ODataProperty<? super TEntity> property : properties) {
+            if (!newSelect.contains(property.getName())) {
+                newSelect.add(property.getName());
+            }
+        }
+        return new ODataProjection<TEntity>(newSelect, new ArrayList<String>(expand));
+    }
+
+    /**
+     * Returns a projection that also expands the given navigation properties.
+     *
+     * @param properties the properties
+     * @return the o data projection
+     */
+    @SuppressWarnings("unchecked") // the properties array is only read, so it cannot pollute the heap
+    public ODataProjection<TEntity> andExpand(ODataProperty<? super TEntity>... properties) {
+        List<String> newExpand = new ArrayList<String>(expand);
+        for (ODataProperty<? super TEntity> property : properties) {
+            if (!newExpand.contains(property.getName())) {
+                newExpand.add(property.getName());
+            }
+        }
+        return new ODataProjection<TEntity>(new ArrayList<String>(select), newExpand);
+    }
+
+    /**
+     * Gets the $select value.
+     *
+     * @return the $select value, or null if every property is selected
+     */
+    public String getSelect() {
+        return join(select);
+    }
+
+    /**
+     * Gets the $expand value.
+     *
+     * @return the $expand value, or null if nothing is expanded
+     */
+    public String getExpand() {
+        return join(expand);
+    }
+
+    /**
+     * Gets the top level properties present in a response to this projection: the selected
+     * and the expanded ones.
+     *
+     * @return the properties, or null if every property is selected
+     */
+    public Set<String> getSelectedProperties() {
+        if (select.isEmpty() || select.contains("*")) {
+            return null;
+        }
+
+        Set<String> properties = new LinkedHashSet<String>();
+        for (String property : select) {
+            properties.add(topLevel(property));
+        }
+        for (String property : expand) {
+            properties.add(topLevel(property));
+        }
+        return properties;
+    }
+
+    private static String topLevel(String property) {
+        int separator = property.indexOf('/');
+        int options = property.indexOf('(');
+        int end = property.length();
+        if (separator != -1) {
+            end = separator;
+        }
+        if (options != -1 && options < end) {
+            end = options;
+        }
+        return property.substring(0, end).trim();
+    }
+
+    private static List<String> split(String value) {
+        List<String> result = new ArrayList<String>();
+        if (value == null) {
+            return result;
+        }
+
+        // commas inside the nested options of an expand, e.g. Attachments($select=Name,Size),
+        // don't separate items
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                addItem(result, value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        addItem(result, value.substring(start));
+        return result;
+    }
+
+    private static void addItem(List<String> items, String item) {
+        String trimmed = item.trim();
+        if (trimmed.length() > 0 && !items.contains(trimmed)) {
+            items.add(trimmed);
+        }
+    }
+
+    private static String join(List<String> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (String item : items) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(item);
+        }
+        return builder.toString();
+    }
+}
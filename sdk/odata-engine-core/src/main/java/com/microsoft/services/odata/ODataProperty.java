@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * A property of an entity type, used to build $select and $expand options that the
+ * compiler checks against the type of the fetched entities.
+ *
+ * @param <TEntity> the entity type declaring the property
+ */
+public class ODataProperty<TEntity> {
+
+    private final String name;
+
+    /**
+     * Instantiates a new ODataProperty.
+     *
+     * @param name the name of the property on the wire
+     */
+    public ODataProperty(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+
+        this.name = name;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
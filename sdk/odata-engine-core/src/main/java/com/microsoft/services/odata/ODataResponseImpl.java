@@ -19,7 +19,7 @@ class ODataResponseImpl implements ODataResponse {
     }
 
     @Override
-    public byte[] getPayload() throws IOException {
+    public synchronized byte[] getPayload() throws IOException {
         if (payload == null) {
             payload = readAllBytes(this.response.getStream());
         }
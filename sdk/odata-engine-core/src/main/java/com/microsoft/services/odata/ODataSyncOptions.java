@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+/**
+ * Options for the incremental synchronization of an OData collection.
+ */
+public class ODataSyncOptions {
+
+    /**
+     * The constant DEFAULT_WATERMARK_PROPERTY.
+     */
+    public static final String DEFAULT_WATERMARK_PROPERTY = "DateTimeLastModified";
+
+    /**
+     * The constant DEFAULT_WATERMARK_OVERLAP_MILLIS.
+     */
+    public static final long DEFAULT_WATERMARK_OVERLAP_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * The watermark literal of OData v4 services, an unquoted DateTimeOffset.
+     */
+    public static final String WATERMARK_LITERAL_V4 = "%s";
+
+    /**
+     * The watermark literal of OData v3 services, e.g. the directory service.
+     */
+    public static final String WATERMARK_LITERAL_V3 = "datetime'%s'";
+
+    private boolean serverDeltaEnabled = true;
+    private String deltaQueryParameter = null;
+    private String watermarkProperty = DEFAULT_WATERMARK_PROPERTY;
+    private long watermarkOverlapMillis = DEFAULT_WATERMARK_OVERLAP_MILLIS;
+    private String watermarkLiteralFormat = WATERMARK_LITERAL_V4;
+
+    /**
+     * Is server delta enabled.
+     *
+     * @return the boolean
+     */
+    public boolean isServerDeltaEnabled() {
+        return serverDeltaEnabled;
+    }
+
+    /**
+     * Sets whether the server's change tracking should be requested. When disabled, or when
+     * the server does not return a delta link, the watermark based scan is used.
+     *
+     * @param serverDeltaEnabled the server delta enabled
+     * @return the options
+     */
+    public ODataSyncOptions setServerDeltaEnabled(boolean serverDeltaEnabled) {
+        this.serverDeltaEnabled = serverDeltaEnabled;
+        return this;
+    }
+
+    /**
+     * Gets delta query parameter.
+     *
+     * @return the delta query parameter
+     */
+    public String getDeltaQueryParameter() {
+        return deltaQueryParameter;
+    }
+
+    /**
+     * Sets the query string parameter that starts a delta query on services that don't
+     * honour the OData track-changes preference, e.g. "deltaLink" for the directory service.
+     *
+     * @param deltaQueryParameter the delta query parameter
+     * @return the options
+     */
+    public ODataSyncOptions setDeltaQueryParameter(String deltaQueryParameter) {
+        this.deltaQueryParameter = deltaQueryParameter;
+        return this;
+    }
+
+    /**
+     * Gets watermark property.
+     *
+     * @return the watermark property
+     */
+    public String getWatermarkProperty() {
+        return watermarkProperty;
+    }
+
+    /**
+     * Sets the last modified time property used to filter the watermark based scan.
+     *
+     * @param watermarkProperty the watermark property
+     * @return the options
+     */
+    public ODataSyncOptions setWatermarkProperty(String watermarkProperty) {
+        this.watermarkProperty = watermarkProperty;
+        return this;
+    }
+
+    /**
+     * Gets watermark overlap millis.
+     *
+     * @return the watermark overlap millis
+     */
+    public long getWatermarkOverlapMillis() {
+        return watermarkOverlapMillis;
+    }
+
+    /**
+     * Sets how far back from the local clock the stored watermark is placed, to cover clock
+     * skew between the client and the server. Entities modified inside the overlap may be
+     * reported again by the next run.
+     *
+     * @param watermarkOverlapMillis the watermark overlap millis
+     * @return the options
+     */
+    public ODataSyncOptions setWatermarkOverlapMillis(long watermarkOverlapMillis) {
+        this.watermarkOverlapMillis = watermarkOverlapMillis;
+        return this;
+    }
+
+    /**
+     * Gets watermark literal format.
+     *
+     * @return the watermark literal format
+     */
+    public String getWatermarkLiteralFormat() {
+        return watermarkLiteralFormat;
+    }
+
+    /**
+     * Sets how the watermark is written in the $filter of the watermark based scan, a format
+     * with one %s for the ISO 8601 timestamp. It defaults to {@link #WATERMARK_LITERAL_V4};
+     * OData v3 services need {@link #WATERMARK_LITERAL_V3}.
+     *
+     * @param watermarkLiteralFormat the watermark literal format
+     * @return the options
+     */
+    public ODataSyncOptions setWatermarkLiteralFormat(String watermarkLiteralFormat) {
+        if (watermarkLiteralFormat == null || !watermarkLiteralFormat.contains("%s")) {
+            throw new IllegalArgumentException("watermarkLiteralFormat must contain %s");
+        }
+        this.watermarkLiteralFormat = watermarkLiteralFormat;
+        return this;
+    }
+}
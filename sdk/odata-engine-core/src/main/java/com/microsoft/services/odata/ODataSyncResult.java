@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.List;
+
+/**
+ * The result of an incremental synchronization run.
+ *
+ * @param <TEntity> the type parameter
+ */
+public class ODataSyncResult<TEntity> {
+
+    private List<TEntity> changed;
+    private List<String> removedIds;
+    private boolean fullSync;
+    private boolean serverDelta;
+
+    /**
+     * Instantiates a new ODataSyncResult.
+     *
+     * @param changed     the changed
+     * @param removedIds  the removed ids
+     * @param fullSync    the full sync
+     * @param serverDelta the server delta
+     */
+    public ODataSyncResult(List<TEntity> changed, List<String> removedIds, boolean fullSync, boolean serverDelta) {
+        this.changed = changed;
+        this.removedIds = removedIds;
+        this.fullSync = fullSync;
+        this.serverDelta = serverDelta;
+    }
+
+    /**
+     * Gets the entities added or updated since the previous run. As with OData delta
+     * responses, additions and updates are not told apart and should be applied as upserts.
+     *
+     * @return the changed
+     */
+    public List<TEntity> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Gets the ids of the entities removed since the previous run. Removals are only
+     * reported when the server tracks changes; the watermark based scan can't detect them.
+     *
+     * @return the removed ids
+     */
+    public List<String> getRemovedIds() {
+        return removedIds;
+    }
+
+    /**
+     * Is full sync. A full sync happens on the first run or after the stored state was
+     * rejected by the server; the changed entities are then the complete collection and
+     * should replace any local copy.
+     *
+     * @return the boolean
+     */
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    /**
+     * Is server delta. True when the run was served by the server's change tracking and
+     * false when the watermark based scan was used.
+     *
+     * @return the boolean
+     */
+    public boolean isServerDelta() {
+        return serverDelta;
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An entity as kept by an entity store: its id, its serialized payload and the values of
+ * its indexed properties. Index values are either Long (numbers and dates, as epoch
+ * milliseconds), String or null.
+ */
+public class StoredEntity {
+
+    private String id;
+    private String payload;
+    private Map<String, Object> indexValues;
+
+    /**
+     * Instantiates a new Stored entity.
+     *
+     * @param id the id
+     * @param payload the payload
+     * @param indexValues the index values
+     */
+    public StoredEntity(String id, String payload, Map<String, Object> indexValues) {
+        if (id == null) {
+            throw new IllegalArgumentException("id must not be null");
+        }
+
+        this.id = id;
+        this.payload = payload;
+        this.indexValues = indexValues != null
+                ? Collections.unmodifiableMap(new HashMap<String, Object>(indexValues))
+                : Collections.<String, Object>emptyMap();
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets payload.
+     *
+     * @return the payload
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets index values.
+     *
+     * @return the index values
+     */
+    public Map<String, Object> getIndexValues() {
+        return indexValues;
+    }
+}
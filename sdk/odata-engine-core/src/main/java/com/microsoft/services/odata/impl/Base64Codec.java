@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import com.microsoft.services.odata.interfaces.Base64Encoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+
+/**
+ * Base64 encoder and decoder with no platform dependency. Encoding writes the text into a
+ * single buffer of the exact size and decoding reads the text in place, so converting a
+ * value costs no more than its input and its output. Encoded text has no line breaks;
+ * whitespace in decoded text is ignored.
+ */
+public final class Base64Codec implements Base64Encoder {
+
+    static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    static final byte[] DECODE_TABLE = new byte[128];
+
+    private static final int WHITESPACE = -2;
+    private static final int PADDING = -3;
+    private static final int STREAM_CHUNK_SIZE = 3 * 1024;
+
+    static {
+        for (int i = 0; i < DECODE_TABLE.length; i++) {
+            DECODE_TABLE[i] = -1;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+        DECODE_TABLE[' '] = WHITESPACE;
+        DECODE_TABLE['\t'] = WHITESPACE;
+        DECODE_TABLE['\n'] = WHITESPACE;
+        DECODE_TABLE['\r'] = WHITESPACE;
+        DECODE_TABLE['='] = PADDING;
+    }
+
+    private static final Base64Codec instance = new Base64Codec();
+
+    private Base64Codec() {
+    }
+
+    /**
+     * Gets instance.
+     *
+     * @return the instance
+     */
+    public static Base64Codec getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the length of the Base64 text of content of the given length.
+     *
+     * @param length the content length
+     * @return the encoded length
+     */
+    public static long getEncodedLength(long length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    @Override
+    public String encode(byte[] data) {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * Encodes part of an array.
+     *
+     * @param data the data
+     * @param offset the offset
+     * @param length the length
+     * @return the Base64 text
+     */
+    public String encode(byte[] data, int offset, int length) {
+        long encodedLength = getEncodedLength(length);
+        if (encodedLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Content too large to encode into a string");
+        }
+
+        char[] out = new char[(int) encodedLength];
+        encode(data, offset, length, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Encodes a stream into a writer, a chunk at a time, e.g. to write binary content into
+     * a streamed JSON payload. Neither stream is closed.
+     *
+     * @param in the content
+     * @param out the writer
+     * @return the number of bytes encoded
+     * @throws IOException the iO exception
+     */
+    public long encode(InputStream in, Writer out) throws IOException {
+        byte[] raw = new byte[STREAM_CHUNK_SIZE];
+        char[] text = new char[STREAM_CHUNK_SIZE / 3 * 4];
+        long total = 0;
+
+        while (true) {
+            // only the last chunk may hold a partial quantum, so chunks are filled completely
+            int length = 0;
+            int read = 0;
+            while (length < raw.length && (read = in.read(raw, length, raw.length - length)) != -1) {
+                length += read;
+            }
+
+            if (length > 0) {
+                out.write(text, 0, encode(raw, 0, length, text, 0));
+                total += length;
+            }
+            if (read == -1) {
+                return total;
+            }
+        }
+    }
+
+    @Override
+    public byte[] decode(String base64String) {
+        return decode((CharSequence) base64String);
+    }
+
+    /**
+     * Decodes Base64 text.
+     *
+     * @param text the text
+     * @return the decoded bytes
+     * @throws IllegalArgumentException if the text isn't valid Base64
+     */
+    public byte[] decode(CharSequence text) {
+        byte[] out = decodeCompact(text);
+        return out != null ? out : decodeLenient(text);
+    }
+
+    /**
+     * Decodes padded text without whitespace in a single pass, or returns null for the
+     * lenient decoder to handle it.
+     */
+    private static byte[] decodeCompact(CharSequence text) {
+        int length = text.length();
+        if (length % 4 != 0) {
+            return null;
+        }
+        if (length == 0) {
+            return new byte[0];
+        }
+
+        int padding = text.charAt(length - 1) != '=' ? 0 : text.charAt(length - 2) != '=' ? 1 : 2;
+        byte[] out = new byte[length / 4 * 3 - padding];
+        int position = 0;
+        int end = padding > 0 ? length - 4 : length;
+
+        for (int i = 0; i < end; i += 4) {
+            int a = valueOf(text.charAt(i));
+            int b = valueOf(text.charAt(i + 1));
+            int c = valueOf(text.charAt(i + 2));
+            int d = valueOf(text.charAt(i + 3));
+            if ((a | b | c | d) < 0) {
+                return null;
+            }
+
+            int bits = (a << 18) | (b << 12) | (c << 6) | d;
+            out[position++] = (byte) (bits >> 16);
+            out[position++] = (byte) (bits >> 8);
+            out[position++] = (byte) bits;
+        }
+
+        if (padding > 0) {
+            int a = valueOf(text.charAt(end));
+            int b = valueOf(text.charAt(end + 1));
+            int c = padding == 1 ? valueOf(text.charAt(end + 2)) : 0;
+            if ((a | b | c) < 0) {
+                return null;
+            }
+
+            int bits = (a << 18) | (b << 12) | (c << 6);
+            out[position++] = (byte) (bits >> 16);
+            if (padding == 1) {
+                out[position] = (byte) (bits >> 8);
+            }
+        }
+
+        return out;
+    }
+
+    private static byte[] decodeLenient(CharSequence text) {
+        int length = text.length();
+
+        // the exact output size needs the significant characters and the padding counted
+        int significant = 0;
+        int padding = 0;
+        for (int i = 0; i < length; i++) {
+            int value = valueOf(text.charAt(i));
+            if (value >= 0) {
+                if (padding > 0) {
+                    throw new IllegalArgumentException("Invalid Base64 content after padding");
+                }
+                significant++;
+            } else if (value == PADDING) {
+                padding++;
+            } else if (value != WHITESPACE) {
+                throw new IllegalArgumentException("Invalid Base64 character: " + text.charAt(i));
+            }
+        }
+
+        if (padding > 2 || (padding > 0 && (significant + padding) % 4 != 0) || significant % 4 == 1) {
+            throw new IllegalArgumentException("Invalid Base64 length");
+        }
+
+        byte[] out = new byte[significant / 4 * 3 + Math.max(0, significant % 4 - 1)];
+        int bits = 0;
+        int count = 0;
+        int position = 0;
+
+        for (int i = 0; i < length; i++) {
+            int value = valueOf(text.charAt(i));
+            if (value < 0) {
+                continue;
+            }
+
+            bits = (bits << 6) | value;
+            if (++count == 4) {
+                out[position++] = (byte) (bits >> 16);
+                out[position++] = (byte) (bits >> 8);
+                out[position++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+
+        if (count == 3) {
+            out[position++] = (byte) (bits >> 10);
+            out[position] = (byte) (bits >> 2);
+        } else if (count == 2) {
+            out[position] = (byte) (bits >> 4);
+        }
+
+        return out;
+    }
+
+    /**
+     * Encodes into a char array, returning the number of chars written.
+     */
+    static int encode(byte[] data, int offset, int length, char[] out, int outOffset) {
+        int end = offset + length;
+        int position = outOffset;
+        int i = offset;
+
+        for (; i + 2 < end; i += 3) {
+            int bits = ((data[i] & 0xff) << 16) | ((data[i + 1] & 0xff) << 8) | (data[i + 2] & 0xff);
+            out[position++] = ALPHABET[bits >>> 18];
+            out[position++] = ALPHABET[(bits >>> 12) & 0x3f];
+            out[position++] = ALPHABET[(bits >>> 6) & 0x3f];
+            out[position++] = ALPHABET[bits & 0x3f];
+        }
+
+        int remaining = end - i;
+        if (remaining > 0) {
+            int bits = (data[i] & 0xff) << 16;
+            if (remaining == 2) {
+                bits |= (data[i + 1] & 0xff) << 8;
+            }
+            out[position++] = ALPHABET[bits >>> 18];
+            out[position++] = ALPHABET[(bits >>> 12) & 0x3f];
+            out[position++] = remaining == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : '=';
+            out[position++] = '=';
+        }
+
+        return position - outOffset;
+    }
+
+    private static int valueOf(char c) {
+        return c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads another stream as Base64 text, encoding it as it is read, e.g. to send binary
+ * content inside a streamed JSON payload. The text has no line breaks.
+ */
+public class Base64EncodingInputStream extends FilterInputStream {
+
+    private static final int CHUNK_SIZE = 6 * 1024;
+
+    private final byte[] raw = new byte[CHUNK_SIZE];
+    private final char[] text = new char[CHUNK_SIZE / 3 * 4];
+    private final byte[] encoded = new byte[CHUNK_SIZE / 3 * 4];
+    private int encodedPosition;
+    private int encodedLength;
+    private boolean finished;
+
+    /**
+     * Instantiates a new Base64EncodingInputStream.
+     *
+     * @param in the stream with the binary content
+     */
+    public Base64EncodingInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Gets the length of the Base64 text of content of the given length.
+     *
+     * @param length the content length
+     * @return the encoded length
+     */
+    public static long getEncodedLength(long length) {
+        return Base64Codec.getEncodedLength(length);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (encodedPosition == encodedLength && !fill()) {
+            return -1;
+        }
+        return encoded[encodedPosition++];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (encodedPosition == encodedLength && !fill()) {
+            return -1;
+        }
+
+        int count = Math.min(len, encodedLength - encodedPosition);
+        System.arraycopy(encoded, encodedPosition, b, off, count);
+        encodedPosition += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (encodedPosition == encodedLength && !fill()) {
+                break;
+            }
+            int count = (int) Math.min(n - skipped, encodedLength - encodedPosition);
+            encodedPosition += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return encodedLength - encodedPosition;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Encodes the next chunk. Only the last chunk may hold a partial quantum, so chunks are
+     * filled completely unless the stream ends.
+     */
+    private boolean fill() throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        int length = 0;
+        while (length < raw.length) {
+            int read = in.read(raw, length, raw.length - length);
+            if (read == -1) {
+                finished = true;
+                break;
+            }
+            length += read;
+        }
+
+        int out = Base64Codec.encode(raw, 0, length, text, 0);
+        for (int i = 0; i < out; i++) {
+            encoded[i] = (byte) text[i];
+        }
+
+        encodedPosition = 0;
+        encodedLength = out;
+        return out > 0;
+    }
+}
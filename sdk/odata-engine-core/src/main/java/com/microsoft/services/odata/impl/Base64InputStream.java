@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes Base64 text read from another stream as it is read, so the text and the decoded
+ * bytes are never held in memory as a whole. Whitespace in the text is ignored.
+ */
+public class Base64InputStream extends FilterInputStream {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private final byte[] text = new byte[BUFFER_SIZE];
+    private final byte[] decoded = new byte[3];
+    private int decodedPosition;
+    private int decodedLength;
+    private int textPosition;
+    private int textLength;
+    private boolean finished;
+
+    /**
+     * Instantiates a new Base64InputStream.
+     *
+     * @param in the stream with the Base64 text
+     */
+    public Base64InputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        while (count < len) {
+            if (decodedPosition < decodedLength) {
+                b[off + count++] = decoded[decodedPosition++];
+            } else if (len - count >= 3) {
+                // whole quanta go straight into the caller's buffer
+                int written = decodeQuantum(b, off + count);
+                if (written == 0) {
+                    break;
+                }
+                count += written;
+            } else {
+                decodedLength = decodeQuantum(decoded, 0);
+                decodedPosition = 0;
+                if (decodedLength == 0) {
+                    break;
+                }
+            }
+        }
+
+        return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return decodedLength - decodedPosition;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Decodes the next four significant characters, returning the number of bytes written,
+     * or 0 at the end of the text.
+     */
+    private int decodeQuantum(byte[] out, int offset) throws IOException {
+        if (finished) {
+            return 0;
+        }
+
+        int bits = 0;
+        int count = 0;
+        int padding = 0;
+
+        while (count < 4) {
+            int c = nextChar();
+            if (c == -1) {
+                if (count == 0) {
+                    finished = true;
+                    return 0;
+                }
+                throw new IOException("Truncated Base64 content");
+            }
+
+            if (c == '=') {
+                padding++;
+                bits <<= 6;
+                count++;
+            } else if (padding > 0) {
+                throw new IOException("Invalid Base64 content after padding");
+            } else if (c < Base64Codec.DECODE_TABLE.length && Base64Codec.DECODE_TABLE[c] >= 0) {
+                bits = (bits << 6) | Base64Codec.DECODE_TABLE[c];
+                count++;
+            } else if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                throw new IOException("Invalid Base64 character: " + (char) c);
+            }
+        }
+
+        if (padding > 2) {
+            throw new IOException("Invalid Base64 padding");
+        }
+
+        out[offset] = (byte) (bits >> 16);
+        if (padding < 2) {
+            out[offset + 1] = (byte) (bits >> 8);
+        }
+        if (padding < 1) {
+            out[offset + 2] = (byte) bits;
+        }
+
+        if (padding > 0) {
+            finished = true;
+        }
+        return 3 - padding;
+    }
+
+    private int nextChar() throws IOException {
+        if (textPosition == textLength) {
+            textLength = in.read(text, 0, text.length);
+            textPosition = 0;
+            if (textLength <= 0) {
+                textLength = 0;
+                return -1;
+            }
+        }
+        return text[textPosition++] & 0xff;
+    }
+}
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import java.util.Collection;
+import java.util.LinkedList;
+
+/**
+ * Starts queued tasks, e.g. the requests of a crawl, with a bounded number in flight.
+ * <p>
+ * Tasks start in queue order whenever there is room, and the owner reports each one back
+ * with {@link #completed()}. The queue shares the owner's lock, so the owner can update its
+ * own state and the queue in one step. Only one thread starts tasks at a time: a pump that
+ * finds another one running leaves the work to it, so tasks that complete synchronously
+ * don't recurse.
+ *
+ * @param <T> the task type
+ */
+public abstract class BoundedTaskQueue<T> {
+
+    private final Object lock;
+    private final LinkedList<T> pending = new LinkedList<T>();
+    private int maxConcurrency;
+    private int inFlight;
+    private boolean pumping;
+
+    /**
+     * Instantiates a new queue.
+     *
+     * @param lock           the owner's lock, guarding the queue and the hooks
+     * @param maxConcurrency the maximum number of tasks in flight
+     */
+    protected BoundedTaskQueue(Object lock, int maxConcurrency) {
+        this.lock = lock;
+        setMaxConcurrency(maxConcurrency);
+    }
+
+    /**
+     * Starts a task, which takes a slot until {@link #completed()} is called. Called with the
+     * lock held only if the caller of {@link #pump()} holds it.
+     *
+     * @param task the task
+     */
+    protected abstract void start(T task);
+
+    /**
+     * Tells whether tasks may start now, e.g. false once the whole operation failed.
+     * Called while holding the lock.
+     *
+     * @return true to start tasks
+     */
+    protected boolean canStart() {
+        return true;
+    }
+
+    /**
+     * Takes a task off the queue before it starts. Returning false drops it without taking
+     * a slot, e.g. for a task that turns out to be done already. Called while holding the
+     * lock.
+     *
+     * @param task the task
+     * @return true to start the task
+     */
+    protected boolean accept(T task) {
+        return true;
+    }
+
+    /**
+     * Called while holding the lock when a pump leaves nothing queued and nothing in flight.
+     * It may be called more than once.
+     */
+    protected void onIdle() {
+    }
+
+    /**
+     * Gets the maximum number of tasks in flight.
+     *
+     * @return the max concurrency
+     */
+    public int getMaxConcurrency() {
+        synchronized (lock) {
+            return maxConcurrency;
+        }
+    }
+
+    /**
+     * Sets the maximum number of tasks in flight. Call {@link #pump()} to use new room.
+     *
+     * @param maxConcurrency the max concurrency
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        synchronized (lock) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * Queues a task last.
+     *
+     * @param task the task
+     */
+    public void add(T task) {
+        synchronized (lock) {
+            pending.add(task);
+        }
+    }
+
+    /**
+     * Queues a task first, e.g. one to retry.
+     *
+     * @param task the task
+     */
+    public void addFirst(T task) {
+        synchronized (lock) {
+            pending.addFirst(task);
+        }
+    }
+
+    /**
+     * Queues tasks last, in order.
+     *
+     * @param tasks the tasks
+     */
+    public void addAll(Collection<? extends T> tasks) {
+        synchronized (lock) {
+            pending.addAll(tasks);
+        }
+    }
+
+    /**
+     * Queues tasks first, in order.
+     *
+     * @param tasks the tasks
+     */
+    public void addAllFirst(Collection<? extends T> tasks) {
+        synchronized (lock) {
+            pending.addAll(0, tasks);
+        }
+    }
+
+    /**
+     * Removes a queued task.
+     *
+     * @param task the task
+     * @return true if it was queued
+     */
+    public boolean remove(T task) {
+        synchronized (lock) {
+            return pending.remove(task);
+        }
+    }
+
+    /**
+     * Tells whether a task is queued.
+     *
+     * @param task the task
+     * @return true if it is queued
+     */
+    public boolean contains(T task) {
+        synchronized (lock) {
+            return pending.contains(task);
+        }
+    }
+
+    /**
+     * Drops every queued task. Tasks in flight are not affected.
+     */
+    public void clear() {
+        synchronized (lock) {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Gets the number of queued tasks.
+     *
+     * @return the pending count
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the number of tasks in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Tells whether nothing is queued or in flight.
+     *
+     * @return true if idle
+     */
+    public boolean isIdle() {
+        synchronized (lock) {
+            return inFlight == 0 && pending.isEmpty();
+        }
+    }
+
+    /**
+     * Releases the slot of a task and starts the next ones.
+     */
+    public void completed() {
+        synchronized (lock) {
+            inFlight--;
+        }
+        pump();
+    }
+
+    /**
+     * Starts queued tasks while there is room, then calls {@link #onIdle()} if nothing is
+     * left.
+     */
+    public void pump() {
+        synchronized (lock) {
+            if (pumping) {
+                // the running pump checks the queue again before it stops
+                return;
+            }
+            pumping = true;
+        }
+
+        boolean done = false;
+        try {
+            while (true) {
+                T task;
+                synchronized (lock) {
+                    task = next();
+                    if (task == null) {
+                        pumping = false;
+                        done = true;
+                        if (inFlight == 0 && pending.isEmpty()) {
+                            onIdle();
+                        }
+                        return;
+                    }
+                }
+                start(task);
+            }
+        } finally {
+            if (!done) {
+                synchronized (lock) {
+                    pumping = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the next task to start and its slot. Must be called while holding lock.
+     */
+    private T next() {
+        while (inFlight < maxConcurrency && !pending.isEmpty() && canStart()) {
+            T task = pending.poll();
+            if (accept(task)) {
+                inFlight++;
+                return task;
+            }
+        }
+        return null;
+    }
+}
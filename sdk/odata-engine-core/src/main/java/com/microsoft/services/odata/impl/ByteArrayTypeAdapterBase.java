@@ -1,27 +1,48 @@
 package com.microsoft.services.odata.impl;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.microsoft.services.odata.interfaces.Base64Encoder;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
-public abstract class ByteArrayTypeAdapterBase implements com.google.gson.JsonSerializer<byte[]>, com.google.gson.JsonDeserializer<byte[]>{
+/**
+ * Reads and writes byte arrays as Base64 strings, straight from and to the JSON stream.
+ */
+public abstract class ByteArrayTypeAdapterBase extends TypeAdapter<byte[]> {
 
     @Override
-    public byte[] deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        //return Base64.decode(json.getAsString(), Base64.DEFAULT);
-        return getBase64Encoder().decode(json.getAsString());
+    public void write(JsonWriter out, byte[] value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(getBase64Encoder().encode(value));
     }
 
     @Override
-    public JsonElement serialize(byte[] src, Type typeOfSrc, JsonSerializationContext context) {
-        //return new JsonPrimitive(Base64.encodeToString(src, Base64.DEFAULT));
-        return new JsonPrimitive(getBase64Encoder().encode(src));
+    public byte[] read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        try {
+            return getBase64Encoder().decode(in.nextString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e);
+        }
     }
 
-    protected abstract Base64Encoder getBase64Encoder();
+    /**
+     * Gets the Base64 encoder, by default the platform independent {@link Base64Codec}.
+     *
+     * @return the base 64 encoder
+     */
+    protected Base64Encoder getBase64Encoder() {
+        return Base64Codec.getInstance();
+    }
 }
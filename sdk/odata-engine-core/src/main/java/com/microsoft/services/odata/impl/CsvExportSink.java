@@ -0,0 +1,102 @@
+package com.microsoft.services.odata.impl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes an exported collection as CSV, one row per entity and one column per selected
+ * property, with a header row. A column can name a nested property, e.g.
+ * "passwordProfile/forceChangePasswordNextLogin"; values that aren't scalars are written
+ * as JSON text and missing ones are left empty.
+ */
+public class CsvExportSink extends FileExportSink {
+
+    private final List<String> columns;
+    private final List<String[]> paths = new ArrayList<String[]>();
+    private final JsonParser parser = new JsonParser();
+
+    /**
+     * Instantiates a new CsvExportSink.
+     *
+     * @param file the file
+     * @param columns the columns
+     */
+    public CsvExportSink(File file, List<String> columns) {
+        super(file);
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("columns must not be empty");
+        }
+
+        this.columns = new ArrayList<String>(columns);
+        for (String column : columns) {
+            paths.add(column.split("/"));
+        }
+    }
+
+    /**
+     * Instantiates a new CsvExportSink.
+     *
+     * @param file the file
+     * @param columns the columns
+     */
+    public CsvExportSink(File file, String... columns) {
+        this(file, Arrays.asList(columns));
+    }
+
+    @Override
+    protected void writeHeader(Writer writer) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, columns.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    protected void writeEntity(Writer writer, String json) throws IOException {
+        JsonElement entity = parser.parse(json);
+
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            JsonElement value = entity;
+            for (String name : paths.get(i)) {
+                value = value != null && value.isJsonObject() ? ((JsonObject) value).get(name) : null;
+            }
+
+            if (value != null && !value.isJsonNull()) {
+                writeValue(writer, value.isJsonPrimitive() ? value.getAsString() : value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeValue(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,106 @@
+package com.microsoft.services.odata.impl;
+
+import com.microsoft.services.odata.Constants;
+import com.microsoft.services.odata.interfaces.ExportSink;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * Base of the sinks writing an exported collection to a UTF-8 text file. The position of a
+ * commit is the file length, and resuming truncates the file back to it.
+ */
+public abstract class FileExportSink implements ExportSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private Writer writer;
+
+    /**
+     * Instantiates a new FileExportSink.
+     *
+     * @param file the file
+     */
+    protected FileExportSink(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        this.file = file;
+    }
+
+    @Override
+    public void open(String position) throws IOException {
+        long length = position != null ? Long.parseLong(position) : 0;
+
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+        if (channel.size() < length) {
+            close();
+            throw new IOException("File " + file + " is shorter than its last committed position " + length);
+        }
+
+        channel.truncate(length);
+        channel.position(length);
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), Constants.UTF8),
+                BUFFER_SIZE);
+
+        if (length == 0) {
+            writeHeader(writer);
+        }
+    }
+
+    @Override
+    public void write(String json) throws IOException {
+        writeEntity(writer, json);
+    }
+
+    @Override
+    public String commit() throws IOException {
+        writer.flush();
+        channel.force(false);
+        return Long.toString(channel.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } finally {
+            writer = null;
+            channel = null;
+            if (randomAccessFile != null) {
+                randomAccessFile.close();
+                randomAccessFile = null;
+            }
+        }
+    }
+
+    /**
+     * Writes what comes before the first entity of a new file.
+     *
+     * @param writer the writer
+     * @throws IOException the iO exception
+     */
+    protected void writeHeader(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes an entity.
+     *
+     * @param writer the writer
+     * @param json the entity, as JSON text
+     * @throws IOException the iO exception
+     */
+    protected abstract void writeEntity(Writer writer, String json) throws IOException;
+}
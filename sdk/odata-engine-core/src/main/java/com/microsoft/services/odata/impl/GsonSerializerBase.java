@@ -8,12 +8,20 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.microsoft.services.odata.Constants;
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.ODataPrimitiveCollection;
+import com.microsoft.services.odata.interfaces.CollectionJsonSerializer;
 import com.microsoft.services.odata.interfaces.JsonSerializer;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashSet;
@@ -27,9 +35,13 @@ import static com.microsoft.services.odata.Helpers.getReservedNames;
 /**
  * The type Gson serializer.
  */
-public abstract class GsonSerializerBase implements JsonSerializer {
+public abstract class GsonSerializerBase implements JsonSerializer, CollectionJsonSerializer {
     private static Map<String, Class<?>> cachedClassesFromOData = new ConcurrentHashMap<String, Class<?>>();
 
+    private static final String[] NEXT_LINK_PROPERTIES = {"@odata.nextLink", "odata.nextLink", "aad.nextLink"};
+    private static final String[] DELTA_LINK_PROPERTIES = {"@odata.deltaLink", "odata.deltaLink", "aad.deltaLink"};
+    private static final String[] ID_PROPERTIES = {"id", "Id", "objectId", "@odata.id"};
+
     private Gson createGson() {
         return new GsonBuilder()
                 .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY)
@@ -134,6 +146,293 @@ public abstract class GsonSerializerBase implements JsonSerializer {
         return arrayList;
     }
 
+    /**
+     * Deserializes a list, binding only the selected properties. Unselected properties are
+     * skipped while the payload is read, so they are never parsed into the JSON tree.
+     */
+    @Override
+    public <E> List<E> deserializeList(String payload, Class<E> clazz, Set<String> selectedProperties) throws IOException {
+        if (selectedProperties == null) {
+            return deserializeList(payload, clazz);
+        }
+
+        Gson serializer = createGson();
+        JsonParser parser = new JsonParser();
+        Package pkg = clazz.getPackage();
+        ArrayList<E> arrayList = new ArrayList<E>();
+
+        JsonReader reader = new JsonReader(new StringReader(payload));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"value".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    JsonElement item = readSelectedProperties(reader, parser, selectedProperties);
+                    sanitizeForDeserialization(item);
+
+                    Class currentClass = clazz;
+                    Class overridenClass = getClassFromJson(item, pkg);
+
+                    if (overridenClass != null) {
+                        currentClass = overridenClass;
+                    }
+
+                    arrayList.add((E) serializer.fromJson(item, currentClass));
+                }
+                reader.endArray();
+            }
+        } finally {
+            reader.close();
+        }
+
+        return arrayList;
+    }
+
+    @Override
+    public <E> ODataCollectionPage<E> deserializePage(String payload, Class<E> clazz) {
+        Gson serializer = createGson();
+
+        JsonParser parser = new JsonParser();
+        JsonObject json = (JsonObject) parser.parse(payload);
+
+        Package pkg = clazz.getPackage();
+        ArrayList<E> items = new ArrayList<E>();
+        ArrayList<String> removedIds = new ArrayList<String>();
+
+        JsonElement jsonArray = json.get("value");
+        if (jsonArray != null && jsonArray.isJsonArray()) {
+            for (JsonElement item : jsonArray.getAsJsonArray()) {
+                if (isRemovedEntry(item)) {
+                    String id = getFirstString(item.getAsJsonObject(), ID_PROPERTIES);
+                    if (id != null) {
+                        removedIds.add(id);
+                    }
+                    continue;
+                }
+
+                sanitizeForDeserialization(item);
+
+                Class currentClass = clazz;
+                Class overridenClass = getClassFromJson(item, pkg);
+
+                if (overridenClass != null) {
+                    currentClass = overridenClass;
+                }
+
+                items.add((E) serializer.fromJson(item, currentClass));
+            }
+        }
+
+        return new ODataCollectionPage<E>(items, removedIds,
+                getFirstString(json, NEXT_LINK_PROPERTIES),
+                getFirstString(json, DELTA_LINK_PROPERTIES));
+    }
+
+    @Override
+    public ODataCollectionPage<String> deserializeRawPage(String payload) {
+        JsonParser parser = new JsonParser();
+        JsonObject json = (JsonObject) parser.parse(payload);
+
+        ArrayList<String> items = new ArrayList<String>();
+        ArrayList<String> removedIds = new ArrayList<String>();
+
+        JsonElement jsonArray = json.get("value");
+        if (jsonArray != null && jsonArray.isJsonArray()) {
+            for (JsonElement item : jsonArray.getAsJsonArray()) {
+                if (isRemovedEntry(item)) {
+                    String id = getFirstString(item.getAsJsonObject(), ID_PROPERTIES);
+                    if (id != null) {
+                        removedIds.add(id);
+                    }
+                    continue;
+                }
+
+                items.add(item.toString());
+            }
+        }
+
+        return new ODataCollectionPage<String>(items, removedIds,
+                getFirstString(json, NEXT_LINK_PROPERTIES),
+                getFirstString(json, DELTA_LINK_PROPERTIES));
+    }
+
+    @Override
+    public ODataPrimitiveCollection deserializePrimitiveCollection(String payload) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(payload));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return readPrimitiveArray(reader);
+            }
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("value".equals(reader.nextName())) {
+                    return readPrimitiveArray(reader);
+                }
+                reader.skipValue();
+            }
+            return ODataPrimitiveCollection.empty();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads an array of primitive values into an array of the type of its first value.
+     */
+    private static ODataPrimitiveCollection readPrimitiveArray(JsonReader reader) throws IOException {
+        reader.beginArray();
+        if (!reader.hasNext()) {
+            return ODataPrimitiveCollection.empty();
+        }
+
+        JsonToken first = reader.peek();
+        int size = 0;
+
+        if (first == JsonToken.BOOLEAN) {
+            boolean[] values = new boolean[16];
+            while (reader.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = reader.nextBoolean();
+            }
+            return ODataPrimitiveCollection.ofBooleans(values, size);
+        }
+
+        if (first == JsonToken.NUMBER) {
+            long[] values = new long[16];
+            while (reader.hasNext()) {
+                String number = nextNumber(reader);
+                long value;
+                try {
+                    value = Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    // a fraction or exponent, the whole collection is kept as doubles
+                    return readDoubles(reader, values, size, Double.parseDouble(number));
+                }
+
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = value;
+            }
+            return ODataPrimitiveCollection.ofLongs(values, size);
+        }
+
+        String[] values = new String[16];
+        while (reader.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                values[size++] = null;
+            } else {
+                values[size++] = reader.nextString();
+            }
+        }
+        return ODataPrimitiveCollection.ofStrings(values, size);
+    }
+
+    private static ODataPrimitiveCollection readDoubles(JsonReader reader, long[] longs, int size, double next)
+            throws IOException {
+        double[] values = new double[Math.max(longs.length, size + 1)];
+        for (int i = 0; i < size; i++) {
+            values[i] = longs[i];
+        }
+        values[size++] = next;
+
+        while (reader.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = Double.parseDouble(nextNumber(reader));
+        }
+        return ODataPrimitiveCollection.ofDoubles(values, size);
+    }
+
+    private static String nextNumber(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NUMBER) {
+            throw new IllegalStateException("Expected a number but was " + reader.peek());
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Reads the next array item, skipping the values of the properties that are not selected.
+     */
+    private static JsonElement readSelectedProperties(JsonReader reader, JsonParser parser,
+                                                      Set<String> selectedProperties) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return parser.parse(reader);
+        }
+
+        JsonObject jsonObject = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String propertyName = reader.nextName();
+
+            // ids and annotations such as @odata.type are always kept, the latter drive the
+            // deserialization
+            if (selectedProperties.contains(propertyName) || isIdProperty(propertyName)
+                    || propertyName.indexOf('@') != -1 || propertyName.indexOf('.') != -1) {
+                jsonObject.add(propertyName, parser.parse(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return jsonObject;
+    }
+
+    private static boolean isIdProperty(String propertyName) {
+        for (String idProperty : ID_PROPERTIES) {
+            if (idProperty.equals(propertyName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isRemovedEntry(JsonElement item) {
+        if (!item.isJsonObject()) {
+            return false;
+        }
+
+        JsonObject jsonObject = item.getAsJsonObject();
+
+        if (jsonObject.has("@removed")) {
+            return true;
+        }
+
+        JsonElement isDeleted = jsonObject.get("aad.isDeleted");
+        if (isDeleted != null && isDeleted.isJsonPrimitive() && isDeleted.getAsBoolean()) {
+            return true;
+        }
+
+        JsonElement context = jsonObject.get("@odata.context");
+        return context != null && context.isJsonPrimitive() && context.getAsString().endsWith("$deletedEntity");
+    }
+
+    private static String getFirstString(JsonObject jsonObject, String[] propertyNames) {
+        for (String propertyName : propertyNames) {
+            JsonElement element = jsonObject.get(propertyName);
+            if (element != null && element.isJsonPrimitive()) {
+                return element.getAsString();
+            }
+        }
+
+        return null;
+    }
+
     private void sanitizePostSerialization(JsonElement json) {
         if (json.isJsonArray()) {
             JsonArray jsonArray = json.getAsJsonArray();
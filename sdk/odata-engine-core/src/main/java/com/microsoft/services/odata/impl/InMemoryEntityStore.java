@@ -0,0 +1,275 @@
+package com.microsoft.services.odata.impl;
+
+import com.microsoft.services.odata.EntityStoreQuery;
+import com.microsoft.services.odata.StoredEntity;
+import com.microsoft.services.odata.interfaces.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Entity store that keeps its entities in memory, with a sorted index per indexed property.
+ */
+public class InMemoryEntityStore implements EntityStore {
+
+    private static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
+        @Override
+        public int compare(Object left, Object right) {
+            return EntityStoreQuery.compareValues(left, right);
+        }
+    };
+
+    /**
+     * The entities and indexes of a collection.
+     */
+    protected static class CollectionData {
+        /**
+         * The Entities.
+         */
+        final Map<String, StoredEntity> entities = new LinkedHashMap<String, StoredEntity>();
+        /**
+         * The Indexes, from property name to index value to entity ids.
+         */
+        final Map<String, NavigableMap<Object, Set<String>>> indexes = new HashMap<String, NavigableMap<Object, Set<String>>>();
+        /**
+         * The Last refreshed.
+         */
+        long lastRefreshed = 0;
+
+        /**
+         * Gets entities.
+         *
+         * @return the entities
+         */
+        public Collection<StoredEntity> getEntities() {
+            return entities.values();
+        }
+
+        /**
+         * Gets last refreshed.
+         *
+         * @return the last refreshed
+         */
+        public long getLastRefreshed() {
+            return lastRefreshed;
+        }
+
+        void put(StoredEntity entity) {
+            removeEntity(entity.getId());
+            entities.put(entity.getId(), entity);
+
+            for (Map.Entry<String, Object> indexValue : entity.getIndexValues().entrySet()) {
+                if (indexValue.getValue() == null) {
+                    continue;
+                }
+
+                NavigableMap<Object, Set<String>> index = indexes.get(indexValue.getKey());
+                if (index == null) {
+                    index = new TreeMap<Object, Set<String>>(VALUE_COMPARATOR);
+                    indexes.put(indexValue.getKey(), index);
+                }
+
+                Set<String> ids = index.get(indexValue.getValue());
+                if (ids == null) {
+                    ids = new HashSet<String>();
+                    index.put(indexValue.getValue(), ids);
+                }
+                ids.add(entity.getId());
+            }
+        }
+
+        void removeEntity(String id) {
+            StoredEntity existing = entities.remove(id);
+            if (existing == null) {
+                return;
+            }
+
+            for (Map.Entry<String, Object> indexValue : existing.getIndexValues().entrySet()) {
+                NavigableMap<Object, Set<String>> index = indexes.get(indexValue.getKey());
+                if (index == null || indexValue.getValue() == null) {
+                    continue;
+                }
+
+                Set<String> ids = index.get(indexValue.getValue());
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        index.remove(indexValue.getValue());
+                    }
+                }
+            }
+        }
+
+        Collection<StoredEntity> getCandidates(EntityStoreQuery query) {
+            for (EntityStoreQuery.Condition condition : query.getConditions()) {
+                NavigableMap<Object, Set<String>> index = indexes.get(condition.getProperty());
+                Object value = condition.getValue();
+
+                if (value == null || condition.getOperator() == EntityStoreQuery.Operator.NE) {
+                    continue;
+                }
+
+                if (index == null) {
+                    return Collections.emptyList();
+                }
+
+                NavigableMap<Object, Set<String>> range;
+                switch (condition.getOperator()) {
+                    case EQ:
+                        range = index.subMap(value, true, value, true);
+                        break;
+                    case GT:
+                        range = index.tailMap(value, false);
+                        break;
+                    case GE:
+                        range = index.tailMap(value, true);
+                        break;
+                    case LT:
+                        range = index.headMap(value, false);
+                        break;
+                    default:
+                        range = index.headMap(value, true);
+                        break;
+                }
+
+                List<StoredEntity> candidates = new ArrayList<StoredEntity>();
+                for (Set<String> ids : range.values()) {
+                    for (String id : ids) {
+                        candidates.add(entities.get(id));
+                    }
+                }
+                return candidates;
+            }
+
+            return entities.values();
+        }
+    }
+
+    private final Map<String, CollectionData> collections = new HashMap<String, CollectionData>();
+
+    @Override
+    public synchronized void upsert(String collection, List<StoredEntity> entities) {
+        CollectionData data = getOrCreate(collection);
+        for (StoredEntity entity : entities) {
+            data.put(entity);
+        }
+    }
+
+    @Override
+    public synchronized void remove(String collection, List<String> ids) {
+        CollectionData data = collections.get(collection);
+        if (data == null) {
+            return;
+        }
+
+        for (String id : ids) {
+            data.removeEntity(id);
+        }
+    }
+
+    @Override
+    public synchronized void clear(String collection) {
+        CollectionData data = new CollectionData();
+        collections.put(collection, data);
+    }
+
+    @Override
+    public synchronized String get(String collection, String id) {
+        CollectionData data = collections.get(collection);
+        if (data == null) {
+            return null;
+        }
+
+        StoredEntity entity = data.entities.get(id);
+        return entity != null ? entity.getPayload() : null;
+    }
+
+    @Override
+    public synchronized List<String> query(String collection, EntityStoreQuery query) {
+        List<String> result = new ArrayList<String>();
+        CollectionData data = collections.get(collection);
+        if (data == null) {
+            return result;
+        }
+
+        List<StoredEntity> matches = new ArrayList<StoredEntity>();
+        for (StoredEntity entity : data.getCandidates(query)) {
+            if (query.matches(entity.getIndexValues())) {
+                matches.add(entity);
+            }
+        }
+
+        if (query.getOrderBy() != null) {
+            final Comparator<Map<String, Object>> comparator = query.getComparator();
+            Collections.sort(matches, new Comparator<StoredEntity>() {
+                @Override
+                public int compare(StoredEntity left, StoredEntity right) {
+                    return comparator.compare(left.getIndexValues(), right.getIndexValues());
+                }
+            });
+        }
+
+        for (StoredEntity entity : matches) {
+            if (query.getTop() > -1 && result.size() >= query.getTop()) {
+                break;
+            }
+            result.add(entity.getPayload());
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized void setLastRefreshed(String collection, long time) {
+        CollectionData data = getOrCreate(collection);
+        data.lastRefreshed = time;
+    }
+
+    @Override
+    public synchronized long getLastRefreshed(String collection) {
+        CollectionData data = collections.get(collection);
+        return data != null ? data.lastRefreshed : 0;
+    }
+
+    /**
+     * Loads a collection, e.g. from persistent storage. Called with the store lock held.
+     *
+     * @param collection the collection
+     * @param entities the entities
+     * @param lastRefreshed the last refreshed time
+     */
+    protected void load(String collection, Collection<StoredEntity> entities, long lastRefreshed) {
+        CollectionData data = new CollectionData();
+        for (StoredEntity entity : entities) {
+            data.put(entity);
+        }
+        data.lastRefreshed = lastRefreshed;
+        collections.put(collection, data);
+    }
+
+    /**
+     * Gets the data of a collection, loading it first if needed. Called with the store lock
+     * held.
+     *
+     * @param collection the collection
+     * @return the collection data
+     */
+    protected CollectionData getOrCreate(String collection) {
+        CollectionData data = collections.get(collection);
+        if (data == null) {
+            data = new CollectionData();
+            collections.put(collection, data);
+        }
+        return data;
+    }
+}
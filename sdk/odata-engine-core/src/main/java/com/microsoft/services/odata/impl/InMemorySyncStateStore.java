@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sync state store that keeps its state in memory. State does not survive the process,
+ * so it's mostly useful for tests and for short-lived polling loops.
+ */
+public class InMemorySyncStateStore implements SyncStateStore {
+
+    private Map<String, String> state = new ConcurrentHashMap<String, String>();
+
+    @Override
+    public String get(String key) {
+        return state.get(key);
+    }
+
+    @Override
+    public void put(String key, String value) {
+        state.put(key, value);
+    }
+
+    @Override
+    public void remove(String key) {
+        state.remove(key);
+    }
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the string value of a property of a JSON object straight from the stream holding
+ * the object, without building the string. The value comes out unescaped, as UTF-8. A null
+ * value reads as an empty stream.
+ * <p>
+ * Only properties of the outermost object are matched, and everything before the property
+ * is skipped as it is read, so the value can be streamed from a response of any size.
+ */
+public class JsonStringInputStream extends FilterInputStream {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final byte[] propertyName;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLength;
+
+    // up to three more bytes of an escaped character's UTF-8 encoding
+    private final byte[] pending = new byte[3];
+    private int pendingPosition;
+    private int pendingLength;
+
+    private boolean found;
+    private boolean finished;
+
+    /**
+     * Instantiates a new JsonStringInputStream.
+     *
+     * @param in the stream with the JSON object
+     * @param propertyName the property name
+     */
+    public JsonStringInputStream(InputStream in, String propertyName) {
+        super(in);
+        try {
+            this.propertyName = propertyName.getBytes("UTF-8");
+        } catch (java.io.UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!found) {
+            seek();
+        }
+
+        int count = 0;
+        while (count < len) {
+            if (pendingPosition < pendingLength) {
+                b[off + count++] = pending[pendingPosition++];
+                continue;
+            }
+            if (finished) {
+                break;
+            }
+
+            // plain characters are copied in runs, straight from the buffer
+            if (bufferPosition < bufferLength) {
+                int start = bufferPosition;
+                int end = Math.min(bufferLength, start + len - count);
+                int i = start;
+                while (i < end && buffer[i] != '"' && buffer[i] != '\\') {
+                    i++;
+                }
+                if (i > start) {
+                    System.arraycopy(buffer, start, b, off + count, i - start);
+                    count += i - start;
+                    bufferPosition = i;
+                    continue;
+                }
+            }
+
+            int c = next();
+            if (c == -1) {
+                throw new IOException("Unterminated JSON string");
+            } else if (c == '"') {
+                finished = true;
+            } else if (c == '\\') {
+                unescape(nextRequired());
+            } else {
+                b[off + count++] = (byte) c;
+            }
+        }
+
+        return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return pendingLength - pendingPosition;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Skips to the value of the property.
+     */
+    private void seek() throws IOException {
+        found = true;
+        int depth = 0;
+        int c = nextNonWhitespace();
+
+        while (c != -1) {
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+            } else if (c == '"') {
+                boolean matches = skipString(depth == 1);
+                c = nextNonWhitespace();
+                if (matches && c == ':') {
+                    c = nextNonWhitespace();
+                    if (c == '"') {
+                        return;
+                    }
+                    if (c == 'n') {
+                        finished = true;
+                        return;
+                    }
+                    throw new IOException("Property " + new String(propertyName, "UTF-8") + " is not a string");
+                }
+                continue;
+            }
+            c = nextNonWhitespace();
+        }
+
+        throw new IOException("Property " + new String(propertyName, "UTF-8") + " not found");
+    }
+
+    /**
+     * Skips a string whose opening quote was read, returning whether it equals the property
+     * name when compare is set.
+     */
+    private boolean skipString(boolean compare) throws IOException {
+        int index = 0;
+        boolean matches = compare;
+
+        while (true) {
+            int c = nextRequired();
+            if (c == '"') {
+                return matches && index == propertyName.length;
+            }
+            if (c == '\\') {
+                c = nextRequired();
+                // property names are compared as written, escaped names never match
+                matches = false;
+            }
+            if (matches) {
+                matches = index < propertyName.length && propertyName[index++] == (byte) c;
+            }
+        }
+    }
+
+    private void unescape(int c) throws IOException {
+        pendingPosition = 0;
+        pendingLength = 0;
+
+        int value;
+        switch (c) {
+            case 'b': value = '\b'; break;
+            case 'f': value = '\f'; break;
+            case 'n': value = '\n'; break;
+            case 'r': value = '\r'; break;
+            case 't': value = '\t'; break;
+            case 'u':
+                value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextRequired(), 16);
+                    if (digit == -1) {
+                        throw new IOException("Invalid JSON unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                break;
+            default: value = c; break;
+        }
+
+        // code points above 0x7f are written as UTF-8; surrogates are not paired
+        if (value < 0x80) {
+            pending[pendingLength++] = (byte) value;
+        } else if (value < 0x800) {
+            pending[pendingLength++] = (byte) (0xc0 | (value >> 6));
+            pending[pendingLength++] = (byte) (0x80 | (value & 0x3f));
+        } else {
+            pending[pendingLength++] = (byte) (0xe0 | (value >> 12));
+            pending[pendingLength++] = (byte) (0x80 | ((value >> 6) & 0x3f));
+            pending[pendingLength++] = (byte) (0x80 | (value & 0x3f));
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = next();
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            c = next();
+        }
+        return c;
+    }
+
+    private int nextRequired() throws IOException {
+        int c = next();
+        if (c == -1) {
+            throw new IOException("Unexpected end of JSON content");
+        }
+        return c;
+    }
+
+    private int next() throws IOException {
+        if (bufferPosition == bufferLength) {
+            bufferLength = in.read(buffer, 0, buffer.length);
+            bufferPosition = 0;
+            if (bufferLength <= 0) {
+                bufferLength = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPosition++] & 0xff;
+    }
+}
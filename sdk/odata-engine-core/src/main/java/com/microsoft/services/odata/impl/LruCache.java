@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map holding a bounded number of entries, dropping the least recently used one first.
+ * <p>
+ * Reads count as uses, so the map is iterated from the least to the most recently used
+ * entry. It is not synchronized; owners guard it with their own lock.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private int maxSize;
+
+    /**
+     * Instantiates a new cache.
+     *
+     * @param maxSize the number of entries kept
+     */
+    public LruCache(int maxSize) {
+        super(16, 0.75f, true);
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * Gets the number of entries kept.
+     *
+     * @return the max size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the number of entries kept, dropping the least recently used ones beyond it.
+     *
+     * @param maxSize the max size
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+
+        Iterator<K> keys = keySet().iterator();
+        while (size() > maxSize) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
@@ -0,0 +1,28 @@
+package com.microsoft.services.odata.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes an exported collection as newline delimited JSON, one entity per line, exactly as
+ * the service returned it.
+ */
+public class NdjsonExportSink extends FileExportSink {
+
+    /**
+     * Instantiates a new NdjsonExportSink.
+     *
+     * @param file the file
+     */
+    public NdjsonExportSink(File file) {
+        super(file);
+    }
+
+    @Override
+    protected void writeEntity(Writer writer, String json) throws IOException {
+        // compact JSON text never contains a raw line break
+        writer.write(json);
+        writer.write('\n');
+    }
+}
@@ -5,6 +5,16 @@ import com.microsoft.services.odata.interfaces.Request;
 
 public class OAuthCredentials implements Credentials {
 
+    /**
+     * The constant AUTHORIZATION_HEADER.
+     */
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+
+    /**
+     * The constant BEARER_PREFIX.
+     */
+    public static final String BEARER_PREFIX = "Bearer ";
+
     private String mToken;
 
     public OAuthCredentials(String oAuthToken) {
@@ -20,7 +30,7 @@ public class OAuthCredentials implements Credentials {
 
     @Override
     public void prepareRequest(Request request) {
-        request.addHeader("Authorization", "Bearer " + getToken());
+        request.addHeader(AUTHORIZATION_HEADER, BEARER_PREFIX + getToken());
     }
 
 }
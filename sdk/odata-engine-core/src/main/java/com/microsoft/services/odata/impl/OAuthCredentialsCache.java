@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.services.odata.interfaces.AsyncCredentials;
+import com.microsoft.services.odata.interfaces.Credentials;
+import com.microsoft.services.odata.interfaces.Request;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches OAuth credentials per resource. A token close to its expiry is still handed out
+ * while a fresh one is acquired in the background; callers only wait for a token when there
+ * is none or it already expired. Concurrent acquisitions for the same resource share a single
+ * call to {@link #acquireToken(String)}. A token the server rejected is replaced through
+ * {@link #acquireTokenReplacing(String, String)}, and requests are only replayed once the
+ * new token differs from the rejected one.
+ */
+public abstract class OAuthCredentialsCache {
+
+    /**
+     * The default time before expiry at which tokens are refreshed in the background.
+     */
+    public static final long DEFAULT_REFRESH_AHEAD_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * The lifetime assumed for tokens acquired without an expiry time.
+     */
+    public static final long DEFAULT_TOKEN_LIFETIME_MILLIS = 10 * 60 * 1000;
+
+    // tokens this close to their expiry are not sent anymore, they could expire in flight
+    private static final long EXPIRY_MARGIN_MILLIS = 30 * 1000;
+
+    // forced refreshes are coalesced apart from the plain acquisitions, which may return the
+    // rejected token again
+    private static final String REJECTED_KEY_PREFIX = "rejected:";
+
+    /**
+     * An access token and its expiry time.
+     */
+    public static class AccessToken {
+        private final String token;
+        private final long expiresOn;
+
+        /**
+         * Instantiates a new Access token.
+         *
+         * @param token the token
+         * @param expiresOn the expiry time, in epoch milliseconds, or 0 if unknown
+         */
+        public AccessToken(String token, long expiresOn) {
+            this.token = token;
+            this.expiresOn = expiresOn > 0 ? expiresOn : System.currentTimeMillis() + DEFAULT_TOKEN_LIFETIME_MILLIS;
+        }
+
+        /**
+         * Gets token.
+         *
+         * @return the token
+         */
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Gets expires on.
+         *
+         * @return the expiry time, in epoch milliseconds
+         */
+        public long getExpiresOn() {
+            return expiresOn;
+        }
+    }
+
+    private final ConcurrentMap<String, AccessToken> tokens = new ConcurrentHashMap<String, AccessToken>();
+    private final RequestCoalescer<AccessToken> acquisitions = new RequestCoalescer<AccessToken>();
+    private volatile long refreshAheadMillis = DEFAULT_REFRESH_AHEAD_MILLIS;
+
+    /**
+     * Acquires a new token for a resource. Implementations must not block the calling thread.
+     *
+     * @param resource the resource
+     * @return the listenable future
+     */
+    protected abstract ListenableFuture<AccessToken> acquireToken(String resource);
+
+    /**
+     * Acquires a token to replace one the server rejected. Implementations that keep a token
+     * cache of their own must bypass it, e.g. by redeeming the refresh token, or they would
+     * return the rejected token again. The default acquires a token like
+     * {@link #acquireToken(String)}. Implementations must not block the calling thread.
+     *
+     * @param resource the resource
+     * @param rejectedToken the rejected token
+     * @return the listenable future
+     */
+    protected ListenableFuture<AccessToken> acquireTokenReplacing(String resource, String rejectedToken) {
+        return acquireToken(resource);
+    }
+
+    /**
+     * Sets the time before expiry at which tokens are refreshed in the background.
+     *
+     * @param refreshAheadMillis the refresh ahead time
+     */
+    public void setRefreshAheadMillis(long refreshAheadMillis) {
+        this.refreshAheadMillis = refreshAheadMillis;
+    }
+
+    /**
+     * Gets the credentials for a resource, from the cache when possible.
+     *
+     * @param resource the resource
+     * @return the listenable future
+     */
+    public ListenableFuture<Credentials> getCredentialsAsync(final String resource) {
+        AccessToken token = tokens.get(resource);
+        long now = System.currentTimeMillis();
+
+        if (token != null && now < token.getExpiresOn() - EXPIRY_MARGIN_MILLIS) {
+            if (now >= token.getExpiresOn() - refreshAheadMillis) {
+                refresh(resource);
+            }
+            return Futures.<Credentials>immediateFuture(new OAuthCredentials(token.getToken()));
+        }
+
+        return Futures.transform(refresh(resource), new Function<AccessToken, Credentials>() {
+            @Override
+            public Credentials apply(AccessToken accessToken) {
+                return new OAuthCredentials(accessToken.getToken());
+            }
+        });
+    }
+
+    /**
+     * Gets the credentials for a resource, from the cache when possible. Only blocks when a
+     * token has to be acquired before it can be used.
+     *
+     * @param resource the resource
+     * @return the credentials
+     */
+    public Credentials getCredentials(String resource) {
+        try {
+            return getCredentialsAsync(resource).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while acquiring a token for " + resource, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to acquire a token for " + resource, e.getCause());
+        }
+    }
+
+    /**
+     * Gets credentials for a resource that take their token from the cache when a request is
+     * prepared, and acquire a new one when the server rejects it.
+     *
+     * @param resource the resource
+     * @return the credentials
+     */
+    public AsyncCredentials getAsyncCredentials(final String resource) {
+        return new AsyncCredentials() {
+            @Override
+            public ListenableFuture<Void> prepareRequestAsync(final Request request) {
+                return Futures.transform(getCredentialsAsync(resource), new Function<Credentials, Void>() {
+                    @Override
+                    public Void apply(Credentials credentials) {
+                        credentials.prepareRequest(request);
+                        return null;
+                    }
+                });
+            }
+
+            @Override
+            public ListenableFuture<Boolean> refreshAsync(Request rejectedRequest) {
+                String authorization = rejectedRequest.getHeaders().get(OAuthCredentials.AUTHORIZATION_HEADER);
+                final String rejectedToken = authorization != null && authorization.startsWith(OAuthCredentials.BEARER_PREFIX)
+                        ? authorization.substring(OAuthCredentials.BEARER_PREFIX.length())
+                        : null;
+
+                AccessToken token = tokens.get(resource);
+                if (token != null && !token.getToken().equals(rejectedToken)) {
+                    // another request replaced the rejected token already
+                    return Futures.immediateFuture(true);
+                }
+
+                if (token != null) {
+                    tokens.remove(resource, token);
+                }
+
+                return Futures.transform(acquire(REJECTED_KEY_PREFIX + resource, resource, rejectedToken),
+                        new Function<AccessToken, Boolean>() {
+                            @Override
+                            public Boolean apply(AccessToken accessToken) {
+                                // replaying with the rejected token would only be rejected again
+                                return accessToken != null && !accessToken.getToken().equals(rejectedToken);
+                            }
+                        });
+            }
+
+            @Override
+            public void prepareRequest(Request request) {
+                getCredentials(resource).prepareRequest(request);
+            }
+        };
+    }
+
+    /**
+     * Forgets the token cached for a resource, e.g. after the server rejected it.
+     *
+     * @param resource the resource
+     */
+    public void invalidate(String resource) {
+        tokens.remove(resource);
+    }
+
+    /**
+     * Acquires a token for a resource, or joins the acquisition already in flight, and caches
+     * it once acquired.
+     *
+     * @param resource the resource
+     * @return the listenable future
+     */
+    public ListenableFuture<AccessToken> refresh(String resource) {
+        return acquire(resource, resource, null);
+    }
+
+    private ListenableFuture<AccessToken> acquire(String key, final String resource, final String rejectedToken) {
+        return acquisitions.execute(key, new Callable<ListenableFuture<AccessToken>>() {
+            @Override
+            public ListenableFuture<AccessToken> call() throws Exception {
+                ListenableFuture<AccessToken> future = rejectedToken != null
+                        ? acquireTokenReplacing(resource, rejectedToken)
+                        : acquireToken(resource);
+                Futures.addCallback(future, new FutureCallback<AccessToken>() {
+                    @Override
+                    public void onSuccess(AccessToken accessToken) {
+                        if (accessToken != null && !accessToken.getToken().equals(rejectedToken)) {
+                            tokens.put(resource, accessToken);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        // the cached token, if any, stays in use until it expires
+                    }
+                });
+                return future;
+            }
+        });
+    }
+}
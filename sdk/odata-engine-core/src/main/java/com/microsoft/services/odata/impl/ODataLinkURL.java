@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import com.microsoft.services.odata.interfaces.ODataURL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.microsoft.services.odata.Helpers.urlEncode;
+
+/**
+ * An ODataURL pointing to a link returned by the server, such as a next page link or a
+ * delta link. The link already carries the resource path and the system query options, so
+ * path components and $-prefixed query options added while the request travels up the
+ * fetcher chain are ignored. Other query string parameters are appended when the link
+ * does not define them already.
+ */
+public class ODataLinkURL implements ODataURL {
+
+    /**
+     * The Link.
+     */
+    String link;
+    /**
+     * The Base url.
+     */
+    String baseUrl;
+    /**
+     * The Query string parameters.
+     */
+    Map<String, String> queryStringParameters = new TreeMap<String, String>();
+
+    /**
+     * Instantiates a new ODataLinkURL.
+     *
+     * @param link the absolute or base-relative link returned by the server
+     */
+    public ODataLinkURL(String link) {
+        if (link == null) {
+            throw new IllegalArgumentException("link must not be null");
+        }
+
+        this.link = link;
+    }
+
+    @Override
+    public void setBaseUrl(String baseUrl) {
+        String[] urlParts = baseUrl.split("\\?");
+
+        this.baseUrl = urlParts[0];
+        if (this.baseUrl.endsWith("/")) {
+            this.baseUrl = this.baseUrl.substring(0, this.baseUrl.length() - 1);
+        }
+
+        if (urlParts.length > 1) {
+            for (String kv : urlParts[1].split("&")) {
+                String[] parameterParts = kv.split("=");
+                String val = "";
+                if (parameterParts.length > 1) {
+                    val = parameterParts[1];
+                }
+
+                this.addQueryStringParameter(parameterParts[0], val);
+            }
+        }
+    }
+
+    @Override
+    public void appendPathComponent(String pathComponent) {
+        // the link already contains the full resource path
+    }
+
+    @Override
+    public void prependPathComponent(String pathComponent) {
+        // the link already contains the full resource path
+    }
+
+    @Override
+    public void addQueryStringParameter(String name, String value) {
+        if (name.startsWith("$") || linkDefinesParameter(name)) {
+            return;
+        }
+
+        queryStringParameters.put(name, value);
+    }
+
+    @Override
+    public Map<String, String> getQueryStringParameters() {
+        return new HashMap<String, String>(queryStringParameters);
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return this.baseUrl;
+    }
+
+    @Override
+    public List<String> getPathComponents() {
+        return new ArrayList<String>();
+    }
+
+    /**
+     * Gets the link.
+     *
+     * @return the link
+     */
+    public String getLink() {
+        return this.link;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        if (isAbsolute(link) || baseUrl == null) {
+            sb.append(link);
+        } else {
+            sb.append(baseUrl);
+            sb.append("/");
+            sb.append(link.startsWith("/") ? link.substring(1) : link);
+        }
+
+        Set<String> parameterNames = this.queryStringParameters.keySet();
+        char separator = link.indexOf('?') == -1 ? '?' : '&';
+
+        for (String name : parameterNames) {
+            sb.append(separator);
+            sb.append(urlEncode(name));
+            sb.append("=");
+            sb.append(urlEncode(this.queryStringParameters.get(name)));
+            separator = '&';
+        }
+
+        return sb.toString();
+    }
+
+    private boolean linkDefinesParameter(String name) {
+        int queryStart = link.indexOf('?');
+        if (queryStart == -1) {
+            return false;
+        }
+
+        for (String kv : link.substring(queryStart + 1).split("&")) {
+            String key = kv.split("=")[0];
+            if (key.equals(name) || key.equals(urlEncode(name))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isAbsolute(String link) {
+        String lower = link.toLowerCase();
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+}
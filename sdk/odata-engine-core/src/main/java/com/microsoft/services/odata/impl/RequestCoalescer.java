@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares a single in-flight operation between concurrent callers that use the same key.
+ * <p>
+ * The first caller for a key starts the operation; callers arriving while it is still running
+ * are attached to it instead of starting a new one. Once the operation completes the key is
+ * released, so later callers start a fresh operation. Every caller gets its own future, so
+ * cancelling one of them does not affect the others.
+ *
+ * @param <T> the result type
+ */
+public class RequestCoalescer<T> {
+
+    private final ConcurrentMap<String, SettableFuture<T>> inFlight = new ConcurrentHashMap<String, SettableFuture<T>>();
+
+    /**
+     * Executes the operation, or joins the one already in flight for the given key.
+     *
+     * @param key       the key identifying the operation
+     * @param operation the operation to start if none is in flight
+     * @return the listenable future
+     */
+    public ListenableFuture<T> execute(final String key, Callable<ListenableFuture<T>> operation) {
+        final SettableFuture<T> shared = SettableFuture.create();
+        SettableFuture<T> existing = inFlight.putIfAbsent(key, shared);
+
+        if (existing != null) {
+            return attach(existing);
+        }
+
+        ListenableFuture<T> future;
+        try {
+            future = operation.call();
+        } catch (Throwable t) {
+            inFlight.remove(key, shared);
+            shared.setException(t);
+            return attach(shared);
+        }
+
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                inFlight.remove(key, shared);
+                shared.set(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                inFlight.remove(key, shared);
+                shared.setException(t);
+            }
+        });
+
+        return attach(shared);
+    }
+
+    /**
+     * Gets the number of operations currently in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private ListenableFuture<T> attach(ListenableFuture<T> shared) {
+        final SettableFuture<T> result = SettableFuture.create();
+
+        Futures.addCallback(shared, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.set(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.microsoft.services.odata.interfaces;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * The interface Async credentials. Credentials that may need I/O to prepare a request, such
+ * as acquiring or refreshing a token, implement it so the request pipeline waits for them
+ * without blocking a thread.
+ */
+public interface AsyncCredentials extends Credentials {
+    /**
+     * Prepares a request without blocking the calling thread.
+     *
+     * @param request the request
+     * @return the listenable future, completed once the request is ready to be sent
+     */
+    public ListenableFuture<Void> prepareRequestAsync(Request request);
+
+    /**
+     * Called when the server rejected the credentials of a request with a 401 status.
+     *
+     * @param rejectedRequest the rejected request
+     * @return the listenable future, true if new credentials were obtained and the request
+     * can be replayed
+     */
+    public ListenableFuture<Boolean> refreshAsync(Request rejectedRequest);
+}
@@ -0,0 +1,58 @@
+package com.microsoft.services.odata.interfaces;
+
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.ODataPrimitiveCollection;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads collection payloads beyond a plain entity list: pages with their links, raw pages,
+ * primitive collections and lists bound to a selection.
+ * <p>
+ * It is optional, so that existing {@link JsonSerializer} implementations keep working. The
+ * engine uses it when the serializer of the resolver implements it too, as the Gson based
+ * serializers do; otherwise selections are bound completely and the calls reading pages or
+ * primitive collections fail.
+ */
+public interface CollectionJsonSerializer {
+    /**
+     * Deserialize list, only binding the given top level properties of each entity. Other
+     * properties in the payload are skipped.
+     *
+     * @param <E>  the type parameter
+     * @param serializedList the serialized list
+     * @param clazz the clazz
+     * @param selectedProperties the selected properties, or null to bind every property
+     * @return the list
+     */
+    public <E> List<E> deserializeList(String serializedList, Class<E> clazz, Set<String> selectedProperties) throws Throwable;
+
+    /**
+     * Deserialize a collection page, including its next and delta links and the entries
+     * reported as removed by a delta response.
+     *
+     * @param <E>  the type parameter
+     * @param serializedPage the serialized page
+     * @param clazz the clazz
+     * @return the page
+     */
+    public <E> ODataCollectionPage<E> deserializePage(String serializedPage, Class<E> clazz) throws Throwable;
+
+    /**
+     * Deserialize a collection page, keeping each entity as its JSON text.
+     *
+     * @param serializedPage the serialized page
+     * @return the page
+     */
+    public ODataCollectionPage<String> deserializeRawPage(String serializedPage) throws Throwable;
+
+    /**
+     * Deserialize a collection of primitive values, either a JSON array or an object with
+     * the array in its value property, without building a JSON tree first.
+     *
+     * @param serializedCollection the serialized collection
+     * @return the collection
+     */
+    public ODataPrimitiveCollection deserializePrimitiveCollection(String serializedCollection) throws Throwable;
+}
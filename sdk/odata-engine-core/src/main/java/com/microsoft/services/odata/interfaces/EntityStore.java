@@ -0,0 +1,70 @@
+package com.microsoft.services.odata.interfaces;
+
+import com.microsoft.services.odata.EntityStoreQuery;
+import com.microsoft.services.odata.StoredEntity;
+
+import java.util.List;
+
+/**
+ * The interface Entity store. Keeps serialized entities per collection, with secondary
+ * indexes on a few of their properties, so simple collection queries can be answered
+ * without a round-trip.
+ */
+public interface EntityStore {
+    /**
+     * Inserts or replaces entities.
+     *
+     * @param collection the collection
+     * @param entities the entities
+     */
+    void upsert(String collection, List<StoredEntity> entities);
+
+    /**
+     * Removes entities.
+     *
+     * @param collection the collection
+     * @param ids the ids
+     */
+    void remove(String collection, List<String> ids);
+
+    /**
+     * Removes every entity of a collection and forgets when it was refreshed.
+     *
+     * @param collection the collection
+     */
+    void clear(String collection);
+
+    /**
+     * Gets the payload of an entity.
+     *
+     * @param collection the collection
+     * @param id the id
+     * @return the payload, or null if the entity is not stored
+     */
+    String get(String collection, String id);
+
+    /**
+     * Runs a query against the indexed properties of a collection.
+     *
+     * @param collection the collection
+     * @param query the query
+     * @return the payloads of the matching entities, in query order
+     */
+    List<String> query(String collection, EntityStoreQuery query);
+
+    /**
+     * Records when the collection was last brought in line with the server.
+     *
+     * @param collection the collection
+     * @param time the time, in epoch milliseconds
+     */
+    void setLastRefreshed(String collection, long time);
+
+    /**
+     * Gets when the collection was last brought in line with the server.
+     *
+     * @param collection the collection
+     * @return the time, in epoch milliseconds, or 0 if it never was
+     */
+    long getLastRefreshed(String collection);
+}
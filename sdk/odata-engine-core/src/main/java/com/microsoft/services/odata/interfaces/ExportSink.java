@@ -0,0 +1,42 @@
+package com.microsoft.services.odata.interfaces;
+
+import java.io.IOException;
+
+/**
+ * The destination of an exported collection. Entities are written one page at a time and
+ * each page is committed once written, so that an interrupted export can resume from the
+ * last committed page without duplicating or losing entities.
+ */
+public interface ExportSink {
+    /**
+     * Opens the sink for writing.
+     *
+     * @param position the position returned by the last commit of an interrupted export, to
+     *                 drop anything written after it, or null to start a new export
+     * @throws IOException the iO exception
+     */
+    void open(String position) throws IOException;
+
+    /**
+     * Writes an entity.
+     *
+     * @param json the entity, as JSON text
+     * @throws IOException the iO exception
+     */
+    void write(String json) throws IOException;
+
+    /**
+     * Makes everything written so far durable.
+     *
+     * @return the position to resume from
+     * @throws IOException the iO exception
+     */
+    String commit() throws IOException;
+
+    /**
+     * Closes the sink.
+     *
+     * @throws IOException the iO exception
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,30 @@
+package com.microsoft.services.odata.interfaces;
+
+/**
+ * The interface Sync state store. Persists the delta links and watermarks used by
+ * incremental synchronization between runs.
+ */
+public interface SyncStateStore {
+    /**
+     * Gets a stored value.
+     *
+     * @param key the key
+     * @return the value, or null if there is none
+     */
+    String get(String key);
+
+    /**
+     * Stores a value.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(String key, String value);
+
+    /**
+     * Removes a stored value.
+     *
+     * @param key the key
+     */
+    void remove(String key);
+}
@@ -1,9 +1,8 @@
 package com.microsoft.services.odata.impl.desktop;
 
+import com.microsoft.services.odata.impl.Base64Codec;
 import com.microsoft.services.odata.interfaces.Base64Encoder;
 
-import javax.xml.bind.DatatypeConverter;
-
 public class Base64EncoderImpl implements Base64Encoder {
     private Base64EncoderImpl() {
     }
@@ -15,11 +14,11 @@ public class Base64EncoderImpl implements Base64Encoder {
 
     @Override
     public String encode(byte[] data) {
-        return DatatypeConverter.printBase64Binary(data);
+        return Base64Codec.getInstance().encode(data);
     }
 
     @Override
     public byte[] decode(String base64String) {
-        return DatatypeConverter.parseBase64Binary(base64String);
+        return Base64Codec.getInstance().decode(base64String);
     }
 }
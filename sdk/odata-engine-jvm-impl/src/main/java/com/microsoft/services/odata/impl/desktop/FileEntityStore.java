@@ -0,0 +1,312 @@
+package com.microsoft.services.odata.impl.desktop;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.microsoft.services.odata.StoredEntity;
+import com.microsoft.services.odata.impl.InMemoryEntityStore;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entity store that answers queries from memory and keeps each collection in a directory,
+ * as a JSON snapshot plus a journal of the changes made since. Every store operation
+ * appends one line to the journal; the snapshot is rewritten, through a temporary file,
+ * only once the journal outgrows it, or when the collection is cleared. A line cut short
+ * by a crash is dropped when the collection is loaded.
+ */
+public class FileEntityStore extends InMemoryEntityStore {
+
+    private static final String FILE_SUFFIX = ".json";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String CHARSET = "UTF-8";
+    private static final long MIN_COMPACTION_LENGTH = 64 * 1024;
+
+    private final File directory;
+
+    /**
+     * Instantiates a new File entity store, loading the collections already in the directory.
+     *
+     * @param directory the directory
+     */
+    public FileEntityStore(File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+
+        this.directory = directory;
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new RuntimeException("Unable to create the entity store directory " + directory);
+        }
+
+        Set<String> names = new LinkedHashSet<String>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(FILE_SUFFIX)) {
+                    names.add(name.substring(0, name.length() - FILE_SUFFIX.length()));
+                } else if (name.endsWith(JOURNAL_SUFFIX)) {
+                    names.add(name.substring(0, name.length() - JOURNAL_SUFFIX.length()));
+                }
+            }
+        }
+
+        for (String name : names) {
+            try {
+                loadCollection(URLDecoder.decode(name, CHARSET));
+            } catch (UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void upsert(String collection, List<StoredEntity> entities) {
+        super.upsert(collection, entities);
+
+        JsonArray array = new JsonArray();
+        for (StoredEntity entity : entities) {
+            array.add(toJson(entity));
+        }
+
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", "upsert");
+        entry.add("entities", array);
+        append(collection, entry);
+    }
+
+    @Override
+    public synchronized void remove(String collection, List<String> ids) {
+        super.remove(collection, ids);
+
+        JsonArray array = new JsonArray();
+        for (String id : ids) {
+            array.add(new JsonPrimitive(id));
+        }
+
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", "remove");
+        entry.add("ids", array);
+        append(collection, entry);
+    }
+
+    @Override
+    public synchronized void clear(String collection) {
+        super.clear(collection);
+
+        // the old journal must not be replayed on top of the empty snapshot
+        File journal = getFile(collection, JOURNAL_SUFFIX);
+        if (journal.exists() && !journal.delete()) {
+            throw new RuntimeException("Unable to delete the entity store journal " + journal);
+        }
+        compact(collection);
+    }
+
+    @Override
+    public synchronized void setLastRefreshed(String collection, long time) {
+        super.setLastRefreshed(collection, time);
+
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", "refreshed");
+        entry.addProperty("time", time);
+        append(collection, entry);
+    }
+
+    private void append(String collection, JsonObject entry) {
+        File journal = getFile(collection, JOURNAL_SUFFIX);
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(journal, true), CHARSET);
+            writer.write(entry.toString());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write the entity store journal " + journal, e);
+        } finally {
+            closeQuietly(writer);
+        }
+
+        File file = getFile(collection, FILE_SUFFIX);
+        if (journal.length() > Math.max(MIN_COMPACTION_LENGTH, file.length())) {
+            compact(collection);
+        }
+    }
+
+    /**
+     * Writes the collection to its snapshot and drops the journal.
+     */
+    private void compact(String collection) {
+        CollectionData data = getOrCreate(collection);
+
+        JsonObject root = new JsonObject();
+        root.addProperty("lastRefreshed", data.getLastRefreshed());
+
+        JsonArray entities = new JsonArray();
+        for (StoredEntity entity : data.getEntities()) {
+            entities.add(toJson(entity));
+        }
+        root.add("entities", entities);
+
+        File file = getFile(collection, FILE_SUFFIX);
+        File temp = new File(file.getPath() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(temp), CHARSET);
+            writer.write(root.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write the entity store collection to " + file, e);
+        } finally {
+            closeQuietly(writer);
+        }
+
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new RuntimeException("Unable to write the entity store collection to " + file);
+            }
+        }
+
+        File journal = getFile(collection, JOURNAL_SUFFIX);
+        if (journal.exists() && !journal.delete()) {
+            throw new RuntimeException("Unable to delete the entity store journal " + journal);
+        }
+    }
+
+    private void loadCollection(String collection) {
+        Map<String, StoredEntity> entities = new LinkedHashMap<String, StoredEntity>();
+        long lastRefreshed = 0;
+
+        File file = getFile(collection, FILE_SUFFIX);
+        if (file.exists()) {
+            Reader reader = null;
+            try {
+                reader = new InputStreamReader(new FileInputStream(file), CHARSET);
+                JsonObject root = new JsonParser().parse(reader).getAsJsonObject();
+
+                for (JsonElement element : root.getAsJsonArray("entities")) {
+                    StoredEntity entity = fromJson(element.getAsJsonObject());
+                    entities.put(entity.getId(), entity);
+                }
+                lastRefreshed = root.get("lastRefreshed").getAsLong();
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read the entity store collection from " + file, e);
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+
+        File journal = getFile(collection, JOURNAL_SUFFIX);
+        if (journal.exists()) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), CHARSET));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JsonObject entry;
+                    try {
+                        entry = new JsonParser().parse(line).getAsJsonObject();
+                    } catch (JsonParseException e) {
+                        // the last line of a journal cut short by a crash
+                        break;
+                    }
+
+                    String op = entry.get("op").getAsString();
+                    if (op.equals("upsert")) {
+                        for (JsonElement element : entry.getAsJsonArray("entities")) {
+                            StoredEntity entity = fromJson(element.getAsJsonObject());
+                            entities.remove(entity.getId());
+                            entities.put(entity.getId(), entity);
+                        }
+                    } else if (op.equals("remove")) {
+                        for (JsonElement id : entry.getAsJsonArray("ids")) {
+                            entities.remove(id.getAsString());
+                        }
+                    } else if (op.equals("refreshed")) {
+                        lastRefreshed = entry.get("time").getAsLong();
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read the entity store journal " + journal, e);
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+
+        load(collection, entities.values(), lastRefreshed);
+
+        if (journal.exists()) {
+            // start the next journal from a clean snapshot, without a torn last line
+            compact(collection);
+        }
+    }
+
+    private File getFile(String collection, String suffix) {
+        try {
+            return new File(directory, URLEncoder.encode(collection, CHARSET) + suffix);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static JsonObject toJson(StoredEntity entity) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("id", entity.getId());
+        entry.addProperty("payload", entity.getPayload());
+
+        JsonObject indexValues = new JsonObject();
+        for (Map.Entry<String, Object> indexValue : entity.getIndexValues().entrySet()) {
+            Object value = indexValue.getValue();
+            if (value instanceof Long) {
+                indexValues.addProperty(indexValue.getKey(), (Long) value);
+            } else if (value != null) {
+                indexValues.addProperty(indexValue.getKey(), value.toString());
+            }
+        }
+        entry.add("index", indexValues);
+        return entry;
+    }
+
+    private static StoredEntity fromJson(JsonObject entry) {
+        Map<String, Object> indexValues = new HashMap<String, Object>();
+        for (Map.Entry<String, JsonElement> indexValue : entry.getAsJsonObject("index").entrySet()) {
+            JsonPrimitive value = indexValue.getValue().getAsJsonPrimitive();
+            indexValues.put(indexValue.getKey(), value.isNumber() ? (Object) value.getAsLong() : value.getAsString());
+        }
+
+        JsonElement payload = entry.get("payload");
+        return new StoredEntity(entry.get("id").getAsString(),
+                payload == null || payload.isJsonNull() ? null : payload.getAsString(),
+                indexValues);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
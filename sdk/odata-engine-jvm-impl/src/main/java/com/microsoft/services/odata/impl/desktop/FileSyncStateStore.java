@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.services.odata.impl.desktop;
+
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Sync state store backed by a properties file. Every change is written to a temporary file
+ * that then replaces the store file, so a crash never leaves a half written state behind.
+ */
+public class FileSyncStateStore implements SyncStateStore {
+
+    private final File file;
+    private final Properties properties = new Properties();
+
+    /**
+     * Instantiates a new File sync state store.
+     *
+     * @param file the file
+     */
+    public FileSyncStateStore(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+
+        this.file = file;
+
+        if (file.exists()) {
+            InputStream stream = null;
+            try {
+                stream = new FileInputStream(file);
+                properties.load(stream);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read the sync state from " + file, e);
+            } finally {
+                closeQuietly(stream);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        return properties.getProperty(key);
+    }
+
+    @Override
+    public synchronized void put(String key, String value) {
+        properties.setProperty(key, value);
+        save();
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        if (properties.remove(key) != null) {
+            save();
+        }
+    }
+
+    private void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        OutputStream stream = null;
+        try {
+            stream = new FileOutputStream(temp);
+            properties.store(stream, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write the sync state to " + file, e);
+        } finally {
+            closeQuietly(stream);
+        }
+
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new RuntimeException("Unable to write the sync state to " + file);
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
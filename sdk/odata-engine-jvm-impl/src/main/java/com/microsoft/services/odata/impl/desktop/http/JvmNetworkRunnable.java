@@ -59,11 +59,12 @@ public class JvmNetworkRunnable extends NetworkRunnable {
 
             Map<String, List<String>> responseHeaders = new HashMap<String, List<String>>();
             for (Header header : realResponse.getAllHeaders()) {
-                List<String> headerValues = new ArrayList<String>();
-                for (HeaderElement element : header.getElements()) {
-                    headerValues.add(element.getValue());
+                List<String> headerValues = responseHeaders.get(header.getName());
+                if (headerValues == null) {
+                    headerValues = new ArrayList<String>();
+                    responseHeaders.put(header.getName(), headerValues);
                 }
-                responseHeaders.put(header.getName(), headerValues);
+                headerValues.add(header.getValue());
             }
 
             HttpEntity entity = realResponse.getEntity();
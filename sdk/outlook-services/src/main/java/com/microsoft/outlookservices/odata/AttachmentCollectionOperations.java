@@ -8,7 +8,17 @@ package com.microsoft.outlookservices.odata;
 import com.microsoft.outlookservices.*;
 import com.google.common.util.concurrent.*;
 import com.microsoft.services.odata.*;
+import com.microsoft.services.odata.impl.Base64EncodingInputStream;
+import com.microsoft.services.odata.impl.JsonStringInputStream;
 import com.microsoft.services.odata.interfaces.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.Collections;
 import static com.microsoft.services.odata.Helpers.*;
 
 /**
@@ -49,4 +59,64 @@ public class AttachmentCollectionOperations extends EntityCollectionOperations{
         addCustomHeader(name, value);
         return this;
     }
+
+    /**
+     * Adds a file attachment whose content is read from a stream and Base64 encoded while
+     * it is sent, so large attachments are never held in memory. The created attachment's
+     * content isn't read back either: the given attachment is returned with its Id set.
+     *
+     * @param attachment the attachment, without content bytes
+     * @param content the content
+     * @param length the content length, or -1 if unknown
+     * @return the listenable future
+     */
+    public ListenableFuture<FileAttachment> addFileAttachment(final FileAttachment attachment, InputStream content,
+                                                              long length) {
+        if (attachment.getContentBytes() != null) {
+            throw new IllegalArgumentException("The attachment content must come from the stream");
+        }
+
+        String json = getResolver().getJsonSerializer().serialize(attachment);
+        String prefix = json.substring(0, json.lastIndexOf('}')).trim();
+        if (!prefix.endsWith("{")) {
+            prefix += ",";
+        }
+        byte[] head = (prefix + "\"ContentBytes\":\"").getBytes(Constants.UTF8);
+        byte[] tail = "\"}".getBytes(Constants.UTF8);
+
+        InputStream payload = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                new ByteArrayInputStream(head),
+                new Base64EncodingInputStream(content),
+                new ByteArrayInputStream(tail))));
+
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.POST);
+        request.setStreamedContent(payload,
+                length < 0 ? -1 : head.length + Base64EncodingInputStream.getEncodedLength(length) + tail.length);
+        request.addOption(Request.MUST_STREAM_RESPONSE_CONTENT, "true");
+
+        return Futures.transform(oDataExecute(request), new AsyncFunction<ODataResponse, FileAttachment>() {
+            @Override
+            public ListenableFuture<FileAttachment> apply(ODataResponse response) throws Exception {
+                try {
+                    // only the id is read, the echoed content is skipped as it streams by
+                    InputStream id = new JsonStringInputStream(response.openStreamedResponse(), "Id");
+                    attachment.setId(new String(readAll(id), Constants.UTF8_NAME));
+                } finally {
+                    response.closeStreamedResponse();
+                }
+                return Futures.immediateFuture(attachment);
+            }
+        });
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            os.write(buffer, 0, read);
+        }
+        return os.toByteArray();
+    }
 }
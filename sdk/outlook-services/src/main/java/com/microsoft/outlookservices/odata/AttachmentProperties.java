@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Attachment;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Attachment, to build typed $select and $expand options.
+ */
+public class AttachmentProperties extends EntityProperties {
+
+    /**
+     * The Name property.
+     */
+    public static final ODataProperty<Attachment> NAME = new ODataProperty<Attachment>("Name");
+
+    /**
+     * The Content Type property.
+     */
+    public static final ODataProperty<Attachment> CONTENT_TYPE = new ODataProperty<Attachment>("ContentType");
+
+    /**
+     * The Size property.
+     */
+    public static final ODataProperty<Attachment> SIZE = new ODataProperty<Attachment>("Size");
+
+    /**
+     * The Is Inline property.
+     */
+    public static final ODataProperty<Attachment> IS_INLINE = new ODataProperty<Attachment>("IsInline");
+
+    /**
+     * The Date Time Last Modified property.
+     */
+    public static final ODataProperty<Attachment> DATE_TIME_LAST_MODIFIED = new ODataProperty<Attachment>("DateTimeLastModified");
+
+    /**
+     * Instantiates a new AttachmentProperties.
+     */
+    protected AttachmentProperties() {
+    }
+}
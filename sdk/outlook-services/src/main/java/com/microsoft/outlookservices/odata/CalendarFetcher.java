@@ -70,6 +70,26 @@ public class CalendarFetcher extends ODataEntityFetcher<Calendar,CalendarOperati
          return new ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations>("CalendarView", this, Event.class, EventCollectionOperations.class).getById(id);
     }
 
+    /**
+     * Gets the calendar view of a time range, with recurring events expanded into occurrences.
+     *
+     * @param start the start of the range
+     * @param end the end of the range
+     * @return the calendar view
+     */
+    public ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> getCalendarView(java.util.Calendar start, java.util.Calendar end) {
+        return getCalendarView().addParameter("startDateTime", start).addParameter("endDateTime", end);
+    }
+
+    /**
+     * Creates a cache reading the calendar view by windows, for browsing a calendar.
+     *
+     * @return the calendar view cache
+     */
+    public CalendarViewCache createCalendarViewCache() {
+        return new CalendarViewCache(this);
+    }
+
      /**
      * Gets events.
      *
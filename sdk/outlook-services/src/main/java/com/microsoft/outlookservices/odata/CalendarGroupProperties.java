@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.CalendarGroup;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of CalendarGroup, to build typed $select and $expand options.
+ */
+public class CalendarGroupProperties extends EntityProperties {
+
+    /**
+     * The Name property.
+     */
+    public static final ODataProperty<CalendarGroup> NAME = new ODataProperty<CalendarGroup>("Name");
+
+    /**
+     * The Change Key property.
+     */
+    public static final ODataProperty<CalendarGroup> CHANGE_KEY = new ODataProperty<CalendarGroup>("ChangeKey");
+
+    /**
+     * The Class Id property.
+     */
+    public static final ODataProperty<CalendarGroup> CLASS_ID = new ODataProperty<CalendarGroup>("ClassId");
+
+    /**
+     * The Calendars property.
+     */
+    public static final ODataProperty<CalendarGroup> CALENDARS = new ODataProperty<CalendarGroup>("Calendars");
+
+    /**
+     * Instantiates a new CalendarGroupProperties.
+     */
+    protected CalendarGroupProperties() {
+    }
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Calendar;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Calendar, to build typed $select and $expand options.
+ */
+public class CalendarProperties extends EntityProperties {
+
+    /**
+     * The Name property.
+     */
+    public static final ODataProperty<Calendar> NAME = new ODataProperty<Calendar>("Name");
+
+    /**
+     * The Change Key property.
+     */
+    public static final ODataProperty<Calendar> CHANGE_KEY = new ODataProperty<Calendar>("ChangeKey");
+
+    /**
+     * The Calendar View property.
+     */
+    public static final ODataProperty<Calendar> CALENDAR_VIEW = new ODataProperty<Calendar>("CalendarView");
+
+    /**
+     * The Events property.
+     */
+    public static final ODataProperty<Calendar> EVENTS = new ODataProperty<Calendar>("Events");
+
+    /**
+     * Instantiates a new CalendarProperties.
+     */
+    protected CalendarProperties() {
+    }
+}
@@ -0,0 +1,505 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.outlookservices.Event;
+import com.microsoft.services.odata.ODataCollectionFetcher;
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.ODataExecutable;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+import com.microsoft.services.odata.impl.LruCache;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Reads a calendar view, with recurring events expanded into occurrences, for any time range.
+ * <p>
+ * The timeline is divided into fixed windows, aligned to midnight UTC. A range is read by
+ * fetching the windows it covers in parallel, each one following its own next links, and
+ * merging their occurrences. Every window is cached, so moving back and forth over the same
+ * period doesn't hit the server again, and the windows next to the range are prefetched in
+ * the background. Cached windows expire after a maximum age and can be invalidated
+ * explicitly, e.g. after an event is created, updated or deleted.
+ */
+public class CalendarViewCache {
+
+    /**
+     * The default window length, one week.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    /**
+     * The default number of window requests in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /**
+     * The default number of windows prefetched on each side of a range.
+     */
+    public static final int DEFAULT_PREFETCH_WINDOWS = 1;
+
+    /**
+     * The default number of windows kept in the cache.
+     */
+    public static final int DEFAULT_MAX_CACHED_WINDOWS = 64;
+
+    /**
+     * The default time a window stays in the cache, five minutes.
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 5L * 60 * 1000;
+
+    /**
+     * The default number of occurrences requested per page, the most the service returns.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final String CALENDAR_VIEW = "CalendarView";
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final String[] REQUIRED_PROPERTIES = {"Start", "End", "Id"};
+
+    /**
+     * A cached window, fetched or being fetched.
+     */
+    private static final class Window {
+        final long start;
+        final long end;
+        final SettableFuture<List<Event>> events = SettableFuture.create();
+        final List<Event> items = new ArrayList<Event>();
+        long loadedAt;
+        boolean started;
+
+        Window(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final ODataExecutable parent;
+    private final Object lock = new Object();
+    private final LruCache<Long, Window> windows = new LruCache<Long, Window>(DEFAULT_MAX_CACHED_WINDOWS);
+    private final BoundedTaskQueue<Window> queue = new BoundedTaskQueue<Window>(lock, DEFAULT_MAX_CONCURRENT_REQUESTS) {
+        @Override
+        protected boolean accept(Window window) {
+            window.started = true;
+            return true;
+        }
+
+        @Override
+        protected void start(Window window) {
+            ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> fetcher;
+            synchronized (lock) {
+                fetcher = createFetcher(window);
+            }
+            fetch(window, fetcher, null);
+        }
+    };
+
+    private long windowMillis = DEFAULT_WINDOW_MILLIS;
+    private int prefetchWindows = DEFAULT_PREFETCH_WINDOWS;
+    private long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private String select;
+
+    /**
+     * Instantiates a new CalendarViewCache.
+     *
+     * @param parent the user or calendar whose calendar view is read
+     */
+    public CalendarViewCache(ODataExecutable parent) {
+        if (parent == null) {
+            throw new IllegalArgumentException("parent must not be null");
+        }
+        this.parent = parent;
+    }
+
+    /**
+     * Sets the window length. Changing it invalidates the cache.
+     *
+     * @param windowMillis the window length in milliseconds
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setWindowMillis(long windowMillis) {
+        if (windowMillis < 60 * 1000) {
+            throw new IllegalArgumentException("windowMillis must be at least a minute");
+        }
+        synchronized (lock) {
+            this.windowMillis = windowMillis;
+            invalidateAll();
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of window requests in flight.
+     *
+     * @param maxConcurrentRequests the max concurrent requests
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        queue.setMaxConcurrency(maxConcurrentRequests);
+        queue.pump();
+        return this;
+    }
+
+    /**
+     * Sets the number of windows prefetched on each side of a range, 0 to disable prefetching.
+     *
+     * @param prefetchWindows the prefetch windows
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setPrefetchWindows(int prefetchWindows) {
+        if (prefetchWindows < 0) {
+            throw new IllegalArgumentException("prefetchWindows must not be negative");
+        }
+        synchronized (lock) {
+            this.prefetchWindows = prefetchWindows;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of windows kept in the cache. The least recently read ones are dropped
+     * first.
+     *
+     * @param maxCachedWindows the max cached windows
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setMaxCachedWindows(int maxCachedWindows) {
+        if (maxCachedWindows < 1) {
+            throw new IllegalArgumentException("maxCachedWindows must be at least 1");
+        }
+        synchronized (lock) {
+            windows.setMaxSize(maxCachedWindows);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the time a fetched window stays in the cache, 0 to refetch on every read.
+     *
+     * @param maxAgeMillis the max age in milliseconds
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setMaxAgeMillis(long maxAgeMillis) {
+        if (maxAgeMillis < 0) {
+            throw new IllegalArgumentException("maxAgeMillis must not be negative");
+        }
+        synchronized (lock) {
+            this.maxAgeMillis = maxAgeMillis;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the number of occurrences requested per page.
+     *
+     * @param pageSize the page size
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        synchronized (lock) {
+            this.pageSize = pageSize;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the $select option of the window requests, e.g. to leave out the event bodies.
+     * Start, End and Id are always needed to merge the windows, so they are added when
+     * missing. Changing it invalidates the cache.
+     *
+     * @param select the select, or null for every property
+     * @return the calendar view cache
+     */
+    public CalendarViewCache setSelect(String select) {
+        synchronized (lock) {
+            this.select = select != null ? withRequiredProperties(select) : null;
+            invalidateAll();
+        }
+        return this;
+    }
+
+    /**
+     * Reads the occurrences overlapping a range, sorted by start. An event spanning several
+     * windows is returned once.
+     *
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @return the listenable future
+     */
+    public ListenableFuture<List<Event>> read(Calendar start, Calendar end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end must not be null");
+        }
+
+        final long rangeStart = start.getTimeInMillis();
+        final long rangeEnd = end.getTimeInMillis();
+        if (rangeEnd <= rangeStart) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+
+        List<ListenableFuture<List<Event>>> futures = new ArrayList<ListenableFuture<List<Event>>>();
+        synchronized (lock) {
+            long first = alignToWindow(rangeStart);
+            long last = alignToWindow(rangeEnd - 1);
+
+            // the windows of the range itself go ahead of any prefetching still queued
+            List<Window> requested = new ArrayList<Window>();
+            for (long windowStart = first; windowStart <= last; windowStart += windowMillis) {
+                Window window = getWindow(windowStart);
+                futures.add(window.events);
+                if (!window.started) {
+                    queue.remove(window);
+                    requested.add(window);
+                }
+            }
+            queue.addAllFirst(requested);
+
+            for (int i = 1; i <= prefetchWindows; i++) {
+                prefetch(first - i * windowMillis);
+                prefetch(last + i * windowMillis);
+            }
+        }
+        queue.pump();
+
+        return Futures.transform(Futures.allAsList(futures), new Function<List<List<Event>>, List<Event>>() {
+            @Override
+            public List<Event> apply(List<List<Event>> windowEvents) {
+                return merge(windowEvents, rangeStart, rangeEnd);
+            }
+        });
+    }
+
+    /**
+     * Drops the cached windows overlapping a range, so that the next read fetches them again.
+     *
+     * @param start the start of the range
+     * @param end   the end of the range
+     */
+    public void invalidate(Calendar start, Calendar end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end must not be null");
+        }
+
+        synchronized (lock) {
+            long first = alignToWindow(start.getTimeInMillis());
+            long last = alignToWindow(Math.max(start.getTimeInMillis(), end.getTimeInMillis() - 1));
+            for (long windowStart = first; windowStart <= last; windowStart += windowMillis) {
+                remove(windows.get(windowStart));
+            }
+        }
+    }
+
+    /**
+     * Drops the cached windows overlapping an event, e.g. after it was updated or deleted.
+     * The whole cache is dropped for a recurring event, since its occurrences may be anywhere.
+     *
+     * @param event the event
+     */
+    public void invalidate(Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("event must not be null");
+        }
+
+        if (event.getStart() == null || event.getEnd() == null || event.getRecurrence() != null
+                || event.getSeriesMasterId() != null) {
+            invalidateAll();
+        } else {
+            invalidate(event.getStart(), event.getEnd());
+        }
+    }
+
+    /**
+     * Drops every cached window. Reads in progress still complete.
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            windows.clear();
+        }
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private Window getWindow(long windowStart) {
+        Window window = windows.get(windowStart);
+        if (window != null && window.events.isDone()
+                && System.currentTimeMillis() - window.loadedAt >= maxAgeMillis) {
+            remove(window);
+            window = null;
+        }
+
+        if (window == null) {
+            window = new Window(windowStart, windowStart + windowMillis);
+            windows.put(windowStart, window);
+        }
+        return window;
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void prefetch(long windowStart) {
+        Window window = getWindow(windowStart);
+        if (!window.started && !queue.contains(window)) {
+            queue.add(window);
+        }
+    }
+
+    /**
+     * Drops a window from the cache. A window still queued is fetched anyway, since reads
+     * may be waiting for it. Must be called while holding lock.
+     */
+    private void remove(Window window) {
+        if (window != null && windows.get(window.start) == window) {
+            windows.remove(window.start);
+        }
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> createFetcher(Window window) {
+        ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> fetcher = newFetcher();
+        fetcher.addParameter("startDateTime", toCalendar(window.start))
+                .addParameter("endDateTime", toCalendar(window.end))
+                .top(pageSize);
+        if (select != null) {
+            fetcher.select(select);
+        }
+        return fetcher;
+    }
+
+    private static String withRequiredProperties(String select) {
+        List<String> properties = new ArrayList<String>();
+        Set<String> lowerCase = new LinkedHashSet<String>();
+        for (String property : select.split(",")) {
+            property = property.trim();
+            if (property.length() > 0 && lowerCase.add(property.toLowerCase(Locale.US))) {
+                properties.add(property);
+            }
+        }
+        for (String property : REQUIRED_PROPERTIES) {
+            if (lowerCase.add(property.toLowerCase(Locale.US))) {
+                properties.add(property);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String property : properties) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(property);
+        }
+        return sb.toString();
+    }
+
+    private ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> newFetcher() {
+        return new ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations>(CALENDAR_VIEW, parent,
+                Event.class, EventCollectionOperations.class);
+    }
+
+    private void fetch(final Window window,
+                       ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> fetcher,
+                       String nextLink) {
+        Futures.addCallback(fetcher.readPage(nextLink), new FutureCallback<ODataCollectionPage<Event>>() {
+            @Override
+            public void onSuccess(ODataCollectionPage<Event> page) {
+                window.items.addAll(page.getItems());
+                if (page.hasNextPage()) {
+                    // the next link already carries the range and the query options
+                    fetch(window, newFetcher(), page.getNextLink());
+                    return;
+                }
+
+                synchronized (lock) {
+                    window.loadedAt = System.currentTimeMillis();
+                }
+                queue.completed();
+                window.events.set(Collections.unmodifiableList(window.items));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                synchronized (lock) {
+                    // not cached, the next read tries again
+                    remove(window);
+                }
+                queue.completed();
+                window.events.setException(t);
+            }
+        });
+    }
+
+    private long alignToWindow(long millis) {
+        long offset = millis % windowMillis;
+        return millis - (offset < 0 ? offset + windowMillis : offset);
+    }
+
+    private static Calendar toCalendar(long millis) {
+        Calendar calendar = new GregorianCalendar(UTC);
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    private static List<Event> merge(List<List<Event>> windowEvents, long rangeStart, long rangeEnd) {
+        Set<String> ids = new LinkedHashSet<String>();
+        List<Event> merged = new ArrayList<Event>();
+
+        for (List<Event> events : windowEvents) {
+            for (Event event : events) {
+                if (overlaps(event, rangeStart, rangeEnd) && (event.getId() == null || ids.add(event.getId()))) {
+                    merged.add(event);
+                }
+            }
+        }
+
+        Collections.sort(merged, new Comparator<Event>() {
+            @Override
+            public int compare(Event a, Event b) {
+                long aStart = a.getStart() != null ? a.getStart().getTimeInMillis() : Long.MIN_VALUE;
+                long bStart = b.getStart() != null ? b.getStart().getTimeInMillis() : Long.MIN_VALUE;
+                return aStart < bStart ? -1 : aStart == bStart ? 0 : 1;
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * Whether an occurrence falls in a range. Occurrences without a duration count when they
+     * start in it.
+     */
+    private static boolean overlaps(Event event, long rangeStart, long rangeEnd) {
+        if (event.getStart() == null || event.getEnd() == null) {
+            return true;
+        }
+
+        long start = event.getStart().getTimeInMillis();
+        long end = event.getEnd().getTimeInMillis();
+        return start < rangeEnd && (end > rangeStart || start >= rangeStart);
+    }
+}
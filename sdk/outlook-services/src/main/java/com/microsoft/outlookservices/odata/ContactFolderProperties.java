@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.ContactFolder;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of ContactFolder, to build typed $select and $expand options.
+ */
+public class ContactFolderProperties extends EntityProperties {
+
+    /**
+     * The Parent Folder Id property.
+     */
+    public static final ODataProperty<ContactFolder> PARENT_FOLDER_ID = new ODataProperty<ContactFolder>("ParentFolderId");
+
+    /**
+     * The Display Name property.
+     */
+    public static final ODataProperty<ContactFolder> DISPLAY_NAME = new ODataProperty<ContactFolder>("DisplayName");
+
+    /**
+     * The Contacts property.
+     */
+    public static final ODataProperty<ContactFolder> CONTACTS = new ODataProperty<ContactFolder>("Contacts");
+
+    /**
+     * The Child Folders property.
+     */
+    public static final ODataProperty<ContactFolder> CHILD_FOLDERS = new ODataProperty<ContactFolder>("ChildFolders");
+
+    /**
+     * Instantiates a new ContactFolderProperties.
+     */
+    protected ContactFolderProperties() {
+    }
+}
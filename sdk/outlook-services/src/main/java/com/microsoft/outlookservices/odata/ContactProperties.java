@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Contact;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Contact, to build typed $select and $expand options.
+ */
+public class ContactProperties extends ItemProperties {
+
+    /**
+     * The Parent Folder Id property.
+     */
+    public static final ODataProperty<Contact> PARENT_FOLDER_ID = new ODataProperty<Contact>("ParentFolderId");
+
+    /**
+     * The Birthday property.
+     */
+    public static final ODataProperty<Contact> BIRTHDAY = new ODataProperty<Contact>("Birthday");
+
+    /**
+     * The File As property.
+     */
+    public static final ODataProperty<Contact> FILE_AS = new ODataProperty<Contact>("FileAs");
+
+    /**
+     * The Display Name property.
+     */
+    public static final ODataProperty<Contact> DISPLAY_NAME = new ODataProperty<Contact>("DisplayName");
+
+    /**
+     * The Given Name property.
+     */
+    public static final ODataProperty<Contact> GIVEN_NAME = new ODataProperty<Contact>("GivenName");
+
+    /**
+     * The Initials property.
+     */
+    public static final ODataProperty<Contact> INITIALS = new ODataProperty<Contact>("Initials");
+
+    /**
+     * The Middle Name property.
+     */
+    public static final ODataProperty<Contact> MIDDLE_NAME = new ODataProperty<Contact>("MiddleName");
+
+    /**
+     * The Nick Name property.
+     */
+    public static final ODataProperty<Contact> NICK_NAME = new ODataProperty<Contact>("NickName");
+
+    /**
+     * The Surname property.
+     */
+    public static final ODataProperty<Contact> SURNAME = new ODataProperty<Contact>("Surname");
+
+    /**
+     * The Title property.
+     */
+    public static final ODataProperty<Contact> TITLE = new ODataProperty<Contact>("Title");
+
+    /**
+     * The Generation property.
+     */
+    public static final ODataProperty<Contact> GENERATION = new ODataProperty<Contact>("Generation");
+
+    /**
+     * The Email Addresses property.
+     */
+    public static final ODataProperty<Contact> EMAIL_ADDRESSES = new ODataProperty<Contact>("EmailAddresses");
+
+    /**
+     * The Im Addresses property.
+     */
+    public static final ODataProperty<Contact> IM_ADDRESSES = new ODataProperty<Contact>("ImAddresses");
+
+    /**
+     * The Job Title property.
+     */
+    public static final ODataProperty<Contact> JOB_TITLE = new ODataProperty<Contact>("JobTitle");
+
+    /**
+     * The Company Name property.
+     */
+    public static final ODataProperty<Contact> COMPANY_NAME = new ODataProperty<Contact>("CompanyName");
+
+    /**
+     * The Department property.
+     */
+    public static final ODataProperty<Contact> DEPARTMENT = new ODataProperty<Contact>("Department");
+
+    /**
+     * The Office Location property.
+     */
+    public static final ODataProperty<Contact> OFFICE_LOCATION = new ODataProperty<Contact>("OfficeLocation");
+
+    /**
+     * The Profession property.
+     */
+    public static final ODataProperty<Contact> PROFESSION = new ODataProperty<Contact>("Profession");
+
+    /**
+     * The Business Home Page property.
+     */
+    public static final ODataProperty<Contact> BUSINESS_HOME_PAGE = new ODataProperty<Contact>("BusinessHomePage");
+
+    /**
+     * The Assistant Name property.
+     */
+    public static final ODataProperty<Contact> ASSISTANT_NAME = new ODataProperty<Contact>("AssistantName");
+
+    /**
+     * The Manager property.
+     */
+    public static final ODataProperty<Contact> MANAGER = new ODataProperty<Contact>("Manager");
+
+    /**
+     * The Home Phones property.
+     */
+    public static final ODataProperty<Contact> HOME_PHONES = new ODataProperty<Contact>("HomePhones");
+
+    /**
+     * The Business Phones property.
+     */
+    public static final ODataProperty<Contact> BUSINESS_PHONES = new ODataProperty<Contact>("BusinessPhones");
+
+    /**
+     * The Mobile Phone1 property.
+     */
+    public static final ODataProperty<Contact> MOBILE_PHONE1 = new ODataProperty<Contact>("MobilePhone1");
+
+    /**
+     * The Home Address property.
+     */
+    public static final ODataProperty<Contact> HOME_ADDRESS = new ODataProperty<Contact>("HomeAddress");
+
+    /**
+     * The Business Address property.
+     */
+    public static final ODataProperty<Contact> BUSINESS_ADDRESS = new ODataProperty<Contact>("BusinessAddress");
+
+    /**
+     * The Other Address property.
+     */
+    public static final ODataProperty<Contact> OTHER_ADDRESS = new ODataProperty<Contact>("OtherAddress");
+
+    /**
+     * The Yomi Company Name property.
+     */
+    public static final ODataProperty<Contact> YOMI_COMPANY_NAME = new ODataProperty<Contact>("YomiCompanyName");
+
+    /**
+     * The Yomi Given Name property.
+     */
+    public static final ODataProperty<Contact> YOMI_GIVEN_NAME = new ODataProperty<Contact>("YomiGivenName");
+
+    /**
+     * The Yomi Surname property.
+     */
+    public static final ODataProperty<Contact> YOMI_SURNAME = new ODataProperty<Contact>("YomiSurname");
+
+    /**
+     * Instantiates a new ContactProperties.
+     */
+    protected ContactProperties() {
+    }
+}
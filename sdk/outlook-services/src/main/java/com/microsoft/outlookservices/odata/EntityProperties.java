@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Entity;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Entity, to build typed $select and $expand options.
+ */
+public class EntityProperties {
+
+    /**
+     * The Id property.
+     */
+    public static final ODataProperty<Entity> ID = new ODataProperty<Entity>("Id");
+
+    /**
+     * Instantiates a new EntityProperties.
+     */
+    protected EntityProperties() {
+    }
+}
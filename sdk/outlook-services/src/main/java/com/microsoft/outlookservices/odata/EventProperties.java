@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Event;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Event, to build typed $select and $expand options.
+ */
+public class EventProperties extends ItemProperties {
+
+    /**
+     * The Subject property.
+     */
+    public static final ODataProperty<Event> SUBJECT = new ODataProperty<Event>("Subject");
+
+    /**
+     * The Body property.
+     */
+    public static final ODataProperty<Event> BODY = new ODataProperty<Event>("Body");
+
+    /**
+     * The Body Preview property.
+     */
+    public static final ODataProperty<Event> BODY_PREVIEW = new ODataProperty<Event>("BodyPreview");
+
+    /**
+     * The Importance property.
+     */
+    public static final ODataProperty<Event> IMPORTANCE = new ODataProperty<Event>("Importance");
+
+    /**
+     * The Has Attachments property.
+     */
+    public static final ODataProperty<Event> HAS_ATTACHMENTS = new ODataProperty<Event>("HasAttachments");
+
+    /**
+     * The Start property.
+     */
+    public static final ODataProperty<Event> START = new ODataProperty<Event>("Start");
+
+    /**
+     * The End property.
+     */
+    public static final ODataProperty<Event> END = new ODataProperty<Event>("End");
+
+    /**
+     * The Location property.
+     */
+    public static final ODataProperty<Event> LOCATION = new ODataProperty<Event>("Location");
+
+    /**
+     * The Show As property.
+     */
+    public static final ODataProperty<Event> SHOW_AS = new ODataProperty<Event>("ShowAs");
+
+    /**
+     * The Is All Day property.
+     */
+    public static final ODataProperty<Event> IS_ALL_DAY = new ODataProperty<Event>("IsAllDay");
+
+    /**
+     * The Is Cancelled property.
+     */
+    public static final ODataProperty<Event> IS_CANCELLED = new ODataProperty<Event>("IsCancelled");
+
+    /**
+     * The Is Organizer property.
+     */
+    public static final ODataProperty<Event> IS_ORGANIZER = new ODataProperty<Event>("IsOrganizer");
+
+    /**
+     * The Response Requested property.
+     */
+    public static final ODataProperty<Event> RESPONSE_REQUESTED = new ODataProperty<Event>("ResponseRequested");
+
+    /**
+     * The Type property.
+     */
+    public static final ODataProperty<Event> TYPE = new ODataProperty<Event>("Type");
+
+    /**
+     * The Series Master Id property.
+     */
+    public static final ODataProperty<Event> SERIES_MASTER_ID = new ODataProperty<Event>("SeriesMasterId");
+
+    /**
+     * The Attendees property.
+     */
+    public static final ODataProperty<Event> ATTENDEES = new ODataProperty<Event>("Attendees");
+
+    /**
+     * The Recurrence property.
+     */
+    public static final ODataProperty<Event> RECURRENCE = new ODataProperty<Event>("Recurrence");
+
+    /**
+     * The Organizer property.
+     */
+    public static final ODataProperty<Event> ORGANIZER = new ODataProperty<Event>("Organizer");
+
+    /**
+     * The Attachments property.
+     */
+    public static final ODataProperty<Event> ATTACHMENTS = new ODataProperty<Event>("Attachments");
+
+    /**
+     * The Calendar property.
+     */
+    public static final ODataProperty<Event> CALENDAR = new ODataProperty<Event>("Calendar");
+
+    /**
+     * The Instances property.
+     */
+    public static final ODataProperty<Event> INSTANCES = new ODataProperty<Event>("Instances");
+
+    /**
+     * Instantiates a new EventProperties.
+     */
+    protected EventProperties() {
+    }
+}
@@ -6,11 +6,18 @@
 package com.microsoft.outlookservices.odata;
 
 import com.microsoft.outlookservices.*;
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.*;
 import com.microsoft.services.odata.*;
 import com.microsoft.services.odata.Readable;
+import com.microsoft.services.odata.impl.Base64InputStream;
+import com.microsoft.services.odata.impl.JsonStringInputStream;
 import com.microsoft.services.odata.interfaces.*;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * The type  FileAttachmentFetcher.
  */
@@ -51,5 +58,58 @@ public class FileAttachmentFetcher extends ODataEntityFetcher<FileAttachment,Fil
         return this;
     }
 
-        
+    /**
+     * Gets the attachment content as a stream, decoding the ContentBytes property of the
+     * attachment as the stream is read, so neither the Base64 text nor the whole content
+     * is held in memory. The stream must be closed.
+     *
+     * @return the listenable future
+     */
+    public ListenableFuture<InputStream> getContentStream() {
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+        request.addOption(Request.MUST_STREAM_RESPONSE_CONTENT, "true");
+        request.getUrl().addQueryStringParameter("$select", "ContentBytes");
+
+        return transformToStream(oDataExecute(request), true);
+    }
+
+    /**
+     * Gets the attachment content as a stream from the attachment's raw value, on services
+     * that expose it. The stream must be closed.
+     *
+     * @return the listenable future
+     */
+    public ListenableFuture<InputStream> getContentValueStream() {
+        Request request = getResolver().createRequest();
+        request.setVerb(HttpVerb.GET);
+        request.addOption(Request.MUST_STREAM_RESPONSE_CONTENT, "true");
+        request.getUrl().appendPathComponent("$value");
+
+        return transformToStream(oDataExecute(request), false);
+    }
+
+    private static ListenableFuture<InputStream> transformToStream(ListenableFuture<ODataResponse> future,
+                                                                   final boolean decodeContentBytes) {
+        return Futures.transform(future, new Function<ODataResponse, InputStream>() {
+            @Override
+            public InputStream apply(final ODataResponse response) {
+                InputStream stream = new FilterInputStream(response.openStreamedResponse()) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            response.closeStreamedResponse();
+                        }
+                    }
+                };
+
+                if (decodeContentBytes) {
+                    stream = new Base64InputStream(new JsonStringInputStream(stream, "ContentBytes"));
+                }
+                return stream;
+            }
+        });
+    }
 }
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.FileAttachment;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of FileAttachment, to build typed $select and $expand options.
+ */
+public class FileAttachmentProperties extends AttachmentProperties {
+
+    /**
+     * The Content Id property.
+     */
+    public static final ODataProperty<FileAttachment> CONTENT_ID = new ODataProperty<FileAttachment>("ContentId");
+
+    /**
+     * The Content Location property.
+     */
+    public static final ODataProperty<FileAttachment> CONTENT_LOCATION = new ODataProperty<FileAttachment>("ContentLocation");
+
+    /**
+     * The Is Contact Photo property.
+     */
+    public static final ODataProperty<FileAttachment> IS_CONTACT_PHOTO = new ODataProperty<FileAttachment>("IsContactPhoto");
+
+    /**
+     * Instantiates a new FileAttachmentProperties.
+     */
+    protected FileAttachmentProperties() {
+    }
+}
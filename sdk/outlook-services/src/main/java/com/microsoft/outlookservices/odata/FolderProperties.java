@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Folder;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Folder, to build typed $select and $expand options.
+ */
+public class FolderProperties extends EntityProperties {
+
+    /**
+     * The Parent Folder Id property.
+     */
+    public static final ODataProperty<Folder> PARENT_FOLDER_ID = new ODataProperty<Folder>("ParentFolderId");
+
+    /**
+     * The Display Name property.
+     */
+    public static final ODataProperty<Folder> DISPLAY_NAME = new ODataProperty<Folder>("DisplayName");
+
+    /**
+     * The Child Folder Count property.
+     */
+    public static final ODataProperty<Folder> CHILD_FOLDER_COUNT = new ODataProperty<Folder>("ChildFolderCount");
+
+    /**
+     * The Child Folders property.
+     */
+    public static final ODataProperty<Folder> CHILD_FOLDERS = new ODataProperty<Folder>("ChildFolders");
+
+    /**
+     * The Messages property.
+     */
+    public static final ODataProperty<Folder> MESSAGES = new ODataProperty<Folder>("Messages");
+
+    /**
+     * Instantiates a new FolderProperties.
+     */
+    protected FolderProperties() {
+    }
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A folder tree loaded in memory, indexed by folder id and by path. Paths are the display
+ * names from a top level folder down, separated by '/', e.g. "Inbox/Projects". A tree never
+ * changes once loaded, so it can be kept and shared freely, and refreshed with
+ * {@link FolderTreeLoader#refresh(FolderTree)}.
+ *
+ * @param <TFolder> the type parameter
+ */
+public class FolderTree<TFolder> {
+
+    /**
+     * The path separator.
+     */
+    public static final char SEPARATOR = '/';
+
+    /**
+     * A folder in the tree.
+     */
+    static final class Node<TFolder> {
+        final TFolder folder;
+        final String id;
+        final String parentId;
+        final String path;
+        final Integer childCount;
+        final List<String> childIds = new ArrayList<String>();
+
+        Node(TFolder folder, String id, String parentId, String path, Integer childCount) {
+            this.folder = folder;
+            this.id = id;
+            this.parentId = parentId;
+            this.path = path;
+            this.childCount = childCount;
+        }
+    }
+
+    private final Map<String, Node<TFolder>> nodes;
+    private final List<String> rootIds;
+    private final Map<String, Node<TFolder>> nodesByPath = new HashMap<String, Node<TFolder>>();
+    private final long loadedAt;
+
+    FolderTree(Map<String, Node<TFolder>> nodes, List<String> rootIds, long loadedAt) {
+        this.nodes = nodes;
+        this.rootIds = rootIds;
+        this.loadedAt = loadedAt;
+
+        for (Node<TFolder> node : nodes.values()) {
+            // the first folder wins when siblings have the same name
+            if (!nodesByPath.containsKey(node.path)) {
+                nodesByPath.put(node.path, node);
+            }
+        }
+    }
+
+    /**
+     * Gets the folder with the given id.
+     *
+     * @param id the id
+     * @return the folder, or null if it isn't in the tree
+     */
+    public TFolder getById(String id) {
+        Node<TFolder> node = nodes.get(id);
+        return node != null ? node.folder : null;
+    }
+
+    /**
+     * Gets the folder at the given path.
+     *
+     * @param path the path, e.g. "Inbox/Projects"
+     * @return the folder, or null if it isn't in the tree
+     */
+    public TFolder getByPath(String path) {
+        Node<TFolder> node = nodesByPath.get(path);
+        return node != null ? node.folder : null;
+    }
+
+    /**
+     * Gets the path of a folder.
+     *
+     * @param id the id
+     * @return the path, or null if the folder isn't in the tree
+     */
+    public String getPath(String id) {
+        Node<TFolder> node = nodes.get(id);
+        return node != null ? node.path : null;
+    }
+
+    /**
+     * Gets the parent of a folder.
+     *
+     * @param id the id
+     * @return the parent, or null for a top level folder or a folder not in the tree
+     */
+    public TFolder getParent(String id) {
+        Node<TFolder> node = nodes.get(id);
+        return node != null && node.parentId != null ? nodes.get(node.parentId).folder : null;
+    }
+
+    /**
+     * Gets the top level folders.
+     *
+     * @return the roots
+     */
+    public List<TFolder> getRoots() {
+        return toFolders(rootIds);
+    }
+
+    /**
+     * Gets the child folders of a folder.
+     *
+     * @param id the id
+     * @return the children, empty if the folder isn't in the tree
+     */
+    public List<TFolder> getChildren(String id) {
+        Node<TFolder> node = nodes.get(id);
+        return node != null ? toFolders(node.childIds) : Collections.<TFolder>emptyList();
+    }
+
+    /**
+     * Gets every folder, parents before their children.
+     *
+     * @return the folders
+     */
+    public List<TFolder> getFolders() {
+        List<TFolder> folders = new ArrayList<TFolder>(nodes.size());
+        addFolders(rootIds, folders);
+        return folders;
+    }
+
+    /**
+     * Gets the number of folders.
+     *
+     * @return the size
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Gets when the tree was loaded, in milliseconds since the epoch.
+     *
+     * @return the loaded at
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    Node<TFolder> getNode(String id) {
+        return nodes.get(id);
+    }
+
+    private void addFolders(List<String> ids, List<TFolder> folders) {
+        for (String id : ids) {
+            Node<TFolder> node = nodes.get(id);
+            folders.add(node.folder);
+            addFolders(node.childIds, folders);
+        }
+    }
+
+    private List<TFolder> toFolders(List<String> ids) {
+        List<TFolder> folders = new ArrayList<TFolder>(ids.size());
+        for (String id : ids) {
+            folders.add(nodes.get(id).folder);
+        }
+        return Collections.unmodifiableList(folders);
+    }
+}
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.outlookservices.ContactFolder;
+import com.microsoft.outlookservices.Entity;
+import com.microsoft.outlookservices.Folder;
+import com.microsoft.services.odata.ODataCollectionFetcher;
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a whole folder tree of a mailbox, mail folders or contact folders.
+ * <p>
+ * Folders are listed in parallel, with a bounded number of requests in flight, and each
+ * listing expands the child folders of the folders it returns, so one request covers two
+ * levels of the tree. Mail folders with no children, according to their ChildFolderCount,
+ * are never listed.
+ *
+ * @param <TFolder> the type parameter
+ */
+public class FolderTreeLoader<TFolder extends Entity> {
+
+    /**
+     * The default number of listing requests in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+    /**
+     * The default number of folders requested per page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final String CHILD_FOLDERS = "ChildFolders";
+
+    /**
+     * Reads the tree properties of a folder type.
+     */
+    private abstract static class Access<TFolder> {
+        /**
+         * Gets the child folders of a folder, or the top level folders for a null id.
+         */
+        abstract ODataCollectionFetcher<TFolder, ?, ?> getChildFolders(String id);
+
+        abstract String getName(TFolder folder);
+
+        /**
+         * Gets the number of child folders, or null if the folder type doesn't have it.
+         */
+        abstract Integer getChildCount(TFolder folder);
+
+        /**
+         * Gets the child folders returned inline, or null if they weren't expanded.
+         */
+        abstract List<TFolder> getExpandedChildren(TFolder folder);
+    }
+
+    private final Access<TFolder> access;
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private boolean expandChildren = true;
+
+    private FolderTreeLoader(Access<TFolder> access) {
+        this.access = access;
+    }
+
+    /**
+     * Creates a loader for the mail folders of a mailbox.
+     *
+     * @param user the mailbox
+     * @return the folder tree loader
+     */
+    static FolderTreeLoader<Folder> forFolders(final UserFetcher user) {
+        return new FolderTreeLoader<Folder>(new Access<Folder>() {
+            @Override
+            ODataCollectionFetcher<Folder, ?, ?> getChildFolders(String id) {
+                return id == null ? user.getFolders() : user.getFolder(id).getChildFolders();
+            }
+
+            @Override
+            String getName(Folder folder) {
+                return folder.getDisplayName();
+            }
+
+            @Override
+            Integer getChildCount(Folder folder) {
+                return folder.getChildFolderCount();
+            }
+
+            @Override
+            List<Folder> getExpandedChildren(Folder folder) {
+                return folder.getChildFolders();
+            }
+        });
+    }
+
+    /**
+     * Creates a loader for the contact folders of a mailbox.
+     *
+     * @param user the mailbox
+     * @return the folder tree loader
+     */
+    static FolderTreeLoader<ContactFolder> forContactFolders(final UserFetcher user) {
+        return new FolderTreeLoader<ContactFolder>(new Access<ContactFolder>() {
+            @Override
+            ODataCollectionFetcher<ContactFolder, ?, ?> getChildFolders(String id) {
+                return id == null ? user.getContactFolders() : user.getContactFolder(id).getChildFolders();
+            }
+
+            @Override
+            String getName(ContactFolder folder) {
+                return folder.getDisplayName();
+            }
+
+            @Override
+            Integer getChildCount(ContactFolder folder) {
+                return null;
+            }
+
+            @Override
+            List<ContactFolder> getExpandedChildren(ContactFolder folder) {
+                return folder.getChildFolders();
+            }
+        });
+    }
+
+    /**
+     * Sets the number of listing requests in flight.
+     *
+     * @param maxConcurrentRequests the max concurrent requests
+     * @return the folder tree loader
+     */
+    public FolderTreeLoader<TFolder> setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    /**
+     * Sets the number of folders requested per page.
+     *
+     * @param pageSize the page size
+     * @return the folder tree loader
+     */
+    public FolderTreeLoader<TFolder> setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Sets whether listings expand the child folders of the folders they return. It is on by
+     * default and only worth turning off for a server that rejects the $expand option.
+     *
+     * @param expandChildren the expand children
+     * @return the folder tree loader
+     */
+    public FolderTreeLoader<TFolder> setExpandChildren(boolean expandChildren) {
+        this.expandChildren = expandChildren;
+        return this;
+    }
+
+    /**
+     * Loads the whole tree.
+     *
+     * @return the listenable future
+     */
+    public ListenableFuture<FolderTree<TFolder>> load() {
+        return new Walk(null).start();
+    }
+
+    /**
+     * Loads the tree again, reusing what hasn't changed in a previous one. The top level
+     * folders and their children are always read again; below them, the cached subtree of a
+     * mail folder is kept when its ChildFolderCount still matches, and only the folders
+     * whose count changed are listed. A change that keeps every count, e.g. a folder renamed
+     * deep down, is only picked up by {@link #load()}. Contact folders have no count, so
+     * they are always loaded completely.
+     *
+     * @param previous the previous tree
+     * @return the listenable future
+     */
+    public ListenableFuture<FolderTree<TFolder>> refresh(FolderTree<TFolder> previous) {
+        if (previous == null) {
+            throw new IllegalArgumentException("previous must not be null");
+        }
+        return new Walk(previous).start();
+    }
+
+    /**
+     * A folder listing still to be requested.
+     */
+    private final class Listing {
+        final String parentId;
+        final ODataCollectionFetcher<TFolder, ?, ?> fetcher;
+        final String nextLink;
+
+        Listing(String parentId, ODataCollectionFetcher<TFolder, ?, ?> fetcher, String nextLink) {
+            this.parentId = parentId;
+            this.fetcher = fetcher;
+            this.nextLink = nextLink;
+        }
+    }
+
+    /**
+     * A single load of the tree.
+     */
+    private final class Walk {
+        private final FolderTree<TFolder> previous;
+        private final long startTime = System.currentTimeMillis();
+
+        private final Object lock = new Object();
+        private final Map<String, FolderTree.Node<TFolder>> nodes = new LinkedHashMap<String, FolderTree.Node<TFolder>>();
+        private final List<String> rootIds = new ArrayList<String>();
+        private final SettableFuture<FolderTree<TFolder>> result = SettableFuture.create();
+        private final BoundedTaskQueue<Listing> queue = new BoundedTaskQueue<Listing>(lock, maxConcurrentRequests) {
+            @Override
+            protected void start(Listing listing) {
+                request(listing);
+            }
+
+            @Override
+            protected boolean canStart() {
+                return !result.isDone();
+            }
+
+            @Override
+            protected void onIdle() {
+                if (!result.isDone()) {
+                    result.set(new FolderTree<TFolder>(nodes, rootIds, startTime));
+                }
+            }
+        };
+
+        Walk(FolderTree<TFolder> previous) {
+            this.previous = previous;
+        }
+
+        ListenableFuture<FolderTree<TFolder>> start() {
+            queue.add(listingOf(null));
+            queue.pump();
+            return result;
+        }
+
+        private Listing listingOf(String parentId) {
+            ODataCollectionFetcher<TFolder, ?, ?> fetcher = access.getChildFolders(parentId).top(pageSize);
+            if (expandChildren) {
+                fetcher.expand(CHILD_FOLDERS);
+            }
+            return new Listing(parentId, fetcher, null);
+        }
+
+        private void request(final Listing listing) {
+            Futures.addCallback(listing.fetcher.readPage(listing.nextLink),
+                    new FutureCallback<ODataCollectionPage<TFolder>>() {
+                        @Override
+                        public void onSuccess(ODataCollectionPage<TFolder> page) {
+                            synchronized (lock) {
+                                for (TFolder folder : page.getItems()) {
+                                    add(folder, listing.parentId);
+                                }
+                                if (page.hasNextPage()) {
+                                    queue.add(new Listing(listing.parentId, listing.fetcher, page.getNextLink()));
+                                }
+                            }
+                            queue.completed();
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            result.setException(t);
+                        }
+                    });
+        }
+
+        /**
+         * Adds a folder, then its children from the expanded listing or the previous tree,
+         * or else queues their listing. Must be called while holding lock.
+         */
+        private void add(TFolder folder, String parentId) {
+            Integer childCount = access.getChildCount(folder);
+            FolderTree.Node<TFolder> node = addNode(folder, folder.getId(), parentId, childCount);
+            if (node == null || (childCount != null && childCount == 0)) {
+                return;
+            }
+
+            List<TFolder> children = access.getExpandedChildren(folder);
+            FolderTree.Node<TFolder> cached = previous != null ? previous.getNode(node.id) : null;
+
+            if (children != null && (childCount == null || children.size() >= childCount)) {
+                for (TFolder child : children) {
+                    add(child, node.id);
+                }
+            } else if (cached != null && childCount != null && cached.childIds.size() == childCount) {
+                addCachedChildren(cached, node.id);
+            } else {
+                queue.add(listingOf(node.id));
+            }
+        }
+
+        /**
+         * Must be called while holding lock.
+         */
+        private void addCachedChildren(FolderTree.Node<TFolder> cached, String parentId) {
+            for (String childId : cached.childIds) {
+                FolderTree.Node<TFolder> child = previous.getNode(childId);
+                if (addNode(child.folder, child.id, parentId, child.childCount) != null) {
+                    addCachedChildren(child, child.id);
+                }
+            }
+        }
+
+        /**
+         * Must be called while holding lock. Returns null for a folder already in the tree.
+         */
+        private FolderTree.Node<TFolder> addNode(TFolder folder, String id, String parentId, Integer childCount) {
+            if (id == null || nodes.containsKey(id)) {
+                return null;
+            }
+
+            FolderTree.Node<TFolder> parent = parentId != null ? nodes.get(parentId) : null;
+            String name = access.getName(folder);
+            String path = parent == null ? name : parent.path + FolderTree.SEPARATOR + name;
+
+            FolderTree.Node<TFolder> node = new FolderTree.Node<TFolder>(folder, id, parentId, path, childCount);
+            nodes.put(id, node);
+            if (parent == null) {
+                rootIds.add(id);
+            } else {
+                parent.childIds.add(id);
+            }
+            return node;
+        }
+    }
+}
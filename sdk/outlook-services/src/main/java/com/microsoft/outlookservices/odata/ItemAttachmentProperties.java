@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.ItemAttachment;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of ItemAttachment, to build typed $select and $expand options.
+ */
+public class ItemAttachmentProperties extends AttachmentProperties {
+
+    /**
+     * The Item property.
+     */
+    public static final ODataProperty<ItemAttachment> ITEM = new ODataProperty<ItemAttachment>("Item");
+
+    /**
+     * Instantiates a new ItemAttachmentProperties.
+     */
+    protected ItemAttachmentProperties() {
+    }
+}
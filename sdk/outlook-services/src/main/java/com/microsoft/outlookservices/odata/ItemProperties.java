@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Item;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Item, to build typed $select and $expand options.
+ */
+public class ItemProperties extends EntityProperties {
+
+    /**
+     * The Change Key property.
+     */
+    public static final ODataProperty<Item> CHANGE_KEY = new ODataProperty<Item>("ChangeKey");
+
+    /**
+     * The Categories property.
+     */
+    public static final ODataProperty<Item> CATEGORIES = new ODataProperty<Item>("Categories");
+
+    /**
+     * The Date Time Created property.
+     */
+    public static final ODataProperty<Item> DATE_TIME_CREATED = new ODataProperty<Item>("DateTimeCreated");
+
+    /**
+     * The Date Time Last Modified property.
+     */
+    public static final ODataProperty<Item> DATE_TIME_LAST_MODIFIED = new ODataProperty<Item>("DateTimeLastModified");
+
+    /**
+     * Instantiates a new ItemProperties.
+     */
+    protected ItemProperties() {
+    }
+}
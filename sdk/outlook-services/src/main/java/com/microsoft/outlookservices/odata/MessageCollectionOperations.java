@@ -49,4 +49,139 @@ public class MessageCollectionOperations extends ItemCollectionOperations{
         addCustomHeader(name, value);
         return this;
     }
-}
+
+    /**
+     * Moves messages to a folder, with the default bulk options.
+     *
+     * @param ids the message ids
+     * @param destinationId the destination folder id
+     * @return the listenable future, with the moved message of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> move(java.util.List<String> ids, String destinationId) {
+        return move(ids, destinationId, null);
+    }
+
+    /**
+     * Moves messages to a folder, one request per message with several in flight.
+     *
+     * @param ids the message ids
+     * @param destinationId the destination folder id
+     * @param options the options, or null for the defaults
+     * @return the listenable future, with the moved message of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> move(java.util.List<String> ids, String destinationId,
+                                                          ODataBulkOptions options) {
+        return executeForMessages(ids, HttpVerb.POST, "Move", destinationPayload(destinationId), options);
+    }
+
+    /**
+     * Copies messages to a folder, with the default bulk options.
+     *
+     * @param ids the message ids
+     * @param destinationId the destination folder id
+     * @return the listenable future, with the copy of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> copy(java.util.List<String> ids, String destinationId) {
+        return copy(ids, destinationId, null);
+    }
+
+    /**
+     * Copies messages to a folder, one request per message with several in flight.
+     *
+     * @param ids the message ids
+     * @param destinationId the destination folder id
+     * @param options the options, or null for the defaults
+     * @return the listenable future, with the copy of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> copy(java.util.List<String> ids, String destinationId,
+                                                          ODataBulkOptions options) {
+        return executeForMessages(ids, HttpVerb.POST, "Copy", destinationPayload(destinationId), options);
+    }
+
+    /**
+     * Creates reply drafts for messages, one request per message with several in flight.
+     *
+     * @param ids the message ids
+     * @param options the options, or null for the defaults
+     * @return the listenable future, with the reply draft of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> createReply(java.util.List<String> ids, ODataBulkOptions options) {
+        return executeForMessages(ids, HttpVerb.POST, "CreateReply", null, options);
+    }
+
+    /**
+     * Marks messages as read or unread, with the default bulk options.
+     *
+     * @param ids the message ids
+     * @param isRead the read state
+     * @return the listenable future, with the updated message of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> markRead(java.util.List<String> ids, boolean isRead) {
+        return markRead(ids, isRead, null);
+    }
+
+    /**
+     * Marks messages as read or unread, one request per message with several in flight.
+     *
+     * @param ids the message ids
+     * @param isRead the read state
+     * @param options the options, or null for the defaults
+     * @return the listenable future, with the updated message of every id
+     */
+    public ListenableFuture<ODataBulkResult<Message>> markRead(java.util.List<String> ids, boolean isRead,
+                                                              ODataBulkOptions options) {
+        java.util.Map<String, String> map = new java.util.HashMap<String, String>();
+        map.put("IsRead", getResolver().getJsonSerializer().serialize(isRead));
+        byte[] payload = getResolver().getJsonSerializer().jsonObjectFromJsonMap(map).getBytes(Constants.UTF8);
+
+        return executeForMessages(ids, HttpVerb.PATCH, null, payload, options);
+    }
+
+    /**
+     * Deletes messages, one request per message with several in flight.
+     *
+     * @param ids the message ids
+     * @param options the options, or null for the defaults
+     * @return the listenable future
+     */
+    public ListenableFuture<ODataBulkResult<Void>> delete(java.util.List<String> ids, ODataBulkOptions options) {
+        return ODataBulkExecutor.execute(ids, new ODataBulkExecutor.Operation<Void>() {
+            @Override
+            public ListenableFuture<Void> execute(String id) {
+                return transformToVoidListenableFuture(executeForMessage(id, HttpVerb.DELETE, null, null));
+            }
+        }, options);
+    }
+
+    private byte[] destinationPayload(String destinationId) {
+        java.util.Map<String, String> map = new java.util.HashMap<String, String>();
+        map.put("DestinationId", getResolver().getJsonSerializer().serialize(destinationId));
+        return getResolver().getJsonSerializer().jsonObjectFromJsonMap(map).getBytes(Constants.UTF8);
+    }
+
+    private ListenableFuture<ODataBulkResult<Message>> executeForMessages(java.util.List<String> ids,
+                                                                         final HttpVerb verb,
+                                                                         final String action,
+                                                                         final byte[] payload,
+                                                                         ODataBulkOptions options) {
+        return ODataBulkExecutor.execute(ids, new ODataBulkExecutor.Operation<Message>() {
+            @Override
+            public ListenableFuture<Message> execute(String id) {
+                ListenableFuture<String> future = transformToStringListenableFuture(executeForMessage(id, verb, action, payload));
+                return transformToEntityListenableFuture(future, Message.class, getResolver());
+            }
+        }, options);
+    }
+
+    private ListenableFuture<ODataResponse> executeForMessage(String id, HttpVerb verb, String action, byte[] payload) {
+        Request request = getResolver().createRequest();
+        request.setVerb(verb);
+        if (payload != null) {
+            request.setContent(payload);
+        }
+        if (action != null) {
+            request.getUrl().appendPathComponent(action);
+        }
+        return oDataExecuteForEntity(id, request);
+    }
+}
\ No newline at end of file
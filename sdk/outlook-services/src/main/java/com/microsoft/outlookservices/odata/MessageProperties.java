@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.Message;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of Message, to build typed $select and $expand options.
+ */
+public class MessageProperties extends ItemProperties {
+
+    /**
+     * The Subject property.
+     */
+    public static final ODataProperty<Message> SUBJECT = new ODataProperty<Message>("Subject");
+
+    /**
+     * The Body property.
+     */
+    public static final ODataProperty<Message> BODY = new ODataProperty<Message>("Body");
+
+    /**
+     * The Body Preview property.
+     */
+    public static final ODataProperty<Message> BODY_PREVIEW = new ODataProperty<Message>("BodyPreview");
+
+    /**
+     * The Importance property.
+     */
+    public static final ODataProperty<Message> IMPORTANCE = new ODataProperty<Message>("Importance");
+
+    /**
+     * The Has Attachments property.
+     */
+    public static final ODataProperty<Message> HAS_ATTACHMENTS = new ODataProperty<Message>("HasAttachments");
+
+    /**
+     * The Parent Folder Id property.
+     */
+    public static final ODataProperty<Message> PARENT_FOLDER_ID = new ODataProperty<Message>("ParentFolderId");
+
+    /**
+     * The From property.
+     */
+    public static final ODataProperty<Message> FROM = new ODataProperty<Message>("From");
+
+    /**
+     * The Sender property.
+     */
+    public static final ODataProperty<Message> SENDER = new ODataProperty<Message>("Sender");
+
+    /**
+     * The To Recipients property.
+     */
+    public static final ODataProperty<Message> TO_RECIPIENTS = new ODataProperty<Message>("ToRecipients");
+
+    /**
+     * The Cc Recipients property.
+     */
+    public static final ODataProperty<Message> CC_RECIPIENTS = new ODataProperty<Message>("CcRecipients");
+
+    /**
+     * The Bcc Recipients property.
+     */
+    public static final ODataProperty<Message> BCC_RECIPIENTS = new ODataProperty<Message>("BccRecipients");
+
+    /**
+     * The Reply To property.
+     */
+    public static final ODataProperty<Message> REPLY_TO = new ODataProperty<Message>("ReplyTo");
+
+    /**
+     * The Conversation Id property.
+     */
+    public static final ODataProperty<Message> CONVERSATION_ID = new ODataProperty<Message>("ConversationId");
+
+    /**
+     * The Unique Body property.
+     */
+    public static final ODataProperty<Message> UNIQUE_BODY = new ODataProperty<Message>("UniqueBody");
+
+    /**
+     * The Date Time Received property.
+     */
+    public static final ODataProperty<Message> DATE_TIME_RECEIVED = new ODataProperty<Message>("DateTimeReceived");
+
+    /**
+     * The Date Time Sent property.
+     */
+    public static final ODataProperty<Message> DATE_TIME_SENT = new ODataProperty<Message>("DateTimeSent");
+
+    /**
+     * The Is Delivery Receipt Requested property.
+     */
+    public static final ODataProperty<Message> IS_DELIVERY_RECEIPT_REQUESTED = new ODataProperty<Message>("IsDeliveryReceiptRequested");
+
+    /**
+     * The Is Read Receipt Requested property.
+     */
+    public static final ODataProperty<Message> IS_READ_RECEIPT_REQUESTED = new ODataProperty<Message>("IsReadReceiptRequested");
+
+    /**
+     * The Is Draft property.
+     */
+    public static final ODataProperty<Message> IS_DRAFT = new ODataProperty<Message>("IsDraft");
+
+    /**
+     * The Is Read property.
+     */
+    public static final ODataProperty<Message> IS_READ = new ODataProperty<Message>("IsRead");
+
+    /**
+     * The Attachments property.
+     */
+    public static final ODataProperty<Message> ATTACHMENTS = new ODataProperty<Message>("Attachments");
+
+    /**
+     * Instantiates a new MessageProperties.
+     */
+    protected MessageProperties() {
+    }
+}
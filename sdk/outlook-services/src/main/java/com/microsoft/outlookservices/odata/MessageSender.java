@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.outlookservices.Attachment;
+import com.microsoft.outlookservices.FileAttachment;
+import com.microsoft.outlookservices.Message;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends a message with attachments in one go: it creates the draft, uploads the attachments
+ * in parallel as soon as the draft id is known, then sends the draft. If anything fails, or
+ * the returned future is cancelled, before the draft is sent, the draft is deleted. Once the
+ * send request is out the draft is kept, since the server may have sent it anyway.
+ */
+public class MessageSender {
+
+    /**
+     * The default number of attachment uploads in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 4;
+
+    /**
+     * The stage a send is in.
+     */
+    public enum State {
+        /**
+         * Not sent yet.
+         */
+        NOT_STARTED,
+        /**
+         * Creating the draft.
+         */
+        CREATING_DRAFT,
+        /**
+         * Uploading the attachments.
+         */
+        UPLOADING,
+        /**
+         * Sending the draft.
+         */
+        SENDING,
+        /**
+         * Sent.
+         */
+        SENT,
+        /**
+         * Failed or cancelled. The draft is deleted unless it was already being sent.
+         */
+        FAILED
+    }
+
+    /**
+     * An attachment to upload, with its content in memory or in a stream.
+     */
+    private static final class Upload {
+        final Attachment attachment;
+        final InputStream content;
+        final long length;
+
+        Upload(Attachment attachment, InputStream content, long length) {
+            this.attachment = attachment;
+            this.content = content;
+            this.length = length;
+        }
+    }
+
+    private final UserFetcher user;
+    private final Message message;
+    private final List<Upload> uploads = new ArrayList<Upload>();
+
+    private final Object lock = new Object();
+    private final SettableFuture<Message> result = SettableFuture.create();
+    private final BoundedTaskQueue<Upload> queue = new BoundedTaskQueue<Upload>(lock, DEFAULT_MAX_CONCURRENT_UPLOADS) {
+        @Override
+        protected void start(Upload upload) {
+            upload(upload);
+        }
+
+        @Override
+        protected boolean canStart() {
+            return state == State.UPLOADING;
+        }
+
+        @Override
+        protected void onIdle() {
+            // every attachment is on the draft, send it
+            if (state == State.UPLOADING) {
+                state = State.SENDING;
+                sendDraft();
+            }
+        }
+    };
+    private State state = State.NOT_STARTED;
+    private Message draft;
+    private int uploadedCount;
+
+    MessageSender(UserFetcher user, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        this.user = user;
+        this.message = message;
+    }
+
+    /**
+     * Adds an attachment with its content in memory, e.g. a file attachment with its
+     * content bytes set.
+     *
+     * @param attachment the attachment
+     * @return the message sender
+     */
+    public MessageSender addAttachment(Attachment attachment) {
+        if (attachment == null) {
+            throw new IllegalArgumentException("attachment must not be null");
+        }
+        return add(new Upload(attachment, null, -1));
+    }
+
+    /**
+     * Adds a file attachment whose content is streamed while it is uploaded.
+     *
+     * @param attachment the attachment, without content bytes
+     * @param content the content
+     * @param length the content length, or -1 if unknown
+     * @return the message sender
+     */
+    public MessageSender addAttachment(FileAttachment attachment, InputStream content, long length) {
+        if (attachment == null || content == null) {
+            throw new IllegalArgumentException("attachment and content must not be null");
+        }
+        return add(new Upload(attachment, content, length));
+    }
+
+    /**
+     * Sets the number of attachment uploads in flight.
+     *
+     * @param maxConcurrentUploads the max concurrent uploads
+     * @return the message sender
+     */
+    public MessageSender setMaxConcurrentUploads(int maxConcurrentUploads) {
+        if (maxConcurrentUploads < 1) {
+            throw new IllegalArgumentException("maxConcurrentUploads must be at least 1");
+        }
+        synchronized (lock) {
+            checkNotStarted();
+            queue.setMaxConcurrency(maxConcurrentUploads);
+        }
+        return this;
+    }
+
+    /**
+     * Sends the message. It can only be called once.
+     *
+     * @return the listenable future, with the draft that was sent
+     */
+    public ListenableFuture<Message> send() {
+        synchronized (lock) {
+            checkNotStarted();
+            state = State.CREATING_DRAFT;
+            queue.addAll(uploads);
+        }
+
+        Futures.addCallback(result, new FutureCallback<Message>() {
+            @Override
+            public void onSuccess(Message sent) {
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // also reached when the caller cancels the future
+                fail(t);
+            }
+        });
+
+        Futures.addCallback(user.getMessages().add(message), new FutureCallback<Message>() {
+            @Override
+            public void onSuccess(Message created) {
+                synchronized (lock) {
+                    draft = created;
+                    if (state != State.CREATING_DRAFT) {
+                        // failed or cancelled while the draft was being created
+                        deleteDraft();
+                        return;
+                    }
+                    state = State.UPLOADING;
+                }
+                queue.pump();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Gets the stage the send is in.
+     *
+     * @return the state
+     */
+    public State getState() {
+        synchronized (lock) {
+            return state;
+        }
+    }
+
+    /**
+     * Gets the number of attachments.
+     *
+     * @return the attachment count
+     */
+    public int getAttachmentCount() {
+        synchronized (lock) {
+            return uploads.size();
+        }
+    }
+
+    /**
+     * Gets the number of attachments uploaded so far.
+     *
+     * @return the uploaded count
+     */
+    public int getUploadedCount() {
+        synchronized (lock) {
+            return uploadedCount;
+        }
+    }
+
+    private MessageSender add(Upload upload) {
+        synchronized (lock) {
+            checkNotStarted();
+            uploads.add(upload);
+        }
+        return this;
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void checkNotStarted() {
+        if (state != State.NOT_STARTED) {
+            throw new IllegalStateException("The message has already been sent");
+        }
+    }
+
+    private void upload(Upload upload) {
+        ListenableFuture<?> future;
+        try {
+            if (upload.content != null) {
+                future = getDraft().getAttachments().getOperations()
+                        .addFileAttachment((FileAttachment) upload.attachment, upload.content, upload.length);
+            } else {
+                future = getDraft().getAttachments().add(upload.attachment);
+            }
+        } catch (RuntimeException e) {
+            future = Futures.immediateFailedFuture(e);
+        }
+
+        Futures.addCallback(future, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object attachment) {
+                synchronized (lock) {
+                    uploadedCount++;
+                }
+                queue.completed();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+    }
+
+    /**
+     * Must be called while holding lock.
+     */
+    private void sendDraft() {
+        Futures.addCallback(getDraft().getOperations().send(), new FutureCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer status) {
+                synchronized (lock) {
+                    if (state != State.SENDING) {
+                        return;
+                    }
+                    state = State.SENT;
+                }
+                result.set(draft);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+            }
+        });
+    }
+
+    private void fail(Throwable t) {
+        synchronized (lock) {
+            if (state == State.SENT || state == State.FAILED) {
+                return;
+            }
+            // once the send request is out the server may have sent the draft already
+            boolean keepDraft = state == State.SENDING;
+            state = State.FAILED;
+            queue.clear();
+            if (!keepDraft) {
+                deleteDraft();
+            }
+        }
+    }
+
+    /**
+     * Deletes the draft, if it was created, ignoring failures. Must be called while holding
+     * lock.
+     */
+    private void deleteDraft() {
+        if (draft != null) {
+            getDraft().delete();
+        }
+    }
+
+    private MessageFetcher getDraft() {
+        return user.getMessages().getById(draft.getId());
+    }
+}
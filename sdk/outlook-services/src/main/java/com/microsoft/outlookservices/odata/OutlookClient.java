@@ -5,10 +5,16 @@
  ******************************************************************************/
 package com.microsoft.outlookservices.odata;
 
+import com.google.common.base.Function;
 import com.microsoft.outlookservices.*;
 import com.microsoft.services.odata.*;
 import com.microsoft.services.odata.interfaces.DependencyResolver;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The type OutlookClient.
  */
@@ -64,4 +70,57 @@ public class OutlookClient extends BaseODataContainer {
     public UserFetcher getMe() {
         return new UserFetcher("Me", this);
     }
+
+    /**
+     * Reads the same collection in many mailboxes, e.g.
+     * {@code user.getFolder("Inbox").getMessages()}, passing every page to the callback as it
+     * arrives. A mailbox that fails is reported without stopping the others.
+     *
+     * @param mailboxes the user ids or principal names of the mailboxes
+     * @param template builds the collection to read from a mailbox
+     * @param callback the callback
+     * @param options the options, or null for the defaults
+     * @return the reader, with the progress and the final result
+     */
+    public <TEntity> ODataFanOutReader<TEntity> readMailboxes(Collection<String> mailboxes,
+                                                              Function<UserFetcher, ? extends ODataCollectionFetcher<TEntity, ?, ?>> template,
+                                                              ODataFanOutReader.Callback<TEntity> callback,
+                                                              ODataFanOutOptions options) {
+        if (template == null) {
+            throw new IllegalArgumentException("template must not be null");
+        }
+        return readMailboxes(mailboxes, Collections.<Function<UserFetcher, ? extends ODataCollectionFetcher<TEntity, ?, ?>>>singletonList(template),
+                callback, options);
+    }
+
+    /**
+     * Reads several collections in many mailboxes, e.g. the inbox and the sent items, passing
+     * every page to the callback as it arrives. The collections of a mailbox are read in
+     * parallel, up to the per key limit of the options.
+     *
+     * @param mailboxes the user ids or principal names of the mailboxes
+     * @param templates build the collections to read from a mailbox
+     * @param callback the callback
+     * @param options the options, or null for the defaults
+     * @return the reader, with the progress and the final result
+     */
+    public <TEntity> ODataFanOutReader<TEntity> readMailboxes(Collection<String> mailboxes,
+                                                              final List<Function<UserFetcher, ? extends ODataCollectionFetcher<TEntity, ?, ?>>> templates,
+                                                              ODataFanOutReader.Callback<TEntity> callback,
+                                                              ODataFanOutOptions options) {
+        if (templates == null) {
+            throw new IllegalArgumentException("templates must not be null");
+        }
+
+        return ODataFanOutReader.start(mailboxes, new ODataFanOutReader.Source<TEntity>() {
+            @Override
+            public List<ODataCollectionFetcher<TEntity, ?, ?>> getCollections(String mailbox) {
+                List<ODataCollectionFetcher<TEntity, ?, ?>> collections = new ArrayList<ODataCollectionFetcher<TEntity, ?, ?>>();
+                for (Function<UserFetcher, ? extends ODataCollectionFetcher<TEntity, ?, ?>> template : templates) {
+                    collections.add(template.apply(getUsers().getById(mailbox)));
+                }
+                return collections;
+            }
+        }, callback, options);
+    }
 }
\ No newline at end of file
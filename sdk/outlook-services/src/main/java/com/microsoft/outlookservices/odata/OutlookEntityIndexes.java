@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The properties worth indexing when caching Outlook collections in an entity store,
+ * to be passed to {@code ODataCollectionFetcher.cacheIn}. They cover the usual offline
+ * reads: a folder's content by date, a sender's messages and a calendar range. The lists
+ * are read-only.
+ */
+public final class OutlookEntityIndexes {
+
+    /**
+     * The constant MESSAGE.
+     */
+    public static final List<String> MESSAGE = Collections.unmodifiableList(Arrays.asList(
+            "ParentFolderId", "DateTimeReceived", "From/EmailAddress/Address", "IsRead", "ConversationId"));
+
+    /**
+     * The constant EVENT.
+     */
+    public static final List<String> EVENT = Collections.unmodifiableList(Arrays.asList("Start", "End", "ShowAs"));
+
+    /**
+     * The constant CONTACT.
+     */
+    public static final List<String> CONTACT = Collections.unmodifiableList(Arrays.asList("ParentFolderId", "DisplayName"));
+
+    /**
+     * The constant FOLDER.
+     */
+    public static final List<String> FOLDER = Collections.unmodifiableList(Arrays.asList("ParentFolderId", "DisplayName"));
+
+    private OutlookEntityIndexes() {
+    }
+}
@@ -176,6 +176,55 @@ public class UserFetcher extends ODataEntityFetcher<User,UserOperations>
          return new ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations>("CalendarView", this, Event.class, EventCollectionOperations.class).getById(id);
     }
 
+    /**
+     * Gets the calendar view of a time range, with recurring events expanded into occurrences.
+     *
+     * @param start the start of the range
+     * @param end the end of the range
+     * @return the calendar view
+     */
+    public ODataCollectionFetcher<Event, EventFetcher, EventCollectionOperations> getCalendarView(java.util.Calendar start, java.util.Calendar end) {
+        return getCalendarView().addParameter("startDateTime", start).addParameter("endDateTime", end);
+    }
+
+    /**
+     * Creates a cache reading the calendar view by windows, for browsing a calendar.
+     *
+     * @return the calendar view cache
+     */
+    public CalendarViewCache createCalendarViewCache() {
+        return new CalendarViewCache(this);
+    }
+
+    /**
+     * Creates a loader for the whole mail folder tree.
+     *
+     * @return the folder tree loader
+     */
+    public FolderTreeLoader<Folder> createFolderTreeLoader() {
+        return FolderTreeLoader.forFolders(this);
+    }
+
+    /**
+     * Creates a loader for the whole contact folder tree.
+     *
+     * @return the folder tree loader
+     */
+    public FolderTreeLoader<ContactFolder> createContactFolderTreeLoader() {
+        return FolderTreeLoader.forContactFolders(this);
+    }
+
+    /**
+     * Creates a sender for a new message, which uploads its attachments in parallel once
+     * the draft is created.
+     *
+     * @param message the message
+     * @return the message sender
+     */
+    public MessageSender createMessageSender(Message message) {
+        return new MessageSender(this, message);
+    }
+
      /**
      * Gets contacts.
      *
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.outlookservices.odata;
+
+import com.microsoft.outlookservices.User;
+import com.microsoft.services.odata.ODataProperty;
+
+/**
+ * The properties of User, to build typed $select and $expand options.
+ */
+public class UserProperties extends EntityProperties {
+
+    /**
+     * The Display Name property.
+     */
+    public static final ODataProperty<User> DISPLAY_NAME = new ODataProperty<User>("DisplayName");
+
+    /**
+     * The Alias property.
+     */
+    public static final ODataProperty<User> ALIAS = new ODataProperty<User>("Alias");
+
+    /**
+     * The Mailbox Guid property.
+     */
+    public static final ODataProperty<User> MAILBOX_GUID = new ODataProperty<User>("MailboxGuid");
+
+    /**
+     * The Folders property.
+     */
+    public static final ODataProperty<User> FOLDERS = new ODataProperty<User>("Folders");
+
+    /**
+     * The Messages property.
+     */
+    public static final ODataProperty<User> MESSAGES = new ODataProperty<User>("Messages");
+
+    /**
+     * The Root Folder property.
+     */
+    public static final ODataProperty<User> ROOT_FOLDER = new ODataProperty<User>("RootFolder");
+
+    /**
+     * The Calendars property.
+     */
+    public static final ODataProperty<User> CALENDARS = new ODataProperty<User>("Calendars");
+
+    /**
+     * The Calendar property.
+     */
+    public static final ODataProperty<User> CALENDAR = new ODataProperty<User>("Calendar");
+
+    /**
+     * The Calendar Groups property.
+     */
+    public static final ODataProperty<User> CALENDAR_GROUPS = new ODataProperty<User>("CalendarGroups");
+
+    /**
+     * The Events property.
+     */
+    public static final ODataProperty<User> EVENTS = new ODataProperty<User>("Events");
+
+    /**
+     * The Calendar View property.
+     */
+    public static final ODataProperty<User> CALENDAR_VIEW = new ODataProperty<User>("CalendarView");
+
+    /**
+     * The Contacts property.
+     */
+    public static final ODataProperty<User> CONTACTS = new ODataProperty<User>("Contacts");
+
+    /**
+     * The Contact Folders property.
+     */
+    public static final ODataProperty<User> CONTACT_FOLDERS = new ODataProperty<User>("ContactFolders");
+
+    /**
+     * Instantiates a new UserProperties.
+     */
+    protected UserProperties() {
+    }
+}
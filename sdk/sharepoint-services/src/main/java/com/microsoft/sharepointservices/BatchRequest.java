@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the multipart body of a SharePoint $batch request and splits its
+ * response. Every operation gets its own changeset, so one failing item does
+ * not roll back the others.
+ */
+final class BatchRequest {
+
+	private static final String CRLF = "\r\n";
+
+	/**
+	 * The response of one operation of a batch.
+	 */
+	static final class Part {
+		private final int mStatusCode;
+		private final String mContent;
+
+		Part(int statusCode, String content) {
+			mStatusCode = statusCode;
+			mContent = content;
+		}
+
+		int getStatusCode() {
+			return mStatusCode;
+		}
+
+		String getContent() {
+			return mContent;
+		}
+	}
+
+	private final String mBoundary = "batch_" + UUID.randomUUID();
+	private final StringBuilder mBody = new StringBuilder();
+	private int mOperationCount;
+
+	/**
+	 * Adds an operation.
+	 *
+	 * @param method
+	 *            the method
+	 * @param url
+	 *            the absolute url
+	 * @param headers
+	 *            the headers, may be null
+	 * @param payload
+	 *            the JSON payload, may be null
+	 */
+	void addOperation(String method, String url, Map<String, String> headers, String payload) {
+		String changeset = "changeset_" + UUID.randomUUID();
+
+		mBody.append("--").append(mBoundary).append(CRLF);
+		mBody.append("Content-Type: multipart/mixed; boundary=").append(changeset).append(CRLF);
+		mBody.append(CRLF);
+		mBody.append("--").append(changeset).append(CRLF);
+		mBody.append("Content-Type: application/http").append(CRLF);
+		mBody.append("Content-Transfer-Encoding: binary").append(CRLF);
+		mBody.append(CRLF);
+		mBody.append(method).append(' ').append(url).append(" HTTP/1.1").append(CRLF);
+		mBody.append("Accept: application/json;odata=verbose").append(CRLF);
+		if (payload != null) {
+			mBody.append("Content-Type: application/json;odata=verbose").append(CRLF);
+		}
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				mBody.append(header.getKey()).append(": ").append(header.getValue()).append(CRLF);
+			}
+		}
+		mBody.append(CRLF);
+		if (payload != null) {
+			mBody.append(payload).append(CRLF);
+		}
+		mBody.append("--").append(changeset).append("--").append(CRLF);
+
+		mOperationCount++;
+	}
+
+	/**
+	 * Gets the number of operations added.
+	 */
+	int getOperationCount() {
+		return mOperationCount;
+	}
+
+	/**
+	 * Gets the content type of the batch request.
+	 */
+	String getContentType() {
+		return "multipart/mixed; boundary=" + mBoundary;
+	}
+
+	/**
+	 * Gets the request body.
+	 */
+	String getBody() {
+		return mBody.toString() + "--" + mBoundary + "--" + CRLF;
+	}
+
+	/**
+	 * Splits a batch response into the responses of its operations, in
+	 * request order.
+	 *
+	 * @param response
+	 *            the response content
+	 * @return the parts
+	 */
+	static List<Part> parseResponse(String response) throws IOException {
+		List<Part> parts = new ArrayList<Part>();
+		BufferedReader reader = new BufferedReader(new StringReader(response));
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (!line.startsWith("HTTP/1.1 ")) {
+				continue;
+			}
+
+			int statusCode = parseStatusCode(line);
+
+			// skip the headers of the operation response
+			while ((line = reader.readLine()) != null && line.length() > 0) {
+			}
+
+			StringBuilder content = new StringBuilder();
+			while ((line = reader.readLine()) != null && !line.startsWith("--")) {
+				if (content.length() > 0) {
+					content.append('\n');
+				}
+				content.append(line);
+			}
+
+			parts.add(new Part(statusCode, content.toString().trim()));
+		}
+
+		return parts;
+	}
+
+	private static int parseStatusCode(String statusLine) throws IOException {
+		String[] tokens = statusLine.split(" ");
+		try {
+			return Integer.parseInt(tokens[1]);
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid status line in batch response: " + statusLine);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
+
+/**
+ * Uploads a file in chunks with the StartUpload, ContinueUpload and
+ * FinishUpload operations, reading one chunk of the source stream at a time.
+ * Content that fits in a single chunk is sent with one regular request
+ * instead.
+ * <p>
+ * The upload session needs an existing file, so a new document is first added
+ * empty, and deleted again if the upload fails or is cancelled. An existing
+ * document that may be overwritten is uploaded to in place instead: it keeps
+ * its content until FinishUpload commits the new one.
+ */
+final class ChunkedUpload {
+
+	private static final String FILE_EXISTS_ERROR_CODE = "-2130575257";
+
+	private final DocLibClient mClient;
+	private final String mFileName;
+	private final String mLibrary;
+	private final boolean mOverwrite;
+	private final PushbackInputStream mContent;
+	private final byte[] mBuffer;
+	private final String mUploadId = UUID.randomUUID().toString();
+	private final SettableFuture<FileSystemItem> mResult = SettableFuture.create();
+
+	private String mFileUrl;
+	private boolean mCreatedFile;
+	private long mOffset;
+
+	ChunkedUpload(DocLibClient client, String fileName, String library, boolean overwrite, InputStream content,
+			int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be at least 1");
+		}
+
+		mClient = client;
+		mFileName = fileName;
+		mLibrary = library;
+		mOverwrite = overwrite;
+		mContent = new PushbackInputStream(content, 1);
+		mBuffer = new byte[chunkSize];
+	}
+
+	ListenableFuture<FileSystemItem> start() {
+		try {
+			int read = readChunk();
+			if (isLastChunk()) {
+				// small enough for a single request
+				Futures.addCallback(
+						mClient.createFile(mFileName, mLibrary, mOverwrite, Arrays.copyOf(mBuffer, read)),
+						new FutureCallback<FileSystemItem>() {
+							@Override
+							public void onFailure(Throwable t) {
+								mResult.setException(t);
+							}
+
+							@Override
+							public void onSuccess(FileSystemItem item) {
+								mResult.set(item);
+							}
+						});
+			} else {
+				createEmptyFile(read);
+			}
+		} catch (IOException e) {
+			mResult.setException(e);
+		}
+		return mResult;
+	}
+
+	/**
+	 * Adds the empty file the upload session starts from. The add never
+	 * overwrites, so that an existing document is not emptied before the
+	 * upload succeeds.
+	 */
+	private void createEmptyFile(final int firstChunkLength) {
+		String url = mClient.getSiteUrl()
+				+ String.format("_api/web/lists/GetByTitle('%s')/RootFolder/Files/add(url='%s',overwrite=false)",
+						mClient.urlEncode(mLibrary), mClient.urlEncode(mFileName));
+
+		Futures.addCallback(mClient.executeRequestJsonWithDigest(url, "POST", null, null),
+				new FutureCallback<JSONObject>() {
+					@Override
+					public void onFailure(Throwable t) {
+						if (mOverwrite && isFileExistsError(t)) {
+							mFileUrl = mClient.getSiteUrl()
+									+ String.format("_api/web/lists/GetByTitle('%s')/RootFolder/Files('%s')",
+											mClient.urlEncode(mLibrary), mClient.urlEncode(mFileName));
+							startUpload(firstChunkLength);
+						} else {
+							mResult.setException(t);
+						}
+					}
+
+					@Override
+					public void onSuccess(JSONObject json) {
+						try {
+							mFileUrl = mClient.getSiteUrl()
+									+ String.format("_api/web/GetFileByServerRelativeUrl('%s')",
+											mClient.urlEncode(json.getJSONObject("d").getString("ServerRelativeUrl")));
+						} catch (JSONException e) {
+							mResult.setException(e);
+							return;
+						}
+						mCreatedFile = true;
+						startUpload(firstChunkLength);
+					}
+				});
+	}
+
+	private void startUpload(int firstChunkLength) {
+		sendChunk(String.format("StartUpload(uploadId=guid'%s')", mUploadId), firstChunkLength, false);
+	}
+
+	private void sendChunk(String operation, final int length, final boolean last) {
+		if (mResult.isCancelled()) {
+			cancelUpload();
+			return;
+		}
+
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/octet-stream");
+		byte[] payload = length == mBuffer.length ? mBuffer : Arrays.copyOf(mBuffer, length);
+
+		Futures.addCallback(mClient.executeRequestJsonWithDigest(mFileUrl + "/" + operation, "POST", headers, payload),
+				new FutureCallback<JSONObject>() {
+					@Override
+					public void onFailure(Throwable t) {
+						mResult.setException(t);
+						cancelUpload();
+					}
+
+					@Override
+					public void onSuccess(JSONObject json) {
+						mOffset += length;
+						if (last) {
+							FileSystemItem item = new FileSystemItem();
+							item.loadFromJson(json, true);
+							mResult.set(item);
+							return;
+						}
+
+						try {
+							int read = readChunk();
+							boolean lastChunk = isLastChunk();
+							String next = lastChunk ? "FinishUpload" : "ContinueUpload";
+							sendChunk(String.format("%s(uploadId=guid'%s',fileOffset=%d)", next, mUploadId, mOffset),
+									read, lastChunk);
+						} catch (IOException e) {
+							mResult.setException(e);
+							cancelUpload();
+						}
+					}
+				});
+	}
+
+	/**
+	 * Fills the buffer from the stream, returning the number of bytes read.
+	 */
+	private int readChunk() throws IOException {
+		int total = 0;
+		while (total < mBuffer.length) {
+			int read = mContent.read(mBuffer, total, mBuffer.length - total);
+			if (read == -1) {
+				break;
+			}
+			total += read;
+		}
+		return total;
+	}
+
+	private boolean isLastChunk() throws IOException {
+		int next = mContent.read();
+		if (next == -1) {
+			return true;
+		}
+		mContent.unread(next);
+		return false;
+	}
+
+	/**
+	 * Discards a started upload session, then the empty file it was started
+	 * from if this upload added it, ignoring failures.
+	 */
+	private void cancelUpload() {
+		if (mFileUrl == null) {
+			return;
+		}
+
+		ListenableFuture<JSONObject> cancel = mClient.executeRequestJsonWithDigest(
+				mFileUrl + "/" + String.format("CancelUpload(uploadId=guid'%s')", mUploadId), "POST", null, null);
+		if (!mCreatedFile) {
+			return;
+		}
+
+		Futures.addCallback(cancel, new FutureCallback<JSONObject>() {
+			@Override
+			public void onFailure(Throwable t) {
+				deleteCreatedFile();
+			}
+
+			@Override
+			public void onSuccess(JSONObject json) {
+				deleteCreatedFile();
+			}
+		});
+	}
+
+	private void deleteCreatedFile() {
+		mClient.executeRequestJsonWithDigest(mFileUrl, "DELETE", null, null);
+	}
+
+	private static boolean isFileExistsError(Throwable t) {
+		if (!(t instanceof InvalidHttpStatusCodeException)) {
+			return false;
+		}
+
+		String content = ((InvalidHttpStatusCodeException) t).getResponseContent();
+		return content != null && content.contains(FILE_EXISTS_ERROR_CODE);
+	}
+}
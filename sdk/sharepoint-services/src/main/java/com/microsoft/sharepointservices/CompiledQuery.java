@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, pre-rendered form of a {@link Query}. The filter text is kept as
+ * literal segments around parameter slots, so rendering is a single
+ * concatenation. A compiled query can be shared between threads and bound to
+ * different values many times.
+ */
+public final class CompiledQuery {
+
+	private final String[] mSegments;
+	private final String[] mParameters;
+	private final String[] mValues;
+	private final String mRowSetModifiers;
+	private final int mSegmentsLength;
+
+	CompiledQuery(String[] segments, String[] parameters, String rowSetModifiers) {
+		this(segments, parameters, new String[parameters.length], rowSetModifiers);
+	}
+
+	private CompiledQuery(String[] segments, String[] parameters, String[] values, String rowSetModifiers) {
+		mSegments = segments;
+		mParameters = parameters;
+		mValues = values;
+		mRowSetModifiers = rowSetModifiers;
+
+		int length = 0;
+		for (String segment : segments) {
+			length += segment.length();
+		}
+		mSegmentsLength = length;
+	}
+
+	/**
+	 * Returns a copy of this query with the parameter bound to a value. A
+	 * parameter used several times is bound everywhere.
+	 *
+	 * @param name
+	 *            the parameter name
+	 * @param value
+	 *            a String, Number, Boolean, Query or null
+	 * @return the bound query
+	 */
+	public CompiledQuery bind(String name, Object value) {
+		String literal = toLiteral(value);
+		String[] values = mValues.clone();
+
+		boolean found = false;
+		for (int i = 0; i < mParameters.length; i++) {
+			if (mParameters[i].equals(name)) {
+				values[i] = literal;
+				found = true;
+			}
+		}
+
+		if (!found) {
+			throw new IllegalArgumentException("Unknown parameter " + name);
+		}
+
+		return new CompiledQuery(mSegments, mParameters, values, mRowSetModifiers);
+	}
+
+	/**
+	 * Gets the parameter names, in order of appearance.
+	 *
+	 * @return the parameter names
+	 */
+	public List<String> getParameterNames() {
+		List<String> names = new ArrayList<String>();
+		for (String parameter : mParameters) {
+			if (!names.contains(parameter)) {
+				names.add(parameter);
+			}
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Checks if every parameter has a value.
+	 *
+	 * @return true, if bound
+	 */
+	public boolean isBound() {
+		return !Arrays.asList(mValues).contains(null);
+	}
+
+	/**
+	 * Gets the filter text.
+	 *
+	 * @return the filter
+	 * @throws IllegalStateException
+	 *             if a parameter has no value
+	 */
+	public String getFilter() {
+		if (mParameters.length == 0) {
+			return mSegments[0];
+		}
+
+		int length = mSegmentsLength;
+		for (int i = 0; i < mValues.length; i++) {
+			if (mValues[i] == null) {
+				throw new IllegalStateException("Parameter " + mParameters[i] + " is not bound");
+			}
+			length += mValues[i].length();
+		}
+
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < mParameters.length; i++) {
+			sb.append(mSegments[i]);
+			sb.append(mValues[i]);
+		}
+		sb.append(mSegments[mSegments.length - 1]);
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the row set modifiers, as captured when the query was compiled.
+	 *
+	 * @return the row set modifiers
+	 */
+	public String getRowSetModifiers() {
+		return mRowSetModifiers;
+	}
+
+	/**
+	 * Returns the filter text, with unbound parameters rendered as @name
+	 * aliases.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < mParameters.length; i++) {
+			sb.append(mSegments[i]);
+			sb.append(mValues[i] != null ? mValues[i] : "@" + mParameters[i]);
+		}
+		sb.append(mSegments[mSegments.length - 1]);
+		return sb.toString();
+	}
+
+	private static String toLiteral(Object value) {
+		if (value == null) {
+			return "null";
+		} else if (value instanceof String) {
+			return "'" + QueryOperations.sanitize((String) value) + "'";
+		} else if (value instanceof Number) {
+			return value.toString();
+		} else if (value instanceof Boolean) {
+			return value.toString();
+		} else if (value instanceof Query) {
+			return value.toString();
+		}
+
+		throw new IllegalArgumentException("Unsupported parameter value type " + value.getClass().getName());
+	}
+}
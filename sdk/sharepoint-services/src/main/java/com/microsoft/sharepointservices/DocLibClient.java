@@ -5,7 +5,13 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +23,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.Response;
 
 
 /**
@@ -24,6 +31,13 @@ import com.google.common.util.concurrent.SettableFuture;
  */
 public class DocLibClient extends SharepointClient {
 
+	/**
+	 * The default chunk size of {@link #uploadFile(String, String, boolean, InputStream)}.
+	 */
+	public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 10 * 1024 * 1024;
+
+	private static final int COPY_BUFFER_SIZE = 16 * 1024;
+
 	/**
 	 * Instantiates a new file API client.
 	 * 
@@ -66,44 +80,86 @@ public class DocLibClient extends SharepointClient {
 
 		final SettableFuture<List<FileSystemItem>> result = SettableFuture.create();
 
-		String getPath;
+		String getPath = getChildrenUrl(path, library);
+
+		ListenableFuture<OfficeEntityPage<FileSystemItem>> request = executeRequestPage(getPath,
+				FileSystemItem.class);
+
+		Futures.addCallback(request, new FutureCallback<OfficeEntityPage<FileSystemItem>>() {
+			@Override
+			public void onFailure(Throwable t) {
+				result.setException(t);
+			}
+
+			@Override
+			public void onSuccess(OfficeEntityPage<FileSystemItem> page) {
+				result.set(new ArrayList<FileSystemItem>(page.getItems()));
+			}
+		});
+		return result;
+	}
 
+	/**
+	 * Walks a folder tree and reports every file and folder under the path,
+	 * with up to {@link FileSystemWalker#DEFAULT_MAX_CONCURRENT_REQUESTS}
+	 * folder requests in flight, expanding the children of each folder
+	 * inline.
+	 * 
+	 * @param path
+	 *            the root folder, or null for the library root
+	 * @param library
+	 *            the document library, or null for the default one
+	 * @param callback
+	 *            receives each item as soon as its folder is read
+	 * @return the number of items found
+	 */
+	public ListenableFuture<Integer> walkFileSystemItems(String path, String library,
+			FileSystemItemCallback callback) {
+		return walkFileSystemItems(path, library, FileSystemWalker.DEFAULT_MAX_CONCURRENT_REQUESTS, true, callback);
+	}
+
+	/**
+	 * Walks a folder tree and reports every file and folder under the path.
+	 * Folders are read in parallel, breadth first. Cancelling the returned
+	 * future stops the walk; the first failed folder request fails it.
+	 * 
+	 * @param path
+	 *            the root folder, or null for the library root
+	 * @param library
+	 *            the document library, or null for the default one
+	 * @param maxConcurrentRequests
+	 *            the maximum number of folder requests in flight
+	 * @param expandChildren
+	 *            true to read two folder levels per request with
+	 *            $expand=Children
+	 * @param callback
+	 *            receives each item as soon as its folder is read
+	 * @return the number of items found
+	 */
+	public ListenableFuture<Integer> walkFileSystemItems(String path, String library, int maxConcurrentRequests,
+			boolean expandChildren, FileSystemItemCallback callback) {
+		return new FileSystemWalker(this, library, maxConcurrentRequests, expandChildren, callback).start(path);
+	}
+
+	/**
+	 * Gets the url listing the children of a folder.
+	 */
+	String getChildrenUrl(String path, String library) {
 		if (library == null) {
 			if (path == null || path.length() == 0) {
-				getPath = getSiteUrl() + "_api/Files";
+				return getSiteUrl() + "_api/Files";
 			} else {
-				getPath = getSiteUrl() + String.format("_api/Files('%s')/children", urlEncode(path));
+				return getSiteUrl() + String.format("_api/Files('%s')/children", urlEncode(path));
 			}
 		} else {
 			if (path == null || path.length() == 0) {
-				getPath = getSiteUrl() + String.format("_api/web/lists/GetByTitle('%s')/files", urlEncode(library));
+				return getSiteUrl() + String.format("_api/web/lists/GetByTitle('%s')/files", urlEncode(library));
 			} else {
-				getPath = getSiteUrl()
+				return getSiteUrl()
 						+ String.format("_api/web/lists/GetByTitle('%s')/files('%s')/children", urlEncode(library),
 								urlEncode(path));
 			}
 		}
-
-		ListenableFuture<JSONObject> request = executeRequestJson(getPath, "GET");
-
-		Futures.addCallback(request, new FutureCallback<JSONObject>() {
-			@Override
-			public void onFailure(Throwable t) {
-				result.setException(t);
-			}
-
-			@Override
-			public void onSuccess(JSONObject json) {
-				List<FileSystemItem> item;
-				try {
-					item = FileSystemItem.listFrom(json);
-					result.set(item);
-				} catch (Throwable e) {
-					result.setException(e);
-				}
-			}
-		});
-		return result;
 	}
 
 	public ListenableFuture<FileSystemItem> getFileSystemItem(String path) {
@@ -238,15 +294,74 @@ public class DocLibClient extends SharepointClient {
 			throw new IllegalArgumentException("Path cannot be null or empty");
 		}
 
-		String getFileUrl;
+		return executeRequest(getFileContentUrl(path, library), "GET");
+	}
+
+	/**
+	 * Downloads a file into a stream, copying it as it arrives so the
+	 * document is never held in memory. The destination is not closed.
+	 * 
+	 * @param path
+	 *            the path
+	 * @param library
+	 *            the library, or null for the default one
+	 * @param destination
+	 *            the destination stream
+	 * @return OfficeFuture<Long> with the number of bytes written
+	 */
+	public ListenableFuture<Long> getFile(String path, String library, final OutputStream destination) {
+		if (path == null || path.length() == 0) {
+			throw new IllegalArgumentException("Path cannot be null or empty");
+		}
+
+		if (destination == null) {
+			throw new IllegalArgumentException("destination cannot be null");
+		}
+
+		return executeRequest(getFileContentUrl(path, library), "GET", null, null, new ResponseReader<Long>() {
+			@Override
+			public Long read(Response response) throws IOException {
+				InputStream stream = response.getStream();
+				byte[] buffer = new byte[COPY_BUFFER_SIZE];
+				long total = 0;
+				int read;
+				while ((read = stream.read(buffer)) != -1) {
+					destination.write(buffer, 0, read);
+					total += read;
+				}
+				destination.flush();
+				return total;
+			}
+		});
+	}
+
+	/**
+	 * Downloads a file into a channel. The channel is not closed.
+	 * 
+	 * @param path
+	 *            the path
+	 * @param library
+	 *            the library, or null for the default one
+	 * @param destination
+	 *            the destination channel
+	 * @return OfficeFuture<Long> with the number of bytes written
+	 */
+	public ListenableFuture<Long> getFile(String path, String library, WritableByteChannel destination) {
+		if (destination == null) {
+			throw new IllegalArgumentException("destination cannot be null");
+		}
+
+		return getFile(path, library, Channels.newOutputStream(destination));
+	}
+
+	private String getFileContentUrl(String path, String library) {
 		if (library == null) {
-			getFileUrl = getSiteUrl() + String.format("_api/files('%s')/$value", urlEncode(path));
+			return getSiteUrl() + String.format("_api/files('%s')/$value", urlEncode(path));
 		} else {
-			getFileUrl = getSiteUrl()
+			return getSiteUrl()
 					+ String.format("_api/web/Lists/GetByTitle('%s')/files('%s')/$value", urlEncode(library),
 							urlEncode(path));
 		}
-		return executeRequest(getFileUrl, "GET");
 	}
 
 	/**
@@ -336,20 +451,103 @@ public class DocLibClient extends SharepointClient {
 			throw new IllegalArgumentException("fileName cannot be null or empty");
 		}
 
+		String url = getAddFileUrl(fileName, library, overwrite);
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("Content-Type", "application/octet-stream");
+
+		return toFileSystemItem(executeRequestJsonWithDigest(url, "POST", headers, content));
+	}
+
+	/**
+	 * Creates a file with a given path inside a given library, streaming the
+	 * content in a single request so it is never held in memory. The stream
+	 * is read to the end but not closed.
+	 * 
+	 * @param fileName
+	 * @param library
+	 * @param overwrite
+	 * @param content
+	 * @param length
+	 *            the content length, or -1 if unknown
+	 * @return OfficeFuture<FileSystemItem>
+	 */
+	public ListenableFuture<FileSystemItem> createFile(String fileName, String library, boolean overwrite,
+			InputStream content, long length) {
+
+		if (fileName == null || fileName.length() == 0) {
+			throw new IllegalArgumentException("fileName cannot be null or empty");
+		}
+
+		if (content == null) {
+			throw new IllegalArgumentException("content cannot be null");
+		}
+
+		String url = getAddFileUrl(fileName, library, overwrite);
+		return toFileSystemItem(executeRequestWithDigest(url, "POST", null, content, length, JSON_RESPONSE_READER));
+	}
+
+	/**
+	 * Uploads a file in chunks of {@link #DEFAULT_UPLOAD_CHUNK_SIZE} bytes.
+	 * 
+	 * @param fileName
+	 * @param library
+	 * @param overwrite
+	 * @param content
+	 * @return OfficeFuture<FileSystemItem>
+	 */
+	public ListenableFuture<FileSystemItem> uploadFile(String fileName, String library, boolean overwrite,
+			InputStream content) {
+		return uploadFile(fileName, library, overwrite, content, DEFAULT_UPLOAD_CHUNK_SIZE);
+	}
+
+	/**
+	 * Uploads a file in chunks, using the StartUpload, ContinueUpload and
+	 * FinishUpload operations, so memory use is bounded by the chunk size
+	 * whatever the document size. Content that fits in one chunk is sent
+	 * with a single request. The stream is read to the end but not closed.
+	 * Cancelling the returned future cancels the upload session after the
+	 * chunk in flight. A new document that fails to upload is deleted; an
+	 * existing one being overwritten keeps its previous content.
+	 * 
+	 * @param fileName
+	 * @param library
+	 *            the library, required for chunked uploads
+	 * @param overwrite
+	 * @param content
+	 * @param chunkSize
+	 *            the number of bytes per request
+	 * @return OfficeFuture<FileSystemItem>
+	 */
+	public ListenableFuture<FileSystemItem> uploadFile(String fileName, String library, boolean overwrite,
+			InputStream content, int chunkSize) {
+		if (fileName == null || fileName.length() == 0) {
+			throw new IllegalArgumentException("fileName cannot be null or empty");
+		}
+
+		if (library == null || library.length() == 0) {
+			throw new IllegalArgumentException("library cannot be null or empty");
+		}
+
+		if (content == null) {
+			throw new IllegalArgumentException("content cannot be null");
+		}
+
+		return new ChunkedUpload(this, fileName, library, overwrite, content, chunkSize).start();
+	}
+
+	private String getAddFileUrl(String fileName, String library, boolean overwrite) {
 		String urlPart = urlEncode(String.format("Add(name='%s', overwrite='%s')", fileName,
 				Boolean.toString(overwrite)));
 
-		String url;
 		if (library == null || library.length() == 0) {
-			url = getSiteUrl() + "_api/files/" + urlPart;
+			return getSiteUrl() + "_api/files/" + urlPart;
 		} else {
-			url = getSiteUrl() + String.format("_api/web/lists/getbytitle('%s')/files/", urlEncode(library)) + urlPart;
+			return getSiteUrl() + String.format("_api/web/lists/getbytitle('%s')/files/", urlEncode(library)) + urlPart;
 		}
-		final SettableFuture<FileSystemItem> result = SettableFuture.create();
-		Map<String, String> headers = new HashMap<String, String>();
-		headers.put("Content-Type", "application/octet-stream");
+	}
 
-		ListenableFuture<JSONObject> request = executeRequestJsonWithDigest(url, "POST", headers, content);
+	private ListenableFuture<FileSystemItem> toFileSystemItem(ListenableFuture<JSONObject> request) {
+		final SettableFuture<FileSystemItem> result = SettableFuture.create();
 
 		Futures.addCallback(request, new FutureCallback<JSONObject>() {
 			@Override
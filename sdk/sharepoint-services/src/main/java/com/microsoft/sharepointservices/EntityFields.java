@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Compact field storage for an entity read from a response stream. Field
+ * names live once in a {@link Schema} shared by every item of the response,
+ * and each item keeps only its values: numbers and booleans in a primitive
+ * slot, strings and nested values in an object slot.
+ */
+final class EntityFields {
+
+	private static final byte KIND_ABSENT = 0;
+	private static final byte KIND_STRING = 1;
+	private static final byte KIND_INT = 2;
+	private static final byte KIND_LONG = 3;
+	private static final byte KIND_DOUBLE = 4;
+	private static final byte KIND_BOOLEAN = 5;
+	private static final byte KIND_NULL = 6;
+	private static final byte KIND_OBJECT = 7;
+
+	/**
+	 * The field names seen in a response, in order of first appearance.
+	 */
+	static final class Schema {
+		private final Map<String, Integer> mIndexes = new HashMap<String, Integer>();
+		private final List<String> mNames = new ArrayList<String>();
+
+		synchronized int slotOf(String name) {
+			Integer index = mIndexes.get(name);
+			if (index == null) {
+				index = mNames.size();
+				mIndexes.put(name, index);
+				mNames.add(name);
+			}
+			return index;
+		}
+
+		synchronized int indexOf(String name) {
+			Integer index = mIndexes.get(name);
+			return index == null ? -1 : index;
+		}
+
+		synchronized String nameAt(int index) {
+			return mNames.get(index);
+		}
+
+		synchronized int size() {
+			return mNames.size();
+		}
+	}
+
+	private final Schema mSchema;
+	private byte[] mKinds;
+	private long[] mScalars;
+	private Object[] mObjects;
+
+	private EntityFields(Schema schema) {
+		mSchema = schema;
+		int size = Math.max(schema.size(), 4);
+		mKinds = new byte[size];
+		mScalars = new long[size];
+		mObjects = new Object[size];
+	}
+
+	/**
+	 * Reads the next JSON object from the reader.
+	 *
+	 * @param reader
+	 *            the reader, positioned at the start of an object
+	 * @param schema
+	 *            the schema shared by the items of the response
+	 * @return the fields
+	 */
+	static EntityFields read(JsonReader reader, Schema schema) throws IOException {
+		EntityFields fields = new EntityFields(schema);
+		reader.beginObject();
+		while (reader.hasNext()) {
+			int slot = schema.slotOf(reader.nextName());
+			fields.ensureCapacity(slot + 1);
+
+			switch (reader.peek()) {
+			case STRING:
+				fields.mKinds[slot] = KIND_STRING;
+				fields.mObjects[slot] = reader.nextString();
+				break;
+			case NUMBER:
+				Object number = parseNumber(reader.nextString());
+				if (number instanceof Integer) {
+					fields.mKinds[slot] = KIND_INT;
+					fields.mScalars[slot] = (Integer) number;
+				} else if (number instanceof Long) {
+					fields.mKinds[slot] = KIND_LONG;
+					fields.mScalars[slot] = (Long) number;
+				} else {
+					fields.mKinds[slot] = KIND_DOUBLE;
+					fields.mScalars[slot] = Double.doubleToRawLongBits((Double) number);
+				}
+				break;
+			case BOOLEAN:
+				fields.mKinds[slot] = KIND_BOOLEAN;
+				fields.mScalars[slot] = reader.nextBoolean() ? 1 : 0;
+				break;
+			case NULL:
+				reader.nextNull();
+				fields.mKinds[slot] = KIND_NULL;
+				break;
+			default:
+				// lookups, deferred links and multi-value fields keep their
+				// org.json shape so getSubItems keeps working
+				fields.mKinds[slot] = KIND_OBJECT;
+				fields.mObjects[slot] = readJson(reader);
+				break;
+			}
+		}
+		reader.endObject();
+		return fields;
+	}
+
+	/**
+	 * Parses a JSON number literal the way org.json does: Integer, Long or
+	 * Double.
+	 */
+	static Object parseNumber(String text) {
+		if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+			try {
+				long value = Long.parseLong(text);
+				if (value == (int) value) {
+					return Integer.valueOf((int) value);
+				}
+				return Long.valueOf(value);
+			} catch (NumberFormatException e) {
+				// falls through to double for values beyond the long range
+			}
+		}
+		return Double.valueOf(text);
+	}
+
+	/**
+	 * Reads the next value into the types org.json uses: JSONObject,
+	 * JSONArray, String, Integer, Long, Double, Boolean or JSONObject.NULL.
+	 */
+	private static Object readJson(JsonReader reader) throws IOException {
+		try {
+			switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				JSONObject object = new JSONObject();
+				reader.beginObject();
+				while (reader.hasNext()) {
+					String name = reader.nextName();
+					object.put(name, readJson(reader));
+				}
+				reader.endObject();
+				return object;
+			case BEGIN_ARRAY:
+				JSONArray array = new JSONArray();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					array.put(readJson(reader));
+				}
+				reader.endArray();
+				return array;
+			case STRING:
+				return reader.nextString();
+			case NUMBER:
+				return parseNumber(reader.nextString());
+			case BOOLEAN:
+				return reader.nextBoolean();
+			case NULL:
+				reader.nextNull();
+				return JSONObject.NULL;
+			default:
+				throw new IOException("Expected a value but was " + reader.peek());
+			}
+		} catch (JSONException e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns true if the field is present.
+	 */
+	boolean has(String name) {
+		int index = mSchema.indexOf(name);
+		return index >= 0 && index < mKinds.length && mKinds[index] != KIND_ABSENT;
+	}
+
+	/**
+	 * Returns the field value boxed the way org.json would return it.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the field is not present
+	 */
+	Object get(String name) {
+		int index = mSchema.indexOf(name);
+		if (index < 0 || index >= mKinds.length || mKinds[index] == KIND_ABSENT) {
+			throw new IllegalArgumentException("Invalid field name " + name);
+		}
+		return valueAt(index);
+	}
+
+	/**
+	 * Builds the equivalent org.json object.
+	 */
+	JSONObject toJson() {
+		JSONObject json = new JSONObject();
+		try {
+			for (int i = 0; i < mKinds.length; i++) {
+				if (mKinds[i] != KIND_ABSENT) {
+					json.put(mSchema.nameAt(i), valueAt(i));
+				}
+			}
+		} catch (JSONException e) {
+			throw new IllegalStateException(e);
+		}
+		return json;
+	}
+
+	private Object valueAt(int index) {
+		switch (mKinds[index]) {
+		case KIND_INT:
+			return Integer.valueOf((int) mScalars[index]);
+		case KIND_LONG:
+			return Long.valueOf(mScalars[index]);
+		case KIND_DOUBLE:
+			return Double.valueOf(Double.longBitsToDouble(mScalars[index]));
+		case KIND_BOOLEAN:
+			return Boolean.valueOf(mScalars[index] != 0);
+		case KIND_NULL:
+			return JSONObject.NULL;
+		default:
+			return mObjects[index];
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if (size > mKinds.length) {
+			int newSize = Math.max(size, mKinds.length * 2);
+			mKinds = Arrays.copyOf(mKinds, newSize);
+			mScalars = Arrays.copyOf(mScalars, newSize);
+			mObjects = Arrays.copyOf(mObjects, newSize);
+		}
+	}
+}
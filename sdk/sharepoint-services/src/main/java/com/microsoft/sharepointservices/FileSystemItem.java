@@ -18,6 +18,9 @@ import org.json.JSONObject;
  */
 public class FileSystemItem extends OfficeEntity {
 
+	/** The metadata type of folders. */
+	static final String FOLDER_TYPE = "MS.FileServices.Folder";
+
 	/** The m values. */
 	private Map<String, Object> mValues = new HashMap<String, Object>();
 
@@ -52,6 +55,23 @@ public class FileSystemItem extends OfficeEntity {
 		return getData("Name").toString();
 	}
 
+	/**
+	 * Checks if the item is a folder.
+	 * 
+	 * @return true, if the item is a folder
+	 */
+	public boolean isFolder() {
+		if (!hasData("__metadata")) {
+			return false;
+		}
+
+		Object metadata = getData("__metadata");
+		if (metadata instanceof JSONObject) {
+			return FOLDER_TYPE.equals(((JSONObject) metadata).optString("type"));
+		}
+		return false;
+	}
+
 	/**
 	 * Gets the sub items.
 	 * 
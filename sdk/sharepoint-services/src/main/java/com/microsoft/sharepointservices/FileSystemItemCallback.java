@@ -0,0 +1,16 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+public interface FileSystemItemCallback {
+	/**
+	 * Callback invoked for each item found while walking a folder tree. Calls
+	 * are never concurrent, but they come from network threads.
+	 * @param item The file or folder
+	 * @param parentPath Path of the folder containing the item
+	 */
+	public void onItem(FileSystemItem item, String parentPath);
+}
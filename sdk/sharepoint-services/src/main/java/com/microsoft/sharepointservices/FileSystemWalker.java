@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+
+/**
+ * Walks a document library folder tree breadth first, reading folders in
+ * parallel with a bounded number of requests in flight.
+ */
+final class FileSystemWalker {
+
+	/**
+	 * The default number of folder requests in flight.
+	 */
+	static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+	private static final String CHILDREN_FIELD = "Children";
+
+	/**
+	 * A folder listing still to be requested.
+	 */
+	private static final class Listing {
+		final String mUrl;
+		final String mPath;
+
+		Listing(String url, String path) {
+			mUrl = url;
+			mPath = path;
+		}
+	}
+
+	private final DocLibClient mClient;
+	private final String mLibrary;
+	private final boolean mExpandChildren;
+	private final FileSystemItemCallback mCallback;
+
+	private final Object mLock = new Object();
+	private final Object mCallbackLock = new Object();
+	private final SettableFuture<Integer> mResult = SettableFuture.create();
+	private final BoundedTaskQueue<Listing> mQueue;
+	private int mItemCount;
+
+	FileSystemWalker(DocLibClient client, String library, int maxConcurrentRequests, boolean expandChildren,
+			FileSystemItemCallback callback) {
+		if (maxConcurrentRequests < 1) {
+			throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+		}
+		if (callback == null) {
+			throw new IllegalArgumentException("callback must not be null");
+		}
+
+		mClient = client;
+		mLibrary = library;
+		mExpandChildren = expandChildren;
+		mCallback = callback;
+		mQueue = new BoundedTaskQueue<Listing>(mLock, maxConcurrentRequests) {
+			@Override
+			protected void start(Listing listing) {
+				request(listing);
+			}
+
+			@Override
+			protected boolean canStart() {
+				return !mResult.isDone();
+			}
+
+			@Override
+			protected void onIdle() {
+				mResult.set(mItemCount);
+			}
+		};
+	}
+
+	ListenableFuture<Integer> start(String path) {
+		if (path == null) {
+			path = "";
+		}
+
+		mQueue.add(listingOf(path));
+		mQueue.pump();
+		return mResult;
+	}
+
+	private Listing listingOf(String path) {
+		String url = mClient.getChildrenUrl(path, mLibrary);
+		if (mExpandChildren) {
+			url += "?$expand=" + CHILDREN_FIELD;
+		}
+		return new Listing(url, path);
+	}
+
+	private void request(final Listing listing) {
+		ListenableFuture<OfficeEntityPage<FileSystemItem>> request = mClient.executeRequestPage(listing.mUrl,
+				FileSystemItem.class);
+
+		Futures.addCallback(request, new FutureCallback<OfficeEntityPage<FileSystemItem>>() {
+			@Override
+			public void onFailure(Throwable t) {
+				mResult.setException(t);
+			}
+
+			@Override
+			public void onSuccess(OfficeEntityPage<FileSystemItem> page) {
+				List<Listing> folders = new ArrayList<Listing>();
+				int count = 0;
+
+				try {
+					synchronized (mCallbackLock) {
+						for (FileSystemItem item : page.getItems()) {
+							count += visit(item, listing.mPath, true, folders);
+						}
+					}
+				} catch (RuntimeException e) {
+					mResult.setException(e);
+					return;
+				}
+
+				if (page.hasNextPage()) {
+					folders.add(new Listing(page.getNextLink(), listing.mPath));
+				}
+
+				synchronized (mLock) {
+					mItemCount += count;
+					mQueue.addAll(folders);
+				}
+				mQueue.completed();
+			}
+		});
+	}
+
+	/**
+	 * Reports an item and queues its folder listing, unless its children
+	 * came inline. Returns the number of items reported.
+	 */
+	private int visit(FileSystemItem item, String parentPath, boolean expandable, List<Listing> folders) {
+		if (mResult.isDone()) {
+			return 0;
+		}
+
+		mCallback.onItem(item, parentPath);
+		int count = 1;
+
+		if (item.isFolder()) {
+			String path = parentPath.length() == 0 ? item.getName() : parentPath + "/" + item.getName();
+
+			Object children = item.hasData(CHILDREN_FIELD) ? item.getData(CHILDREN_FIELD) : null;
+			if (expandable && children instanceof JSONObject && ((JSONObject) children).has("results")) {
+				for (FileSystemItem child : item.getSubItems(CHILDREN_FIELD)) {
+					count += visit(child, path, false, folders);
+				}
+			} else {
+				folders.add(listingOf(path));
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.services.odata.impl.RequestCoalescer;
+
+/**
+ * Caches the form digest of a site until shortly before it times out. Clients of the same
+ * site using the same credentials share a cache, and concurrent writers share a single
+ * contextinfo request. A digest close to its timeout is still handed out while a new one
+ * is requested in the background.
+ */
+class FormDigestCache {
+
+	// digests this close to their timeout are not sent anymore, they could expire in flight
+	private static final long EXPIRY_MARGIN_MILLIS = 30 * 1000;
+	private static final long REFRESH_AHEAD_MILLIS = 2 * 60 * 1000;
+
+	// one cache per site, so every load of this cache shares a key
+	private static final String LOAD_KEY = "contextinfo";
+
+	private static final Map<Credentials, Map<String, FormDigestCache>> sCaches =
+			new WeakHashMap<Credentials, Map<String, FormDigestCache>>();
+
+	/**
+	 * A form digest and the time it times out.
+	 */
+	static class FormDigest {
+		private final String mValue;
+		private final long mExpiresAt;
+
+		FormDigest(String value, long expiresAt) {
+			mValue = value;
+			mExpiresAt = expiresAt;
+		}
+
+		String getValue() {
+			return mValue;
+		}
+
+		long getExpiresAt() {
+			return mExpiresAt;
+		}
+	}
+
+	/**
+	 * Requests a new form digest from the server.
+	 */
+	interface Loader {
+		ListenableFuture<FormDigest> load();
+	}
+
+	private final RequestCoalescer<FormDigest> mLoads = new RequestCoalescer<FormDigest>();
+	private FormDigest mDigest;
+
+	/**
+	 * Gets the cache of a site, for the given credentials.
+	 *
+	 * @param credentials the credentials
+	 * @param siteUrl the site url
+	 * @return the form digest cache
+	 */
+	static FormDigestCache forSite(Credentials credentials, String siteUrl) {
+		synchronized (sCaches) {
+			Map<String, FormDigestCache> caches = sCaches.get(credentials);
+			if (caches == null) {
+				caches = new HashMap<String, FormDigestCache>();
+				sCaches.put(credentials, caches);
+			}
+
+			FormDigestCache cache = caches.get(siteUrl);
+			if (cache == null) {
+				cache = new FormDigestCache();
+				caches.put(siteUrl, cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Gets a form digest, from the cache when possible.
+	 *
+	 * @param loader the loader used when a new digest is needed
+	 * @return the listenable future
+	 */
+	ListenableFuture<String> get(Loader loader) {
+		String usable = null;
+
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			if (mDigest != null && now < mDigest.getExpiresAt() - EXPIRY_MARGIN_MILLIS) {
+				usable = mDigest.getValue();
+				if (now < mDigest.getExpiresAt() - REFRESH_AHEAD_MILLIS) {
+					return Futures.immediateFuture(usable);
+				}
+			}
+		}
+
+		ListenableFuture<FormDigest> load = load(loader);
+
+		if (usable != null) {
+			// the digest close to its timeout is used while the new one loads
+			return Futures.immediateFuture(usable);
+		}
+
+		return Futures.transform(load, new Function<FormDigest, String>() {
+			@Override
+			public String apply(FormDigest digest) {
+				return digest.getValue();
+			}
+		});
+	}
+
+	/**
+	 * Forgets a digest the server rejected, unless it was already replaced.
+	 *
+	 * @param digest the rejected digest
+	 */
+	synchronized void invalidate(String digest) {
+		if (mDigest != null && mDigest.getValue().equals(digest)) {
+			mDigest = null;
+		}
+	}
+
+	/**
+	 * Loads a new digest, or joins the load already in flight, and caches it once loaded.
+	 */
+	private ListenableFuture<FormDigest> load(final Loader loader) {
+		return mLoads.execute(LOAD_KEY, new Callable<ListenableFuture<FormDigest>>() {
+			@Override
+			public ListenableFuture<FormDigest> call() throws Exception {
+				ListenableFuture<FormDigest> future = loader.load();
+				Futures.addCallback(future, new FutureCallback<FormDigest>() {
+					@Override
+					public void onSuccess(FormDigest digest) {
+						synchronized (FormDigestCache.this) {
+							mDigest = digest;
+						}
+					}
+
+					@Override
+					public void onFailure(Throwable t) {
+						// the cached digest, if any, stays in use until it times out
+					}
+				});
+				return future;
+			}
+		});
+	}
+}
@@ -5,8 +5,10 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,12 +21,25 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.BoundedTaskQueue;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
+import com.microsoft.sharepointservices.http.Response;
 
 /**
  * The Class ListClient.
  */
 public class ListClient extends SharepointClient {
 
+	/**
+	 * The default number of items per $batch request.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/**
+	 * The default number of $batch requests in flight.
+	 */
+	public static final int DEFAULT_BATCH_PARALLELISM = 4;
+
     /**
      * Instantiates a new sharepoint lists client.
      *
@@ -121,30 +136,120 @@ public class ListClient extends SharepointClient {
      */
 	public ListenableFuture<List<SPListItem>> getListItems(String listName, Query query) {
 		final SettableFuture<List<SPListItem>> result = SettableFuture.create();
+		ListenableFuture<OfficeEntityPage<SPListItem>> request = getListItemsPage(listName, query);
 
-		String listNamePart = String.format("_api/web/lists/GetByTitle('%s')/Items?", urlEncode(listName));
-		String getListUrl = getSiteUrl() + listNamePart + generateODataQueryString(query);
-		ListenableFuture<JSONObject> request = executeRequestJson(getListUrl, "GET");
+		Futures.addCallback(request, new FutureCallback<OfficeEntityPage<SPListItem>>() {
+			@Override
+			public void onFailure(Throwable t) {
+				result.setException(t);
+			}
 
-		Futures.addCallback(request, new FutureCallback<JSONObject>() {
+			@Override
+			public void onSuccess(OfficeEntityPage<SPListItem> page) {
+				result.set(new ArrayList<SPListItem>(page.getItems()));
+			}
+		});
+
+		return result;
+	}
+
+    /**
+     * Gets the list items using a compiled query.
+     *
+     * @param listName the list name
+     * @param query the compiled query, with every parameter bound
+     * @return the list items
+     */
+	public ListenableFuture<List<SPListItem>> getListItems(String listName, CompiledQuery query) {
+		final SettableFuture<List<SPListItem>> result = SettableFuture.create();
+		ListenableFuture<OfficeEntityPage<SPListItem>> request = getListItemsPage(listName, query);
+
+		Futures.addCallback(request, new FutureCallback<OfficeEntityPage<SPListItem>>() {
 			@Override
 			public void onFailure(Throwable t) {
 				result.setException(t);
 			}
 
 			@Override
-			public void onSuccess(JSONObject json) {
-				try {
-					result.set(SPListItem.listFromJson(json));
-				} catch (JSONException e) {
-					log(e);
-				}
+			public void onSuccess(OfficeEntityPage<SPListItem> page) {
+				result.set(new ArrayList<SPListItem>(page.getItems()));
 			}
 		});
 
 		return result;
 	}
 
+    /**
+     * Gets the first page of list items. The items are parsed as the response
+     * streams in, and the page carries the __next link to the following page.
+     *
+     * @param listName the list name
+     * @param query the query
+     * @return the list items page
+     */
+	public ListenableFuture<OfficeEntityPage<SPListItem>> getListItemsPage(String listName, Query query) {
+		return getListItemsPage(listName, query == null ? null : query.compile());
+	}
+
+    /**
+     * Gets the first page of list items using a compiled query.
+     *
+     * @param listName the list name
+     * @param query the compiled query, with every parameter bound
+     * @return the list items page
+     */
+	public ListenableFuture<OfficeEntityPage<SPListItem>> getListItemsPage(String listName, CompiledQuery query) {
+		String listNamePart = String.format("_api/web/lists/GetByTitle('%s')/Items?", urlEncode(listName));
+		String getListUrl = getSiteUrl() + listNamePart + generateODataQueryString(query);
+		return executeRequestPage(getListUrl, SPListItem.class);
+	}
+
+    /**
+     * Gets the page of list items following the given one.
+     *
+     * @param page the current page
+     * @return the next list items page
+     */
+	public ListenableFuture<OfficeEntityPage<SPListItem>> getNextListItemsPage(OfficeEntityPage<SPListItem> page) {
+		if (page == null || !page.hasNextPage()) {
+			throw new IllegalArgumentException("page has no next page");
+		}
+		return executeRequestPage(page.getNextLink(), SPListItem.class);
+	}
+
+    /**
+     * Iterates over every item of a list, following the __next links. The
+     * following page is prefetched while the current one is read.
+     *
+     * @param listName the list name
+     * @param query the query
+     * @return the list items iterator
+     */
+	public PagedEntityIterator<SPListItem> iterateListItems(String listName, Query query) {
+		return iterateListItems(listName, query, PagedEntityIterator.DEFAULT_MAX_BUFFERED_PAGES);
+	}
+
+    /**
+     * Iterates over every item of a list, following the __next links.
+     *
+     * @param listName the list name
+     * @param query the query
+     * @param maxBufferedPages the maximum number of pages loaded ahead of the reader
+     * @return the list items iterator
+     */
+	public PagedEntityIterator<SPListItem> iterateListItems(final String listName, final Query query,
+			int maxBufferedPages) {
+		return new PagedEntityIterator<SPListItem>(new PagedEntityIterator.PageLoader<SPListItem>() {
+			@Override
+			public ListenableFuture<OfficeEntityPage<SPListItem>> load(String nextLink) {
+				if (nextLink == null) {
+					return getListItemsPage(listName, query);
+				}
+				return executeRequestPage(nextLink, SPListItem.class);
+			}
+		}, maxBufferedPages);
+	}
+
     /**
      * Gets the list fields.
      *
@@ -192,24 +297,7 @@ public class ListClient extends SharepointClient {
 		getListUrl = String.format(getListUrl, urlEncode(list.getTitle()));
 
 		try {
-			JSONObject payload = new JSONObject();
-			JSONObject metadata = new JSONObject();
-			metadata.put("type", list.getListItemEntityTypeFullName());
-			payload.put("__metadata", metadata);
-
-			for (String key : listItem.getValues().keySet()) {
-
-				Object object = listItem.getValues().get(key);
-				// we assume you're trying to store a value on a linked
-				// sharepoint list
-				if (object instanceof JSONArray) {
-					JSONObject container = new JSONObject();
-					container.put("results", object);
-					payload.put(key + "Id", container);
-				} else {
-					payload.put(key, object);
-				}
-			}
+			JSONObject payload = buildItemPayload(listItem, list);
 
 			ListenableFuture<JSONObject> request = executeRequestJsonWithDigest(getListUrl, "POST", null,
 					getBytes(payload.toString()));
@@ -246,23 +334,7 @@ public class ListClient extends SharepointClient {
 		getListUrl = String.format(getListUrl, urlEncode(list.getTitle()));
 
 		try {
-			JSONObject payload = new JSONObject();
-			JSONObject metadata = new JSONObject();
-			metadata.put("type", list.getListItemEntityTypeFullName());
-			payload.put("__metadata", metadata);
-
-			for (String key : listItem.getValues().keySet()) {
-				Object object = listItem.getValues().get(key);
-				// we assume you're trying to store a value on a linked
-				// sharepoint list
-				if (object instanceof JSONArray) {
-					JSONObject container = new JSONObject();
-					container.put("results", object);
-					payload.put(key + "Id", container);
-				} else {
-					payload.put(key, object);
-				}
-			}
+			JSONObject payload = buildItemPayload(listItem, list);
 
 			Map<String, String> headers = new HashMap<String, String>();
 			headers.put("X-HTTP-Method", "MERGE");
@@ -328,6 +400,115 @@ public class ListClient extends SharepointClient {
 	}
 
 
+    /**
+     * Inserts list items using $batch requests of {@link #DEFAULT_BATCH_SIZE} items, with up to
+     * {@link #DEFAULT_BATCH_PARALLELISM} requests in flight.
+     *
+     * @param listItems the list items
+     * @param list the list
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> insertListItems(List<SPListItem> listItems, SPList list) {
+		return insertListItems(listItems, list, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_PARALLELISM);
+	}
+
+    /**
+     * Inserts list items using $batch requests.
+     *
+     * @param listItems the list items
+     * @param list the list
+     * @param batchSize the maximum number of items per batch request
+     * @param parallelism the maximum number of batch requests in flight
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> insertListItems(List<SPListItem> listItems, final SPList list,
+			int batchSize, int parallelism) {
+		final String itemsUrl = getSiteUrl()
+				+ String.format("_api/web/lists/GetByTitle('%s')/Items", urlEncode(list.getTitle()));
+
+		return new BulkOperation(listItems, batchSize) {
+			@Override
+			void addOperation(BatchRequest batch, SPListItem listItem) throws JSONException {
+				batch.addOperation("POST", itemsUrl, null, buildItemPayload(listItem, list).toString());
+			}
+		}.start(parallelism);
+	}
+
+    /**
+     * Updates list items using $batch requests of {@link #DEFAULT_BATCH_SIZE} items, with up to
+     * {@link #DEFAULT_BATCH_PARALLELISM} requests in flight.
+     *
+     * @param listItems the list items
+     * @param list the list
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> updateListItems(List<SPListItem> listItems, SPList list) {
+		return updateListItems(listItems, list, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_PARALLELISM);
+	}
+
+    /**
+     * Updates list items using $batch requests.
+     *
+     * @param listItems the list items
+     * @param list the list
+     * @param batchSize the maximum number of items per batch request
+     * @param parallelism the maximum number of batch requests in flight
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> updateListItems(List<SPListItem> listItems, final SPList list,
+			int batchSize, int parallelism) {
+		final String itemsUrl = getSiteUrl()
+				+ String.format("_api/web/lists/GetByTitle('%s')/items(", urlEncode(list.getTitle()));
+		final Map<String, String> headers = new HashMap<String, String>();
+		headers.put("X-HTTP-Method", "MERGE");
+		headers.put("If-Match", "*");
+
+		return new BulkOperation(listItems, batchSize) {
+			@Override
+			void addOperation(BatchRequest batch, SPListItem listItem) throws JSONException {
+				batch.addOperation("POST", itemsUrl + listItem.getId() + ")", headers,
+						buildItemPayload(listItem, list).toString());
+			}
+		}.start(parallelism);
+	}
+
+    /**
+     * Deletes list items using $batch requests of {@link #DEFAULT_BATCH_SIZE} items, with up to
+     * {@link #DEFAULT_BATCH_PARALLELISM} requests in flight.
+     *
+     * @param listItems the list items
+     * @param listName the list name
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> deleteListItems(List<SPListItem> listItems, String listName) {
+		return deleteListItems(listItems, listName, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_PARALLELISM);
+	}
+
+    /**
+     * Deletes list items using $batch requests.
+     *
+     * @param listItems the list items
+     * @param listName the list name
+     * @param batchSize the maximum number of items per batch request
+     * @param parallelism the maximum number of batch requests in flight
+     * @return the result of each item, in the order of the items
+     */
+	public ListenableFuture<List<ListItemBatchResult>> deleteListItems(List<SPListItem> listItems, String listName,
+			int batchSize, int parallelism) {
+		final String itemsUrl = getSiteUrl()
+				+ String.format("_api/web/lists/GetByTitle('%s')/items(", urlEncode(listName));
+		final Map<String, String> headers = new HashMap<String, String>();
+		headers.put("X-HTTP-Method", "DELETE");
+		headers.put("If-Match", "*");
+
+		return new BulkOperation(listItems, batchSize) {
+			@Override
+			void addOperation(BatchRequest batch, SPListItem listItem) {
+				batch.addOperation("POST", itemsUrl + listItem.getId() + ")", headers, null);
+			}
+		}.start(parallelism);
+	}
+
     /**
      * Gets columns from default view.
      *
@@ -392,6 +573,169 @@ public class ListClient extends SharepointClient {
 		return result;
 	}
 
+	/**
+	 * Builds the JSON payload used to insert or update a list item.
+	 * 
+	 * @param listItem
+	 *            the list item
+	 * @param list
+	 *            the list
+	 * @return the payload
+	 */
+	private JSONObject buildItemPayload(SPListItem listItem, SPList list) throws JSONException {
+		JSONObject payload = new JSONObject();
+		JSONObject metadata = new JSONObject();
+		metadata.put("type", list.getListItemEntityTypeFullName());
+		payload.put("__metadata", metadata);
+
+		for (String key : listItem.getValues().keySet()) {
+			Object object = listItem.getValues().get(key);
+			// we assume you're trying to store a value on a linked
+			// sharepoint list
+			if (object instanceof JSONArray) {
+				JSONObject container = new JSONObject();
+				container.put("results", object);
+				payload.put(key + "Id", container);
+			} else {
+				payload.put(key, object);
+			}
+		}
+		return payload;
+	}
+
+	/**
+	 * Runs one operation per item, packed into $batch requests, and collects
+	 * the result of every item. Batches are started as earlier ones complete,
+	 * so at most the requested number are in flight. Cancelling the returned
+	 * future stops starting new batches.
+	 */
+	private abstract class BulkOperation {
+		private final List<SPListItem> mItems;
+		private final int mBatchSize;
+		private final int mBatchCount;
+		private final ListItemBatchResult[] mResults;
+		private final Object mLock = new Object();
+		private final SettableFuture<List<ListItemBatchResult>> mResult = SettableFuture.create();
+		private BoundedTaskQueue<Integer> mQueue;
+
+		BulkOperation(List<SPListItem> items, int batchSize) {
+			if (items == null) {
+				throw new IllegalArgumentException("listItems must not be null");
+			}
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("batchSize must be at least 1");
+			}
+
+			mItems = new ArrayList<SPListItem>(items);
+			mBatchSize = batchSize;
+			mBatchCount = (mItems.size() + batchSize - 1) / batchSize;
+			mResults = new ListItemBatchResult[mItems.size()];
+		}
+
+		abstract void addOperation(BatchRequest batch, SPListItem listItem) throws JSONException;
+
+		ListenableFuture<List<ListItemBatchResult>> start(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException("parallelism must be at least 1");
+			}
+
+			mQueue = new BoundedTaskQueue<Integer>(mLock, parallelism) {
+				@Override
+				protected void start(Integer batchIndex) {
+					runBatch(batchIndex);
+				}
+
+				@Override
+				protected boolean canStart() {
+					return !mResult.isDone();
+				}
+
+				@Override
+				protected void onIdle() {
+					if (!mResult.isDone()) {
+						mResult.set(Arrays.asList(mResults));
+					}
+				}
+			};
+
+			for (int i = 0; i < mBatchCount; i++) {
+				mQueue.add(i);
+			}
+			mQueue.pump();
+			return mResult;
+		}
+
+		private void runBatch(int batchIndex) {
+			int from = batchIndex * mBatchSize;
+			int to = Math.min(from + mBatchSize, mItems.size());
+
+			final BatchRequest batch = new BatchRequest();
+			final List<Integer> indexes = new ArrayList<Integer>();
+			for (int i = from; i < to; i++) {
+				try {
+					addOperation(batch, mItems.get(i));
+					indexes.add(i);
+				} catch (JSONException e) {
+					mResults[i] = new ListItemBatchResult(mItems.get(i), -1, null, e);
+				}
+			}
+
+			if (indexes.isEmpty()) {
+				mQueue.completed();
+				return;
+			}
+
+			Map<String, String> headers = new HashMap<String, String>();
+			headers.put("Content-Type", batch.getContentType());
+
+			ListenableFuture<String> request = executeRequestWithDigest(getSiteUrl() + "_api/$batch", "POST",
+					headers, getBytes(batch.getBody()), new ResponseReader<String>() {
+						@Override
+						public String read(Response response) throws IOException {
+							return new String(response.readAllBytes(), Constants.UTF8_NAME);
+						}
+					});
+
+			Futures.addCallback(request, new FutureCallback<String>() {
+				@Override
+				public void onFailure(Throwable t) {
+					for (int index : indexes) {
+						mResults[index] = new ListItemBatchResult(mItems.get(index), -1, null, t);
+					}
+					mQueue.completed();
+				}
+
+				@Override
+				public void onSuccess(String content) {
+					try {
+						List<BatchRequest.Part> parts = BatchRequest.parseResponse(content);
+						for (int i = 0; i < indexes.size(); i++) {
+							int index = indexes.get(i);
+							SPListItem listItem = mItems.get(index);
+							if (i >= parts.size()) {
+								mResults[index] = new ListItemBatchResult(listItem, -1, null,
+										new IOException("No response for the item in the batch response"));
+								continue;
+							}
+
+							BatchRequest.Part part = parts.get(i);
+							Throwable error = null;
+							if (!isValidStatus(part.getStatusCode())) {
+								error = new InvalidHttpStatusCodeException(part.getStatusCode(), part.getContent(), "");
+							}
+							mResults[index] = new ListItemBatchResult(listItem, part.getStatusCode(),
+									part.getContent(), error);
+						}
+					} catch (IOException e) {
+						onFailure(e);
+						return;
+					}
+					mQueue.completed();
+				}
+			});
+		}
+	}
+
 	/**
 	 * Gets the bytes from a given string.
 	 * 
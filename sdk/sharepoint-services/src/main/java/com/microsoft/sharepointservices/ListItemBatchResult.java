@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+/**
+ * The outcome of one list item of a bulk insert, update or delete.
+ */
+public class ListItemBatchResult {
+
+	private final SPListItem mItem;
+	private final int mStatusCode;
+	private final String mResponseContent;
+	private final Throwable mError;
+
+	/**
+	 * Instantiates a new list item batch result.
+	 *
+	 * @param item
+	 *            the item
+	 * @param statusCode
+	 *            the status code of the item operation, or -1 if the batch
+	 *            request itself failed
+	 * @param responseContent
+	 *            the response content of the item operation
+	 * @param error
+	 *            the error, or null on success
+	 */
+	public ListItemBatchResult(SPListItem item, int statusCode, String responseContent, Throwable error) {
+		mItem = item;
+		mStatusCode = statusCode;
+		mResponseContent = responseContent;
+		mError = error;
+	}
+
+	/**
+	 * Gets the item.
+	 *
+	 * @return the item
+	 */
+	public SPListItem getItem() {
+		return mItem;
+	}
+
+	/**
+	 * Checks if the operation succeeded.
+	 *
+	 * @return true, if successful
+	 */
+	public boolean isSuccess() {
+		return mError == null;
+	}
+
+	/**
+	 * Gets the status code.
+	 *
+	 * @return the status code, or -1 if the batch request itself failed
+	 */
+	public int getStatusCode() {
+		return mStatusCode;
+	}
+
+	/**
+	 * Gets the response content. For inserts it holds the created item.
+	 *
+	 * @return the response content
+	 */
+	public String getResponseContent() {
+		return mResponseContent;
+	}
+
+	/**
+	 * Gets the error.
+	 *
+	 * @return the error, or null on success
+	 */
+	public Throwable getError() {
+		return mError;
+	}
+}
@@ -17,6 +17,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.microsoft.sharepointservices.http.HttpConnection;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
 import com.microsoft.sharepointservices.http.Request;
 import com.microsoft.sharepointservices.http.Response;
 
@@ -118,11 +119,20 @@ public class OfficeClient {
      * @return the string
      */
     protected String generateODataQueryString(Query query) {
+		return generateODataQueryString(query == null ? null : query.compile());
+	}
+
+    /**
+     * Generate o data query string.
+     *
+     * @param query the compiled query, with every parameter bound
+     * @return the string
+     */
+    protected String generateODataQueryString(CompiledQuery query) {
 		StringBuilder sb = new StringBuilder();
 		if (query != null) {
-			query.ensureIdProperty();
 			sb.append("$filter=");
-			sb.append(queryEncode(query.toString()));
+			sb.append(queryEncode(query.getFilter()));
 
 			String rowSetModifiers = query.getRowSetModifiers().trim();
 			if (!rowSetModifiers.equals("")) {
@@ -158,8 +168,82 @@ public class OfficeClient {
      */
     protected ListenableFuture<byte[]> executeRequest(String url, String method, Map<String, String> headers,
 			byte[] payload) {
-		HttpConnection connection = Platform.createHttpConnection();
+		return executeRequest(url, method, headers, payload, new ResponseReader<byte[]>() {
+			@Override
+			public byte[] read(Response response) throws IOException {
+				return response.readAllBytes();
+			}
+		});
+	}
+
+    /**
+     * Execute request and read an entity page from the response stream, without
+     * buffering the content.
+     *
+     * @param <E> the entity type
+     * @param url the url
+     * @param clazz the entity class
+     * @return the listenable future
+     */
+    protected <E extends OfficeEntity> ListenableFuture<OfficeEntityPage<E>> executeRequestPage(String url,
+			final Class<E> clazz) {
+		return executeRequest(url, "GET", null, null, new ResponseReader<OfficeEntityPage<E>>() {
+			@Override
+			public OfficeEntityPage<E> read(Response response) throws IOException {
+				return OfficeEntity.pageFromStream(response.getStream(), clazz);
+			}
+		});
+	}
+
+    /**
+     * Reads the content of a successful response.
+     *
+     * @param <T> the result type
+     */
+    protected interface ResponseReader<T> {
+
+        /**
+         * Read the response.
+         *
+         * @param response the response
+         * @return the result
+         * @throws IOException if the content can not be read
+         */
+        T read(Response response) throws IOException;
+    }
 
+    /**
+     * Reads a response as JSON. Empty responses are read as null.
+     */
+    protected static final ResponseReader<JSONObject> JSON_RESPONSE_READER = new ResponseReader<JSONObject>() {
+		@Override
+		public JSONObject read(Response response) throws IOException {
+			String string = new String(response.readAllBytes(), Constants.UTF8_NAME);
+			if (string.length() == 0) {
+				return null;
+			}
+
+			try {
+				return new JSONObject(string);
+			} catch (JSONException e) {
+				throw new IOException("Invalid JSON response: " + e.getMessage());
+			}
+		}
+	};
+
+    /**
+     * Execute request.
+     *
+     * @param <T> the result type
+     * @param url the url
+     * @param method the method
+     * @param headers the headers
+     * @param payload the payload
+     * @param reader reads the content of a successful response
+     * @return the listenable future
+     */
+    protected <T> ListenableFuture<T> executeRequest(String url, String method, Map<String, String> headers,
+			byte[] payload, final ResponseReader<T> reader) {
 		Request request = new Request(method);
 
 		if (headers != null) {
@@ -170,12 +254,25 @@ public class OfficeClient {
 
 		request.setUrl(url);
 		request.setContent(payload);
+		return executeRequest(request, reader);
+	}
+
+    /**
+     * Execute request.
+     *
+     * @param <T> the result type
+     * @param request the request, with its url, headers and content set
+     * @param reader reads the content of a successful response
+     * @return the listenable future
+     */
+    protected <T> ListenableFuture<T> executeRequest(Request request, final ResponseReader<T> reader) {
+		HttpConnection connection = Platform.createHttpConnection();
 		prepareRequest(request);
 
-		log("Generate request for " + url, LogLevel.Verbose);
+		log("Generate request for " + request.getUrl(), LogLevel.Verbose);
 		request.log(getLogger());
 
-		final SettableFuture<byte[]> result = SettableFuture.create();
+		final SettableFuture<T> result = SettableFuture.create();
 		final ListenableFuture<Response> future = connection.execute(request);
 
 		Futures.addCallback(future, new FutureCallback<Response>() {
@@ -189,14 +286,17 @@ public class OfficeClient {
 				try {
 					int statusCode = response.getStatus();
 					if (isValidStatus(statusCode)) {
-						byte[] responseContentBytes = response.readAllBytes();
-						result.set(responseContentBytes);
+						result.set(reader.read(response));
 					} else {
-						result.setException(new Exception("Invalid status code " + statusCode + ": "
-								+ response.readToEnd()));
+						result.setException(new InvalidHttpStatusCodeException(statusCode, response.readToEnd(),
+								String.valueOf(response.getHeaders())));
 					}
 				} catch (IOException e) {
 					log(e);
+					result.setException(e);
+				} catch (RuntimeException e) {
+					log(e);
+					result.setException(e);
 				}
 			}
 		});
@@ -304,11 +404,10 @@ public class OfficeClient {
 		request.addHeader("Accept", "application/json;odata=verbose");
 		request.addHeader("X-ClientService-ClientTag", "SDK-JAVA");
 		
-		int contentLength = 0;
-		if (request.getContent() != null) {
-			contentLength = request.getContent().length;
+		long contentLength = request.getContentLength();
+		if (contentLength >= 0) {
+			request.addHeader("Content-Length", String.valueOf(contentLength));
 		}
-		request.addHeader("Content-Length", String.valueOf(contentLength));
 		mCredentials.prepareRequest(request);
 	}
 
@@ -5,6 +5,8 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,12 +22,18 @@ public abstract class OfficeEntity {
 	/** The m json data. */
 	private JSONObject mJsonData;
 
+	/** The m fields, set when the entity was read from a response stream. */
+	private EntityFields mFields;
+
 	/**
 	 * Gets the json data.
 	 * 
 	 * @return the json data
 	 */
 	protected JSONObject getJsonData() {
+		if (mJsonData == null && mFields != null) {
+			mJsonData = mFields.toJson();
+		}
 		return mJsonData;
 	}
 
@@ -71,6 +79,29 @@ public abstract class OfficeEntity {
 		return list;
 	}
 
+	/**
+	 * Page from stream.
+	 * 
+	 * @param <E>
+	 *            the element type
+	 * @param stream
+	 *            the response stream
+	 * @param clazz
+	 *            the clazz
+	 * @return the page
+	 * @throws java.io.IOException
+	 *             if the response is not valid JSON
+	 */
+	protected static <E extends OfficeEntity> OfficeEntityPage<E> pageFromStream(InputStream stream,
+			Class<E> clazz) throws IOException {
+		OfficeEntityReader<E> reader = new OfficeEntityReader<E>(stream, clazz);
+		try {
+			return reader.readPage();
+		} finally {
+			reader.close();
+		}
+	}
+
 	/**
 	 * Load from json.
 	 * 
@@ -79,6 +110,18 @@ public abstract class OfficeEntity {
 	 */
 	public void loadFromJson(JSONObject json) {
 		mJsonData = json;
+		mFields = null;
+	}
+
+	/**
+	 * Load from fields read by an {@link OfficeEntityReader}.
+	 * 
+	 * @param fields
+	 *            the fields
+	 */
+	void loadFromFields(EntityFields fields) {
+		mFields = fields;
+		mJsonData = null;
 	}
 
 	/**
@@ -111,6 +154,10 @@ public abstract class OfficeEntity {
 	 * @return the data
 	 */
 	public Object getData(String field) {
+		if (mFields != null) {
+			return mFields.get(field);
+		}
+
 		try {
 			JSONObject innerJson;
 			if (mJsonData.has("d")) {
@@ -124,10 +171,30 @@ public abstract class OfficeEntity {
 		}
 	}
 
+	/**
+	 * Checks if the entity has a value for a field.
+	 * 
+	 * @param field
+	 *            the field
+	 * @return true, if the field is present
+	 */
+	public boolean hasData(String field) {
+		if (mFields != null) {
+			return mFields.has(field);
+		}
+
+		if (mJsonData == null) {
+			return false;
+		}
+
+		JSONObject innerJson = mJsonData.optJSONObject("d");
+		return innerJson != null ? innerJson.has(field) : mJsonData.has(field);
+	}
+
 	@Override
 	public String toString() {
-		if (mJsonData != null) {
-			return mJsonData.toString();
+		if (getJsonData() != null) {
+			return getJsonData().toString();
 		}
 		return super.toString();
 	}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a collection response, with the link to the next page.
+ *
+ * @param <E>
+ *            the entity type
+ */
+public class OfficeEntityPage<E extends OfficeEntity> {
+
+	private final List<E> mItems;
+	private final String mNextLink;
+
+	/**
+	 * Instantiates a new page.
+	 *
+	 * @param items
+	 *            the items
+	 * @param nextLink
+	 *            the next link, or null for the last page
+	 */
+	public OfficeEntityPage(List<E> items, String nextLink) {
+		mItems = Collections.unmodifiableList(items);
+		mNextLink = nextLink;
+	}
+
+	/**
+	 * Gets the items.
+	 *
+	 * @return the items
+	 */
+	public List<E> getItems() {
+		return mItems;
+	}
+
+	/**
+	 * Gets the next link.
+	 *
+	 * @return the next link, or null for the last page
+	 */
+	public String getNextLink() {
+		return mNextLink;
+	}
+
+	/**
+	 * Checks for a next page.
+	 *
+	 * @return true, if there is a next page
+	 */
+	public boolean hasNextPage() {
+		return mNextLink != null && mNextLink.length() > 0;
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads the entities of a collection response one at a time, straight from
+ * the response stream. Each entity keeps its fields in compact typed slots
+ * instead of an org.json tree.
+ *
+ * @param <E>
+ *            the entity type
+ */
+public class OfficeEntityReader<E extends OfficeEntity> implements Iterator<E>, Closeable {
+
+	private static final String NEXT_LINK = "__next";
+	private static final String ODATA_NEXT_LINK = "odata.nextLink";
+
+	private final JsonReader mReader;
+	private final Constructor<E> mConstructor;
+	private final EntityFields.Schema mSchema = new EntityFields.Schema();
+
+	private String mNextLink;
+	private int mOpenObjects;
+	private boolean mInResults;
+	private boolean mFinished;
+
+	/**
+	 * Instantiates a new entity reader.
+	 *
+	 * @param stream
+	 *            the response stream, in UTF-8
+	 * @param clazz
+	 *            the entity class. It must have a no-argument constructor.
+	 */
+	public OfficeEntityReader(InputStream stream, Class<E> clazz) {
+		if (stream == null) {
+			throw new IllegalArgumentException("stream must not be null");
+		}
+		if (clazz == null) {
+			throw new IllegalArgumentException("clazz must not be null");
+		}
+
+		try {
+			mConstructor = clazz.getDeclaredConstructor();
+			mConstructor.setAccessible(true);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(clazz.getName() + " must have a no-argument constructor", e);
+		}
+
+		mReader = new JsonReader(new InputStreamReader(stream, Constants.UTF8));
+	}
+
+	/**
+	 * Gets the continuation link of the collection, or null if this was the
+	 * last page. SharePoint writes it after the results, so it is only
+	 * reliable once every entity has been read.
+	 *
+	 * @return the next link
+	 */
+	public String getNextLink() {
+		return mNextLink;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			if (!mInResults && !mFinished) {
+				seekResults();
+			}
+			if (mInResults && !mReader.hasNext()) {
+				mReader.endArray();
+				mInResults = false;
+				finish();
+			}
+			return mInResults;
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to read the response", e);
+		}
+	}
+
+	@Override
+	public E next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		try {
+			E entity = mConstructor.newInstance();
+			entity.loadFromFields(EntityFields.read(mReader, mSchema));
+			return entity;
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to read the response", e);
+		} catch (Exception e) {
+			throw new IllegalStateException("Unable to create " + mConstructor.getDeclaringClass().getName(), e);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Reads the remaining entities and the continuation link.
+	 *
+	 * @return the page
+	 * @throws IOException
+	 *             if the response is not valid JSON
+	 */
+	public OfficeEntityPage<E> readPage() throws IOException {
+		List<E> items = new ArrayList<E>();
+		try {
+			while (hasNext()) {
+				items.add(next());
+			}
+		} catch (IllegalStateException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+		return new OfficeEntityPage<E>(items, mNextLink);
+	}
+
+	@Override
+	public void close() throws IOException {
+		mFinished = true;
+		mInResults = false;
+		mReader.close();
+	}
+
+	/**
+	 * Walks down the "d" wrapper to the "results" (or "value") array, picking
+	 * up the next link on the way.
+	 */
+	private void seekResults() throws IOException {
+		if (mOpenObjects == 0) {
+			if (mReader.peek() != JsonToken.BEGIN_OBJECT) {
+				mFinished = true;
+				return;
+			}
+			mReader.beginObject();
+			mOpenObjects++;
+		}
+
+		while (mOpenObjects > 0) {
+			if (!mReader.hasNext()) {
+				mReader.endObject();
+				mOpenObjects--;
+				continue;
+			}
+
+			String name = mReader.nextName();
+			JsonToken token = mReader.peek();
+			if ("d".equals(name) && token == JsonToken.BEGIN_OBJECT) {
+				mReader.beginObject();
+				mOpenObjects++;
+			} else if (("results".equals(name) || "value".equals(name))
+					&& token == JsonToken.BEGIN_ARRAY && !mFinished) {
+				mReader.beginArray();
+				mInResults = true;
+				return;
+			} else if ((NEXT_LINK.equals(name) || ODATA_NEXT_LINK.equals(name))
+					&& token == JsonToken.STRING) {
+				mNextLink = mReader.nextString();
+			} else {
+				mReader.skipValue();
+			}
+		}
+		mFinished = true;
+	}
+
+	/**
+	 * Reads whatever follows the results so the next link is not missed.
+	 */
+	private void finish() throws IOException {
+		mFinished = true;
+		seekResults();
+	}
+}
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Lazily iterates over every entity of a collection, following the __next
+ * links page by page. The next page is requested while the current one is
+ * being consumed, and at most a fixed number of pages are held ahead of the
+ * reader.
+ * <p>
+ * {@link #hasNext()} blocks while a page is loading, so do not iterate on the
+ * UI thread. Call {@link #cancel()} (or {@link #close()}) to stop early; the
+ * in-flight request is cancelled and the iterator reports no more items.
+ *
+ * @param <E>
+ *            the entity type
+ */
+public class PagedEntityIterator<E extends OfficeEntity> implements Iterator<E>, Closeable {
+
+	/**
+	 * The default number of pages buffered ahead of the reader.
+	 */
+	public static final int DEFAULT_MAX_BUFFERED_PAGES = 1;
+
+	/**
+	 * Loads one page of a collection.
+	 *
+	 * @param <E>
+	 *            the entity type
+	 */
+	public interface PageLoader<E extends OfficeEntity> {
+
+		/**
+		 * Load a page.
+		 *
+		 * @param nextLink
+		 *            the link returned with the previous page, or null for
+		 *            the first page
+		 * @return the page
+		 */
+		ListenableFuture<OfficeEntityPage<E>> load(String nextLink);
+	}
+
+	private final Object mLock = new Object();
+	private final PageLoader<E> mLoader;
+	private final int mMaxBufferedPages;
+	private final Queue<OfficeEntityPage<E>> mBuffered = new LinkedList<OfficeEntityPage<E>>();
+
+	private ListenableFuture<OfficeEntityPage<E>> mInFlight;
+	private String mNextLink;
+	private boolean mExhausted;
+	private boolean mCancelled;
+	private Throwable mError;
+	private Iterator<E> mCurrent;
+
+	/**
+	 * Instantiates a new paged entity iterator and requests the first page.
+	 *
+	 * @param loader
+	 *            the page loader
+	 */
+	public PagedEntityIterator(PageLoader<E> loader) {
+		this(loader, DEFAULT_MAX_BUFFERED_PAGES);
+	}
+
+	/**
+	 * Instantiates a new paged entity iterator and requests the first page.
+	 *
+	 * @param loader
+	 *            the page loader
+	 * @param maxBufferedPages
+	 *            the maximum number of pages loaded ahead of the page being
+	 *            read
+	 */
+	public PagedEntityIterator(PageLoader<E> loader, int maxBufferedPages) {
+		if (loader == null) {
+			throw new IllegalArgumentException("loader must not be null");
+		}
+		if (maxBufferedPages < 1) {
+			throw new IllegalArgumentException("maxBufferedPages must be at least 1");
+		}
+
+		mLoader = loader;
+		mMaxBufferedPages = maxBufferedPages;
+
+		synchronized (mLock) {
+			fetchIfNeeded();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalStateException
+	 *             if a page failed to load
+	 */
+	@Override
+	public boolean hasNext() {
+		if (isCancelled()) {
+			return false;
+		}
+
+		while (mCurrent == null || !mCurrent.hasNext()) {
+			OfficeEntityPage<E> page;
+			synchronized (mLock) {
+				while (mBuffered.isEmpty() && mInFlight != null && mError == null && !mCancelled) {
+					try {
+						mLock.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						cancel();
+					}
+				}
+
+				if (mCancelled) {
+					return false;
+				}
+				if (mBuffered.isEmpty() && mError != null) {
+					throw new IllegalStateException("Unable to load the next page", mError);
+				}
+
+				page = mBuffered.poll();
+				if (page == null) {
+					return false;
+				}
+
+				// room was freed, so the next page can start loading
+				fetchIfNeeded();
+			}
+			mCurrent = page.getItems().iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public E next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return mCurrent.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Cancels the iteration and any page request in flight.
+	 */
+	public void cancel() {
+		ListenableFuture<OfficeEntityPage<E>> inFlight;
+		synchronized (mLock) {
+			mCancelled = true;
+			mBuffered.clear();
+			inFlight = mInFlight;
+			mInFlight = null;
+			mLock.notifyAll();
+		}
+
+		if (inFlight != null) {
+			inFlight.cancel(true);
+		}
+	}
+
+	/**
+	 * Checks if the iteration was cancelled.
+	 *
+	 * @return true, if cancelled
+	 */
+	public boolean isCancelled() {
+		synchronized (mLock) {
+			return mCancelled;
+		}
+	}
+
+	/**
+	 * Gets the __next link of the most recently loaded page, or null once the
+	 * last page has loaded.
+	 *
+	 * @return the next link
+	 */
+	public String getNextLink() {
+		synchronized (mLock) {
+			return mExhausted ? null : mNextLink;
+		}
+	}
+
+	@Override
+	public void close() {
+		cancel();
+	}
+
+	/**
+	 * Starts loading the next page when the buffer has room. Must be called
+	 * while holding mLock.
+	 */
+	private void fetchIfNeeded() {
+		if (mInFlight != null || mExhausted || mCancelled || mError != null
+				|| mBuffered.size() >= mMaxBufferedPages) {
+			return;
+		}
+
+		final ListenableFuture<OfficeEntityPage<E>> future;
+		try {
+			future = mLoader.load(mNextLink);
+		} catch (RuntimeException e) {
+			mError = e;
+			mLock.notifyAll();
+			return;
+		}
+
+		mInFlight = future;
+		Futures.addCallback(future, new FutureCallback<OfficeEntityPage<E>>() {
+			@Override
+			public void onSuccess(OfficeEntityPage<E> page) {
+				synchronized (mLock) {
+					if (mInFlight != future) {
+						return;
+					}
+
+					mInFlight = null;
+					mBuffered.add(page);
+					if (page.hasNextPage()) {
+						mNextLink = page.getNextLink();
+					} else {
+						mExhausted = true;
+					}
+
+					fetchIfNeeded();
+					mLock.notifyAll();
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				synchronized (mLock) {
+					if (mInFlight != future) {
+						return;
+					}
+
+					mInFlight = null;
+					mError = t;
+					mLock.notifyAll();
+				}
+			}
+		});
+	}
+}
@@ -82,6 +82,11 @@ public final class Query {
 	 */
 	private List<Query> querySteps = new ArrayList<Query>();
 
+	/**
+	 * Name of the parameter this query stands for, if it is a placeholder
+	 */
+	private String mParameterName = null;
+
     /**
      * Ensure id property.
      */
@@ -129,6 +134,15 @@ public final class Query {
 		internalValues.add(query);
 	}
 
+    /**
+     * Makes the query a placeholder for a parameter value
+     *
+     * @param name The parameter name
+     */
+	void setParameterName(String name) {
+		mParameterName = name;
+	}
+
     /**
      * Adds an internal value to the query
      *
@@ -139,45 +153,128 @@ public final class Query {
 	}
 
 	/**
-	 * Returns the string representation of the query
+	 * Returns the string representation of the query. Parameters are
+	 * rendered as @name aliases; use {@link #compile()} to bind them.
 	 */
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
+		Writer writer = new Writer(false);
+		appendTo(writer);
+		return writer.toString();
+	}
 
-		if (getQueryText() != null) {
-			sb.append(getQueryText());
+    /**
+     * Compiles the query into an immutable form that renders in a single
+     * pass and can be cached and reused. Values for the {@link #param(String)}
+     * placeholders are supplied with {@link CompiledQuery#bind(String, Object)}.
+     * Later changes to this query or its sub-queries do not affect the
+     * compiled form.
+     *
+     * @return the compiled query
+     */
+	public CompiledQuery compile() {
+		ensureIdProperty();
+
+		Writer writer = new Writer(true);
+		appendTo(writer);
+		return writer.compile(getRowSetModifiers());
+	}
+
+	/**
+	 * Appends the query text to the writer, in a single pass over the query
+	 * tree.
+	 */
+	private void appendTo(Writer writer) {
+		int start = writer.length();
+
+		if (mParameterName != null) {
+			writer.appendParameter(mParameterName);
+		} else if (getQueryText() != null) {
+			writer.append(getQueryText());
 		}
 
 		if (internalValues.size() > 0) {
-			sb.append("(");
+			writer.append("(");
 
 			boolean first = true;
 			for (Query val : internalValues) {
 				if (first) {
 					first = false;
 				} else {
-					sb.append(",");
+					writer.append(",");
 				}
 
-				sb.append(val.toString());
+				val.appendTo(writer);
 			}
 
-			sb.append(")");
+			writer.append(")");
 		}
 
 		for (Query step : querySteps) {
-			// If the string is not empty and it doesn't end with space or
-			// if it ends with ")", then add a space
-			if ((!sb.toString().endsWith(" ") && sb.toString().length() > 0)
-					|| sb.toString().endsWith(")")) {
-				sb.append(" ");
+			// If this query rendered something that doesn't end with a
+			// space (which includes ending with ")"), then add a space
+			if (writer.length() > start && writer.lastChar() != ' ') {
+				writer.append(" ");
 			}
 
-			sb.append(step.toString());
+			step.appendTo(writer);
 		}
+	}
 
-		return sb.toString();
+	/**
+	 * Accumulates the rendered text, splitting it around parameters when
+	 * compiling.
+	 */
+	private static final class Writer {
+		private final StringBuilder mText = new StringBuilder();
+		private final List<String> mSegments;
+		private final List<String> mParameters;
+		private int mLength;
+		private char mLastChar;
+
+		Writer(boolean compiling) {
+			mSegments = compiling ? new ArrayList<String>() : null;
+			mParameters = compiling ? new ArrayList<String>() : null;
+		}
+
+		void append(String text) {
+			if (text.length() > 0) {
+				mText.append(text);
+				mLength += text.length();
+				mLastChar = text.charAt(text.length() - 1);
+			}
+		}
+
+		void appendParameter(String name) {
+			if (mSegments == null) {
+				append("@" + name);
+			} else {
+				mSegments.add(mText.toString());
+				mText.setLength(0);
+				mParameters.add(name);
+				mLength++;
+				mLastChar = '@';
+			}
+		}
+
+		int length() {
+			return mLength;
+		}
+
+		char lastChar() {
+			return mLastChar;
+		}
+
+		CompiledQuery compile(String rowSetModifiers) {
+			mSegments.add(mText.toString());
+			return new CompiledQuery(mSegments.toArray(new String[mSegments.size()]),
+					mParameters.toArray(new String[mParameters.size()]), rowSetModifiers);
+		}
+
+		@Override
+		public String toString() {
+			return mText.toString();
+		}
 	}
 
     /**
@@ -417,6 +514,18 @@ public final class Query {
 		return this;
 	}
 
+    /**
+     * Specifies a placeholder for a value bound after the query is compiled.
+     *
+     * @param name The parameter name
+     * @return Query query
+     * @see #compile()
+     */
+	public Query param(String name) {
+		this.querySteps.add(QueryOperations.param(name));
+		return this;
+	}
+
 	/****** Logical Operators ******/
 
     /**
@@ -79,7 +79,7 @@ public class QueryOperations {
 	 *            The string to sanitize
 	 * @return The sanitized string
 	 */
-	private static String sanitize(String s) {
+	static String sanitize(String s) {
 		if (s != null) {
 			return s.replace("'", "''");
 		} else {
@@ -173,6 +173,27 @@ public class QueryOperations {
 		return query;
 	}
 
+    /**
+     * Creates a Query representing a placeholder for a value bound after the
+     * query is compiled
+     *
+     * @param name the parameter name
+     * @return the Query
+     * @see Query#compile()
+     */
+	public static Query param(String name) {
+		if (name == null || name.trim().length() == 0) {
+			throw new InvalidParameterException(
+					"name cannot be null or empty");
+		}
+
+		Query query = new Query();
+
+		query.setParameterName(name);
+
+		return query;
+	}
+
 	/****** Logical Operators ******/
 
     /**
@@ -5,6 +5,7 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,13 +17,19 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.microsoft.sharepointservices.http.HttpConnection;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
 import com.microsoft.sharepointservices.http.Request;
 import com.microsoft.sharepointservices.http.Response;
 
 public class SharepointClient extends OfficeClient {
 
+	// SharePoint error code for "The security validation for this page is invalid"
+	private static final String INVALID_DIGEST_ERROR_CODE = "-2130575251";
+	private static final int DEFAULT_DIGEST_TIMEOUT_SECONDS = 1800;
+
 	private String mServerUrl;
 	private String mSiteRelativeUrl;
+	private FormDigestCache mFormDigestCache;
 
 	protected String getSiteUrl() {
 		return mServerUrl + mSiteRelativeUrl;
@@ -68,9 +75,26 @@ public class SharepointClient extends OfficeClient {
 		if (!mSiteRelativeUrl.endsWith("/") && mSiteRelativeUrl.length() > 0) {
 			mSiteRelativeUrl += "/";
 		}
+
+		mFormDigestCache = FormDigestCache.forSite(credentials, getSiteUrl());
 	}
 
+	/**
+	 * Gets the form digest of the site. Digests are cached until shortly before they time
+	 * out, and shared with the other clients of the site using the same credentials.
+	 * 
+	 * @return the form digest
+	 */
 	protected ListenableFuture<String> getFormDigest() {
+		return mFormDigestCache.get(new FormDigestCache.Loader() {
+			@Override
+			public ListenableFuture<FormDigestCache.FormDigest> load() {
+				return requestFormDigest();
+			}
+		});
+	}
+
+	private ListenableFuture<FormDigestCache.FormDigest> requestFormDigest() {
 
 		HttpConnection connection = Platform.createHttpConnection();
 		Request request = new Request("POST");
@@ -80,7 +104,8 @@ public class SharepointClient extends OfficeClient {
 		log("Generate request for getFormDigest", LogLevel.Verbose);
 		request.log(getLogger());
 
-		final SettableFuture<String> result = SettableFuture.create();
+		final SettableFuture<FormDigestCache.FormDigest> result = SettableFuture.create();
+		final long requestedAt = System.currentTimeMillis();
 		ListenableFuture<Response> future = connection.execute(request);
 
 		Futures.addCallback(future, new FutureCallback<Response>() {
@@ -96,18 +121,24 @@ public class SharepointClient extends OfficeClient {
 					if (isValidStatus(statusCode)) {
 						String responseContent = response.readToEnd();
 
-						JSONObject json = new JSONObject(responseContent);
+						JSONObject info = new JSONObject(responseContent)
+								.getJSONObject("d")
+								.getJSONObject("GetContextWebInformation");
+
+						int timeoutSeconds = info.optInt("FormDigestTimeoutSeconds",
+								DEFAULT_DIGEST_TIMEOUT_SECONDS);
 
-						result.set(json.getJSONObject("d")
-								.getJSONObject("GetContextWebInformation")
-								.getString("FormDigestValue"));
+						result.set(new FormDigestCache.FormDigest(
+								info.getString("FormDigestValue"),
+								requestedAt + timeoutSeconds * 1000L));
 					} else {
-						result.setException(new Exception(
-								"Invalid status code " + statusCode + ": "
-										+ response.readToEnd()));
+						result.setException(new InvalidHttpStatusCodeException(
+								statusCode, response.readToEnd(),
+								String.valueOf(response.getHeaders())));
 					}
 				} catch (Exception e) {
 					log(e);
+					result.setException(e);
 				}
 			}
 		});
@@ -131,8 +162,42 @@ public class SharepointClient extends OfficeClient {
 	protected ListenableFuture<JSONObject> executeRequestJsonWithDigest(
 			final String url, final String method,
 			final Map<String, String> headers, final byte[] payload) {
+		return executeRequestWithDigest(url, method, headers, payload, JSON_RESPONSE_READER);
+	}
+
+	/**
+	 * Execute request with digest. The JSON content type is used unless the
+	 * headers set one.
+	 * 
+	 * @param <T>
+	 *            the result type
+	 * @param url
+	 *            the url
+	 * @param method
+	 *            the method
+	 * @param headers
+	 *            the headers
+	 * @param payload
+	 *            the payload
+	 * @param reader
+	 *            reads the content of a successful response
+	 * @return the listenable future
+	 */
+	protected <T> ListenableFuture<T> executeRequestWithDigest(
+			final String url, final String method,
+			final Map<String, String> headers, final byte[] payload,
+			final ResponseReader<T> reader) {
+
+		final SettableFuture<T> result = SettableFuture.create();
+		executeRequestWithDigest(url, method, headers, payload, reader, false, result);
+		return result;
+	}
+
+	private <T> void executeRequestWithDigest(final String url,
+			final String method, final Map<String, String> headers,
+			final byte[] payload, final ResponseReader<T> reader,
+			final boolean retry, final SettableFuture<T> result) {
 
-		final SettableFuture<JSONObject> result = SettableFuture.create();
 		ListenableFuture<String> digestFuture = getFormDigest();
 
 		Futures.addCallback(digestFuture, new FutureCallback<String>() {
@@ -142,8 +207,10 @@ public class SharepointClient extends OfficeClient {
 			}
 
 			@Override
-			public void onSuccess(String digest) {
+			public void onSuccess(final String digest) {
 				Map<String, String> finalHeaders = new HashMap<String, String>();
+				finalHeaders.put("Content-Type",
+						"application/json;odata=verbose");
 
 				if (headers != null) {
 					for (String key : headers.keySet()) {
@@ -151,29 +218,110 @@ public class SharepointClient extends OfficeClient {
 					}
 				}
 
-				finalHeaders.put("Content-Type",
-						"application/json;odata=verbose");
 				finalHeaders.put("X-RequestDigest", digest);
 
-				ListenableFuture<JSONObject> request = executeRequestJson(url,
-						method, finalHeaders, payload);
+				ListenableFuture<T> request = executeRequest(url,
+						method, finalHeaders, payload, reader);
 
-				Futures.addCallback(request, new FutureCallback<JSONObject>() {
+				Futures.addCallback(request, new FutureCallback<T>() {
 					@Override
 					public void onFailure(Throwable t) {
+						if (!retry && isInvalidDigestError(t)) {
+							log("Form digest rejected, retrying with a new one", LogLevel.Information);
+							mFormDigestCache.invalidate(digest);
+							executeRequestWithDigest(url, method, headers, payload, reader, true, result);
+						} else {
+							result.setException(t);
+						}
+					}
+
+					@Override
+					public void onSuccess(T value) {
+						result.set(value);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Execute request with digest, streaming the payload. A stream can only be
+	 * sent once, so a rejected digest is refreshed for later requests but this
+	 * request is not retried.
+	 * 
+	 * @param <T>
+	 *            the result type
+	 * @param url
+	 *            the url
+	 * @param method
+	 *            the method
+	 * @param headers
+	 *            the headers
+	 * @param content
+	 *            the payload stream
+	 * @param length
+	 *            the payload length, or -1 if unknown
+	 * @param reader
+	 *            reads the content of a successful response
+	 * @return the listenable future
+	 */
+	protected <T> ListenableFuture<T> executeRequestWithDigest(
+			final String url, final String method,
+			final Map<String, String> headers, final InputStream content,
+			final long length, final ResponseReader<T> reader) {
+
+		final SettableFuture<T> result = SettableFuture.create();
+		ListenableFuture<String> digestFuture = getFormDigest();
+
+		Futures.addCallback(digestFuture, new FutureCallback<String>() {
+			@Override
+			public void onFailure(Throwable t) {
+				result.setException(t);
+			}
+
+			@Override
+			public void onSuccess(final String digest) {
+				Request request = new Request(method);
+				request.setUrl(url);
+				request.addHeader("Content-Type", "application/octet-stream");
+				if (headers != null) {
+					for (String key : headers.keySet()) {
+						request.addHeader(key, headers.get(key));
+					}
+				}
+				request.addHeader("X-RequestDigest", digest);
+				request.setContentStream(content, length);
+
+				Futures.addCallback(executeRequest(request, reader), new FutureCallback<T>() {
+					@Override
+					public void onFailure(Throwable t) {
+						if (isInvalidDigestError(t)) {
+							mFormDigestCache.invalidate(digest);
+						}
 						result.setException(t);
 					}
 
 					@Override
-					public void onSuccess(JSONObject json) {
-						result.set(json);
+					public void onSuccess(T value) {
+						result.set(value);
 					}
 				});
 			}
 		});
+
 		return result;
 	}
 
+	private static boolean isInvalidDigestError(Throwable t) {
+		if (!(t instanceof InvalidHttpStatusCodeException)) {
+			return false;
+		}
+
+		InvalidHttpStatusCodeException error = (InvalidHttpStatusCodeException) t;
+		return error.getStatusCode() == 403 && error.getResponseContent() != null
+				&& error.getResponseContent().contains(INVALID_DIGEST_ERROR_CODE);
+	}
+
 	public ListenableFuture<String> getWebTitle() {
 		final SettableFuture<String> result = SettableFuture.create();
 
@@ -5,6 +5,7 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices.http;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.SocketTimeoutException;
@@ -18,8 +19,12 @@ import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
 import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.params.HttpParams;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -27,17 +32,50 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.microsoft.sharepointservices.Platform;
 
-import android.annotation.SuppressLint;
 import android.net.http.AndroidHttpClient;
-import android.os.AsyncTask;
-import android.os.Build;
 
 /**
- * Froyo HttpConnection implementation, based on AndroidHttpClient and AsyncTask
- * for async operations
+ * Froyo HttpConnection implementation, based on a shared AndroidHttpClient and
+ * the shared network executor for async operations
  */
 public class FroyoHttpConnection implements HttpConnection {
 
+	private static AndroidHttpClient sClient;
+	private static int sMaxConnections;
+
+	/**
+	 * Gets the client shared by every request, so connections are reused. Its
+	 * connection pool is sized to the maximum number of concurrent requests of
+	 * the network executor, instead of the default of 2 connections per host
+	 */
+	private static synchronized AndroidHttpClient getClient() {
+		if (sClient == null) {
+			sClient = AndroidHttpClient.newInstance(Platform.getUserAgent());
+			sMaxConnections = 0;
+		}
+
+		int maxConnections = NetworkExecutor.getMaxConcurrentRequests();
+		if (maxConnections != sMaxConnections) {
+			HttpParams params = sClient.getParams();
+			ConnManagerParams.setMaxTotalConnections(params, maxConnections);
+			ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnections));
+			sMaxConnections = maxConnections;
+		}
+
+		return sClient;
+	}
+
+	/**
+	 * Closes the shared client and its pooled connections. Requests in progress
+	 * fail; later requests open a new client.
+	 */
+	public static synchronized void shutdown() {
+		if (sClient != null) {
+			sClient.close();
+			sClient = null;
+		}
+	}
+
 	@Override
 	public ListenableFuture<Response> execute(final Request request) {
 
@@ -45,37 +83,40 @@ public class FroyoHttpConnection implements HttpConnection {
 
 		final RequestTask requestTask = new RequestTask() {
 
-			AndroidHttpClient mClient;
 			InputStream mResponseStream;
 
 			@Override
-			protected Void doInBackground(Void... voids) {
+			public void run() {
 				if (request == null) {
 					future.setException(new IllegalArgumentException("request"));
+					return;
+				}
+
+				if (future.isCancelled()) {
+					return;
 				}
 
-				mClient = AndroidHttpClient.newInstance(Platform.getUserAgent());
 				mResponseStream = null;
 				URI uri;
 
 				try {
 					HttpRequest realRequest = createRealRequest(request);
-                    assert request != null;
-                    uri = new URI(request.getUrl());
+					uri = new URI(request.getUrl());
 
 					HttpHost host = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
 
 					HttpResponse response;
 
 					try {
-						response = mClient.execute(host, realRequest);
+						response = getClient().execute(host, realRequest);
 					} catch (SocketTimeoutException timeoutException) {
-						closeStreamAndClient();
+						closeStream();
 						future.setException(timeoutException);
-						return null;
+						return;
 					}
 
-					mResponseStream = response.getEntity().getContent();
+					mResponseStream = response.getEntity() != null ? response.getEntity().getContent()
+							: new ByteArrayInputStream(new byte[0]);
 					Header[] headers = response.getAllHeaders();
 					Map<String, List<String>> headersMap = new HashMap<String, List<String>>();
 					for (Header header : headers) {
@@ -90,34 +131,29 @@ public class FroyoHttpConnection implements HttpConnection {
 					}
 
 					future.set(new StreamResponse(mResponseStream, response.getStatusLine().getStatusCode(), headersMap));
-					closeStreamAndClient();
+					closeStream();
 				} catch (Exception e) {
-					closeStreamAndClient();
+					closeStream();
 
 					future.setException(e);
 				}
-
-				return null;
 			}
 
-			protected void closeStreamAndClient() {
+			protected void closeStream() {
 				if (mResponseStream != null) {
 					try {
+						// releases the connection back to the client's pool
 						mResponseStream.close();
 					} catch (IOException e) {
 					}
 				}
-
-				if (mClient != null) {
-					mClient.close();
-				}
 			}
 		};
 
 		Futures.addCallback(future, new FutureCallback<Response>() {
 			@Override
 			public void onFailure(Throwable arg0) {
-				requestTask.closeStreamAndClient();
+				requestTask.closeStream();
 
 			}
 			
@@ -126,31 +162,20 @@ public class FroyoHttpConnection implements HttpConnection {
 			}
 		});
 		
-		executeTask(requestTask);
+		NetworkExecutor.execute(requestTask);
 
 		return future;
 	}
 
-	@SuppressLint("NewApi")
-	private void executeTask(AsyncTask<Void, Void, Void> task) {
-		// If it's running with Honeycomb or greater, it must execute each
-		// request in a different thread
-		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-			task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
-		} else {
-			task.execute();
-		}
-	}
-
 	/**
 	 * Internal class to represent an async operation that can close a stream
 	 */
-	private abstract class RequestTask extends AsyncTask<Void, Void, Void> {
+	private abstract class RequestTask implements Runnable {
 
 		/**
-		 * Closes the internal stream and http client, if they exist
+		 * Closes the internal stream, if it exists
 		 */
-		abstract protected void closeStreamAndClient();
+		abstract protected void closeStream();
 	}
 
 	/**
@@ -163,7 +188,9 @@ public class FroyoHttpConnection implements HttpConnection {
 		BasicHttpEntityEnclosingRequest realRequest = new BasicHttpEntityEnclosingRequest(request.getVerb(),
 				request.getUrl());
 
-		if (request.getContent() != null) {
+		if (request.getContentStream() != null) {
+			realRequest.setEntity(new InputStreamEntity(request.getContentStream(), request.getContentLength()));
+		} else if (request.getContent() != null) {
 			realRequest.setEntity(new ByteArrayEntity(request.getContent()));
 		}
 
@@ -12,7 +12,30 @@ public class InvalidHttpStatusCodeException extends Exception {
 
 	private static final long serialVersionUID = 7073157073424850921L;
 
+	private final int mStatusCode;
+	private final String mResponseContent;
+
 	public InvalidHttpStatusCodeException(int statusCode, String responseContent, String responseHeaders) {
 		super("Invalid status code: " + statusCode + "\nResponse: " + responseContent + "\nHeaders: " + responseHeaders);
+		mStatusCode = statusCode;
+		mResponseContent = responseContent;
+	}
+
+	/**
+	 * Gets the status code.
+	 * 
+	 * @return the status code
+	 */
+	public int getStatusCode() {
+		return mStatusCode;
+	}
+
+	/**
+	 * Gets the response content.
+	 * 
+	 * @return the response content
+	 */
+	public String getResponseContent() {
+		return mResponseContent;
 	}
 }
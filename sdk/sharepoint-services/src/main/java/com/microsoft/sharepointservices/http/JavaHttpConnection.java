@@ -30,28 +30,21 @@ public class JavaHttpConnection implements HttpConnection {
 		final SettableFuture<Response> future = SettableFuture.create();
 		final NetworkRunnable target = new NetworkRunnable(request, future);
 
-		final NetworkThread networkThread = new NetworkThread(target) {
+		Futures.addCallback(future, new FutureCallback<Response>() {
 			@Override
-			void releaseAndStop() {
+			public void onFailure(Throwable arg0) {
 				try {
 					target.closeStreamAndConnection();
 				} catch (Throwable error) {
 				}
 			}
-		};
-		
-		Futures.addCallback(future, new FutureCallback<Response>() {
-			@Override
-			public void onFailure(Throwable arg0) {
-				networkThread.releaseAndStop();				
-			}
 			
 			@Override
 			public void onSuccess(Response response) {
 			}
 		});
 		
-		networkThread.start();
+		NetworkExecutor.execute(target);
 		return future;
 	}
 }
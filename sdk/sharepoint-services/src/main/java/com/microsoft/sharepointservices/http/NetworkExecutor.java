@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) Microsoft Open Technologies, Inc.
+ * All Rights Reserved
+ * See License.txt in the project root for license information.
+ ******************************************************************************/
+package com.microsoft.sharepointservices.http;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The bounded thread pool shared by the HTTP connections. Requests beyond the maximum
+ * number of concurrent requests wait in a queue instead of starting new threads.
+ */
+public class NetworkExecutor {
+
+	/**
+	 * The default maximum number of concurrent requests.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private static final ThreadPoolExecutor sExecutor = createExecutor();
+
+	private NetworkExecutor() {
+	}
+
+	/**
+	 * Sets the maximum number of concurrent requests.
+	 * 
+	 * @param maxConcurrentRequests
+	 *            the maximum number of concurrent requests
+	 */
+	public static synchronized void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		if (maxConcurrentRequests < 1) {
+			throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+		}
+
+		if (maxConcurrentRequests > sExecutor.getMaximumPoolSize()) {
+			sExecutor.setMaximumPoolSize(maxConcurrentRequests);
+			sExecutor.setCorePoolSize(maxConcurrentRequests);
+		} else {
+			sExecutor.setCorePoolSize(maxConcurrentRequests);
+			sExecutor.setMaximumPoolSize(maxConcurrentRequests);
+		}
+	}
+
+	/**
+	 * Gets the maximum number of concurrent requests.
+	 * 
+	 * @return the maximum number of concurrent requests
+	 */
+	public static int getMaxConcurrentRequests() {
+		return sExecutor.getMaximumPoolSize();
+	}
+
+	/**
+	 * Queues a network operation.
+	 * 
+	 * @param runnable
+	 *            the network operation
+	 */
+	static void execute(Runnable runnable) {
+		sExecutor.execute(runnable);
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_MAX_CONCURRENT_REQUESTS,
+				DEFAULT_MAX_CONCURRENT_REQUESTS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					private final AtomicInteger mCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "SharePoint network " + mCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		// idle threads go away, the pool doesn't hold on to them between bursts
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
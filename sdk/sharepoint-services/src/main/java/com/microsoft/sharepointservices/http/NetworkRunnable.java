@@ -5,6 +5,7 @@
  ******************************************************************************/
 package com.microsoft.sharepointservices.http;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -19,6 +20,8 @@ import com.google.common.util.concurrent.SettableFuture;
  */
 class NetworkRunnable implements Runnable {
 
+	private static final int STREAM_BUFFER_SIZE = 16 * 1024;
+
 	HttpURLConnection mConnection = null;
 	InputStream mResponseStream = null;
 	Request mRequest;
@@ -59,6 +62,11 @@ class NetworkRunnable implements Runnable {
 					} else {
 						mResponseStream = mConnection.getInputStream();
 					}
+
+					if (mResponseStream == null) {
+						// responses without a body
+						mResponseStream = new ByteArrayInputStream(new byte[0]);
+					}
 				}
 			}
 
@@ -75,11 +83,24 @@ class NetworkRunnable implements Runnable {
 				mFuture.setException(e);
 			}
 		} finally {
-			closeStreamAndConnection();
+			// the connection itself is left open, so it goes back to the
+			// keep-alive pool once its response is consumed
+			closeStream();
 		}
 
 	}
 
+	void closeStream() {
+		synchronized (mCloseLock) {
+			if (mResponseStream != null) {
+				try {
+					mResponseStream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
 	/**
 	 * Closes the stream and connection, if possible
 	 */
@@ -120,8 +141,27 @@ class NetworkRunnable implements Runnable {
 			connection.setRequestProperty(key, headers.get(key));
 		}
 
-		if (request.getContent() != null) {
+		if (request.getContentStream() != null) {
+			connection.setDoOutput(true);
+			long length = request.getContentLength();
+			if (length >= 0 && length <= Integer.MAX_VALUE) {
+				connection.setFixedLengthStreamingMode((int) length);
+			} else {
+				connection.setChunkedStreamingMode(0);
+			}
+
+			InputStream content = request.getContentStream();
+			OutputStream stream = connection.getOutputStream();
+			byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+			int read;
+			while ((read = content.read(buffer)) != -1) {
+				stream.write(buffer, 0, read);
+			}
+			stream.close();
+		} else if (request.getContent() != null) {
 			connection.setDoOutput(true);
+			// streams the body instead of buffering a second copy of it
+			connection.setFixedLengthStreamingMode(request.getContent().length);
 			// OutputStreamWriter out = new
 			// OutputStreamWriter(connection.getOutputStream());
 			byte[] requestContent = request.getContent();
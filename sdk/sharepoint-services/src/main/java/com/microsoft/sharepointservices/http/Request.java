@@ -10,6 +10,7 @@ import com.microsoft.sharepointservices.LogLevel;
 import com.microsoft.sharepointservices.Logger;
 import com.microsoft.sharepointservices.SimpleEntry;
 
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -28,6 +29,10 @@ public class Request {
 
 	private byte[] mContent;
 
+	private InputStream mContentStream;
+
+	private long mContentLength = -1;
+
 	private HashMap<String, String> mHeaders = new HashMap<String, String>();
 
 	private String mUrl;
@@ -44,7 +49,7 @@ public class Request {
 	 * Sets the request content
 	 */
 	public void setContent(String content) {
-		mContent = content.getBytes();
+		setContent(content.getBytes());
 	}
 	
 	/**
@@ -52,6 +57,37 @@ public class Request {
 	 */
 	public void setContent(byte[] content) {
 		mContent = content;
+		mContentStream = null;
+		mContentLength = -1;
+	}
+
+	/**
+	 * Sets the request content as a stream, which is copied to the connection
+	 * without being buffered in memory. The stream can only be sent once.
+	 * @param stream The content stream
+	 * @param length The content length, or -1 if unknown
+	 */
+	public void setContentStream(InputStream stream, long length) {
+		mContent = null;
+		mContentStream = stream;
+		mContentLength = length;
+	}
+
+	/**
+	 * Returns the request content stream, if the content was set as a stream
+	 */
+	public InputStream getContentStream() {
+		return mContentStream;
+	}
+
+	/**
+	 * Returns the request content length, or -1 if unknown
+	 */
+	public long getContentLength() {
+		if (mContent != null) {
+			return mContent.length;
+		}
+		return mContentStream != null ? mContentLength : 0;
 	}
 
 	/**
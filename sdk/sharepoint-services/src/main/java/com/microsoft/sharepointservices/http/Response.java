@@ -6,6 +6,7 @@
 package com.microsoft.sharepointservices.http;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -47,6 +48,13 @@ public interface Response {
 	 */
 	public byte[] readAllBytes() throws IOException;
 
+	/**
+	 * Returns the response stream, for callers that parse the content
+	 * incrementally instead of buffering it
+	 * @return The response content stream
+	 */
+	public InputStream getStream();
+
 	/**
 	 * Returns the response HTTP Status code
 	 */
@@ -81,4 +81,9 @@ public class StreamResponse implements Response {
 		 }
 		 return os.toByteArray();
 	}
+
+	@Override
+	public InputStream getStream() {
+		return mStream;
+	}
 }
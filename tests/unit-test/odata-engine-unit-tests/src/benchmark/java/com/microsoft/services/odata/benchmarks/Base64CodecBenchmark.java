@@ -0,0 +1,112 @@
+package com.microsoft.services.odata.benchmarks;
+
+import com.microsoft.services.odata.impl.Base64Codec;
+import com.microsoft.services.odata.impl.Base64EncodingInputStream;
+import com.microsoft.services.odata.impl.Base64InputStream;
+import com.microsoft.services.odata.impl.desktop.GsonSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the Base64 codec on blobs from a thumbnail or key credential up to a large
+ * attachment. Run it with {@code gradle benchmark}; it isn't part of the test suite.
+ */
+public class Base64CodecBenchmark {
+
+    private static final int[] SIZES = {1024, 16 * 1024, 256 * 1024, 1024 * 1024, 5 * 1024 * 1024, 20 * 1024 * 1024};
+
+    // enough work per measurement to get past timer resolution and JIT warm-up
+    private static final long BYTES_PER_RUN = 64L * 1024 * 1024;
+
+    private interface Task {
+        long run(byte[] data, String text) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Base64Codec codec = Base64Codec.getInstance();
+        final GsonSerializer serializer = new GsonSerializer();
+
+        measure("encode", new Task() {
+            @Override
+            public long run(byte[] data, String text) {
+                return codec.encode(data).length();
+            }
+        });
+
+        measure("decode", new Task() {
+            @Override
+            public long run(byte[] data, String text) {
+                return codec.decode(text).length;
+            }
+        });
+
+        measure("encode stream", new Task() {
+            @Override
+            public long run(byte[] data, String text) throws IOException {
+                return drain(new Base64EncodingInputStream(new ByteArrayInputStream(data)));
+            }
+        });
+
+        measure("decode stream", new Task() {
+            @Override
+            public long run(byte[] data, String text) throws IOException {
+                return drain(new Base64InputStream(new ByteArrayInputStream(text.getBytes("US-ASCII"))));
+            }
+        });
+
+        measure("gson write", new Task() {
+            @Override
+            public long run(byte[] data, String text) {
+                return serializer.serialize(data).length();
+            }
+        });
+
+        measure("gson read", new Task() {
+            @Override
+            public long run(byte[] data, String text) {
+                return serializer.deserialize('"' + text + '"', byte[].class).length;
+            }
+        });
+    }
+
+    private static void measure(String name, Task task) throws IOException {
+        Random random = new Random(1);
+
+        for (int size : SIZES) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            String text = Base64Codec.getInstance().encode(data);
+
+            int iterations = (int) Math.max(3, BYTES_PER_RUN / size);
+            long check = 0;
+            for (int i = 0; i < iterations; i++) {
+                check += task.run(data, text);
+            }
+
+            System.gc();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                check += task.run(data, text);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double megabytesPerSecond = (double) size * iterations / (1024 * 1024) / (elapsed / 1e9);
+            System.out.println(String.format(Locale.US, "%-14s %9d bytes %10.1f MB/s %12.1f us/op  (%d)",
+                    name, size, megabytesPerSecond, elapsed / 1e3 / iterations, check));
+        }
+    }
+
+    private static long drain(InputStream stream) throws IOException {
+        byte[] buffer = new byte[16 * 1024];
+        long total = 0;
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+}
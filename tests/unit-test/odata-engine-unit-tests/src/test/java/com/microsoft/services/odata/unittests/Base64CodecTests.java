@@ -0,0 +1,95 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.services.odata.impl.Base64Codec;
+import com.microsoft.services.odata.impl.Base64EncodingInputStream;
+import com.microsoft.services.odata.impl.Base64InputStream;
+import com.microsoft.services.odata.impl.desktop.GsonSerializer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class Base64CodecTests {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 4, 5, 57, 1023, 3072, 3073, 6144, 100001};
+
+    private final Base64Codec codec = Base64Codec.getInstance();
+
+    @Test
+    public void testKnownValues() {
+        assertThat(codec.encode(new byte[0]), is(equalTo("")));
+        assertThat(codec.encode("f".getBytes()), is(equalTo("Zg==")));
+        assertThat(codec.encode("fo".getBytes()), is(equalTo("Zm8=")));
+        assertThat(codec.encode("foo".getBytes()), is(equalTo("Zm9v")));
+        assertThat(codec.encode("foobar".getBytes()), is(equalTo("Zm9vYmFy")));
+        assertThat(codec.encode(new byte[]{(byte) 0xfb, (byte) 0xff}), is(equalTo("+/8=")));
+        assertThat(new String(codec.decode("Zm9vYmE=")), is(equalTo("fooba")));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(42);
+        for (int size : SIZES) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            String text = codec.encode(data);
+
+            assertThat(text.length(), is(equalTo((int) Base64Codec.getEncodedLength(size))));
+            assertThat(Arrays.equals(codec.decode(text), data), is(true));
+
+            StringWriter writer = new StringWriter();
+            assertThat(codec.encode(new ByteArrayInputStream(data), writer), is(equalTo((long) size)));
+            assertThat(writer.toString(), is(equalTo(text)));
+
+            assertThat(new String(readAll(new Base64EncodingInputStream(new ByteArrayInputStream(data)))), is(equalTo(text)));
+            assertThat(Arrays.equals(readAll(new Base64InputStream(new ByteArrayInputStream(text.getBytes()))), data), is(true));
+        }
+    }
+
+    @Test
+    public void testDecodeIgnoresWhitespaceAndMissingPadding() {
+        assertThat(new String(codec.decode("Zm9v\r\nYmE")), is(equalTo("fooba")));
+        assertThat(new String(codec.decode(" Zm 8= ")), is(equalTo("fo")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeRejectsInvalidCharacters() {
+        codec.decode("Zm9v*mFy");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeRejectsContentAfterPadding() {
+        codec.decode("Zg==Zg==");
+    }
+
+    @Test
+    public void testByteArrayProperties() {
+        GsonSerializer serializer = new GsonSerializer();
+        byte[] data = {1, 2, 3, 4};
+
+        assertThat(serializer.serialize(data), is(equalTo("\"AQIDBA==\"")));
+        assertThat(Arrays.equals(serializer.deserialize("\"AQIDBA==\"", byte[].class), data), is(true));
+        assertThat(serializer.deserialize("null", byte[].class), is(nullValue()));
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            os.write(buffer, 0, read);
+        }
+        return os.toByteArray();
+    }
+}
@@ -0,0 +1,200 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.outlookservices.Event;
+import com.microsoft.outlookservices.odata.CalendarViewCache;
+import com.microsoft.outlookservices.odata.OutlookClient;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CalendarViewCacheTests {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private RecordedTransport transport = new RecordedTransport();
+    private CalendarViewCache cache = new OutlookClient("http://server", transport.createResolver())
+            .getMe().createCalendarViewCache()
+            .setWindowMillis(DAY)
+            .setPrefetchWindows(0);
+
+    @Test
+    public void testReadMergesWindowsWithoutDuplicates() throws Exception {
+        ListenableFuture<List<Event>> read = cache.read(at(2, 12), at(3, 12));
+        assertThat(transport.size(), is(2));
+
+        // the event crossing midnight is returned by both windows
+        respond(2, event("early", at(2, 8), at(2, 9)), event("span", at(2, 23), at(3, 1)));
+        respond(3, event("late", at(3, 10), at(3, 11)), event("span", at(2, 23), at(3, 1)));
+
+        assertThat(ids(read.get(5, TimeUnit.SECONDS)), is(equalTo(list("span", "late"))));
+    }
+
+    @Test
+    public void testWindowsFollowTheirNextLinks() throws Exception {
+        ListenableFuture<List<Event>> read = cache.read(at(2, 0), at(3, 0));
+
+        transport.pending(window(2)).get(0).respond(200,
+                page("http://server/next", event("second", at(2, 10), at(2, 11))));
+        assertThat(read.isDone(), is(false));
+        transport.pending("/next").get(0).respond(200, page(null, event("first", at(2, 8), at(2, 9))));
+
+        assertThat(ids(read.get(5, TimeUnit.SECONDS)), is(equalTo(list("first", "second"))));
+    }
+
+    @Test
+    public void testCachedWindowsAreShared() throws Exception {
+        ListenableFuture<List<Event>> first = cache.read(at(2, 12), at(3, 12));
+        ListenableFuture<List<Event>> concurrent = cache.read(at(3, 0), at(3, 6));
+        assertThat(transport.size(), is(2));
+
+        respond(2, event("a", at(2, 13), at(2, 14)));
+        respond(3, event("b", at(3, 1), at(3, 2)));
+        assertThat(ids(first.get(5, TimeUnit.SECONDS)), is(equalTo(list("a", "b"))));
+        assertThat(ids(concurrent.get(5, TimeUnit.SECONDS)), is(equalTo(list("b"))));
+
+        List<Event> cached = cache.read(at(2, 0), at(4, 0)).get(5, TimeUnit.SECONDS);
+        assertThat(ids(cached), is(equalTo(list("a", "b"))));
+        assertThat(transport.size(), is(2));
+    }
+
+    @Test
+    public void testInvalidateRefetchesOnlyOverlappingWindows() throws Exception {
+        ListenableFuture<List<Event>> read = cache.read(at(2, 0), at(4, 0));
+        respond(2, event("a", at(2, 13), at(2, 14)));
+        respond(3, event("b", at(3, 1), at(3, 2)));
+        read.get(5, TimeUnit.SECONDS);
+
+        cache.invalidate(at(2, 13), at(2, 14));
+        read = cache.read(at(2, 0), at(4, 0));
+        assertThat(transport.size(), is(3));
+        assertThat(transport.get(2).getUrl(), containsString(window(2)));
+        respond(2, event("moved", at(2, 15), at(2, 16)));
+        assertThat(ids(read.get(5, TimeUnit.SECONDS)), is(equalTo(list("moved", "b"))));
+
+        // a recurring event may have occurrences in any window
+        Event recurring = new Event();
+        recurring.setStart(at(3, 1));
+        recurring.setEnd(at(3, 2));
+        recurring.setSeriesMasterId("master");
+        cache.invalidate(recurring);
+        cache.read(at(2, 0), at(4, 0));
+        assertThat(transport.size(), is(5));
+    }
+
+    @Test
+    public void testFailedWindowIsNotCached() throws Exception {
+        ListenableFuture<List<Event>> read = cache.read(at(2, 0), at(3, 0));
+        transport.pending(window(2)).get(0).respond(500, "{\"error\":{\"code\":\"ErrorInternalServerError\"}}");
+        try {
+            read.get(5, TimeUnit.SECONDS);
+            fail("The read should have failed");
+        } catch (ExecutionException e) {
+            assertThat(transport.size(), is(1));
+        }
+
+        read = cache.read(at(2, 0), at(3, 0));
+        assertThat(transport.size(), is(2));
+        respond(2, event("a", at(2, 13), at(2, 14)));
+        assertThat(ids(read.get(5, TimeUnit.SECONDS)), is(equalTo(list("a"))));
+    }
+
+    @Test
+    public void testNeighbouringWindowsArePrefetched() throws Exception {
+        cache.setPrefetchWindows(1);
+
+        ListenableFuture<List<Event>> read = cache.read(at(3, 0), at(4, 0));
+        assertThat(transport.size(), is(3));
+        assertThat(transport.get(0).getUrl(), containsString(window(3)));
+        respond(3, event("b", at(3, 1), at(3, 2)));
+        respond(2, event("a", at(2, 13), at(2, 14)));
+        respond(4, event("c", at(4, 1), at(4, 2)));
+        read.get(5, TimeUnit.SECONDS);
+
+        // the prefetched window is read from the cache, its own neighbour is prefetched
+        List<Event> next = cache.read(at(4, 0), at(5, 0)).get(5, TimeUnit.SECONDS);
+        assertThat(ids(next), is(equalTo(list("c"))));
+        assertThat(transport.size(), is(4));
+        assertThat(transport.get(3).getUrl(), containsString(window(5)));
+    }
+
+    @Test
+    public void testRequestedWindowsGoAheadOfPrefetching() throws Exception {
+        cache.setPrefetchWindows(1).setMaxConcurrentRequests(1);
+
+        cache.read(at(3, 0), at(4, 0));
+        ListenableFuture<List<Event>> jump = cache.read(at(9, 0), at(10, 0));
+        assertThat(transport.size(), is(1));
+
+        respond(3);
+        assertThat(transport.size(), is(2));
+        assertThat(transport.get(1).getUrl(), containsString(window(9)));
+        respond(9, event("far", at(9, 1), at(9, 2)));
+
+        assertThat(ids(jump.get(5, TimeUnit.SECONDS)), is(equalTo(list("far"))));
+    }
+
+    private void respond(int day, String... events) {
+        transport.pending(window(day)).get(0).respond(200, page(null, events));
+    }
+
+    private static String window(int day) {
+        return String.format("startDateTime=2015-03-%02dT00:00:00.0000000Z", day);
+    }
+
+    private static Calendar at(int day, int hour) {
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(2015, Calendar.MARCH, day, hour, 0);
+        return calendar;
+    }
+
+    private static String event(String id, Calendar start, Calendar end) {
+        return String.format("{\"Id\":\"%s\",\"Start\":\"2015-03-%02dT%02d:00:00Z\",\"End\":\"2015-03-%02dT%02d:00:00Z\","
+                        + "\"@odata.type\":\"#Microsoft.OutlookServices.Event\"}", id,
+                start.get(Calendar.DAY_OF_MONTH), start.get(Calendar.HOUR_OF_DAY),
+                end.get(Calendar.DAY_OF_MONTH), end.get(Calendar.HOUR_OF_DAY));
+    }
+
+    private static String page(String nextLink, String... events) {
+        StringBuilder json = new StringBuilder("{\"value\":[");
+        for (int i = 0; i < events.length; i++) {
+            json.append(i > 0 ? "," : "").append(events[i]);
+        }
+        json.append("]");
+        if (nextLink != null) {
+            json.append(",\"@odata.nextLink\":\"").append(nextLink).append("\"");
+        }
+        return json.append("}").toString();
+    }
+
+    private static List<String> ids(List<Event> events) {
+        List<String> ids = new ArrayList<String>();
+        for (Event event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> list(String... values) {
+        List<String> list = new ArrayList<String>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
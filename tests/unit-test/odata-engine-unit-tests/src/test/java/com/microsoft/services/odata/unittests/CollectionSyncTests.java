@@ -0,0 +1,139 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataSyncOptions;
+import com.microsoft.services.odata.ODataSyncResult;
+import com.microsoft.services.odata.impl.InMemorySyncStateStore;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CollectionSyncTests extends WireMockTestBase {
+
+    private static final String SYNC_KEY = "navigations";
+
+    private String url = "http://localhost:8080";
+
+    private JvmDependencyResolver resolver;
+    private SampleContainerClient client;
+    private InMemorySyncStateStore store;
+
+    public CollectionSyncTests() {
+        resolver = new JvmDependencyResolver("faketoken");
+        client = new SampleContainerClient(url, resolver);
+        store = new InMemorySyncStateStore();
+    }
+
+    @Test
+    public void testFullSyncFollowsNextLinks() throws ExecutionException, InterruptedException {
+        //getSyncPagedFirstPageGET.json
+        //getSyncPagedLastPageGET.json
+        ODataSyncResult<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "syncPaged")
+                .sync(store, SYNC_KEY)
+                .get();
+
+        assertThat(result.isFullSync(), is(true));
+        assertThat(result.isServerDelta(), is(true));
+        assertThat(result.getChanged().size(), is(2));
+        assertThat(result.getChanged().get(0).getId(), is(equalTo("1")));
+        assertThat(result.getChanged().get(1).getId(), is(equalTo("2")));
+        assertThat(result.getRemovedIds(), contains("3"));
+
+        assertThat(store.get(SYNC_KEY + ".deltaLink"),
+                is(equalTo("http://localhost:8080/Me/Navigations/?Case='syncPaged'&$deltatoken=first")));
+        assertThat(store.get(SYNC_KEY + ".watermark"), is(nullValue()));
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='syncPaged'")));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='syncPaged'&$skiptoken=2")));
+    }
+
+    @Test
+    public void testRejectedDeltaLinkRestartsFullSync() throws ExecutionException, InterruptedException {
+        //getSyncGoneDeltaGET.json
+        //getSyncGoneFullGET.json
+        store.put(SYNC_KEY + ".deltaLink", "http://localhost:8080/Me/Navigations/?Case='syncGone'&$deltatoken=expired");
+
+        ODataSyncResult<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "syncGone")
+                .sync(store, SYNC_KEY)
+                .get();
+
+        assertThat(result.isFullSync(), is(true));
+        assertThat(result.isServerDelta(), is(true));
+        assertThat(result.getChanged().size(), is(1));
+
+        assertThat(store.get(SYNC_KEY + ".deltaLink"),
+                is(equalTo("http://localhost:8080/Me/Navigations/?Case='syncGone'&$deltatoken=renewed")));
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='syncGone'&$deltatoken=expired")));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='syncGone'")));
+    }
+
+    @Test
+    public void testFullSyncWithoutDeltaStoresWatermark() throws ExecutionException, InterruptedException {
+        //getSyncWatermarkFullGET.json
+        ODataSyncResult<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "syncWatermark")
+                .sync(store, SYNC_KEY, new ODataSyncOptions().setServerDeltaEnabled(false))
+                .get();
+
+        assertThat(result.isFullSync(), is(true));
+        assertThat(result.isServerDelta(), is(false));
+        assertThat(result.getChanged().size(), is(1));
+
+        assertThat(store.get(SYNC_KEY + ".watermark"), is(not(nullValue())));
+        assertThat(store.get(SYNC_KEY + ".deltaLink"), is(nullValue()));
+    }
+
+    @Test
+    public void testStoredWatermarkFiltersModifiedEntities() throws ExecutionException, InterruptedException {
+        //getSyncWatermarkFilterGET.json
+        store.put(SYNC_KEY + ".watermark", "2015-01-01T00:00:00Z");
+
+        ODataSyncResult<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "syncWatermark")
+                .sync(store, SYNC_KEY, new ODataSyncOptions().setServerDeltaEnabled(false))
+                .get();
+
+        assertThat(result.isFullSync(), is(false));
+        assertThat(result.isServerDelta(), is(false));
+        assertThat(result.getChanged().size(), is(1));
+        assertThat(result.getChanged().get(0).getId(), is(equalTo("2")));
+
+        assertThat(store.get(SYNC_KEY + ".watermark"), is(not(equalTo("2015-01-01T00:00:00Z"))));
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(
+                "/Me/Navigations/?$filter=DateTimeLastModified%20ge%202015-01-01T00:00:00Z&Case='syncWatermark'")));
+    }
+
+    @Test
+    public void testV3WatermarkLiteral() throws ExecutionException, InterruptedException {
+        //getSyncWatermarkV3FilterGET.json
+        store.put(SYNC_KEY + ".watermark", "2015-01-01T00:00:00Z");
+
+        ODataSyncResult<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "syncWatermarkV3")
+                .sync(store, SYNC_KEY, new ODataSyncOptions().setServerDeltaEnabled(false)
+                        .setWatermarkLiteralFormat(ODataSyncOptions.WATERMARK_LITERAL_V3))
+                .get();
+
+        assertThat(result.getChanged().size(), is(1));
+        assertThat(result.getChanged().get(0).getId(), is(equalTo("v3")));
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(
+                "/Me/Navigations/?$filter=DateTimeLastModified%20ge%20datetime'2015-01-01T00:00:00Z'&Case='syncWatermarkV3'")));
+    }
+}
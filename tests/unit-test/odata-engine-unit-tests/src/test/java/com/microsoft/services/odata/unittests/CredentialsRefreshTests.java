@@ -0,0 +1,196 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataException;
+import com.microsoft.services.odata.impl.OAuthCredentialsCache;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+import com.microsoft.services.odata.impl.http.RequestImpl;
+import com.microsoft.services.odata.interfaces.AsyncCredentials;
+import com.microsoft.services.odata.interfaces.Credentials;
+import com.microsoft.services.odata.interfaces.Request;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CredentialsRefreshTests extends WireMockTestBase {
+
+    private static final String RESOURCE = "https://outlook.office365.com/";
+    private static final long HOUR = 60 * 60 * 1000;
+
+    private String url = "http://localhost:8080";
+
+    /**
+     * Hands out the queued tokens, counting the acquisitions.
+     */
+    private static class FakeCredentialsCache extends OAuthCredentialsCache {
+        final List<SettableFuture<AccessToken>> acquisitions = new ArrayList<SettableFuture<AccessToken>>();
+        final List<String> rejectedTokens = new ArrayList<String>();
+        String replacement;
+
+        @Override
+        protected synchronized ListenableFuture<AccessToken> acquireToken(String resource) {
+            SettableFuture<AccessToken> future = SettableFuture.create();
+            acquisitions.add(future);
+            return future;
+        }
+
+        @Override
+        protected synchronized ListenableFuture<AccessToken> acquireTokenReplacing(String resource, String rejectedToken) {
+            rejectedTokens.add(rejectedToken);
+            return Futures.immediateFuture(new AccessToken(replacement, System.currentTimeMillis() + HOUR));
+        }
+
+        synchronized void complete(int index, String token, long expiresOn) {
+            acquisitions.get(index).set(new AccessToken(token, expiresOn));
+        }
+
+        synchronized int getAcquisitionCount() {
+            return acquisitions.size();
+        }
+    }
+
+    private SampleContainerClient createClient(final FakeCredentialsCache cache) {
+        return new SampleContainerClient(url, new JvmDependencyResolver("unused") {
+            @Override
+            public Credentials getCredentials() {
+                return cache.getAsyncCredentials(RESOURCE);
+            }
+        });
+    }
+
+    @Test
+    public void testRejectedTokenIsRefreshedAndRequestReplayed() throws ExecutionException, InterruptedException {
+        //getCredentialsRejectedNavigationsGET.json, getCredentialsAcceptedNavigationsGET.json
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+        cache.replacement = "fresh";
+        SampleContainerClient client = createClient(cache);
+
+        ListenableFuture<List<AnotherEntity>> future = client.getMe().getNavigations()
+                .addParameter("Case", "credentials")
+                .read();
+        cache.complete(0, "rejected", System.currentTimeMillis() + HOUR);
+
+        assertThat(future.get().size(), is(1));
+        assertThat(cache.rejectedTokens, is(equalTo(Arrays.asList("rejected"))));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='credentials'"))
+                .withHeader("Authorization", WireMock.equalTo("Bearer rejected")));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='credentials'"))
+                .withHeader("Authorization", WireMock.equalTo("Bearer fresh")));
+
+        // the fresh token is cached for the next requests
+        Request request = new RequestImpl();
+        cache.getAsyncCredentials(RESOURCE).prepareRequestAsync(request).get();
+        assertThat(request.getHeaders().get("Authorization"), is(equalTo("Bearer fresh")));
+    }
+
+    @Test
+    public void testRequestIsNotReplayedWithTheRejectedToken() throws InterruptedException {
+        //getCredentialsRejectedAgainNavigationsGET.json
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+        cache.replacement = "rejected";
+        SampleContainerClient client = createClient(cache);
+
+        ListenableFuture<List<AnotherEntity>> future = client.getMe().getNavigations()
+                .addParameter("Case", "credentialsRejectedAgain")
+                .read();
+        cache.complete(0, "rejected", System.currentTimeMillis() + HOUR);
+
+        try {
+            future.get();
+            fail("The read should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ODataException.class)));
+            assertThat(((ODataException) e.getCause()).getODataResponse().getResponse().getStatus(), is(401));
+        }
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='credentialsRejectedAgain'")));
+    }
+
+    @Test
+    public void testRefreshIsSkippedWhenTheTokenWasAlreadyReplaced() throws ExecutionException, InterruptedException {
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+        AsyncCredentials credentials = cache.getAsyncCredentials(RESOURCE);
+        ListenableFuture<Void> prepared = credentials.prepareRequestAsync(new RequestImpl());
+        cache.complete(0, "fresh", System.currentTimeMillis() + HOUR);
+        prepared.get();
+
+        Request rejected = new RequestImpl();
+        rejected.addHeader("Authorization", "Bearer rejected");
+
+        assertThat(credentials.refreshAsync(rejected).get(), is(true));
+        assertThat(cache.rejectedTokens.size(), is(0));
+    }
+
+    @Test
+    public void testConcurrentAcquisitionsShareOneCall() throws ExecutionException, InterruptedException {
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+
+        List<ListenableFuture<Credentials>> futures = new ArrayList<ListenableFuture<Credentials>>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(cache.getCredentialsAsync(RESOURCE));
+        }
+        assertThat(cache.getAcquisitionCount(), is(1));
+
+        cache.complete(0, "shared", System.currentTimeMillis() + HOUR);
+        for (ListenableFuture<Credentials> future : futures) {
+            Request request = new RequestImpl();
+            future.get().prepareRequest(request);
+            assertThat(request.getHeaders().get("Authorization"), is(equalTo("Bearer shared")));
+        }
+
+        // served from the cache from now on
+        cache.getCredentialsAsync(RESOURCE).get();
+        assertThat(cache.getAcquisitionCount(), is(1));
+    }
+
+    @Test
+    public void testTokenCloseToExpiryIsRefreshedAhead() throws ExecutionException, InterruptedException {
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+        cache.setRefreshAheadMillis(10 * 60 * 1000);
+
+        ListenableFuture<Credentials> first = cache.getCredentialsAsync(RESOURCE);
+        cache.complete(0, "expiring", System.currentTimeMillis() + 5 * 60 * 1000);
+        first.get();
+
+        // the expiring token is still handed out, while a new one is acquired in the background
+        ListenableFuture<Credentials> second = cache.getCredentialsAsync(RESOURCE);
+        assertThat(second.isDone(), is(true));
+        assertThat(cache.getAcquisitionCount(), is(2));
+
+        cache.complete(1, "renewed", System.currentTimeMillis() + HOUR);
+        Request request = new RequestImpl();
+        cache.getCredentialsAsync(RESOURCE).get().prepareRequest(request);
+        assertThat(request.getHeaders().get("Authorization"), is(equalTo("Bearer renewed")));
+        assertThat(cache.getAcquisitionCount(), is(2));
+    }
+
+    @Test
+    public void testExpiredTokenIsNotHandedOut() throws ExecutionException, InterruptedException {
+        FakeCredentialsCache cache = new FakeCredentialsCache();
+
+        ListenableFuture<Credentials> first = cache.getCredentialsAsync(RESOURCE);
+        cache.complete(0, "expired", System.currentTimeMillis() + 1000);
+        first.get();
+
+        ListenableFuture<Credentials> second = cache.getCredentialsAsync(RESOURCE);
+        assertThat(second.isDone(), is(false));
+        assertThat(cache.getAcquisitionCount(), is(2));
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataCollectionFetcher;
+import com.microsoft.services.odata.ODataCollectionPage;
+import com.microsoft.services.odata.ODataProjection;
+import com.microsoft.services.odata.ODataSyncOptions;
+import com.microsoft.services.odata.ODataSyncResult;
+import com.microsoft.services.odata.impl.InMemoryEntityStore;
+import com.microsoft.services.odata.impl.InMemorySyncStateStore;
+import com.microsoft.services.odata.impl.desktop.GsonSerializer;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DefaultProjectionTests extends WireMockTestBase {
+
+    private String url = "http://localhost:8080";
+
+    private JvmDependencyResolver resolver;
+    private SampleContainerClient client;
+
+    public DefaultProjectionTests() {
+        resolver = new JvmDependencyResolver("faketoken");
+        client = new SampleContainerClient(url, resolver);
+        client.setDefaultProjection(AnotherEntity.class, ODataProjection.<AnotherEntity>parse("Id,SomeString", null));
+    }
+
+    @Test
+    public void testReadUsesDefaultProjection() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionNavigationsGET.json
+        List<AnotherEntity> result = client.getMe().getNavigations()
+                .addParameter("Case", "defaultProjection")
+                .read()
+                .get();
+
+        assertThat(result.get(0).getId(), is(equalTo("projected")));
+    }
+
+    @Test
+    public void testReadRawUsesDefaultProjection() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionNavigationsGET.json
+        String result = client.getMe().getNavigations()
+                .addParameter("Case", "defaultProjection")
+                .readRaw()
+                .get();
+
+        assertThat(result, containsString("projected"));
+    }
+
+    @Test
+    public void testExplicitSelectIsSentVerbatim() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionExplicitSelectNavigationsGET.json
+        List<AnotherEntity> result = client.getMe().getNavigations()
+                .select("Id, SomeString")
+                .addParameter("Case", "defaultProjection")
+                .read()
+                .get();
+
+        assertThat(result.get(0).getId(), is(equalTo("explicit")));
+    }
+
+    @Test
+    public void testSelectAllIgnoresDefaultProjection() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionFullNavigationsGET.json
+        List<AnotherEntity> result = client.getMe().getNavigations()
+                .selectAll()
+                .addParameter("Case", "defaultProjection")
+                .read()
+                .get();
+
+        assertThat(result.get(0).getId(), is(equalTo("full")));
+    }
+
+    @Test
+    public void testReadPageSelectsEveryProperty() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionFullNavigationsGET.json
+        ODataCollectionPage<AnotherEntity> page = client.getMe().getNavigations()
+                .addParameter("Case", "defaultProjection")
+                .readPage()
+                .get();
+
+        assertThat(page.getItems().get(0).getId(), is(equalTo("full")));
+    }
+
+    @Test
+    public void testReadRawPageSelectsEveryProperty() throws ExecutionException, InterruptedException {
+        //getDefaultProjectionFullNavigationsGET.json
+        ODataCollectionPage<String> page = client.getMe().getNavigations()
+                .addParameter("Case", "defaultProjection")
+                .readRawPage(null)
+                .get();
+
+        assertThat(page.getItems().get(0), containsString("full"));
+    }
+
+    @Test
+    public void testSyncStoresWholeEntities() throws ExecutionException, InterruptedException {
+        //getNavigationsGET.json
+        InMemoryEntityStore entityStore = new InMemoryEntityStore();
+        ODataCollectionFetcher<AnotherEntity, ?, ?> navigations = client.getMe().getNavigations()
+                .cacheIn(entityStore, "navigations", 60000);
+
+        ODataSyncResult<AnotherEntity> result = navigations
+                .sync(new InMemorySyncStateStore(), "navigations", new ODataSyncOptions().setServerDeltaEnabled(false))
+                .get();
+
+        String id = "3281EC0B-1AEB-49A4-A345-E64D732DA6D3";
+        assertThat(result.getChanged().get(0).getId(), is(equalTo(id)));
+        assertThat(entityStore.get("navigations", id), containsString("Some String"));
+
+        // answered from the store, no mapping matches the projected request
+        List<AnotherEntity> cached = navigations.read().get();
+        assertThat(cached.get(0).getId(), is(equalTo(id)));
+        assertThat(cached.get(0).getSomeString(), is(equalTo("Some String")));
+    }
+
+    @Test
+    public void testSelectedListSkipsUnselectedProperties() throws Exception {
+        String payload = "{\"@odata.context\":\"ctx\",\"value\":[{\"Id\":\"1\",\"SomeString\":\"skipped\","
+                + "\"Body\":{\"Content\":[1,2,{\"x\":null}]},\"@odata.type\":\"#Microsoft.SampleService.AnotherEntity\"}]}";
+
+        List<AnotherEntity> result = new GsonSerializer().deserializeList(payload, AnotherEntity.class,
+                new HashSet<String>(Arrays.asList("Id")));
+
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getId(), is(equalTo("1")));
+        assertThat(result.get(0).getSomeString(), is(nullValue()));
+    }
+}
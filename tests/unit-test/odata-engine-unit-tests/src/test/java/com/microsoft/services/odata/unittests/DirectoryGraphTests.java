@@ -0,0 +1,82 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.directoryservices.DirectoryObject;
+import com.microsoft.directoryservices.odata.DirectoryClient;
+import com.microsoft.directoryservices.odata.DirectoryGraph;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DirectoryGraphTests {
+
+    private RecordedTransport transport = new RecordedTransport();
+    private DirectoryGraph graph = new DirectoryClient("http://server", transport.createResolver())
+            .createDirectoryGraph();
+
+    @Test
+    public void testWarmCacheResolvesEveryRoot() throws Exception {
+        ListenableFuture<Map<String, List<DirectoryObject>>> cold = graph.getTransitiveMemberOf(Arrays.asList("a", "b"));
+        respond("a", group("g1"));
+        respond("b", group("g1"), group("g3"));
+        respond("g1", group("g2"));
+        respond("g3");
+        respond("g2");
+        Map<String, List<DirectoryObject>> first = cold.get(5, TimeUnit.SECONDS);
+        assertThat(transport.size(), is(5));
+
+        // every link is cached, so each root completes before the next one is requested
+        Map<String, List<DirectoryObject>> warm = graph.getTransitiveMemberOf(Arrays.asList("a", "b"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(transport.size(), is(5));
+        assertThat(ids(warm.get("a")), is(equalTo(Arrays.asList("g1", "g2"))));
+        assertThat(ids(warm.get("b")), is(equalTo(Arrays.asList("g1", "g3", "g2"))));
+        assertThat(ids(warm.get("b")), is(equalTo(ids(first.get("b")))));
+    }
+
+    @Test
+    public void testMembershipCycleIsVisitedOnce() throws Exception {
+        ListenableFuture<Map<String, List<DirectoryObject>>> future =
+                graph.getTransitiveMemberOf(Arrays.asList("a", "g1"));
+        respond("a", group("g1"));
+        respond("g1", group("g2"));
+        respond("g2", group("g1"));
+
+        Map<String, List<DirectoryObject>> resolved = future.get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(resolved.get("a")), is(equalTo(Arrays.asList("g1", "g2"))));
+        assertThat(ids(resolved.get("g1")), is(equalTo(Arrays.asList("g2"))));
+        assertThat(transport.size(), is(3));
+    }
+
+    private void respond(String id, String... objects) {
+        StringBuilder json = new StringBuilder("{\"value\":[");
+        for (int i = 0; i < objects.length; i++) {
+            json.append(i > 0 ? "," : "").append(objects[i]);
+        }
+        transport.pending("directoryObjects('" + id + "')/memberOf").get(0).respond(200, json.append("]}").toString());
+    }
+
+    private static String group(String id) {
+        return "{\"objectId\":\"" + id + "\",\"objectType\":\"Group\",\"@odata.type\":\"#Microsoft.DirectoryServices.Group\"}";
+    }
+
+    private static List<String> ids(List<DirectoryObject> objects) {
+        List<String> ids = new ArrayList<String>();
+        for (DirectoryObject object : objects) {
+            ids.add(object.getobjectId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,101 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.services.odata.EntityStoreQuery;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class EntityStoreQueryTests {
+
+    private static final List<String> INDEXED = Arrays.asList("Subject", "Received", "Importance");
+
+    @Test
+    public void testParsesConjunctionOfIndexedComparisons() {
+        EntityStoreQuery query = EntityStoreQuery.parse(
+                "Subject eq 'It''s here' and (Received ge 2015-01-01T00:00:00Z)", "Received desc", 10, INDEXED);
+
+        assertThat(query, is(notNullValue()));
+        assertThat(query.getConditions().size(), is(2));
+        assertThat(query.getConditions().get(0).getValue(), is(equalTo((Object) "It's here")));
+        assertThat(query.getConditions().get(1).getOperator(), is(EntityStoreQuery.Operator.GE));
+        assertThat(query.getConditions().get(1).getValue(), is(equalTo((Object) 1420070400000L)));
+        assertThat(query.getOrderBy(), is(equalTo("Received")));
+        assertThat(query.isDescending(), is(true));
+        assertThat(query.getTop(), is(10));
+    }
+
+    @Test
+    public void testRejectsWhatTheIndexesCannotAnswer() {
+        assertThat(EntityStoreQuery.parse("Body eq 'x'", null, -1, INDEXED), is(nullValue()));
+        assertThat(EntityStoreQuery.parse("Subject eq 'a' or Subject eq 'b'", null, -1, INDEXED), is(nullValue()));
+        assertThat(EntityStoreQuery.parse("startswith(Subject, 'a')", null, -1, INDEXED), is(nullValue()));
+        assertThat(EntityStoreQuery.parse("Subject eq 'open", null, -1, INDEXED), is(nullValue()));
+        assertThat(EntityStoreQuery.parse(null, "Subject,Received", -1, INDEXED), is(nullValue()));
+        assertThat(EntityStoreQuery.parse(null, "Body", -1, INDEXED), is(nullValue()));
+    }
+
+    @Test
+    public void testTypedDateLiteralIsComparedAsEpochMillis() {
+        EntityStoreQuery query = EntityStoreQuery.parse(
+                "Received lt datetime'2015-01-01T01:00:00+01:00'", null, -1, INDEXED);
+
+        assertThat(query.getConditions().get(0).getValue(), is(equalTo((Object) 1420070400000L)));
+    }
+
+    @Test
+    public void testStringsCompareIgnoringCase() {
+        EntityStoreQuery query = EntityStoreQuery.parse("Subject eq 'HELLO'", null, -1, INDEXED);
+
+        assertThat(query.matches(values("Subject", "hello")), is(true));
+        assertThat(query.matches(values("Subject", "hello!")), is(false));
+
+        EntityStoreQuery notEqual = EntityStoreQuery.parse("Subject ne 'HELLO'", null, -1, INDEXED);
+        assertThat(notEqual.matches(values("Subject", "Hello")), is(false));
+
+        assertThat(EntityStoreQuery.compareValues("apple", "Banana"), is(lessThan(0)));
+        assertThat(EntityStoreQuery.compareValues("b", "A"), is(greaterThan(0)));
+    }
+
+    @Test
+    public void testNullsSortBeforeNumbersBeforeStrings() {
+        assertThat(EntityStoreQuery.compareValues(null, 1L), is(lessThan(0)));
+        assertThat(EntityStoreQuery.compareValues(1L, "1"), is(lessThan(0)));
+        assertThat(EntityStoreQuery.compareValues(2L, 10L), is(lessThan(0)));
+        assertThat(EntityStoreQuery.compareValues(null, null), is(0));
+    }
+
+    @Test
+    public void testRangeNeverMatchesAcrossTypes() {
+        EntityStoreQuery query = EntityStoreQuery.parse("Importance gt 1", null, -1, INDEXED);
+
+        assertThat(query.matches(values("Importance", 2L)), is(true));
+        assertThat(query.matches(values("Importance", "2")), is(false));
+        assertThat(query.matches(new HashMap<String, Object>()), is(false));
+    }
+
+    @Test
+    public void testNullLiteral() {
+        EntityStoreQuery query = EntityStoreQuery.parse("Subject eq null", null, -1, INDEXED);
+
+        assertThat(query.matches(new HashMap<String, Object>()), is(true));
+        assertThat(query.matches(values("Subject", "x")), is(false));
+    }
+
+    private static Map<String, Object> values(String name, Object value) {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put(name, value);
+        return values;
+    }
+}
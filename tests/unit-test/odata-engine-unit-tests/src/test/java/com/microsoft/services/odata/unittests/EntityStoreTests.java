@@ -0,0 +1,192 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.services.odata.EntityStoreQuery;
+import com.microsoft.services.odata.StoredEntity;
+import com.microsoft.services.odata.impl.InMemoryEntityStore;
+import com.microsoft.services.odata.impl.desktop.FileEntityStore;
+import com.microsoft.services.odata.interfaces.EntityStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class EntityStoreTests {
+
+    private static final List<String> INDEXED = Arrays.asList("Subject", "Received");
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("entity-store", "");
+        directory.delete();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testInMemoryQueryFiltersOrdersAndLimits() {
+        EntityStore store = new InMemoryEntityStore();
+        fill(store);
+
+        assertThat(query(store, "Received ge 200", "Received desc", -1), is(equalTo(Arrays.asList("{c}", "{b}"))));
+        assertThat(query(store, null, "Subject", 2), is(equalTo(Arrays.asList("{a}", "{b}"))));
+        assertThat(query(store, "Subject eq 'CHARLIE'", null, -1), is(equalTo(Arrays.asList("{c}"))));
+        assertThat(query(store, "Subject lt 'B'", null, -1), is(equalTo(Arrays.asList("{a}"))));
+        assertThat(query(store, "Subject ne 'alpha'", "Subject", -1), is(equalTo(Arrays.asList("{b}", "{c}"))));
+    }
+
+    @Test
+    public void testInMemoryUpsertReplacesIndexValues() {
+        EntityStore store = new InMemoryEntityStore();
+        fill(store);
+
+        store.upsert("mail", Collections.singletonList(entity("b", "Zulu", 200L)));
+
+        assertThat(query(store, "Subject eq 'Bravo'", null, -1).size(), is(0));
+        assertThat(query(store, "Subject eq 'zulu'", null, -1), is(equalTo(Arrays.asList("{b}"))));
+
+        store.remove("mail", Collections.singletonList("b"));
+        assertThat(store.get("mail", "b"), is(nullValue()));
+        assertThat(query(store, "Received eq 200", null, -1).size(), is(0));
+    }
+
+    @Test
+    public void testInMemoryIndexKeepsIdsThatDifferOnlyInCase() {
+        EntityStore store = new InMemoryEntityStore();
+        store.upsert("mail", Arrays.asList(entity("a", "Hello", 1L), entity("b", "HELLO", 2L)));
+
+        assertThat(query(store, "Subject eq 'hello'", "Received", -1), is(equalTo(Arrays.asList("{a}", "{b}"))));
+
+        store.remove("mail", Collections.singletonList("a"));
+        assertThat(query(store, "Subject eq 'hello'", null, -1), is(equalTo(Arrays.asList("{b}"))));
+    }
+
+    @Test
+    public void testInMemoryClearForgetsLastRefreshed() {
+        EntityStore store = new InMemoryEntityStore();
+        fill(store);
+        store.setLastRefreshed("mail", 42);
+
+        store.clear("mail");
+
+        assertThat(store.getLastRefreshed("mail"), is(0L));
+        assertThat(store.get("mail", "a"), is(nullValue()));
+    }
+
+    @Test
+    public void testFileStoreReloadsJournaledChanges() {
+        EntityStore store = new FileEntityStore(directory);
+        fill(store);
+        store.remove("mail", Collections.singletonList("a"));
+        store.setLastRefreshed("mail", 42);
+
+        assertThat(new File(directory, "mail.journal").exists(), is(true));
+        assertThat(new File(directory, "mail.json").exists(), is(false));
+
+        EntityStore reloaded = new FileEntityStore(directory);
+        assertThat(reloaded.getLastRefreshed("mail"), is(42L));
+        assertThat(reloaded.get("mail", "a"), is(nullValue()));
+        assertThat(query(reloaded, "Received ge 0", "Received", -1), is(equalTo(Arrays.asList("{b}", "{c}"))));
+
+        // loading folds the journal into the snapshot
+        assertThat(new File(directory, "mail.journal").exists(), is(false));
+        assertThat(new File(directory, "mail.json").exists(), is(true));
+    }
+
+    @Test
+    public void testFileStoreDropsTornJournalLine() throws IOException {
+        EntityStore store = new FileEntityStore(directory);
+        fill(store);
+
+        FileOutputStream journal = new FileOutputStream(new File(directory, "mail.journal"), true);
+        journal.write("{\"op\":\"remove\",\"ids\":[\"b\"".getBytes("UTF-8"));
+        journal.close();
+
+        EntityStore reloaded = new FileEntityStore(directory);
+        assertThat(reloaded.get("mail", "b"), is(equalTo("{b}")));
+
+        reloaded.remove("mail", Collections.singletonList("c"));
+        assertThat(new FileEntityStore(directory).get("mail", "c"), is(nullValue()));
+    }
+
+    @Test
+    public void testFileStoreClearDropsJournal() {
+        EntityStore store = new FileEntityStore(directory);
+        fill(store);
+        store.clear("mail");
+        store.upsert("mail", Collections.singletonList(entity("d", "Delta", 400L)));
+
+        EntityStore reloaded = new FileEntityStore(directory);
+        assertThat(reloaded.get("mail", "a"), is(nullValue()));
+        assertThat(reloaded.get("mail", "d"), is(equalTo("{d}")));
+    }
+
+    @Test
+    public void testFileStoreCompactsLongJournal() {
+        EntityStore store = new FileEntityStore(directory);
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            payload.append("0123456789");
+        }
+
+        for (int i = 0; i < 10; i++) {
+            store.upsert("mail", Collections.singletonList(
+                    new StoredEntity("a", payload.toString() + i, new HashMap<String, Object>())));
+        }
+
+        File journal = new File(directory, "mail.journal");
+        assertThat(journal.length() < 64 * 1024, is(true));
+        assertThat(new File(directory, "mail.json").exists(), is(true));
+        assertThat(new FileEntityStore(directory).get("mail", "a"), is(equalTo(payload.toString() + 9)));
+    }
+
+    @Test
+    public void testFileStoreEncodesCollectionNames() {
+        EntityStore store = new FileEntityStore(directory);
+        store.upsert("Me/Folders('Inbox')/Messages", Collections.singletonList(entity("a", "Alpha", 1L)));
+
+        assertThat(new FileEntityStore(directory).get("Me/Folders('Inbox')/Messages", "a"), is(equalTo("{a}")));
+    }
+
+    private static void fill(EntityStore store) {
+        store.upsert("mail", Arrays.asList(
+                entity("a", "Alpha", 100L),
+                entity("b", "Bravo", 200L),
+                entity("c", "Charlie", 300L)));
+    }
+
+    private static StoredEntity entity(String id, String subject, Long received) {
+        Map<String, Object> indexValues = new HashMap<String, Object>();
+        indexValues.put("Subject", subject);
+        indexValues.put("Received", received);
+        return new StoredEntity(id, "{" + id + "}", indexValues);
+    }
+
+    private static List<String> query(EntityStore store, String filter, String orderBy, int top) {
+        return store.query("mail", EntityStoreQuery.parse(filter, orderBy, top, INDEXED));
+    }
+}
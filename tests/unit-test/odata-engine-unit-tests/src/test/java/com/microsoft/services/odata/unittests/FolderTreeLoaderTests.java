@@ -0,0 +1,107 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.outlookservices.Folder;
+import com.microsoft.outlookservices.odata.FolderTree;
+import com.microsoft.outlookservices.odata.FolderTreeLoader;
+import com.microsoft.outlookservices.odata.OutlookClient;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FolderTreeLoaderTests {
+
+    private static final String ROOT = "/Me/Folders/?";
+    private static final String CHILDREN_OF_SUB = "/Me/Folders('s')/ChildFolders/?";
+
+    private RecordedTransport transport = new RecordedTransport();
+    private FolderTreeLoader<Folder> loader = new OutlookClient("http://server", transport.createResolver())
+            .getMe().createFolderTreeLoader();
+
+    @Test
+    public void testLoadListsFoldersWhoseChildrenWereNotExpanded() throws Exception {
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 1, folder("s", "Sub", 1))));
+        transport.answer(CHILDREN_OF_SUB, 200, page(folder("d", "Deep", 0)));
+
+        FolderTree<Folder> tree = loader.load().get(5, TimeUnit.SECONDS);
+
+        assertThat(transport.size(), is(2));
+        assertThat(tree.size(), is(3));
+        assertThat(tree.getPath("d"), is(equalTo("Inbox/Sub/Deep")));
+        assertThat(tree.getParent("d").getId(), is(equalTo("s")));
+    }
+
+    @Test
+    public void testRefreshReusesSubtreesWhoseCountIsUnchanged() throws Exception {
+        FolderTree<Folder> previous = loadInitialTree();
+
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 1, folder("s", "Sub", 1))));
+        FolderTree<Folder> refreshed = loader.refresh(previous).get(5, TimeUnit.SECONDS);
+
+        assertThat(transport.size(), is(3));
+        assertThat(refreshed.size(), is(3));
+        assertThat(refreshed.getPath("d"), is(equalTo("Inbox/Sub/Deep")));
+        assertThat(refreshed.getById("d"), is(previous.getById("d")));
+    }
+
+    @Test
+    public void testRefreshListsFoldersWhoseCountChanged() throws Exception {
+        FolderTree<Folder> previous = loadInitialTree();
+
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 1, folder("s", "Sub", 2))));
+        transport.answer(CHILDREN_OF_SUB, 200, page(folder("d", "Deep", 0), folder("n", "New", 0)));
+        FolderTree<Folder> refreshed = loader.refresh(previous).get(5, TimeUnit.SECONDS);
+
+        assertThat(transport.size(), is(4));
+        assertThat(refreshed.size(), is(4));
+        assertThat(refreshed.getPath("n"), is(equalTo("Inbox/Sub/New")));
+    }
+
+    @Test
+    public void testRefreshDropsDeletedTopLevelFolders() throws Exception {
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 0), folder("o", "Old", 0)));
+        FolderTree<Folder> previous = loader.load().get(5, TimeUnit.SECONDS);
+
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 0)));
+        FolderTree<Folder> refreshed = loader.refresh(previous).get(5, TimeUnit.SECONDS);
+
+        assertThat(refreshed.size(), is(1));
+        assertThat(refreshed.getById("o"), is((Folder) null));
+        assertThat(transport.size(), is(2));
+    }
+
+    private FolderTree<Folder> loadInitialTree() throws Exception {
+        transport.answer(ROOT, 200, page(folder("i", "Inbox", 1, folder("s", "Sub", 1))));
+        transport.answer(CHILDREN_OF_SUB, 200, page(folder("d", "Deep", 0)));
+        FolderTree<Folder> tree = loader.load().get(5, TimeUnit.SECONDS);
+        assertThat(transport.size(), is(2));
+        return tree;
+    }
+
+    private static String folder(String id, String name, int childCount, String... children) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"Id\":\"").append(id).append("\",\"DisplayName\":\"").append(name)
+                .append("\",\"ChildFolderCount\":").append(childCount);
+        if (children.length > 0) {
+            json.append(",\"ChildFolders\":[");
+            for (int i = 0; i < children.length; i++) {
+                json.append(i > 0 ? "," : "").append(children[i]);
+            }
+            json.append("]");
+        }
+        return json.append("}").toString();
+    }
+
+    private static String page(String... folders) {
+        StringBuilder json = new StringBuilder("{\"value\":[");
+        for (int i = 0; i < folders.length; i++) {
+            json.append(i > 0 ? "," : "").append(folders[i]);
+        }
+        return json.append("]}").toString();
+    }
+}
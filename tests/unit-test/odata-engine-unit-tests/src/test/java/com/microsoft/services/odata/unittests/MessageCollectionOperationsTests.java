@@ -0,0 +1,89 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.outlookservices.Message;
+import com.microsoft.outlookservices.odata.MessageCollectionOperations;
+import com.microsoft.outlookservices.odata.OutlookClient;
+import com.microsoft.services.odata.ODataBulkItemResult;
+import com.microsoft.services.odata.ODataBulkResult;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MessageCollectionOperationsTests extends WireMockTestBase {
+
+    private String url = "http://localhost:8080";
+
+    private MessageCollectionOperations operations = new OutlookClient(url, new JvmDependencyResolver("faketoken"))
+            .getMe().getMessages().getOperations();
+
+    @Test
+    public void testMoveReportsEveryMessage() throws Exception {
+        //moveMessagePOST.json, moveMissingMessagePOST.json
+        ODataBulkResult<Message> result = operations.move(Arrays.asList("bulk1", "missing"), "Archive")
+                .get(30, TimeUnit.SECONDS);
+
+        assertThat(result.getSuccessCount(), is(1));
+        assertThat(result.getFailureCount(), is(1));
+
+        ODataBulkItemResult<Message> moved = result.getItems().get(0);
+        assertThat(moved.getId(), is(equalTo("bulk1")));
+        assertThat(moved.isSuccess(), is(true));
+        assertThat(moved.getResult().getId(), is(equalTo("moved1")));
+
+        ODataBulkItemResult<Message> missing = result.getItems().get(1);
+        assertThat(missing.getId(), is(equalTo("missing")));
+        assertThat(missing.isSuccess(), is(false));
+        assertThat(missing.getStatus(), is(404));
+        assertThat(missing.getAttempts(), is(1));
+        assertThat(missing.getResult(), is(nullValue()));
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo("/Me/Messages('missing')/Move/")));
+    }
+
+    @Test
+    public void testCopyReturnsTheCopy() throws Exception {
+        //copyMessagePOST.json
+        ODataBulkResult<Message> result = operations.copy(Arrays.asList("bulk2"), "Archive")
+                .get(30, TimeUnit.SECONDS);
+
+        ODataBulkItemResult<Message> copied = result.getItems().get(0);
+        assertThat(copied.getId(), is(equalTo("bulk2")));
+        assertThat(copied.isSuccess(), is(true));
+        assertThat(copied.getResult().getId(), is(equalTo("copy2")));
+    }
+
+    @Test
+    public void testMarkReadUpdatesEveryMessage() throws Exception {
+        //markReadMessagePATCH.json
+        ODataBulkResult<Message> result = operations.markRead(Arrays.asList("bulk3"), true)
+                .get(30, TimeUnit.SECONDS);
+
+        ODataBulkItemResult<Message> updated = result.getItems().get(0);
+        assertThat(updated.getId(), is(equalTo("bulk3")));
+        assertThat(updated.isSuccess(), is(true));
+        assertThat(updated.getResult().getIsRead(), is(true));
+    }
+
+    @Test
+    public void testDeleteReportsEveryMessage() throws Exception {
+        //deleteMessageDELETE.json, deleteMissingMessageDELETE.json
+        ODataBulkResult<Void> result = operations.delete(Arrays.asList("missing", "bulk4"), null)
+                .get(30, TimeUnit.SECONDS);
+
+        assertThat(result.getItems().get(0).getId(), is(equalTo("missing")));
+        assertThat(result.getItems().get(0).getStatus(), is(404));
+        assertThat(result.getItems().get(1).getId(), is(equalTo("bulk4")));
+        assertThat(result.getItems().get(1).isSuccess(), is(true));
+        wireMockServer.verify(1, deleteRequestedFor(urlEqualTo("/Me/Messages('bulk4')/")));
+    }
+}
@@ -0,0 +1,141 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.outlookservices.FileAttachment;
+import com.microsoft.outlookservices.Message;
+import com.microsoft.outlookservices.odata.MessageSender;
+import com.microsoft.outlookservices.odata.OutlookClient;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MessageSenderTests {
+
+    private static final String DRAFT = "{\"Id\":\"d1\",\"Subject\":\"Report\",\"IsDraft\":true,"
+            + "\"@odata.type\":\"#Microsoft.OutlookServices.Message\"}";
+    private static final String ATTACHMENT = "{\"Id\":\"att\",\"Name\":\"report.txt\","
+            + "\"@odata.type\":\"#Microsoft.OutlookServices.FileAttachment\"}";
+    private static final String DELETE_DRAFT = "DELETE /Me/Messages('d1')/";
+
+    private RecordedTransport transport = new RecordedTransport();
+    private OutlookClient client = new OutlookClient("http://server", transport.createResolver());
+
+    @Test
+    public void testSendsTheDraftOnceEveryAttachmentIsUploaded() throws Exception {
+        transport.answer("/Me/Messages/", 201, DRAFT);
+        transport.answer("Messages('d1')/Attachments", 201, ATTACHMENT);
+        transport.answer("Messages('d1')/Attachments", 201, ATTACHMENT);
+        transport.answer("Messages('d1')/Send", 202, "");
+        MessageSender sender = createSender(2);
+
+        Message sent = sender.send().get(5, TimeUnit.SECONDS);
+
+        assertThat(sent.getId(), is(equalTo("d1")));
+        assertThat(sender.getState(), is(MessageSender.State.SENT));
+        assertThat(sender.getUploadedCount(), is(2));
+        assertThat(requests(), is(equalTo(Arrays.asList(
+                "POST /Me/Messages/",
+                "POST /Me/Messages('d1')/Attachments/",
+                "POST /Me/Messages('d1')/Attachments/",
+                "POST /Me/Messages('d1')/Send/"))));
+    }
+
+    @Test
+    public void testFailedUploadDeletesTheDraft() throws Exception {
+        transport.answer("/Me/Messages/", 201, DRAFT);
+        transport.answer("Messages('d1')/Attachments", 413, "{\"error\":{\"code\":\"ErrorMessageSizeExceeded\"}}");
+        MessageSender sender = createSender(1);
+
+        assertFailure(sender.send());
+
+        assertThat(sender.getState(), is(MessageSender.State.FAILED));
+        assertThat(requests(), is(equalTo(Arrays.asList(
+                "POST /Me/Messages/",
+                "POST /Me/Messages('d1')/Attachments/",
+                DELETE_DRAFT))));
+    }
+
+    @Test
+    public void testCancelWhileCreatingTheDraftDeletesIt() throws Exception {
+        MessageSender sender = createSender(1);
+
+        ListenableFuture<Message> future = sender.send();
+        future.cancel(false);
+        assertThat(sender.getState(), is(MessageSender.State.FAILED));
+
+        // the draft is deleted as soon as its id is known, and nothing is uploaded
+        transport.pending("/Me/Messages/").get(0).respond(201, DRAFT);
+        assertThat(requests(), is(equalTo(Arrays.asList("POST /Me/Messages/", DELETE_DRAFT))));
+    }
+
+    @Test
+    public void testCancelOnceTheSendIsOutKeepsTheDraft() throws Exception {
+        transport.answer("/Me/Messages/", 201, DRAFT);
+        MessageSender sender = createSender(0);
+
+        ListenableFuture<Message> future = sender.send();
+        assertThat(sender.getState(), is(MessageSender.State.SENDING));
+        future.cancel(false);
+        transport.pending("Messages('d1')/Send").get(0).respond(202, "");
+
+        assertThat(sender.getState(), is(MessageSender.State.FAILED));
+        assertThat(requests(), is(equalTo(Arrays.asList("POST /Me/Messages/", "POST /Me/Messages('d1')/Send/"))));
+    }
+
+    @Test
+    public void testFailedSendKeepsTheDraft() throws Exception {
+        transport.answer("/Me/Messages/", 201, DRAFT);
+        transport.answer("Messages('d1')/Attachments", 201, ATTACHMENT);
+        transport.answer("Messages('d1')/Send", 504, "");
+        MessageSender sender = createSender(1);
+
+        assertFailure(sender.send());
+
+        // the server may have sent the draft before the gateway gave up
+        assertThat(sender.getState(), is(MessageSender.State.FAILED));
+        assertThat(requests(), not(hasItem(DELETE_DRAFT)));
+    }
+
+    private MessageSender createSender(int attachmentCount) throws Exception {
+        Message message = new Message();
+        message.setSubject("Report");
+        MessageSender sender = client.getMe().createMessageSender(message);
+        for (int i = 0; i < attachmentCount; i++) {
+            FileAttachment attachment = new FileAttachment();
+            attachment.setName("report" + i + ".txt");
+            attachment.setContentBytes("content".getBytes("UTF-8"));
+            sender.addAttachment(attachment);
+        }
+        return sender;
+    }
+
+    private List<String> requests() {
+        List<String> requests = new ArrayList<String>();
+        for (RecordedTransport.Exchange exchange : transport.getExchanges()) {
+            requests.add(exchange.getRequest().getVerb() + " " + exchange.getUrl().substring("http://server".length()));
+        }
+        return requests;
+    }
+
+    private static void assertFailure(ListenableFuture<Message> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The send should have failed");
+        } catch (ExecutionException e) {
+            // expected
+        }
+    }
+}
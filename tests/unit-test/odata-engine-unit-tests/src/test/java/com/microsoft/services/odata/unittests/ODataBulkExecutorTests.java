@@ -0,0 +1,184 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataBulkExecutor;
+import com.microsoft.services.odata.ODataBulkItemResult;
+import com.microsoft.services.odata.ODataBulkOptions;
+import com.microsoft.services.odata.ODataBulkResult;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class ODataBulkExecutorTests extends WireMockTestBase {
+
+    private String url = "http://localhost:8080";
+
+    private SampleContainerClient client = new SampleContainerClient(url, new JvmDependencyResolver("faketoken"));
+
+    /**
+     * A recorded start of the operation.
+     */
+    private static class Start {
+        final String id;
+        final long time;
+        final int inFlight;
+
+        Start(String id, long time, int inFlight) {
+            this.id = id;
+            this.time = time;
+            this.inFlight = inFlight;
+        }
+    }
+
+    /**
+     * Reads the navigations for the Case named by the id, recording how many reads are in
+     * flight when each one starts.
+     */
+    private class TrackedRead implements ODataBulkExecutor.Operation<List<AnotherEntity>> {
+        final List<Start> starts = new ArrayList<Start>();
+        int inFlight;
+
+        @Override
+        public ListenableFuture<List<AnotherEntity>> execute(String id) {
+            synchronized (this) {
+                inFlight++;
+                starts.add(new Start(id, System.currentTimeMillis(), inFlight));
+            }
+
+            final SettableFuture<List<AnotherEntity>> result = SettableFuture.create();
+            String caseName = id.substring(0, id.indexOf('-'));
+            Futures.addCallback(client.getMe().getNavigations().addParameter("Case", caseName).read(),
+                    new FutureCallback<List<AnotherEntity>>() {
+                        @Override
+                        public void onSuccess(List<AnotherEntity> entities) {
+                            finished();
+                            result.set(entities);
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            finished();
+                            result.setException(t);
+                        }
+                    });
+            return result;
+        }
+
+        synchronized void finished() {
+            inFlight--;
+        }
+
+        synchronized List<Start> getStarts() {
+            return new ArrayList<Start>(starts);
+        }
+    }
+
+    @Test
+    public void testThrottlingHalvesConcurrencyUntilRetryAfter() throws Exception {
+        //getBulkThrottledNavigationsGET.json, getBulkThrottledRetryNavigationsGET.json, getBulkOkNavigationsGET.json
+        List<String> ids = new ArrayList<String>();
+        ids.add("bulkThrottled-0");
+        for (int i = 1; i < 12; i++) {
+            ids.add("bulkOk-" + i);
+        }
+        TrackedRead operation = new TrackedRead();
+
+        ODataBulkResult<List<AnotherEntity>> result = ODataBulkExecutor.execute(ids, operation,
+                new ODataBulkOptions().setMaxConcurrency(4)).get(30, TimeUnit.SECONDS);
+
+        assertThat(result.getSuccessCount(), is(12));
+        assertThat(result.getThrottledCount(), is(1));
+        ODataBulkItemResult<List<AnotherEntity>> throttled = result.getItems().get(0);
+        assertThat(throttled.getId(), is(equalTo("bulkThrottled-0")));
+        assertThat(throttled.isSuccess(), is(true));
+        assertThat(throttled.getAttempts(), is(2));
+
+        List<Start> starts = operation.getStarts();
+        assertThat(starts.size(), is(13));
+        assertThat(starts.get(3).inFlight, is(4));
+
+        // the throttled id is queued first and nothing is sent until Retry-After has passed
+        Start retry = starts.get(4);
+        assertThat(retry.id, is(equalTo("bulkThrottled-0")));
+        assertThat(retry.time - starts.get(0).time, is(greaterThanOrEqualTo(950L)));
+        assertThat(starts.get(5).time - starts.get(0).time, is(greaterThanOrEqualTo(950L)));
+
+        // the concurrency is halved, then grows back with the successful reads
+        assertThat(retry.inFlight, is(1));
+        assertThat(starts.get(5).inFlight, is(lessThanOrEqualTo(2)));
+        int peak = 0;
+        for (Start start : starts.subList(4, starts.size())) {
+            peak = Math.max(peak, start.inFlight);
+        }
+        assertThat(peak, is(greaterThan(2)));
+        assertThat(peak, is(lessThanOrEqualTo(4)));
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='bulkThrottled'")));
+    }
+
+    @Test
+    public void testThrottlingWithoutRetryAfterBacksOffExponentially() throws Exception {
+        //getBulkBackoffFirstNavigationsGET.json, getBulkBackoffSecondNavigationsGET.json,
+        //getBulkBackoffRetryNavigationsGET.json
+        TrackedRead operation = new TrackedRead();
+
+        ODataBulkResult<List<AnotherEntity>> result = ODataBulkExecutor.execute(Arrays.asList("bulkBackoff-0"),
+                operation, new ODataBulkOptions().setRetryDelayMillis(200)).get(30, TimeUnit.SECONDS);
+
+        ODataBulkItemResult<List<AnotherEntity>> item = result.getItems().get(0);
+        assertThat(item.isSuccess(), is(true));
+        assertThat(item.getAttempts(), is(3));
+        assertThat(result.getThrottledCount(), is(2));
+
+        // 200 ms after the first 503, then 400 ms after the second
+        List<Start> starts = operation.getStarts();
+        assertThat(starts.get(1).time - starts.get(0).time, is(greaterThanOrEqualTo(200L)));
+        assertThat(starts.get(2).time - starts.get(1).time, is(greaterThanOrEqualTo(400L)));
+        assertThat(result.getElapsedMillis(), is(greaterThanOrEqualTo(600L)));
+    }
+
+    @Test
+    public void testFailuresAreReportedPerId() throws Exception {
+        //getBulkUnavailableNavigationsGET.json, getBulkMissingNavigationsGET.json, getBulkOkNavigationsGET.json
+        List<String> ids = Arrays.asList("bulkUnavailable-0", "bulkMissing-1", "bulkOk-2");
+
+        ODataBulkResult<List<AnotherEntity>> result = ODataBulkExecutor.execute(ids, new TrackedRead(),
+                new ODataBulkOptions().setMaxRetries(1).setRetryDelayMillis(50)).get(30, TimeUnit.SECONDS);
+
+        assertThat(result.getSuccessCount(), is(1));
+        assertThat(result.getFailureCount(), is(2));
+
+        // a throttled id gives up after the retries, other errors are not retried
+        ODataBulkItemResult<List<AnotherEntity>> unavailable = result.getItems().get(0);
+        assertThat(unavailable.isSuccess(), is(false));
+        assertThat(unavailable.getStatus(), is(503));
+        assertThat(unavailable.getAttempts(), is(2));
+
+        ODataBulkItemResult<List<AnotherEntity>> missing = result.getItems().get(1);
+        assertThat(missing.isSuccess(), is(false));
+        assertThat(missing.getStatus(), is(404));
+        assertThat(missing.getAttempts(), is(1));
+
+        ODataBulkItemResult<List<AnotherEntity>> ok = result.getItems().get(2);
+        assertThat(ok.getId(), is(equalTo("bulkOk-2")));
+        assertThat(ok.getResult().size(), is(1));
+    }
+}
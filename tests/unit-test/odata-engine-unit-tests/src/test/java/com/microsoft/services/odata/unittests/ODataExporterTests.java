@@ -0,0 +1,161 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataExportProgress;
+import com.microsoft.services.odata.ODataExporter;
+import com.microsoft.services.odata.impl.InMemorySyncStateStore;
+import com.microsoft.services.odata.impl.NdjsonExportSink;
+import com.microsoft.services.odata.interfaces.SyncStateStore;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ODataExporterTests {
+
+    private static final String CHECKPOINT_KEY = "nightly.navigations";
+
+    private RecordedTransport transport = new RecordedTransport();
+    private SampleContainerClient client = new SampleContainerClient("http://server", transport.createResolver());
+    private SyncStateStore checkpoints = new InMemorySyncStateStore();
+    private File file;
+
+    /**
+     * Fails the write of a given entity.
+     */
+    private static class FailingSink extends NdjsonExportSink {
+        private final String failingId;
+
+        FailingSink(File file, String failingId) {
+            super(file);
+            this.failingId = failingId;
+        }
+
+        @Override
+        public void write(String json) throws IOException {
+            if (json.contains("\"" + failingId + "\"")) {
+                throw new IOException("Disk full");
+            }
+            super.write(json);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("export", ".ndjson");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testCancelledExportResumesFromItsCheckpoint() throws Exception {
+        ODataExporter exporter = createExporter(new NdjsonExportSink(file));
+        ListenableFuture<ODataExportProgress> first = exporter.start();
+        respond("/Me/Navigations/", "http://server/p2", "n1", "n2");
+        respond("/p2", "http://server/p3", "n3");
+
+        // the third page was requested while the second one was written
+        RecordedTransport.Exchange prefetched = transport.pending("/p3").get(0);
+        exporter.cancel();
+
+        assertThat(first.isCancelled(), is(true));
+        assertThat(prefetched.isCancelled(), is(true));
+        assertThat(ids(), is(equalTo(Arrays.asList("n1", "n2", "n3"))));
+        assertThat(checkpoints.get(CHECKPOINT_KEY), is(equalTo(file.length() + "\nhttp://server/p3")));
+
+        ListenableFuture<ODataExportProgress> second = createExporter(new NdjsonExportSink(file)).start();
+        assertThat(transport.size(), is(4));
+        respond("/p3", null, "n4");
+
+        ODataExportProgress progress = second.get(5, TimeUnit.SECONDS);
+        assertThat(progress.getCompletedCount(), is(1));
+        assertThat(progress.getRowCount(), is(1L));
+        assertThat(ids(), is(equalTo(Arrays.asList("n1", "n2", "n3", "n4"))));
+        assertThat(checkpoints.get(CHECKPOINT_KEY), endsWith("\n"));
+
+        // a completed collection is not read again
+        createExporter(new NdjsonExportSink(file)).start().get(5, TimeUnit.SECONDS);
+        assertThat(transport.size(), is(4));
+    }
+
+    @Test
+    public void testFailedWriteCancelsThePrefetchedPage() throws Exception {
+        ListenableFuture<ODataExportProgress> first = createExporter(new FailingSink(file, "n3")).start();
+        respond("/Me/Navigations/", "http://server/p2", "n1", "n2");
+        String checkpoint = checkpoints.get(CHECKPOINT_KEY);
+        respond("/p2", "http://server/p3", "n3");
+        RecordedTransport.Exchange prefetched = transport.get(2);
+
+        try {
+            first.get(5, TimeUnit.SECONDS);
+            fail("The export should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+        assertThat(prefetched.getUrl(), containsString("/p3"));
+        assertThat(prefetched.isCancelled(), is(true));
+        assertThat(checkpoints.get(CHECKPOINT_KEY), is(equalTo(checkpoint)));
+        assertThat(checkpoint, endsWith("\nhttp://server/p2"));
+
+        // the uncommitted part of the failed page is dropped on resume
+        ListenableFuture<ODataExportProgress> second = createExporter(new NdjsonExportSink(file)).start();
+        assertThat(transport.get(3).getUrl(), containsString("/p2"));
+        respond("/p2", null, "n3");
+
+        assertThat(second.get(5, TimeUnit.SECONDS).getCompletedCount(), is(1));
+        assertThat(ids(), is(equalTo(Arrays.asList("n1", "n2", "n3"))));
+    }
+
+    private ODataExporter createExporter(NdjsonExportSink sink) {
+        return new ODataExporter(checkpoints, "nightly").add("navigations", client.getMe().getNavigations(), sink);
+    }
+
+    private void respond(String urlFragment, String nextLink, String... ids) {
+        StringBuilder json = new StringBuilder("{\"value\":[");
+        for (int i = 0; i < ids.length; i++) {
+            json.append(i > 0 ? "," : "").append("{\"Id\":\"").append(ids[i])
+                    .append("\",\"@odata.type\":\"#Microsoft.SampleService.AnotherEntity\"}");
+        }
+        json.append("]");
+        if (nextLink != null) {
+            json.append(",\"@odata.nextLink\":\"").append(nextLink).append("\"");
+        }
+        transport.pending(urlFragment).get(0).respond(200, json.append("}").toString());
+    }
+
+    private List<String> ids() throws IOException {
+        List<String> ids = new ArrayList<String>();
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                int start = line.indexOf("\"Id\":\"") + 6;
+                ids.add(line.substring(start, line.indexOf('"', start)));
+            }
+        } finally {
+            in.close();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,200 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.base.Function;
+import com.microsoft.outlookservices.Message;
+import com.microsoft.outlookservices.odata.OutlookClient;
+import com.microsoft.outlookservices.odata.UserFetcher;
+import com.microsoft.services.odata.ODataCollectionFetcher;
+import com.microsoft.services.odata.ODataException;
+import com.microsoft.services.odata.ODataFanOutOptions;
+import com.microsoft.services.odata.ODataFanOutProgress;
+import com.microsoft.services.odata.ODataFanOutReader;
+import com.microsoft.services.odata.unittests.testsupport.RecordedTransport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ODataFanOutReaderTests {
+
+    private static final Function<UserFetcher, ODataCollectionFetcher<Message, ?, ?>> INBOX =
+            new Function<UserFetcher, ODataCollectionFetcher<Message, ?, ?>>() {
+                @Override
+                public ODataCollectionFetcher<Message, ?, ?> apply(UserFetcher user) {
+                    return user.getMessages();
+                }
+            };
+
+    private static final Function<UserFetcher, ODataCollectionFetcher<Message, ?, ?>> SENT_ITEMS =
+            new Function<UserFetcher, ODataCollectionFetcher<Message, ?, ?>>() {
+                @Override
+                public ODataCollectionFetcher<Message, ?, ?> apply(UserFetcher user) {
+                    return user.getFolders().getById("SentItems").getMessages();
+                }
+            };
+
+    private RecordedTransport transport = new RecordedTransport();
+    private OutlookClient client = new OutlookClient("http://server", transport.createResolver());
+    private RecordingCallback callback = new RecordingCallback();
+
+    /**
+     * Records the pages and completions reported, in order.
+     */
+    private static class RecordingCallback implements ODataFanOutReader.Callback<Message> {
+        final long startTime = System.currentTimeMillis();
+        final List<String> events = new ArrayList<String>();
+        final Map<String, Throwable> errors = new HashMap<String, Throwable>();
+        final Map<String, Long> completedAt = new HashMap<String, Long>();
+
+        @Override
+        public synchronized void onItems(String key, List<Message> items) {
+            for (Message message : items) {
+                events.add(key + ":" + message.getId());
+            }
+        }
+
+        @Override
+        public synchronized void onCompleted(String key, Throwable error) {
+            events.add(key + " done");
+            errors.put(key, error);
+            completedAt.put(key, System.currentTimeMillis() - startTime);
+        }
+
+        synchronized List<String> getEvents() {
+            return new ArrayList<String>(events);
+        }
+    }
+
+    @Test
+    public void testKeysTakeTurns() throws Exception {
+        transport.answer("Users('a')/Messages", 200, page("http://server/a2", "a1"));
+        transport.answer("/a2", 200, page("http://server/a3", "a2"));
+        transport.answer("/a3", 200, page(null, "a3"));
+        transport.answer("Users('b')/Messages", 200, page(null, "b1"));
+        transport.answer("Users('c')/Messages", 200, page(null, "c1"));
+
+        ODataFanOutProgress progress = client.readMailboxes(Arrays.asList("a", "b", "c"), INBOX, callback,
+                new ODataFanOutOptions().setMaxConcurrency(1)).getResult().get(5, TimeUnit.SECONDS);
+
+        // a key with many pages goes to the back of the line after each one
+        List<String> urls = transport.getUrls();
+        assertThat(urls.size(), is(5));
+        assertThat(urls.get(0), containsString("Users('a')"));
+        assertThat(urls.get(1), containsString("Users('b')"));
+        assertThat(urls.get(2), containsString("Users('c')"));
+        assertThat(urls.get(3), containsString("/a2"));
+        assertThat(urls.get(4), containsString("/a3"));
+        assertThat(callback.getEvents(), hasItems("a:a1", "a:a2", "a:a3", "a done", "b:b1", "b done", "c:c1", "c done"));
+
+        assertThat(progress.getCompletedCount(), is(3));
+        assertThat(progress.getItemCount(), is(5L));
+        assertThat(progress.getPageCount(), is(5L));
+    }
+
+    @Test
+    public void testCollectionsOfAKeyAreBoundedPerKey() throws Exception {
+        List<Function<UserFetcher, ? extends ODataCollectionFetcher<Message, ?, ?>>> templates =
+                new ArrayList<Function<UserFetcher, ? extends ODataCollectionFetcher<Message, ?, ?>>>();
+        templates.add(INBOX);
+        templates.add(SENT_ITEMS);
+        templates.add(INBOX);
+
+        ODataFanOutReader<Message> reader = client.readMailboxes(Arrays.asList("a", "b"), templates, callback,
+                new ODataFanOutOptions().setMaxConcurrencyPerKey(2));
+
+        // the third collection of each key waits for one of its first two
+        assertThat(transport.size(), is(4));
+        assertThat(transport.pending("Users('a')").size(), is(2));
+        assertThat(transport.pending("Users('b')").size(), is(2));
+
+        transport.pending("Users('a')/Messages").get(0).respond(200, page(null, "a1"));
+        assertThat(transport.pending("Users('a')").size(), is(2));
+        assertThat(transport.size(), is(5));
+
+        for (RecordedTransport.Exchange exchange : transport.pending("Users(")) {
+            exchange.respond(200, page(null));
+        }
+        // the third collection of b took the room left by its first two
+        assertThat(transport.size(), is(6));
+        transport.pending("Users('b')").get(0).respond(200, page(null));
+
+        ODataFanOutProgress progress = reader.getResult().get(5, TimeUnit.SECONDS);
+        assertThat(progress.getCompletedCount(), is(2));
+        assertThat(progress.getPageCount(), is(6L));
+    }
+
+    @Test
+    public void testThrottlingPausesOnlyItsKey() throws Exception {
+        transport.answer("Users('a')/Messages", 429, "", Collections.singletonMap("Retry-After", "1"));
+        transport.answer("Users('a')/Messages", 200, page(null, "a1"));
+        transport.answer("Users('b')/Messages", 200, page("http://server/b2", "b1"));
+        transport.answer("/b2", 200, page(null, "b2"));
+
+        ODataFanOutProgress progress = client.readMailboxes(Arrays.asList("a", "b"), INBOX, callback,
+                new ODataFanOutOptions().setMaxConcurrency(1)).getResult().get(5, TimeUnit.SECONDS);
+
+        assertThat(callback.getEvents(), is(equalTo(Arrays.asList("b:b1", "b:b2", "b done", "a:a1", "a done"))));
+        assertThat(callback.completedAt.get("b"), is(lessThan(500L)));
+        assertThat(callback.completedAt.get("a"), is(greaterThanOrEqualTo(950L)));
+        assertThat(progress.getThrottledCount(), is(1));
+        assertThat(progress.getCompletedCount(), is(2));
+        assertThat(transport.size(), is(4));
+    }
+
+    @Test
+    public void testFailedKeyDoesNotAffectTheOthers() throws Exception {
+        List<Function<UserFetcher, ? extends ODataCollectionFetcher<Message, ?, ?>>> templates =
+                new ArrayList<Function<UserFetcher, ? extends ODataCollectionFetcher<Message, ?, ?>>>();
+        templates.add(INBOX);
+        templates.add(SENT_ITEMS);
+
+        transport.answer("Users('a')/Messages", 404, "{\"error\":{\"code\":\"ErrorNonExistentMailbox\"}}");
+        transport.answer("Users('b')/Messages", 200, page(null, "b1"));
+        transport.answer("Users('b')/Folders", 200, page("http://server/b2", "b2"));
+        transport.answer("/b2", 200, page(null, "b3"));
+
+        ODataFanOutProgress progress = client.readMailboxes(Arrays.asList("a", "b"), templates, callback,
+                new ODataFanOutOptions().setMaxConcurrencyPerKey(1)).getResult().get(5, TimeUnit.SECONDS);
+
+        assertThat(progress.getCompletedCount(), is(1));
+        assertThat(progress.getFailureCount(), is(1));
+        assertThat(progress.getFailures().get("a"), is(instanceOf(ODataException.class)));
+        assertThat(callback.errors.get("a"), is(progress.getFailures().get("a")));
+        assertThat(callback.errors.get("b"), is(nullValue()));
+        assertThat(progress.getItemCount(), is(3L));
+
+        // the other collection of the failed key is never read
+        assertThat(transport.size(), is(4));
+        assertThat(transport.getUrls().toString(), not(containsString("Users('a')/Folders")));
+    }
+
+    private static String page(String nextLink, String... ids) {
+        StringBuilder json = new StringBuilder("{\"value\":[");
+        for (int i = 0; i < ids.length; i++) {
+            json.append(i > 0 ? "," : "").append("{\"Id\":\"").append(ids[i])
+                    .append("\",\"@odata.type\":\"#Microsoft.OutlookServices.Message\"}");
+        }
+        json.append("]");
+        if (nextLink != null) {
+            json.append(",\"@odata.nextLink\":\"").append(nextLink).append("\"");
+        }
+        return json.append("}").toString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.services.odata.ODataFilter;
+import com.microsoft.services.odata.ODataProperty;
+import com.microsoft.services.odata.interfaces.LogLevel;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static com.microsoft.services.odata.ODataFilter.eq;
+import static com.microsoft.services.odata.ODataFilter.ge;
+import static com.microsoft.services.odata.ODataFilter.not;
+import static com.microsoft.services.odata.ODataFilter.param;
+import static com.microsoft.services.odata.ODataFilter.startsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ODataFilterTests {
+
+    private static final ODataProperty<AnotherEntity> SOME_STRING = new ODataProperty<AnotherEntity>("SomeString");
+    private static final ODataProperty<AnotherEntity> ID = new ODataProperty<AnotherEntity>("Id");
+    private static final ODataProperty<AnotherEntity> CREATED = new ODataProperty<AnotherEntity>("DateTimeCreated");
+    private static final ODataProperty<AnotherEntity> COUNT = new ODataProperty<AnotherEntity>("Count");
+
+    @Test
+    public void testAndBindsTighterThanOr() {
+        ODataFilter<AnotherEntity> filter = eq(SOME_STRING, "a").or(eq(SOME_STRING, "b")).and(eq(COUNT, 1));
+
+        assertThat(filter.render(), is(equalTo("(SomeString eq 'a' or SomeString eq 'b') and Count eq 1")));
+    }
+
+    @Test
+    public void testOrOfAndsIsNotGrouped() {
+        ODataFilter<AnotherEntity> filter = eq(SOME_STRING, "a").and(eq(COUNT, 1))
+                .or(eq(SOME_STRING, "b").and(eq(COUNT, 2)));
+
+        assertThat(filter.render(), is(equalTo("SomeString eq 'a' and Count eq 1 or SomeString eq 'b' and Count eq 2")));
+    }
+
+    @Test
+    public void testChainedOperatorsOfTheSameKindAreNotGrouped() {
+        ODataFilter<AnotherEntity> filter = eq(COUNT, 1).or(eq(COUNT, 2)).or(eq(COUNT, 3));
+
+        assertThat(filter.render(), is(equalTo("Count eq 1 or Count eq 2 or Count eq 3")));
+    }
+
+    @Test
+    public void testNotGroupsItsOperand() {
+        ODataFilter<AnotherEntity> filter = not(eq(COUNT, 1).or(startsWith(SOME_STRING, "RE:")))
+                .and(eq(ID, "x"));
+
+        assertThat(filter.render(), is(equalTo("not (Count eq 1 or startswith(SomeString,'RE:')) and Id eq 'x'")));
+    }
+
+    @Test
+    public void testStringLiteralsEscapeQuotes() {
+        assertThat(eq(SOME_STRING, "o'brien").render(), is(equalTo("SomeString eq 'o''brien'")));
+        assertThat(ODataFilter.toLiteral("''"), is(equalTo("''''''")));
+    }
+
+    @Test
+    public void testLiterals() {
+        assertThat(ODataFilter.toLiteral(null), is(equalTo("null")));
+        assertThat(ODataFilter.toLiteral(true), is(equalTo("true")));
+        assertThat(ODataFilter.toLiteral(42), is(equalTo("42")));
+        assertThat(ODataFilter.toLiteral(1.5), is(equalTo("1.5")));
+        assertThat(ODataFilter.toLiteral('c'), is(equalTo("'c'")));
+        assertThat(ODataFilter.toLiteral(LogLevel.ERROR), is(equalTo("'ERROR'")));
+    }
+
+    @Test
+    public void testGuidLiteralsAreNotQuoted() {
+        UUID id = UUID.fromString("3281ec0b-1aeb-49a4-a345-e64d732da6d3");
+
+        assertThat(eq(ID, id).render(), is(equalTo("Id eq 3281ec0b-1aeb-49a4-a345-e64d732da6d3")));
+    }
+
+    @Test
+    public void testDateLiteralsAreRenderedInUtc() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT+02:00"));
+        calendar.clear();
+        calendar.set(2015, Calendar.JANUARY, 1, 2, 30, 15);
+
+        assertThat(ge(CREATED, calendar).render(), is(equalTo("DateTimeCreated ge 2015-01-01T00:30:15.0000000Z")));
+        assertThat(ODataFilter.toLiteral(new Date(calendar.getTimeInMillis())), is(equalTo("2015-01-01T00:30:15.0000000Z")));
+    }
+
+    @Test
+    public void testBindReplacesEverySlotWithTheSameName() {
+        ODataFilter<AnotherEntity> filter = eq(SOME_STRING, param("value")).or(eq(ID, param("value")))
+                .and(ge(COUNT, param("count")));
+
+        assertThat(filter.isBound(), is(false));
+        assertThat(filter.toString(), is(equalTo("(SomeString eq @value or Id eq @value) and Count ge @count")));
+
+        ODataFilter<AnotherEntity> bound = filter.bind("value", "it's").bind("count", 3);
+
+        assertThat(bound.isBound(), is(true));
+        assertThat(bound.render(), is(equalTo("(SomeString eq 'it''s' or Id eq 'it''s') and Count ge 3")));
+    }
+
+    @Test
+    public void testBindDoesNotChangeTheOriginalFilter() {
+        ODataFilter<AnotherEntity> filter = eq(SOME_STRING, param("value"));
+
+        assertThat(filter.bind("value", "a").render(), is(equalTo("SomeString eq 'a'")));
+        assertThat(filter.bind("value", "b").render(), is(equalTo("SomeString eq 'b'")));
+        assertThat(filter.isBound(), is(false));
+    }
+
+    @Test
+    public void testRenderFailsWithUnboundParameter() {
+        ODataFilter<AnotherEntity> filter = eq(SOME_STRING, param("value")).and(eq(COUNT, param("count")))
+                .bind("value", "a");
+
+        try {
+            filter.render();
+            fail("The filter should not render");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("The filter parameter count is not bound")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindFailsWithUnknownParameter() {
+        eq(SOME_STRING, param("value")).bind("other", "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindFailsWithParameterValue() {
+        eq(SOME_STRING, param("value")).bind("value", param("other"));
+    }
+}
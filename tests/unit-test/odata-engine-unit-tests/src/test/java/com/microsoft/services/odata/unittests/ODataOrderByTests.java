@@ -0,0 +1,44 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.services.odata.ODataOrderBy;
+import com.microsoft.services.odata.ODataProperty;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ODataOrderByTests {
+
+    private static final ODataProperty<AnotherEntity> SOME_STRING = new ODataProperty<AnotherEntity>("SomeString");
+    private static final ODataProperty<AnotherEntity> ID = new ODataProperty<AnotherEntity>("Id");
+    private static final ODataProperty<AnotherEntity> SENDER = new ODataProperty<AnotherEntity>("From/EmailAddress/Address");
+
+    @Test
+    public void testAscending() {
+        assertThat(ODataOrderBy.asc(SOME_STRING).render(), is(equalTo("SomeString")));
+    }
+
+    @Test
+    public void testDescending() {
+        assertThat(ODataOrderBy.desc(SOME_STRING).render(), is(equalTo("SomeString desc")));
+    }
+
+    @Test
+    public void testThenOrdersAreAppendedInOrder() {
+        ODataOrderBy<AnotherEntity> orderBy = ODataOrderBy.desc(SOME_STRING).thenAsc(ID).thenDesc(SENDER);
+
+        assertThat(orderBy.render(), is(equalTo("SomeString desc,Id,From/EmailAddress/Address desc")));
+        assertThat(orderBy.toString(), is(equalTo(orderBy.render())));
+    }
+
+    @Test
+    public void testThenDoesNotChangeTheOriginalOrder() {
+        ODataOrderBy<AnotherEntity> orderBy = ODataOrderBy.asc(SOME_STRING);
+        orderBy.thenDesc(ID);
+
+        assertThat(orderBy.render(), is(equalTo("SomeString")));
+    }
+}
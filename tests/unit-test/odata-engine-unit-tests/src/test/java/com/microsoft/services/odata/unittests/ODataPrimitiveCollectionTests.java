@@ -0,0 +1,106 @@
+package com.microsoft.services.odata.unittests;
+
+import com.microsoft.services.odata.ODataPrimitiveCollection;
+import com.microsoft.services.odata.impl.desktop.GsonSerializer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ODataPrimitiveCollectionTests {
+
+    private final GsonSerializer serializer = new GsonSerializer();
+
+    @Test
+    public void testBareArrayAndValueObjectAreRead() throws Exception {
+        ODataPrimitiveCollection bare = serializer.deserializePrimitiveCollection("[\"a\",\"b\"]");
+        ODataPrimitiveCollection wrapped = serializer.deserializePrimitiveCollection(
+                "{\"@odata.context\":\"http://server/$metadata#Collection(Edm.String)\",\"value\":[\"a\",\"b\"]}");
+
+        assertThat(bare.getKind(), is(ODataPrimitiveCollection.Kind.STRING));
+        assertThat(wrapped.getKind(), is(ODataPrimitiveCollection.Kind.STRING));
+        assertThat(wrapped.asStringList(), is(equalTo(bare.asStringList())));
+        assertThat(bare.asStringList(), is(equalTo(Arrays.asList("a", "b"))));
+    }
+
+    @Test
+    public void testEmptyCollections() throws Exception {
+        assertThat(serializer.deserializePrimitiveCollection("[]").getKind(), is(ODataPrimitiveCollection.Kind.EMPTY));
+        assertThat(serializer.deserializePrimitiveCollection("{\"value\":[]}").isEmpty(), is(true));
+        assertThat(serializer.deserializePrimitiveCollection("{\"@odata.context\":\"x\"}").isEmpty(), is(true));
+        assertThat(serializer.deserializePrimitiveCollection("[]").toStringArray().length, is(0));
+    }
+
+    @Test
+    public void testIntegralNumbersAreKeptAsLongs() throws Exception {
+        ODataPrimitiveCollection collection = serializer.deserializePrimitiveCollection(
+                "{\"value\":[1,-2,9007199254740993]}");
+
+        assertThat(collection.getKind(), is(ODataPrimitiveCollection.Kind.INT64));
+        assertThat(collection.toLongArray()[2], is(9007199254740993L));
+        assertThat(collection.getDouble(1), is(-2.0));
+    }
+
+    @Test
+    public void testFractionPromotesTheLongsReadSoFarToDoubles() throws Exception {
+        // enough integral values before the fraction to have grown the long array
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            json.append(i).append(',');
+        }
+        json.append("2.5,3,1e3]");
+
+        ODataPrimitiveCollection collection = serializer.deserializePrimitiveCollection(json.toString());
+
+        assertThat(collection.getKind(), is(ODataPrimitiveCollection.Kind.DOUBLE));
+        assertThat(collection.size(), is(23));
+        assertThat(collection.getDouble(0), is(0.0));
+        assertThat(collection.getDouble(19), is(19.0));
+        assertThat(collection.getDouble(20), is(2.5));
+        assertThat(collection.getDouble(21), is(3.0));
+        assertThat(collection.getDouble(22), is(1000.0));
+        try {
+            collection.getLong(0);
+            fail("Doubles should not be read as longs");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNullsAmongStringsAreKept() throws Exception {
+        ODataPrimitiveCollection collection = serializer.deserializePrimitiveCollection(
+                "{\"value\":[null,\"a\",null,\"b\"]}");
+
+        assertThat(collection.getKind(), is(ODataPrimitiveCollection.Kind.STRING));
+        assertThat(collection.size(), is(4));
+        assertThat(collection.getString(0), is(nullValue()));
+        assertThat(collection.getString(2), is(nullValue()));
+        assertThat(collection.asStringList(), is(equalTo(Arrays.asList(null, "a", null, "b"))));
+    }
+
+    @Test
+    public void testBooleans() throws Exception {
+        ODataPrimitiveCollection collection = serializer.deserializePrimitiveCollection("[true,false,true]");
+
+        assertThat(collection.getKind(), is(ODataPrimitiveCollection.Kind.BOOLEAN));
+        assertThat(Arrays.equals(collection.toBooleanArray(), new boolean[]{true, false, true}), is(true));
+    }
+
+    @Test
+    public void testIndexIsChecked() throws Exception {
+        ODataPrimitiveCollection collection = serializer.deserializePrimitiveCollection("[\"a\"]");
+        try {
+            collection.getString(1);
+            fail("The index should be out of bounds");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.microsoft.services.odata.unittests;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.sampleservice.AnotherEntity;
+import com.microsoft.sampleservice.SampleContainerClient;
+import com.microsoft.services.odata.ODataException;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescingTests extends WireMockTestBase {
+
+    private static final int CALLERS = 5;
+
+    private String url = "http://localhost:8080";
+
+    private JvmDependencyResolver resolver;
+    private SampleContainerClient client;
+
+    public RequestCoalescingTests() {
+        resolver = new JvmDependencyResolver("faketoken");
+        client = new SampleContainerClient(url, resolver);
+        client.setRequestCoalescingEnabled(true);
+    }
+
+    @Test
+    public void testConcurrentIdenticalReadsShareOneRequest() throws ExecutionException, InterruptedException {
+        //getCoalescedNavigationsGET.json
+        List<ListenableFuture<List<AnotherEntity>>> futures = readConcurrently("coalesced");
+
+        for (ListenableFuture<List<AnotherEntity>> future : futures) {
+            assertThat(future.get().size(), is(1));
+        }
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='coalesced'")));
+    }
+
+    @Test
+    public void testReadsWithDifferentHeadersAreNotShared() throws ExecutionException, InterruptedException {
+        //getCoalescedHeadersNavigationsGET.json
+        List<ListenableFuture<List<AnotherEntity>>> futures = new ArrayList<ListenableFuture<List<AnotherEntity>>>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(client.getMe().getNavigations()
+                    .addParameter("Case", "coalescedHeaders")
+                    .addHeader("Caller", String.valueOf(i))
+                    .read());
+        }
+
+        for (ListenableFuture<List<AnotherEntity>> future : futures) {
+            future.get();
+        }
+        wireMockServer.verify(CALLERS, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='coalescedHeaders'")));
+    }
+
+    @Test
+    public void testFailureIsSharedByAllCallers() throws InterruptedException {
+        //getCoalescedFailureNavigationsGET.json
+        List<ListenableFuture<List<AnotherEntity>>> futures = readConcurrently("coalescedFailure");
+
+        for (ListenableFuture<List<AnotherEntity>> future : futures) {
+            try {
+                future.get();
+                fail("The read should have failed");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(ODataException.class)));
+                ODataException exception = (ODataException) e.getCause();
+                assertThat(exception.getODataResponse().getResponse().getStatus(), is(500));
+            }
+        }
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='coalescedFailure'")));
+    }
+
+    @Test
+    public void testCancellingOneCallerDoesNotAffectTheOthers() throws ExecutionException, InterruptedException {
+        //getCoalescedCancelNavigationsGET.json
+        List<ListenableFuture<List<AnotherEntity>>> futures = readConcurrently("coalescedCancel");
+
+        assertThat(futures.get(0).cancel(true), is(true));
+
+        for (ListenableFuture<List<AnotherEntity>> future : futures.subList(1, futures.size())) {
+            assertThat(future.get().size(), is(1));
+        }
+        assertThat(futures.get(0).isCancelled(), is(true));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='coalescedCancel'")));
+    }
+
+    @Test
+    public void testCompletedRequestIsNotReused() throws ExecutionException, InterruptedException {
+        //getCoalescedReleaseNavigationsGET.json
+        client.getMe().getNavigations().addParameter("Case", "coalescedRelease").read().get();
+        client.getMe().getNavigations().addParameter("Case", "coalescedRelease").read().get();
+
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='coalescedRelease'")));
+    }
+
+    @Test
+    public void testReadsAreNotSharedWhenCoalescingIsDisabled() throws ExecutionException, InterruptedException {
+        //getNotCoalescedNavigationsGET.json
+        client.setRequestCoalescingEnabled(false);
+        assertThat(client.isRequestCoalescingEnabled(), is(false));
+
+        List<ListenableFuture<List<AnotherEntity>>> futures = readConcurrently("notCoalesced");
+
+        for (ListenableFuture<List<AnotherEntity>> future : futures) {
+            assertThat(future.get().size(), is(equalTo(1)));
+        }
+        wireMockServer.verify(CALLERS, getRequestedFor(urlEqualTo("/Me/Navigations/?Case='notCoalesced'")));
+    }
+
+    private List<ListenableFuture<List<AnotherEntity>>> readConcurrently(String testCase) {
+        List<ListenableFuture<List<AnotherEntity>>> futures = new ArrayList<ListenableFuture<List<AnotherEntity>>>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(client.getMe().getNavigations().addParameter("Case", testCase).read());
+        }
+        return futures;
+    }
+}
@@ -0,0 +1,214 @@
+package com.microsoft.services.odata.unittests.testsupport;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.services.odata.impl.desktop.JvmDependencyResolver;
+import com.microsoft.services.odata.impl.http.RequestImpl;
+import com.microsoft.services.odata.impl.http.ResponseImpl;
+import com.microsoft.services.odata.interfaces.HttpTransport;
+import com.microsoft.services.odata.interfaces.Request;
+import com.microsoft.services.odata.interfaces.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transport that records every request. A request is answered with the first canned answer
+ * whose url fragment it contains, or else left pending until the test responds to it.
+ */
+public class RecordedTransport implements HttpTransport {
+
+    /**
+     * A recorded request and its response.
+     */
+    public static class Exchange {
+        private final Request request;
+        private final String url;
+        private final SettableFuture<Response> response = SettableFuture.create();
+
+        Exchange(Request request, String url) {
+            this.request = request;
+            this.url = url;
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+
+        /**
+         * Gets the decoded url of the request.
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        public String getContent() {
+            try {
+                byte[] content = request.getContent();
+                return content == null ? null : new String(content, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public boolean isPending() {
+            return !response.isDone();
+        }
+
+        public boolean isCancelled() {
+            return response.isCancelled();
+        }
+
+        public void respond(int status, String body) {
+            respond(status, body, Collections.<String, String>emptyMap());
+        }
+
+        public void respond(int status, String body, Map<String, String> headers) {
+            response.set(createResponse(status, body, headers));
+        }
+
+        public void fail(Throwable t) {
+            response.setException(t);
+        }
+    }
+
+    private static final class Answer {
+        final String urlFragment;
+        final int status;
+        final String body;
+        final Map<String, String> headers;
+
+        Answer(String urlFragment, int status, String body, Map<String, String> headers) {
+            this.urlFragment = urlFragment;
+            this.status = status;
+            this.body = body;
+            this.headers = headers;
+        }
+    }
+
+    private final List<Exchange> exchanges = new ArrayList<Exchange>();
+    private final List<Answer> answers = new ArrayList<Answer>();
+
+    /**
+     * Answers the next request whose url contains the fragment.
+     */
+    public RecordedTransport answer(String urlFragment, int status, String body) {
+        return answer(urlFragment, status, body, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Answers the next request whose url contains the fragment.
+     */
+    public synchronized RecordedTransport answer(String urlFragment, int status, String body,
+                                                 Map<String, String> headers) {
+        answers.add(new Answer(urlFragment, status, body, headers));
+        return this;
+    }
+
+    @Override
+    public Request createRequest() {
+        return new RequestImpl();
+    }
+
+    @Override
+    public ListenableFuture<Response> execute(Request request) {
+        Exchange exchange;
+        Answer answer = null;
+        synchronized (this) {
+            exchange = new Exchange(request, decode(request.getUrl().toString()));
+            exchanges.add(exchange);
+            for (int i = 0; i < answers.size(); i++) {
+                if (exchange.url.contains(answers.get(i).urlFragment)) {
+                    answer = answers.remove(i);
+                    break;
+                }
+            }
+        }
+
+        if (answer != null) {
+            exchange.respond(answer.status, answer.body, answer.headers);
+        }
+        return exchange.response;
+    }
+
+    public synchronized List<Exchange> getExchanges() {
+        return new ArrayList<Exchange>(exchanges);
+    }
+
+    public synchronized Exchange get(int index) {
+        return exchanges.get(index);
+    }
+
+    public synchronized int size() {
+        return exchanges.size();
+    }
+
+    /**
+     * Gets the urls of the requests, in order.
+     */
+    public synchronized List<String> getUrls() {
+        List<String> urls = new ArrayList<String>();
+        for (Exchange exchange : exchanges) {
+            urls.add(exchange.url);
+        }
+        return urls;
+    }
+
+    /**
+     * Gets the pending requests whose url contains the fragment.
+     */
+    public synchronized List<Exchange> pending(String urlFragment) {
+        List<Exchange> pending = new ArrayList<Exchange>();
+        for (Exchange exchange : exchanges) {
+            if (exchange.isPending() && exchange.url.contains(urlFragment)) {
+                pending.add(exchange);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Creates a resolver sending its requests through this transport.
+     */
+    public JvmDependencyResolver createResolver() {
+        return new JvmDependencyResolver("faketoken") {
+            @Override
+            public HttpTransport getHttpTransport() {
+                return RecordedTransport.this;
+            }
+        };
+    }
+
+    private static Response createResponse(int status, String body, Map<String, String> headers) {
+        Map<String, List<String>> responseHeaders = new HashMap<String, List<String>>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            responseHeaders.put(header.getKey(), Collections.singletonList(header.getValue()));
+        }
+
+        try {
+            byte[] content = body == null ? new byte[0] : body.getBytes("UTF-8");
+            return new ResponseImpl(new ByteArrayInputStream(content), status, responseHeaders, new Closeable() {
+                @Override
+                public void close() {
+                }
+            });
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String url) {
+        try {
+            return URLDecoder.decode(url, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
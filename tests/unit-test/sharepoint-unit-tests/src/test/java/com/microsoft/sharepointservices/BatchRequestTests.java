@@ -0,0 +1,95 @@
+package com.microsoft.sharepointservices;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+public class BatchRequestTests {
+
+	@Test
+	public void testParseResponseWithFailedChangeset() throws Exception {
+		List<BatchRequest.Part> parts = BatchRequest.parseResponse(readResource("batch/listItemsFailedChangeset.txt"));
+
+		assertThat(parts.size(), is(3));
+
+		assertThat(parts.get(0).getStatusCode(), is(204));
+		assertThat(parts.get(0).getContent(), is(equalTo("")));
+
+		assertThat(parts.get(1).getStatusCode(), is(404));
+		JSONObject error = new JSONObject(parts.get(1).getContent()).getJSONObject("error");
+		assertThat(error.getJSONObject("message").getString("value"), startsWith("Item does not exist."));
+
+		assertThat(parts.get(2).getStatusCode(), is(201));
+		JSONObject created = new JSONObject(parts.get(2).getContent()).getJSONObject("d");
+		assertThat(created.getInt("Id"), is(3));
+	}
+
+	@Test
+	public void testParseShortResponse() throws IOException {
+		List<BatchRequest.Part> parts = BatchRequest.parseResponse(readResource("batch/listItemsMissingParts.txt"));
+
+		assertThat(parts.size(), is(1));
+		assertThat(parts.get(0).getStatusCode(), is(204));
+	}
+
+	@Test
+	public void testParseEmptyResponse() throws IOException {
+		assertThat(BatchRequest.parseResponse("").size(), is(0));
+	}
+
+	@Test(expected = IOException.class)
+	public void testParseInvalidStatusLine() throws IOException {
+		BatchRequest.parseResponse("--batchresponse_1\r\n\r\nHTTP/1.1 OK\r\n\r\n--batchresponse_1--\r\n");
+	}
+
+	@Test
+	public void testEveryOperationHasItsOwnChangeset() {
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put("X-HTTP-Method", "DELETE");
+
+		BatchRequest batch = new BatchRequest();
+		batch.addOperation("POST", "http://server/_api/web/lists/items", null, "{\"Title\":\"a\"}");
+		batch.addOperation("POST", "http://server/_api/web/lists/items(2)", headers, null);
+
+		String boundary = batch.getContentType().substring("multipart/mixed; boundary=".length());
+		String body = batch.getBody();
+
+		assertThat(batch.getOperationCount(), is(2));
+		assertThat(body, startsWith("--" + boundary + "\r\n"));
+		assertThat(body.endsWith("--" + boundary + "--\r\n"), is(true));
+		assertThat(body.split("boundary=changeset_").length, is(3));
+		assertThat(body, containsString("POST http://server/_api/web/lists/items HTTP/1.1\r\n"
+				+ "Accept: application/json;odata=verbose\r\n"
+				+ "Content-Type: application/json;odata=verbose\r\n\r\n{\"Title\":\"a\"}\r\n--changeset_"));
+		assertThat(body, containsString("POST http://server/_api/web/lists/items(2) HTTP/1.1\r\n"
+				+ "Accept: application/json;odata=verbose\r\n"
+				+ "X-HTTP-Method: DELETE\r\n\r\n--changeset_"));
+	}
+
+	static String readResource(String name) throws IOException {
+		InputStream stream = BatchRequestTests.class.getClassLoader().getResourceAsStream(name);
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			return new String(content.toByteArray(), Constants.UTF8_NAME);
+		} finally {
+			stream.close();
+		}
+	}
+}
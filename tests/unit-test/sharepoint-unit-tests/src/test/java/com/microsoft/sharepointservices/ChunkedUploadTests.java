@@ -0,0 +1,176 @@
+package com.microsoft.sharepointservices;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
+import com.microsoft.sharepointservices.http.Request;
+import com.microsoft.sharepointservices.http.StreamResponse;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ChunkedUploadTests {
+
+	private static final String ADDED = "{\"d\":{\"ServerRelativeUrl\":\"/sites/docs/Documents/big.bin\"}}";
+	private static final String FILE_EXISTS = "{\"error\":{\"code\":\"-2130575257, Microsoft.SharePoint.SPException\"}}";
+	private static final String UPLOADED = "{\"d\":{\"Name\":\"big.bin\"}}";
+	private static final String NEW_FILE = "GetFileByServerRelativeUrl('%2Fsites%2Fdocs%2FDocuments%2Fbig.bin')";
+	private static final String EXISTING_FILE = "RootFolder/Files('big.bin')";
+
+	/**
+	 * Answers each request with the first recorded response whose url
+	 * fragment it contains: a JSON string, an exception or a future left to
+	 * the test. Requests without a recorded response succeed.
+	 */
+	private static class RecordedDocLibClient extends DocLibClient {
+		final List<Object[]> mResponses = new ArrayList<Object[]>();
+		final List<String> mRequests = new ArrayList<String>();
+
+		RecordedDocLibClient() {
+			super("http://server/", "sites/docs/", new Credentials() {
+				@Override
+				public void prepareRequest(Request request) {
+				}
+			});
+		}
+
+		RecordedDocLibClient respond(String urlFragment, Object response) {
+			mResponses.add(new Object[] { urlFragment, response });
+			return this;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected <T> ListenableFuture<T> executeRequestWithDigest(String url, String method,
+				Map<String, String> headers, byte[] payload, ResponseReader<T> reader) {
+			mRequests.add(method + " " + url.substring(url.indexOf("_api/")) + " "
+					+ (payload == null ? 0 : payload.length));
+
+			Object response = "{\"d\":{}}";
+			for (int i = 0; i < mResponses.size(); i++) {
+				if (url.contains((String) mResponses.get(i)[0])) {
+					response = mResponses.remove(i)[1];
+					break;
+				}
+			}
+
+			if (response instanceof Throwable) {
+				return Futures.immediateFailedFuture((Throwable) response);
+			}
+			if (response instanceof ListenableFuture) {
+				return (ListenableFuture<T>) response;
+			}
+			try {
+				byte[] content = ((String) response).getBytes(Constants.UTF8_NAME);
+				return Futures.immediateFuture(reader.read(new StreamResponse(new ByteArrayInputStream(content), 200,
+						new HashMap<String, List<String>>())));
+			} catch (IOException e) {
+				return Futures.immediateFailedFuture(e);
+			}
+		}
+
+		ListenableFuture<FileSystemItem> upload(boolean overwrite) {
+			return uploadFile("big.bin", "Documents", overwrite, new ByteArrayInputStream(new byte[5]), 2);
+		}
+	}
+
+	@Test
+	public void testNewFileIsUploadedInChunks() throws Exception {
+		RecordedDocLibClient client = new RecordedDocLibClient()
+				.respond("Files/add", ADDED)
+				.respond("FinishUpload", UPLOADED);
+
+		FileSystemItem item = client.upload(true).get();
+
+		assertThat(item.getName(), is(equalTo("big.bin")));
+		assertThat(client.mRequests.size(), is(4));
+		assertThat(client.mRequests.get(0), containsString("Files/add(url='big.bin',overwrite=false)"));
+		assertThat(client.mRequests.get(1), startsWith("POST _api/web/" + NEW_FILE + "/StartUpload("));
+		assertThat(client.mRequests.get(1), containsString(" 2"));
+		assertThat(client.mRequests.get(2), containsString("/ContinueUpload("));
+		assertThat(client.mRequests.get(2), containsString("fileOffset=2) 2"));
+		assertThat(client.mRequests.get(3), containsString("/FinishUpload("));
+		assertThat(client.mRequests.get(3), containsString("fileOffset=4) 1"));
+	}
+
+	@Test
+	public void testFailedUploadDeletesTheFileItAdded() throws Exception {
+		IOException failure = new IOException("connection reset");
+		RecordedDocLibClient client = new RecordedDocLibClient()
+				.respond("Files/add", ADDED)
+				.respond("ContinueUpload", failure);
+
+		assertFailure(client.upload(true), failure);
+
+		assertThat(client.mRequests.size(), is(5));
+		assertThat(client.mRequests.get(3), startsWith("POST _api/web/" + NEW_FILE + "/CancelUpload("));
+		assertThat(client.mRequests.get(4), is(equalTo("DELETE _api/web/" + NEW_FILE + " 0")));
+	}
+
+	@Test
+	public void testExistingFileIsUploadedInPlace() throws Exception {
+		IOException failure = new IOException("connection reset");
+		RecordedDocLibClient client = new RecordedDocLibClient()
+				.respond("Files/add", new InvalidHttpStatusCodeException(500, FILE_EXISTS, ""))
+				.respond("ContinueUpload", failure);
+
+		assertFailure(client.upload(true), failure);
+
+		// the existing document was never emptied, so it is not deleted either
+		assertThat(client.mRequests.size(), is(4));
+		assertThat(client.mRequests.get(1), startsWith("POST _api/web/lists/GetByTitle('Documents')/" + EXISTING_FILE
+				+ "/StartUpload("));
+		assertThat(client.mRequests.get(3), containsString(EXISTING_FILE + "/CancelUpload("));
+	}
+
+	@Test
+	public void testExistingFileIsKeptWithoutOverwrite() throws Exception {
+		InvalidHttpStatusCodeException exists = new InvalidHttpStatusCodeException(500, FILE_EXISTS, "");
+		RecordedDocLibClient client = new RecordedDocLibClient().respond("Files/add", exists);
+
+		assertFailure(client.upload(false), exists);
+
+		assertThat(client.mRequests.size(), is(1));
+	}
+
+	@Test
+	public void testCancelledUploadDeletesTheFileItAdded() throws Exception {
+		SettableFuture<Object> start = SettableFuture.create();
+		RecordedDocLibClient client = new RecordedDocLibClient()
+				.respond("Files/add", ADDED)
+				.respond("StartUpload", start);
+
+		ListenableFuture<FileSystemItem> upload = client.upload(true);
+		upload.cancel(false);
+		start.set(null);
+
+		assertThat(client.mRequests.size(), is(4));
+		assertThat(client.mRequests.get(2), containsString("/CancelUpload("));
+		assertThat(client.mRequests.get(3), is(equalTo("DELETE _api/web/" + NEW_FILE + " 0")));
+	}
+
+	private static void assertFailure(ListenableFuture<FileSystemItem> upload, Throwable expected)
+			throws InterruptedException {
+		try {
+			upload.get();
+			fail("The upload should have failed");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(expected));
+		}
+	}
+}
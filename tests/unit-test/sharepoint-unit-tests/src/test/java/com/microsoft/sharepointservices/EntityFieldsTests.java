@@ -0,0 +1,106 @@
+package com.microsoft.sharepointservices;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.google.gson.stream.JsonReader;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class EntityFieldsTests {
+
+	private static final String ITEM = "{\"Id\":3,\"Big\":4000000000,\"Ratio\":0.25,\"Done\":false,\"Title\":\"t\\u00e9\","
+			+ "\"Empty\":null,\"Author\":{\"__deferred\":{\"uri\":\"u\"}},\"Tags\":[\"a\",1]}";
+
+	@Test
+	public void testValuesAreBoxedLikeOrgJson() throws Exception {
+		EntityFields fields = read(ITEM, new EntityFields.Schema());
+		JSONObject expected = new JSONObject(ITEM);
+
+		for (String name : new String[] { "Id", "Big", "Ratio", "Done", "Title", "Empty" }) {
+			assertThat(name, fields.get(name), is(equalTo(expected.get(name))));
+			assertThat(name, fields.get(name).getClass(), is(equalTo((Object) expected.get(name).getClass())));
+		}
+		assertThat(fields.get("Author"), is(instanceOf(JSONObject.class)));
+		assertThat(((JSONObject) fields.get("Author")).getJSONObject("__deferred").getString("uri"), is(equalTo("u")));
+		assertThat(fields.get("Tags"), is(instanceOf(JSONArray.class)));
+		assertThat(((JSONArray) fields.get("Tags")).get(1), is((Object) 1));
+	}
+
+	@Test
+	public void testNumbersAreTypedLikeOrgJson() {
+		assertThat(EntityFields.parseNumber("0"), is((Object) 0));
+		assertThat(EntityFields.parseNumber("-42"), is((Object) (-42)));
+		assertThat(EntityFields.parseNumber("2147483647"), is((Object) Integer.MAX_VALUE));
+		assertThat(EntityFields.parseNumber("-2147483648"), is((Object) Integer.MIN_VALUE));
+		assertThat(EntityFields.parseNumber("2147483648"), is((Object) 2147483648L));
+		assertThat(EntityFields.parseNumber("-9223372036854775808"), is((Object) Long.MIN_VALUE));
+		assertThat(EntityFields.parseNumber("9223372036854775808"), is(instanceOf(Double.class)));
+		assertThat(EntityFields.parseNumber("1.5"), is((Object) 1.5));
+		assertThat(EntityFields.parseNumber("1.0"), is((Object) 1.0));
+		assertThat(EntityFields.parseNumber("1e3"), is((Object) 1000.0));
+		assertThat(EntityFields.parseNumber("-2.5E-3"), is((Object) (-0.0025)));
+	}
+
+	@Test
+	public void testToJsonMatchesTheDocument() throws Exception {
+		EntityFields fields = read(ITEM, new EntityFields.Schema());
+
+		assertThat(fields.toJson().toString(), is(equalTo(new JSONObject(ITEM).toString())));
+	}
+
+	@Test
+	public void testItemsSharingASchemaKeepTheirOwnFields() throws IOException {
+		EntityFields.Schema schema = new EntityFields.Schema();
+		EntityFields first = read("{\"Id\":1,\"A\":\"x\"}", schema);
+		EntityFields second = read("{\"B\":true,\"C\":1,\"D\":2,\"E\":3,\"F\":4,\"Id\":2}", schema);
+
+		assertThat(first.get("Id"), is((Object) 1));
+		assertThat(first.has("A"), is(true));
+		assertThat(first.has("F"), is(false));
+		assertThat(second.get("Id"), is((Object) 2));
+		assertThat(second.get("F"), is((Object) 4));
+		assertThat(second.has("A"), is(false));
+		assertThat(schema.size(), is(7));
+	}
+
+	@Test
+	public void testMissingFieldFails() throws IOException {
+		EntityFields fields = read("{\"Id\":1}", new EntityFields.Schema());
+
+		assertThat(fields.has("Title"), is(false));
+		try {
+			fields.get("Title");
+			fail("Expected an invalid field");
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), is(equalTo("Invalid field name Title")));
+		}
+	}
+
+	@Test
+	public void testEntityReadsFromFields() throws IOException {
+		SPListItem item = new SPListItem();
+		item.loadFromFields(read(ITEM, new EntityFields.Schema()));
+
+		assertThat(item.getId(), is(3));
+		assertThat(item.getTitle(), is(equalTo("t\u00e9")));
+		assertThat(item.hasData("Empty"), is(true));
+		assertThat(item.getData("Empty"), is(JSONObject.NULL));
+		assertThat(item.hasData("Missing"), is(false));
+
+		item.setData("Title", "override");
+		assertThat(item.getTitle(), is(equalTo("override")));
+	}
+
+	private static EntityFields read(String json, EntityFields.Schema schema) throws IOException {
+		return EntityFields.read(new JsonReader(new StringReader(json)), schema);
+	}
+}
@@ -0,0 +1,213 @@
+package com.microsoft.sharepointservices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.Request;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class FileSystemWalkerTests {
+
+	private static final String FILES = "http://server/sites/docs/_api/Files";
+
+	/**
+	 * Leaves every folder request pending until the test completes it.
+	 */
+	private static class PendingDocLibClient extends DocLibClient {
+		final List<String> mUrls = new ArrayList<String>();
+		final List<SettableFuture<?>> mRequests = new ArrayList<SettableFuture<?>>();
+
+		PendingDocLibClient() {
+			super("http://server/", "sites/docs", new Credentials() {
+				@Override
+				public void prepareRequest(Request request) {
+				}
+			});
+		}
+
+		@Override
+		protected synchronized <E extends OfficeEntity> ListenableFuture<OfficeEntityPage<E>> executeRequestPage(
+				String url, Class<E> clazz) {
+			SettableFuture<OfficeEntityPage<E>> future = SettableFuture.create();
+			mUrls.add(url);
+			mRequests.add(future);
+			return future;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized SettableFuture<OfficeEntityPage<FileSystemItem>> request(String url) {
+			return (SettableFuture<OfficeEntityPage<FileSystemItem>>) mRequests.get(mUrls.indexOf(url));
+		}
+
+		synchronized int getRequestCount() {
+			return mRequests.size();
+		}
+
+		void complete(String url, String nextLink, FileSystemItem... items) {
+			List<FileSystemItem> list = new ArrayList<FileSystemItem>();
+			for (FileSystemItem item : items) {
+				list.add(item);
+			}
+			request(url).set(new OfficeEntityPage<FileSystemItem>(list, nextLink));
+		}
+	}
+
+	/**
+	 * Records the paths of the items reported.
+	 */
+	private static class RecordingCallback implements FileSystemItemCallback {
+		final List<String> mPaths = new ArrayList<String>();
+
+		@Override
+		public synchronized void onItem(FileSystemItem item, String parentPath) {
+			mPaths.add(parentPath.length() == 0 ? item.getName() : parentPath + "/" + item.getName());
+		}
+	}
+
+	@Test
+	public void testWalksEveryFolder() throws Exception {
+		PendingDocLibClient client = new PendingDocLibClient();
+		RecordingCallback callback = new RecordingCallback();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems(null, null, 4, false, callback);
+		client.complete(FILES, null, folder("A"), file("f"));
+		client.complete(children("A"), null, folder("B"), file("g"));
+		assertThat(result.isDone(), is(false));
+		client.complete(children("A%2FB"), null, file("h"));
+
+		assertThat(result.get(), is(5));
+		assertThat(callback.mPaths, is(equalTo(list("A", "f", "A/B", "A/g", "A/B/h"))));
+	}
+
+	@Test
+	public void testConcurrentRequestsAreBounded() throws Exception {
+		PendingDocLibClient client = new PendingDocLibClient();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems(null, null, 2, false, new RecordingCallback());
+		client.complete(FILES, null, folder("A"), folder("B"), folder("C"));
+		assertThat(client.getRequestCount(), is(3));
+
+		client.complete(children("A"), null);
+		assertThat(client.getRequestCount(), is(4));
+		client.complete(children("B"), null);
+		client.complete(children("C"), null);
+
+		assertThat(result.get(), is(3));
+		assertThat(client.getRequestCount(), is(4));
+	}
+
+	@Test
+	public void testExpandedChildrenAreNotRequestedAgain() throws Exception {
+		PendingDocLibClient client = new PendingDocLibClient();
+		RecordingCallback callback = new RecordingCallback();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems("", null, 4, true, callback);
+		FileSystemItem folder = folder("A", file("f"), folder("B"));
+		client.complete(FILES + "?$expand=Children", null, folder);
+
+		// only the nested folder, whose own children were not expanded, is listed
+		assertThat(client.getRequestCount(), is(2));
+		client.complete(children("A%2FB") + "?$expand=Children", null);
+
+		assertThat(result.get(), is(3));
+		assertThat(callback.mPaths, is(equalTo(list("A", "A/f", "A/B"))));
+	}
+
+	@Test
+	public void testNextPagesAreFollowed() throws Exception {
+		PendingDocLibClient client = new PendingDocLibClient();
+		RecordingCallback callback = new RecordingCallback();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems(null, null, 4, false, callback);
+		client.complete(FILES, "http://server/next", file("f"));
+		client.complete("http://server/next", null, file("g"));
+
+		assertThat(result.get(), is(2));
+		assertThat(callback.mPaths, is(equalTo(list("f", "g"))));
+	}
+
+	@Test
+	public void testFailedFolderFailsTheWalk() throws Exception {
+		PendingDocLibClient client = new PendingDocLibClient();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems(null, null, 1, false, new RecordingCallback());
+		client.complete(FILES, null, folder("A"), folder("B"));
+		client.request(children("A")).setException(new IllegalArgumentException("boom"));
+
+		try {
+			result.get();
+			fail("The walk should have failed");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause().getMessage(), is(equalTo("boom")));
+		}
+		// the queued folder is never requested
+		assertThat(client.getRequestCount(), is(2));
+	}
+
+	@Test
+	public void testCancelStopsTheWalk() {
+		PendingDocLibClient client = new PendingDocLibClient();
+		RecordingCallback callback = new RecordingCallback();
+
+		ListenableFuture<Integer> result = client.walkFileSystemItems(null, null, 1, false, callback);
+		client.complete(FILES, null, folder("A"), folder("B"));
+		result.cancel(false);
+		client.complete(children("A"), null, file("f"));
+
+		assertThat(client.getRequestCount(), is(2));
+		assertThat(callback.mPaths, is(equalTo(list("A", "B"))));
+	}
+
+	private static String children(String path) {
+		return FILES + "('" + path + "')/children";
+	}
+
+	private static FileSystemItem file(String name) {
+		return item(name, null);
+	}
+
+	private static FileSystemItem folder(String name, FileSystemItem... children) {
+		return item(name, children);
+	}
+
+	private static FileSystemItem item(String name, FileSystemItem[] children) {
+		FileSystemItem item = new FileSystemItem();
+		try {
+			JSONObject json = new JSONObject().put("Name", name);
+			if (children != null) {
+				json.put("__metadata", new JSONObject().put("type", FileSystemItem.FOLDER_TYPE));
+			}
+			if (children != null && children.length > 0) {
+				JSONArray results = new JSONArray();
+				for (FileSystemItem child : children) {
+					results.put(child.getJsonData());
+				}
+				json.put("Children", new JSONObject().put("results", results));
+			}
+			item.loadFromJson(json);
+		} catch (JSONException e) {
+			throw new IllegalStateException(e);
+		}
+		return item;
+	}
+
+	private static List<String> list(String... values) {
+		List<String> list = new ArrayList<String>();
+		for (String value : values) {
+			list.add(value);
+		}
+		return list;
+	}
+}
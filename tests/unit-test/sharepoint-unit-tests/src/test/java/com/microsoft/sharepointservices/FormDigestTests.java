@@ -0,0 +1,233 @@
+package com.microsoft.sharepointservices;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
+import com.microsoft.sharepointservices.http.Request;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class FormDigestTests {
+
+	private static final long HOUR = 60 * 60 * 1000;
+	private static final String INVALID_DIGEST = "{\"error\":{\"code\":\"-2130575251, Microsoft.SharePoint.SPException\"}}";
+
+	/**
+	 * Hands out pending digest loads, counting them.
+	 */
+	private static class CountingLoader implements FormDigestCache.Loader {
+		final List<SettableFuture<FormDigestCache.FormDigest>> mLoads =
+				new ArrayList<SettableFuture<FormDigestCache.FormDigest>>();
+
+		@Override
+		public ListenableFuture<FormDigestCache.FormDigest> load() {
+			SettableFuture<FormDigestCache.FormDigest> future = SettableFuture.create();
+			mLoads.add(future);
+			return future;
+		}
+
+		void complete(int index, String value, long expiresAt) {
+			mLoads.get(index).set(new FormDigestCache.FormDigest(value, expiresAt));
+		}
+	}
+
+	/**
+	 * Hands out the queued digests and answers the requests with the queued
+	 * results, recording the digest each request carried.
+	 */
+	private static class RecordedSharepointClient extends SharepointClient {
+		final LinkedList<String> mDigests = new LinkedList<String>();
+		final LinkedList<Throwable> mFailures = new LinkedList<Throwable>();
+		final List<String> mSentDigests = new ArrayList<String>();
+
+		RecordedSharepointClient() {
+			super("http://server/", "sites/digest", new Credentials() {
+				@Override
+				public void prepareRequest(Request request) {
+				}
+			});
+		}
+
+		@Override
+		protected ListenableFuture<String> getFormDigest() {
+			return Futures.immediateFuture(mDigests.removeFirst());
+		}
+
+		@Override
+		protected <T> ListenableFuture<T> executeRequest(String url, String method, Map<String, String> headers,
+				byte[] payload, ResponseReader<T> reader) {
+			mSentDigests.add(headers.get("X-RequestDigest"));
+			Throwable failure = mFailures.isEmpty() ? null : mFailures.removeFirst();
+			return failure != null ? Futures.<T>immediateFailedFuture(failure) : Futures.<T>immediateFuture(null);
+		}
+
+		ListenableFuture<byte[]> post() {
+			return executeRequestWithDigest("http://server/sites/digest/_api/web", "POST", null, new byte[0],
+					new ResponseReader<byte[]>() {
+						@Override
+						public byte[] read(com.microsoft.sharepointservices.http.Response response) {
+							return null;
+						}
+					});
+		}
+	}
+
+	@Test
+	public void testCachesArePerSiteAndCredentials() {
+		Credentials credentials = new Credentials() {
+			@Override
+			public void prepareRequest(Request request) {
+			}
+		};
+		Credentials otherCredentials = new Credentials() {
+			@Override
+			public void prepareRequest(Request request) {
+			}
+		};
+
+		FormDigestCache cache = FormDigestCache.forSite(credentials, "http://server/sites/a/");
+
+		assertThat(FormDigestCache.forSite(credentials, "http://server/sites/a/"), is(sameInstance(cache)));
+		assertThat(FormDigestCache.forSite(credentials, "http://server/sites/b/"), is(not(sameInstance(cache))));
+		assertThat(FormDigestCache.forSite(otherCredentials, "http://server/sites/a/"), is(not(sameInstance(cache))));
+	}
+
+	@Test
+	public void testConcurrentWritersShareOneLoad() throws Exception {
+		FormDigestCache cache = new FormDigestCache();
+		CountingLoader loader = new CountingLoader();
+
+		ListenableFuture<String> first = cache.get(loader);
+		ListenableFuture<String> second = cache.get(loader);
+		assertThat(loader.mLoads.size(), is(1));
+
+		loader.complete(0, "digest", System.currentTimeMillis() + HOUR);
+		assertThat(first.get(), is(equalTo("digest")));
+		assertThat(second.get(), is(equalTo("digest")));
+
+		assertThat(cache.get(loader).get(), is(equalTo("digest")));
+		assertThat(loader.mLoads.size(), is(1));
+	}
+
+	@Test
+	public void testDigestCloseToTimeoutIsRefreshedAhead() throws Exception {
+		FormDigestCache cache = new FormDigestCache();
+		CountingLoader loader = new CountingLoader();
+
+		ListenableFuture<String> first = cache.get(loader);
+		loader.complete(0, "old", System.currentTimeMillis() + 60 * 1000);
+		first.get();
+
+		// still usable, handed out while the next one loads
+		assertThat(cache.get(loader).get(), is(equalTo("old")));
+		assertThat(cache.get(loader).get(), is(equalTo("old")));
+		assertThat(loader.mLoads.size(), is(2));
+
+		loader.complete(1, "new", System.currentTimeMillis() + HOUR);
+		assertThat(cache.get(loader).get(), is(equalTo("new")));
+		assertThat(loader.mLoads.size(), is(2));
+	}
+
+	@Test
+	public void testInvalidateOnlyDropsTheRejectedDigest() throws Exception {
+		FormDigestCache cache = new FormDigestCache();
+		CountingLoader loader = new CountingLoader();
+
+		ListenableFuture<String> first = cache.get(loader);
+		loader.complete(0, "current", System.currentTimeMillis() + HOUR);
+		first.get();
+
+		cache.invalidate("older");
+		assertThat(cache.get(loader).get(), is(equalTo("current")));
+
+		cache.invalidate("current");
+		ListenableFuture<String> reloaded = cache.get(loader);
+		assertThat(reloaded.isDone(), is(false));
+		loader.complete(1, "replacement", System.currentTimeMillis() + HOUR);
+		assertThat(reloaded.get(), is(equalTo("replacement")));
+	}
+
+	@Test
+	public void testFailedLoadIsNotCached() throws Exception {
+		FormDigestCache cache = new FormDigestCache();
+		CountingLoader loader = new CountingLoader();
+
+		ListenableFuture<String> first = cache.get(loader);
+		loader.mLoads.get(0).setException(new InvalidHttpStatusCodeException(500, "", ""));
+		try {
+			first.get();
+			fail("The load should have failed");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof InvalidHttpStatusCodeException, is(true));
+		}
+
+		cache.get(loader);
+		assertThat(loader.mLoads.size(), is(2));
+	}
+
+	@Test
+	public void testRejectedDigestIsReplacedAndRequestRetriedOnce() throws Exception {
+		RecordedSharepointClient client = new RecordedSharepointClient();
+		client.mDigests.add("rejected");
+		client.mDigests.add("fresh");
+		client.mFailures.add(new InvalidHttpStatusCodeException(403, INVALID_DIGEST, ""));
+
+		client.post().get();
+
+		assertThat(client.mSentDigests, is(equalTo(list("rejected", "fresh"))));
+	}
+
+	@Test
+	public void testSecondRejectionFailsTheRequest() throws Exception {
+		RecordedSharepointClient client = new RecordedSharepointClient();
+		client.mDigests.add("rejected");
+		client.mDigests.add("rejected again");
+		client.mFailures.add(new InvalidHttpStatusCodeException(403, INVALID_DIGEST, ""));
+		client.mFailures.add(new InvalidHttpStatusCodeException(403, INVALID_DIGEST, ""));
+
+		try {
+			client.post().get();
+			fail("The request should have failed");
+		} catch (ExecutionException e) {
+			assertThat(((InvalidHttpStatusCodeException) e.getCause()).getStatusCode(), is(403));
+		}
+		assertThat(client.mSentDigests.size(), is(2));
+	}
+
+	@Test
+	public void testOtherForbiddenErrorsAreNotRetried() throws Exception {
+		RecordedSharepointClient client = new RecordedSharepointClient();
+		client.mDigests.add("digest");
+		client.mFailures.add(new InvalidHttpStatusCodeException(403, "{\"error\":{\"code\":\"-2147024891\"}}", ""));
+
+		try {
+			client.post().get();
+			fail("The request should have failed");
+		} catch (ExecutionException e) {
+			assertThat(((InvalidHttpStatusCodeException) e.getCause()).getStatusCode(), is(403));
+		}
+		assertThat(client.mSentDigests.size(), is(1));
+	}
+
+	private static List<String> list(String... values) {
+		List<String> list = new ArrayList<String>();
+		for (String value : values) {
+			list.add(value);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,160 @@
+package com.microsoft.sharepointservices;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.microsoft.sharepointservices.http.InvalidHttpStatusCodeException;
+import com.microsoft.sharepointservices.http.Request;
+import com.microsoft.sharepointservices.http.StreamResponse;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ListClientBulkTests {
+
+	private static final String FAILED_CHANGESET = "batch/listItemsFailedChangeset.txt";
+	private static final String MISSING_PARTS = "batch/listItemsMissingParts.txt";
+
+	/**
+	 * Answers every $batch request with the next recorded response, or fails
+	 * it with the next exception.
+	 */
+	private static class RecordedListClient extends ListClient {
+		final LinkedList<Object> mResponses = new LinkedList<Object>();
+		final List<String> mBodies = new ArrayList<String>();
+
+		RecordedListClient(Object... responses) {
+			super("http://server/", "sites/test", new Credentials() {
+				@Override
+				public void prepareRequest(Request request) {
+				}
+			});
+			for (Object response : responses) {
+				mResponses.add(response);
+			}
+		}
+
+		@Override
+		protected <T> ListenableFuture<T> executeRequestWithDigest(String url, String method,
+				Map<String, String> headers, byte[] payload, ResponseReader<T> reader) {
+			assertThat(url, is(equalTo("http://server/sites/test/_api/$batch")));
+			try {
+				mBodies.add(new String(payload, Constants.UTF8_NAME));
+
+				Object response = mResponses.removeFirst();
+				if (response instanceof Throwable) {
+					return Futures.immediateFailedFuture((Throwable) response);
+				}
+
+				byte[] content = BatchRequestTests.readResource((String) response).getBytes(Constants.UTF8_NAME);
+				return Futures.immediateFuture(reader.read(new StreamResponse(new ByteArrayInputStream(content), 200,
+						new HashMap<String, List<String>>())));
+			} catch (IOException e) {
+				return Futures.immediateFailedFuture(e);
+			}
+		}
+	}
+
+	@Test
+	public void testFailedChangesetOnlyFailsItsItem() throws Exception {
+		RecordedListClient client = new RecordedListClient(FAILED_CHANGESET);
+
+		List<ListItemBatchResult> results = client.deleteListItems(items(3), "Tasks").get();
+
+		assertThat(client.mBodies.size(), is(1));
+		assertThat(results.size(), is(3));
+
+		assertThat(results.get(0).isSuccess(), is(true));
+		assertThat(results.get(0).getStatusCode(), is(204));
+
+		assertThat(results.get(1).isSuccess(), is(false));
+		assertThat(results.get(1).getStatusCode(), is(404));
+		assertThat(results.get(1).getError(), is(instanceOf(InvalidHttpStatusCodeException.class)));
+		assertThat(((InvalidHttpStatusCodeException) results.get(1).getError()).getStatusCode(), is(404));
+		assertThat(results.get(1).getResponseContent(), containsString("Item does not exist."));
+
+		assertThat(results.get(2).isSuccess(), is(true));
+		assertThat(results.get(2).getStatusCode(), is(201));
+		assertThat(results.get(2).getResponseContent(), containsString("\"Id\":3"));
+	}
+
+	@Test
+	public void testShortResponseFailsTheItemsWithoutAPart() throws Exception {
+		RecordedListClient client = new RecordedListClient(MISSING_PARTS);
+
+		List<ListItemBatchResult> results = client.deleteListItems(items(3), "Tasks").get();
+
+		assertThat(results.size(), is(3));
+		assertThat(results.get(0).isSuccess(), is(true));
+		assertThat(results.get(0).getStatusCode(), is(204));
+		for (int i = 1; i < 3; i++) {
+			assertThat(results.get(i).isSuccess(), is(false));
+			assertThat(results.get(i).getStatusCode(), is(-1));
+			assertThat(results.get(i).getResponseContent(), is(nullValue()));
+			assertThat(results.get(i).getError(), is(instanceOf(IOException.class)));
+		}
+	}
+
+	@Test
+	public void testResultsKeepTheItemOrderAcrossBatches() throws Exception {
+		IOException requestFailure = new IOException("connection reset");
+		RecordedListClient client = new RecordedListClient(FAILED_CHANGESET, requestFailure, MISSING_PARTS);
+		List<SPListItem> items = items(5);
+
+		List<ListItemBatchResult> results = client.deleteListItems(items, "Tasks", 2, 2).get();
+
+		assertThat(client.mBodies.size(), is(3));
+		assertThat(client.mBodies.get(0), containsString("GetByTitle('Tasks')/items(1) HTTP/1.1"));
+		assertThat(client.mBodies.get(0), containsString("GetByTitle('Tasks')/items(2) HTTP/1.1"));
+		assertThat(client.mBodies.get(0), not(containsString("items(3)")));
+		assertThat(client.mBodies.get(2), containsString("GetByTitle('Tasks')/items(5) HTTP/1.1"));
+
+		assertThat(results.size(), is(5));
+		for (int i = 0; i < 5; i++) {
+			assertThat(results.get(i).getItem(), is(sameInstance(items.get(i))));
+		}
+
+		assertThat(results.get(0).getStatusCode(), is(204));
+		assertThat(results.get(1).getStatusCode(), is(404));
+		assertThat(results.get(2).getStatusCode(), is(-1));
+		assertThat(results.get(2).getError(), is(sameInstance((Throwable) requestFailure)));
+		assertThat(results.get(3).getError(), is(sameInstance((Throwable) requestFailure)));
+		assertThat(results.get(4).getStatusCode(), is(204));
+		assertThat(results.get(4).isSuccess(), is(true));
+	}
+
+	@Test
+	public void testNoItemsSendsNoRequest() throws Exception {
+		RecordedListClient client = new RecordedListClient();
+
+		List<ListItemBatchResult> results = client.deleteListItems(new ArrayList<SPListItem>(), "Tasks").get();
+
+		assertThat(results.size(), is(0));
+		assertThat(client.mBodies.size(), is(0));
+	}
+
+	private static List<SPListItem> items(int count) {
+		List<SPListItem> items = new ArrayList<SPListItem>();
+		for (int i = 1; i <= count; i++) {
+			SPListItem item = new SPListItem();
+			item.setData("Id", i);
+			items.add(item);
+		}
+		return items;
+	}
+}
@@ -0,0 +1,107 @@
+package com.microsoft.sharepointservices;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class OfficeEntityReaderTests {
+
+	private static final String NEXT = "http://server/_api/web/lists/items?$skiptoken=Paged%3dTRUE%26p_ID%3d2";
+
+	@Test
+	public void testNextLinkAfterResults() throws IOException {
+		OfficeEntityPage<SPListItem> page = readPage("{\"d\":{\"results\":[{\"Id\":1,\"Title\":\"one\"},"
+				+ "{\"Id\":2,\"Title\":\"two\"}],\"__next\":\"" + NEXT + "\"}}");
+
+		assertThat(page.getItems().size(), is(2));
+		assertThat(page.getItems().get(0).getId(), is(1));
+		assertThat(page.getItems().get(1).getTitle(), is(equalTo("two")));
+		assertThat(page.getNextLink(), is(equalTo(NEXT)));
+		assertThat(page.hasNextPage(), is(true));
+	}
+
+	@Test
+	public void testNextLinkBeforeResults() throws IOException {
+		OfficeEntityPage<SPListItem> page = readPage("{\"d\":{\"__next\":\"" + NEXT
+				+ "\",\"results\":[{\"Id\":1,\"Title\":\"one\"}]}}");
+
+		assertThat(page.getItems().size(), is(1));
+		assertThat(page.getItems().get(0).getTitle(), is(equalTo("one")));
+		assertThat(page.getNextLink(), is(equalTo(NEXT)));
+	}
+
+	@Test
+	public void testNextLinkIsReadWhenIteratingToTheEnd() {
+		OfficeEntityReader<SPListItem> reader = reader("{\"d\":{\"results\":[{\"Id\":1}],\"__metadata\":{\"x\":[1]},\"__next\":\""
+				+ NEXT + "\"}}");
+
+		assertThat(reader.hasNext(), is(true));
+		assertThat(reader.next().getId(), is(1));
+		assertThat(reader.getNextLink(), is(nullValue()));
+		assertThat(reader.hasNext(), is(false));
+		assertThat(reader.getNextLink(), is(equalTo(NEXT)));
+	}
+
+	@Test
+	public void testValueArrayWithODataNextLink() throws IOException {
+		OfficeEntityPage<SPListItem> page = readPage("{\"odata.metadata\":\"m\",\"value\":[{\"Id\":7}],"
+				+ "\"odata.nextLink\":\"" + NEXT + "\"}");
+
+		assertThat(page.getItems().size(), is(1));
+		assertThat(page.getItems().get(0).getId(), is(7));
+		assertThat(page.getNextLink(), is(equalTo(NEXT)));
+	}
+
+	@Test
+	public void testLastPageHasNoNextLink() throws IOException {
+		OfficeEntityPage<SPListItem> page = readPage("{\"d\":{\"results\":[]}}");
+
+		assertThat(page.getItems().size(), is(0));
+		assertThat(page.getNextLink(), is(nullValue()));
+		assertThat(page.hasNextPage(), is(false));
+	}
+
+	@Test
+	public void testNestedResultsAreNotMistakenForTheCollection() throws IOException {
+		OfficeEntityPage<SPListItem> page = readPage("{\"d\":{\"results\":[{\"Id\":1,"
+				+ "\"Children\":{\"results\":[{\"Id\":10},{\"Id\":11}]}}]}}");
+
+		assertThat(page.getItems().size(), is(1));
+		SPListItem item = page.getItems().get(0);
+		assertThat(item.getSubItems("Children").size(), is(2));
+		assertThat(item.getSubItems("Children").get(1).getId(), is(11));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextPastTheEnd() {
+		OfficeEntityReader<SPListItem> reader = reader("{\"d\":{\"results\":[]}}");
+		reader.next();
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadPageReportsMalformedJson() throws IOException {
+		readPage("{\"d\":{\"results\":[{\"Id\":1,}]}}");
+	}
+
+	private static OfficeEntityPage<SPListItem> readPage(String json) throws IOException {
+		OfficeEntityReader<SPListItem> reader = reader(json);
+		try {
+			return reader.readPage();
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static OfficeEntityReader<SPListItem> reader(String json) {
+		InputStream stream = new ByteArrayInputStream(json.getBytes(Constants.UTF8));
+		return new OfficeEntityReader<SPListItem>(stream, SPListItem.class);
+	}
+}
@@ -0,0 +1,197 @@
+package com.microsoft.sharepointservices;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.microsoft.sharepointservices.http.Request;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class PagedEntityIteratorTests {
+
+	/**
+	 * Leaves every page request pending until the test completes it.
+	 */
+	private static class PendingListClient extends ListClient {
+		final List<String> mUrls = new ArrayList<String>();
+		final List<SettableFuture<?>> mRequests = new ArrayList<SettableFuture<?>>();
+
+		PendingListClient() {
+			super("http://server/", "sites/test", new Credentials() {
+				@Override
+				public void prepareRequest(Request request) {
+				}
+			});
+		}
+
+		@Override
+		protected synchronized <E extends OfficeEntity> ListenableFuture<OfficeEntityPage<E>> executeRequestPage(
+				String url, Class<E> clazz) {
+			SettableFuture<OfficeEntityPage<E>> future = SettableFuture.create();
+			mUrls.add(url);
+			mRequests.add(future);
+			return future;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized SettableFuture<OfficeEntityPage<SPListItem>> request(int index) {
+			return (SettableFuture<OfficeEntityPage<SPListItem>>) mRequests.get(index);
+		}
+
+		synchronized int getRequestCount() {
+			return mRequests.size();
+		}
+
+		void complete(int index, String nextLink, int... ids) {
+			request(index).set(page(nextLink, ids));
+		}
+	}
+
+	@Test
+	public void testFollowsNextLinks() {
+		PendingListClient client = new PendingListClient();
+		PagedEntityIterator<SPListItem> iterator = client.iterateListItems("Tasks", null);
+
+		client.complete(0, "http://server/sites/test/next1", 1, 2);
+		assertThat(ids(iterator, 2), is(equalTo(list(1, 2))));
+
+		client.complete(1, null, 3);
+		assertThat(ids(iterator, 1), is(equalTo(list(3))));
+		assertThat(iterator.hasNext(), is(false));
+		assertThat(iterator.getNextLink(), is(nullValue()));
+
+		assertThat(client.mUrls.get(0), containsString("GetByTitle('Tasks')/Items"));
+		assertThat(client.mUrls.get(1), is(equalTo("http://server/sites/test/next1")));
+	}
+
+	@Test
+	public void testPrefetchIsBounded() {
+		PendingListClient client = new PendingListClient();
+		PagedEntityIterator<SPListItem> iterator = client.iterateListItems("Tasks", null, 1);
+		assertThat(client.getRequestCount(), is(1));
+
+		// the buffer is full until the reader takes the first page
+		client.complete(0, "next1", 1);
+		assertThat(client.getRequestCount(), is(1));
+
+		assertThat(iterator.next().getId(), is(1));
+		assertThat(client.getRequestCount(), is(2));
+
+		client.complete(1, "next2", 2);
+		assertThat(client.getRequestCount(), is(2));
+
+		PendingListClient wider = new PendingListClient();
+		wider.iterateListItems("Tasks", null, 2);
+		wider.complete(0, "next1", 1);
+		assertThat(wider.getRequestCount(), is(2));
+		wider.complete(1, "next2", 2);
+		assertThat(wider.getRequestCount(), is(2));
+	}
+
+	@Test
+	public void testHasNextBlocksUntilThePageLoads() throws InterruptedException {
+		final PendingListClient client = new PendingListClient();
+		PagedEntityIterator<SPListItem> iterator = client.iterateListItems("Tasks", null);
+
+		Thread loader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					return;
+				}
+				client.complete(0, null, 7);
+			}
+		};
+		loader.start();
+
+		assertThat(iterator.hasNext(), is(true));
+		assertThat(iterator.next().getId(), is(7));
+		assertThat(iterator.hasNext(), is(false));
+		loader.join();
+	}
+
+	@Test
+	public void testCancelStopsTheIteration() throws InterruptedException {
+		final PendingListClient client = new PendingListClient();
+		final PagedEntityIterator<SPListItem> iterator = client.iterateListItems("Tasks", null);
+		client.complete(0, "next1", 1);
+		iterator.next();
+
+		// a reader blocked on the second page is released by the cancel
+		final boolean[] hasNext = { true };
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				hasNext[0] = iterator.hasNext();
+			}
+		};
+		reader.start();
+		Thread.sleep(50);
+		iterator.cancel();
+		reader.join(5000);
+
+		assertThat(reader.isAlive(), is(false));
+		assertThat(hasNext[0], is(false));
+		assertThat(client.request(1).isCancelled(), is(true));
+		assertThat(iterator.isCancelled(), is(true));
+		assertThat(client.getRequestCount(), is(2));
+	}
+
+	@Test
+	public void testFailedPageIsReported() {
+		PendingListClient client = new PendingListClient();
+		PagedEntityIterator<SPListItem> iterator = client.iterateListItems("Tasks", null);
+		client.complete(0, "next1", 1);
+		assertThat(iterator.next().getId(), is(1));
+
+		client.request(1).setException(new IllegalArgumentException("boom"));
+		try {
+			iterator.hasNext();
+			fail("The failed page should have been reported");
+		} catch (IllegalStateException e) {
+			assertThat(e.getCause().getMessage(), is(equalTo("boom")));
+		}
+	}
+
+	private static OfficeEntityPage<SPListItem> page(String nextLink, int... ids) {
+		List<SPListItem> items = new ArrayList<SPListItem>();
+		for (int id : ids) {
+			SPListItem item = new SPListItem();
+			try {
+				item.loadFromJson(new JSONObject().put("Id", id));
+			} catch (JSONException e) {
+				throw new IllegalStateException(e);
+			}
+			items.add(item);
+		}
+		return new OfficeEntityPage<SPListItem>(items, nextLink);
+	}
+
+	private static List<Integer> ids(PagedEntityIterator<SPListItem> iterator, int count) {
+		List<Integer> ids = new ArrayList<Integer>();
+		for (int i = 0; i < count; i++) {
+			ids.add(iterator.next().getId());
+		}
+		return ids;
+	}
+
+	private static List<Integer> list(Integer... values) {
+		List<Integer> list = new ArrayList<Integer>();
+		Collections.addAll(list, values);
+		return list;
+	}
+}
@@ -0,0 +1,163 @@
+package com.microsoft.sharepointservices;
+
+import org.junit.Test;
+
+import static com.microsoft.sharepointservices.QueryOperations.concat;
+import static com.microsoft.sharepointservices.QueryOperations.endsWith;
+import static com.microsoft.sharepointservices.QueryOperations.field;
+import static com.microsoft.sharepointservices.QueryOperations.indexOf;
+import static com.microsoft.sharepointservices.QueryOperations.length;
+import static com.microsoft.sharepointservices.QueryOperations.month;
+import static com.microsoft.sharepointservices.QueryOperations.not;
+import static com.microsoft.sharepointservices.QueryOperations.param;
+import static com.microsoft.sharepointservices.QueryOperations.query;
+import static com.microsoft.sharepointservices.QueryOperations.replace;
+import static com.microsoft.sharepointservices.QueryOperations.round;
+import static com.microsoft.sharepointservices.QueryOperations.startsWith;
+import static com.microsoft.sharepointservices.QueryOperations.subString;
+import static com.microsoft.sharepointservices.QueryOperations.subStringOf;
+import static com.microsoft.sharepointservices.QueryOperations.toLower;
+import static com.microsoft.sharepointservices.QueryOperations.toUpper;
+import static com.microsoft.sharepointservices.QueryOperations.trim;
+import static com.microsoft.sharepointservices.QueryOperations.val;
+import static com.microsoft.sharepointservices.QueryOperations.year;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * The expected strings are the output of the recursive toString() that
+ * Query had before it rendered through a single Writer.
+ */
+public class QueryTests {
+
+	@Test
+	public void testValues() {
+		assertThat(field("Title").eq().val("O'Brien").toString(), is(equalTo("Title eq 'O''Brien'")));
+		assertThat(field("Title").eq("O'Brien").toString(), is(equalTo("Title eq ('O''Brien')")));
+		assertThat(field("Done").not(true).toString(), is(equalTo("Done not (true)")));
+	}
+
+	@Test
+	public void testNestedQueries() {
+		assertThat(query(field("A").eq(1).or(field("B").eq(2))).and(query(field("C").gt(3))).toString(),
+				is(equalTo("(A eq (1) or (B eq (2))) and ((C gt (3)))")));
+		assertThat(query(query(field("A").eq(1)).or().field("B").ne(2)).toString(),
+				is(equalTo("((A eq (1)) or B ne (2))")));
+		assertThat(not(query(field("A").eq(1))).toString(), is(equalTo("not ((A eq (1)))")));
+	}
+
+	@Test
+	public void testChainedOperators() {
+		assertThat(field("A").eq(1).or().field("B").eq(2).and().field("C").le(3.5).toString(),
+				is(equalTo("A eq (1) or B eq (2) and C le (3.5)")));
+		assertThat(field("A").eq(true).and(field("B").ne(false)).or(field("C").lt(0)).toString(),
+				is(equalTo("A eq (true) and (B ne (false)) or (C lt (0))")));
+		assertThat(field("N").add(1).mul().val(2).div(3).mod(4).sub(5).toString(),
+				is(equalTo("N add (1) mul 2 div (3) mod (4) sub (5)")));
+	}
+
+	@Test
+	public void testFunctionCalls() {
+		assertThat(startsWith("Title", "Re").toString(), is(equalTo("startswith(Title,'Re')")));
+		assertThat(subStringOf("x", "Title").eq(true).toString(), is(equalTo("substringof('x',Title) eq (true)")));
+		assertThat(toLower("Title").eq("abc").and(length("Title").gt(3)).toString(),
+				is(equalTo("tolower(Title) eq ('abc') and (length(Title) gt (3))")));
+		assertThat(year("Created").ge(2015).and(month(field("Created")).eq(1)).toString(),
+				is(equalTo("year(Created) ge (2015) and (month(Created) eq (1))")));
+		assertThat(concat(field("A"), val("b")).eq("ab").toString(), is(equalTo("concat(A,'b') eq ('ab')")));
+		assertThat(subString("Title", 1, 2).eq("it").toString(), is(equalTo("substring(Title,1,2) eq ('it')")));
+		assertThat(replace("Title", "a", "b").eq("bbc").toString(), is(equalTo("replace(Title,'a','b') eq ('bbc')")));
+		assertThat(round(field("N").add(0.5)).lt(10).toString(), is(equalTo("round(N add (0.5)) lt (10)")));
+		assertThat(indexOf("Title", "x").eq(-1).or(endsWith("Title", "z")).toString(),
+				is(equalTo("indexof(Title,'x') eq (-1) or (endsWith(Title,'z'))")));
+		assertThat(trim(toUpper(field("Title"))).eq("A").toString(), is(equalTo("trim(toupper(Title)) eq ('A')")));
+	}
+
+	@Test
+	public void testParametersRenderAsAliases() {
+		Query query = field("A").eq(param("a")).and().field("B").eq().param("b");
+
+		assertThat(query.toString(), is(equalTo("A eq (@a) and B eq @b")));
+		assertThat(query.compile().toString(), is(equalTo("A eq (@a) and B eq @b")));
+	}
+
+	@Test
+	public void testBoundParametersRenderLikeValues() {
+		CompiledQuery compiled = query(field("A").eq(param("a")).or(field("B").eq(param("b"))))
+				.and(startsWith(field("Title"), param("prefix")))
+				.compile();
+
+		assertThat(compiled.getParameterNames(), contains("a", "b", "prefix"));
+		assertThat(compiled.isBound(), is(false));
+
+		CompiledQuery bound = compiled.bind("a", 1).bind("b", true).bind("prefix", "O'B");
+
+		assertThat(bound.isBound(), is(true));
+		assertThat(bound.getFilter(), is(equalTo(query(field("A").eq(val(1)).or(field("B").eq(val(true))))
+				.and(startsWith(field("Title"), val("O'B"))).toString())));
+		assertThat(bound.getFilter(), is(equalTo("(A eq (1) or (B eq (true))) and (startswith(Title,'O''B'))")));
+	}
+
+	@Test
+	public void testBindReplacesEveryUseOfTheParameter() {
+		CompiledQuery compiled = field("A").ge(param("v")).and(field("B").le(param("v"))).compile();
+
+		assertThat(compiled.getParameterNames(), contains("v"));
+		assertThat(compiled.bind("v", 2).getFilter(), is(equalTo("A ge (2) and (B le (2))")));
+		assertThat(compiled.bind("v", null).getFilter(), is(equalTo("A ge (null) and (B le (null))")));
+		assertThat(compiled.bind("v", field("C")).getFilter(), is(equalTo("A ge (C) and (B le (C))")));
+	}
+
+	@Test
+	public void testBindDoesNotChangeTheCompiledQuery() {
+		CompiledQuery compiled = field("A").eq(param("v")).compile();
+
+		assertThat(compiled.bind("v", "x").getFilter(), is(equalTo("A eq ('x')")));
+		assertThat(compiled.bind("v", "y").getFilter(), is(equalTo("A eq ('y')")));
+		assertThat(compiled.isBound(), is(false));
+	}
+
+	@Test
+	public void testCompiledQueryIgnoresLaterChanges() {
+		Query query = field("A").eq(1);
+		CompiledQuery compiled = query.compile();
+		query.and(field("B").eq(2));
+
+		assertThat(compiled.getFilter(), is(equalTo("A eq (1)")));
+	}
+
+	@Test
+	public void testCompileCapturesRowSetModifiers() {
+		Query query = field("A").eq(1).top(5).skip(10).select("Title");
+		CompiledQuery compiled = query.compile();
+
+		assertThat(compiled.getRowSetModifiers(), is(equalTo("&$top=5&$skip=10&$select=Title%2Cid")));
+		assertThat(compiled.getRowSetModifiers(), is(equalTo(query.getRowSetModifiers())));
+	}
+
+	@Test
+	public void testUnboundParameterFails() {
+		CompiledQuery compiled = field("A").eq(param("a")).and(field("B").eq(param("b"))).compile().bind("a", 1);
+
+		try {
+			compiled.getFilter();
+			fail("The filter should not render");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is(equalTo("Parameter b is not bound")));
+		}
+		assertThat(compiled.toString(), is(equalTo("A eq (1) and (B eq (@b))")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBindFailsWithUnknownParameter() {
+		field("A").eq(param("a")).compile().bind("b", 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBindFailsWithUnsupportedValue() {
+		field("A").eq(param("a")).compile().bind("a", new Object());
+	}
+}